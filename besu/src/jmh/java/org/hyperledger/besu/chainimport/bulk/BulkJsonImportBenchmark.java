@@ -16,6 +16,10 @@
 package org.hyperledger.besu.chainimport.bulk;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
 
 import org.hyperledger.besu.chainimport.JsonBlockImporter;
 import org.hyperledger.besu.config.GenesisConfigFile;
@@ -33,13 +37,21 @@ import org.hyperledger.besu.ethereum.merkleutils.ClassicMerkleAwareProvider;
 import org.hyperledger.besu.ethereum.merkleutils.MerkleAwareProvider;
 import org.hyperledger.besu.ethereum.merkleutils.MerkleStorageMode;
 import org.hyperledger.besu.ethereum.merkleutils.UniTrieMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStorageProviderBuilder;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBKeyValueStorageFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.services.BesuConfigurationImpl;
 import org.hyperledger.besu.testutil.TestClock;
 
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.io.Files;
@@ -76,6 +88,15 @@ public class BulkJsonImportBenchmark {
   @Param({"CLASSIC", "UNITRIE"})
   MerkleStorageMode merkleStorageMode;
 
+  @Param({"IN_MEMORY", "ROCKSDB_TRANSACTION_DB", "ROCKSDB_WRITE_BATCH"})
+  StorageMode storageMode;
+
+  public enum StorageMode {
+    IN_MEMORY,
+    ROCKSDB_TRANSACTION_DB,
+    ROCKSDB_WRITE_BATCH
+  }
+
   @Setup(Level.Invocation)
   public void setUp() throws IOException {
     temporaryFolder = Files.createTempDir().toPath();
@@ -88,6 +109,7 @@ public class BulkJsonImportBenchmark {
 
   @TearDown(Level.Invocation)
   public void tearDown() throws IOException {
+    controller.close();
     MoreFiles.deleteRecursively(temporaryFolder, RecursiveDeleteOption.ALLOW_INSECURE);
   }
 
@@ -115,7 +137,7 @@ public class BulkJsonImportBenchmark {
         .merkleAwareProvider(merkleAwareProvider)
         .synchronizerConfiguration(SynchronizerConfiguration.builder().build())
         .ethProtocolConfiguration(EthProtocolConfiguration.defaultConfig())
-        .storageProvider(new InMemoryStorageProvider())
+        .storageProvider(storageProvider(dataDir))
         .networkId(BigInteger.valueOf(10))
         .miningParameters(
             new MiningParametersTestBuilder()
@@ -132,6 +154,28 @@ public class BulkJsonImportBenchmark {
         .build();
   }
 
+  private StorageProvider storageProvider(final Path dataDir) {
+    if (storageMode == StorageMode.IN_MEMORY) {
+      return new InMemoryStorageProvider();
+    }
+    return new KeyValueStorageProviderBuilder()
+        .withStorageFactory(
+            new RocksDBKeyValueStorageFactory(
+                () ->
+                    new RocksDBFactoryConfiguration(
+                        DEFAULT_MAX_OPEN_FILES,
+                        DEFAULT_MAX_BACKGROUND_COMPACTIONS,
+                        DEFAULT_BACKGROUND_THREAD_COUNT,
+                        DEFAULT_CACHE_CAPACITY,
+                        storageMode == StorageMode.ROCKSDB_WRITE_BATCH),
+                Arrays.asList(KeyValueSegmentIdentifier.values()),
+                RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS))
+        .withCommonConfiguration(
+            new BesuConfigurationImpl(dataDir, dataDir.resolve("database")))
+        .withMetricsSystem(new NoOpMetricsSystem())
+        .build();
+  }
+
   private MerkleAwareProvider merkleAwareProvider(final MerkleStorageMode merkleStorageMode) {
     switch (merkleStorageMode) {
       case UNITRIE:
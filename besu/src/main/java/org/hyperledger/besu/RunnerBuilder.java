@@ -632,7 +632,11 @@ public class RunnerBuilder {
       final TransactionPool transactionPool) {
     final FilterManager filterManager =
         new FilterManager(
-            blockchainQueries, transactionPool, new FilterIdGenerator(), new FilterRepository());
+            blockchainQueries,
+            transactionPool,
+            new FilterIdGenerator(),
+            new FilterRepository(),
+            metricsSystem);
     vertx.deployVerticle(filterManager);
     return filterManager;
   }
@@ -702,9 +706,9 @@ public class RunnerBuilder {
   private void createLogsSubscriptionService(
       final Blockchain blockchain, final SubscriptionManager subscriptionManager) {
     final LogsSubscriptionService logsSubscriptionService =
-        new LogsSubscriptionService(subscriptionManager);
+        new LogsSubscriptionService(subscriptionManager, metricsSystem);
 
-    blockchain.observeLogs(logsSubscriptionService);
+    blockchain.observeBlockAdded(logsSubscriptionService);
   }
 
   private void createSyncingSubscriptionService(
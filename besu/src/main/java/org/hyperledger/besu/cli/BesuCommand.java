@@ -830,6 +830,31 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
               + "(default: ${DEFAULT-VALUE})")
   private final MerkleStorageMode merkleStorageMode = DEFAULT_MERKLE_STORAGE_MODE;
 
+  @Option(
+      names = {"--unitrie-node-cache-size"},
+      paramLabel = MANDATORY_LONG_FORMAT_HELP,
+      description =
+          "Maximum size in bytes of decoded world state nodes cached when using the unitrie "
+              + "Merkle storage mode, 0 to disable caching (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Long unitrieNodeCacheSize = UniTrieMerkleAwareProvider.DEFAULT_NODE_CACHE_SIZE;
+
+  @Option(
+      names = {"--unitrie-parallel-commit-enabled"},
+      description =
+          "Hash and encode independent world state subtrees in parallel when persisting state in "
+              + "the unitrie Merkle storage mode (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean unitrieParallelCommitEnabled = false;
+
+  @Option(
+      names = {"--unitrie-incremental-pruning-enabled"},
+      description =
+          "Prune the unitrie Merkle storage by counting node references, removing nodes as old "
+              + "states are released instead of marking whole states (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Boolean unitrieIncrementalPruningEnabled = false;
+
   @Option(
       names = {"--override-genesis-config"},
       paramLabel = "NAME=VALUE",
@@ -2087,7 +2112,11 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
   private MerkleAwareProvider createMerkleAwareProvider() {
     switch (merkleStorageMode) {
       case UNITRIE:
-        return new UniTrieMerkleAwareProvider();
+        return new UniTrieMerkleAwareProvider(
+            unitrieNodeCacheSize,
+            unitrieParallelCommitEnabled,
+            unitrieIncrementalPruningEnabled,
+            metricsSystem.get());
       case CLASSIC:
       default:
         return new ClassicMerkleAwareProvider();
@@ -30,7 +30,11 @@ import picocli.CommandLine.Spec;
     name = COMMAND_NAME,
     description = "Operator related actions such as generating configuration and caches.",
     mixinStandardHelpOptions = true,
-    subcommands = {GenerateBlockchainConfig.class, GenerateLogBloomCache.class})
+    subcommands = {
+      GenerateBlockchainConfig.class,
+      GenerateLogBloomCache.class,
+      MigrateLogBloomCache.class
+    })
 public class OperatorSubCommand implements Runnable {
 
   public static final String COMMAND_NAME = "operator";
@@ -238,6 +238,7 @@ public abstract class BesuControllerBuilder<C> {
 
     protocolSchedule.setPublicWorldStateArchiveForPrivacyBlockProcessor(
         protocolContext.getWorldStateArchive());
+    protocolSchedule.setMetricsSystem(metricsSystem);
 
     final MutableBlockchain blockchain = protocolContext.getBlockchain();
 
@@ -3576,4 +3576,31 @@ public class BesuCommandTest extends CommandTestAbstract {
     parseCommand("--merkle-storage-mode=unitrie");
     verify(mockControllerBuilder).merkleAwareProvider(isA(UniTrieMerkleAwareProvider.class));
   }
+
+  @Test
+  public void unitrieNodeCacheSizeCanBeSet() {
+    parseCommand("--merkle-storage-mode=unitrie", "--unitrie-node-cache-size=0");
+    verify(mockControllerBuilder).merkleAwareProvider(isA(UniTrieMerkleAwareProvider.class));
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void unitrieParallelCommitCanBeEnabled() {
+    parseCommand("--merkle-storage-mode=unitrie", "--unitrie-parallel-commit-enabled=true");
+    verify(mockControllerBuilder).merkleAwareProvider(isA(UniTrieMerkleAwareProvider.class));
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void unitrieIncrementalPruningCanBeEnabled() {
+    parseCommand("--merkle-storage-mode=unitrie", "--unitrie-incremental-pruning-enabled=true");
+    verify(mockControllerBuilder).merkleAwareProvider(isA(UniTrieMerkleAwareProvider.class));
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
 }
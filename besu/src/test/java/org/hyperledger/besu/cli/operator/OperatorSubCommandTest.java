@@ -66,7 +66,9 @@ public class OperatorSubCommandTest extends CommandTestAbstract {
           + System.lineSeparator()
           + "                                encoded IBFT 2.0 extra data."
           + System.lineSeparator()
-          + "  generate-log-bloom-cache    Generate cached values of block log bloom filters.";
+          + "  generate-log-bloom-cache    Generate cached values of block log bloom filters."
+          + System.lineSeparator()
+          + "  migrate-log-bloom-cache     Convert log bloom caches to the current format.";
 
   private Path tmpOutputDirectoryPath;
 
@@ -34,6 +34,7 @@ public class IbftConfigOptions {
   private static final int DEFAULT_DUPLICATE_MESSAGE_LIMIT = 100;
   private static final int DEFAULT_FUTURE_MESSAGES_LIMIT = 1000;
   private static final int DEFAULT_FUTURE_MESSAGES_MAX_DISTANCE = 10;
+  private static final boolean DEFAULT_PARALLEL_TRANSACTION_EXECUTION = false;
 
   private final ObjectNode ibftConfigRoot;
 
@@ -75,6 +76,11 @@ public class IbftConfigOptions {
         ibftConfigRoot, "futuremessagesmaxdistance", DEFAULT_FUTURE_MESSAGES_MAX_DISTANCE);
   }
 
+  public boolean isParallelTransactionExecution() {
+    return JsonUtil.getBoolean(
+        ibftConfigRoot, "paralleltransactionexecution", DEFAULT_PARALLEL_TRANSACTION_EXECUTION);
+  }
+
   Map<String, Object> asMap() {
     final ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
     if (ibftConfigRoot.has("epochlength")) {
@@ -101,6 +107,9 @@ public class IbftConfigOptions {
     if (ibftConfigRoot.has("futuremessagesmaxdistance")) {
       builder.put("futureMessagesMaxDistance", getFutureMessagesMaxDistance());
     }
+    if (ibftConfigRoot.has("paralleltransactionexecution")) {
+      builder.put("parallelTransactionExecution", isParallelTransactionExecution());
+    }
     return builder.build();
   }
 }
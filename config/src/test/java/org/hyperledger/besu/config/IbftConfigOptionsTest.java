@@ -180,6 +180,19 @@ public class IbftConfigOptionsTest {
         .isEqualTo(EXPECTED_DEFAULT_FUTURE_MESSAGES_MAX_DISTANCE);
   }
 
+  @Test
+  public void shouldGetParallelTransactionExecutionFromConfig() {
+    final IbftConfigOptions config =
+        fromConfigOptions(singletonMap("ParallelTransactionExecution", true));
+    assertThat(config.isParallelTransactionExecution()).isTrue();
+  }
+
+  @Test
+  public void shouldFallbackToSequentialTransactionExecution() {
+    final IbftConfigOptions config = fromConfigOptions(emptyMap());
+    assertThat(config.isParallelTransactionExecution()).isFalse();
+  }
+
   private IbftConfigOptions fromConfigOptions(final Map<String, Object> ibftConfigOptions) {
     final ObjectNode rootNode = JsonUtil.createEmptyObjectNode();
     final ObjectNode configNode = JsonUtil.createEmptyObjectNode();
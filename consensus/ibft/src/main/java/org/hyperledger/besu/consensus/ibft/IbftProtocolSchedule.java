@@ -40,11 +40,13 @@ public class IbftProtocolSchedule {
       final boolean isRevertReasonEnabled) {
     final IbftConfigOptions ibftConfig = config.getIbftLegacyConfigOptions();
     final long blockPeriod = ibftConfig.getBlockPeriodSeconds();
+    final boolean parallelTransactionExecution =
+        config.getIbft2ConfigOptions().isParallelTransactionExecution();
 
     return new ProtocolScheduleBuilder<>(
             config,
             DEFAULT_CHAIN_ID,
-            builder -> applyIbftChanges(blockPeriod, builder),
+            builder -> applyIbftChanges(blockPeriod, parallelTransactionExecution, builder),
             privacyParameters,
             isRevertReasonEnabled)
         .createProtocolSchedule();
@@ -60,7 +62,9 @@ public class IbftProtocolSchedule {
   }
 
   private static ProtocolSpecBuilder<IbftContext> applyIbftChanges(
-      final long secondsBetweenBlocks, final ProtocolSpecBuilder<Void> builder) {
+      final long secondsBetweenBlocks,
+      final boolean parallelTransactionExecution,
+      final ProtocolSpecBuilder<Void> builder) {
     return builder
         .<IbftContext>changeConsensusContextType(
             difficultyCalculator -> ibftBlockHeaderValidator(secondsBetweenBlocks),
@@ -71,6 +75,7 @@ public class IbftProtocolSchedule {
             (time, parent, protocolContext) -> BigInteger.ONE)
         .blockReward(Wei.ZERO)
         .skipZeroBlockRewards(true)
+        .parallelTransactionExecution(parallelTransactionExecution)
         .blockHeaderFunctions(IbftBlockHeaderFunctions.forOnChainBlock());
   }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.StructLog;
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.vm.ExceptionalHaltReason;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import io.vertx.core.json.Json;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serializes a large debug trace response, either pretty printed into a string encoded afterwards
+ * as previously done, or streamed as compact JSON.
+ */
+@State(Scope.Benchmark)
+public class JsonResponseSerializationBenchmark {
+
+  @Param({"10000", "100000"})
+  public int structLogCount;
+
+  private JsonRpcSuccessResponse response;
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(1);
+    final List<StructLog> structLogs = new ArrayList<>(structLogCount);
+    for (int i = 0; i < structLogCount; i++) {
+      final Bytes32[] stack = new Bytes32[8];
+      for (int j = 0; j < stack.length; j++) {
+        stack[j] = Bytes32.random(random);
+      }
+      final Bytes[] memory = {Bytes32.random(random), Bytes32.random(random)};
+      structLogs.add(
+          new StructLog(
+              new TraceFrame(
+                  i,
+                  "SLOAD",
+                  Gas.of(1_000_000 - i),
+                  Optional.of(Gas.of(800)),
+                  Gas.ZERO,
+                  1,
+                  EnumSet.noneOf(ExceptionalHaltReason.class),
+                  null,
+                  Wei.ZERO,
+                  Bytes.EMPTY,
+                  Bytes.EMPTY,
+                  Optional.of(stack),
+                  Optional.of(memory),
+                  Optional.empty(),
+                  null,
+                  Optional.empty(),
+                  Optional.empty(),
+                  Optional.empty(),
+                  0,
+                  Optional.empty(),
+                  false,
+                  Optional.empty(),
+                  Optional.empty())));
+    }
+    response = new JsonRpcSuccessResponse(1, structLogs);
+  }
+
+  @Benchmark
+  public long encodePrettily() {
+    return Json.encodePrettily(response).getBytes(StandardCharsets.UTF_8).length;
+  }
+
+  @Benchmark
+  public long streamCompact() throws IOException {
+    final CountingOutputStream out = new CountingOutputStream();
+    JsonResponseStreamer.writeJson(out, response);
+    return out.count;
+  }
+
+  private static class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(final int b) {
+      count++;
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) {
+      count += length;
+    }
+  }
+}
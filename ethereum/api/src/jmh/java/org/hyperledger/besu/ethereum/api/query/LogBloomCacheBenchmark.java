@@ -0,0 +1,116 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.hyperledger.besu.ethereum.api.query.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Finds the candidate blocks of a whole segment, either from a bit-sliced segment or by scanning
+ * the row-wise cache file of previous versions.
+ */
+@State(Scope.Benchmark)
+public class LogBloomCacheBenchmark {
+
+  @Param({"1", "20"})
+  public int logsPerBlock;
+
+  private Path tempDir;
+  private Path rowFile;
+  private BitSlicedLogBloomSegment segment;
+  private LogsQuery query;
+
+  @Setup(Level.Trial)
+  public void prepare() throws IOException {
+    final Random random = new Random(1);
+    final Address address = Address.wrap(Bytes.random(Address.SIZE, random));
+    final LogTopic topic = LogTopic.wrap(Bytes32.random(random));
+    query = new LogsQuery(List.of(address), List.of(List.of(topic)));
+
+    tempDir = Files.createTempDirectory("logBloomCacheBenchmark");
+    rowFile = tempDir.resolve("logBloom-0.cache");
+    segment = BitSlicedLogBloomSegment.open(BitSlicedLogBloomSegment.segmentFile(tempDir, 0));
+    try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(rowFile))) {
+      for (int i = 0; i < BLOCKS_PER_BLOOM_CACHE; i++) {
+        final LogsBloomFilter.Builder builder = LogsBloomFilter.builder();
+        for (int j = 0; j < logsPerBlock; j++) {
+          // One block in a thousand holds the queried log
+          final boolean matching = j == 0 && i % 1000 == 0;
+          builder.insertLog(
+              new Log(
+                  matching ? address : Address.wrap(Bytes.random(Address.SIZE, random)),
+                  Bytes.EMPTY,
+                  List.of(matching ? topic : LogTopic.wrap(Bytes32.random(random)))));
+        }
+        final LogsBloomFilter bloom = builder.build();
+        segment.put(i, bloom);
+        out.write(bloom.toArrayUnsafe());
+      }
+    }
+    segment.force();
+  }
+
+  @TearDown(Level.Trial)
+  public void cleanup() throws IOException {
+    Files.delete(rowFile);
+    Files.delete(BitSlicedLogBloomSegment.segmentFile(tempDir, 0));
+    Files.delete(tempDir);
+  }
+
+  @Benchmark
+  public BitSet bitSliced() {
+    return segment.candidates(query, 0, BLOCKS_PER_BLOOM_CACHE - 1);
+  }
+
+  @Benchmark
+  public BitSet rowWise() throws IOException {
+    final BitSet candidates = new BitSet();
+    try (final RandomAccessFile raf = new RandomAccessFile(rowFile.toFile(), "r")) {
+      final byte[] bloomBuff = new byte[LogsBloomFilter.BYTE_SIZE];
+      final LogsBloomFilter bloom = new LogsBloomFilter(Bytes.wrap(bloomBuff));
+      for (int i = 0; i < BLOCKS_PER_BLOOM_CACHE; i++) {
+        raf.readFully(bloomBuff);
+        if (query.couldMatch(bloom)) {
+          candidates.set(i);
+        }
+      }
+    }
+    return candidates;
+  }
+}
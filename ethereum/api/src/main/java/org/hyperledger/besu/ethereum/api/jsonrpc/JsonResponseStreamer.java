@@ -0,0 +1,172 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+
+/**
+ * Writes the body of an {@link HttpServerResponse} in chunks as it is serialized, so that large
+ * responses are not held as a whole in memory once serialized: only the current chunk and the
+ * response's write queue are, as writing waits for that queue to drain whenever it is full. A
+ * response fitting in a single chunk is sent with its content length, larger ones are sent with
+ * chunked transfer encoding.
+ *
+ * <p>Waiting for the queue to drain blocks, so this must be used from a worker thread, never from
+ * the event loop the response drains on.
+ */
+class JsonResponseStreamer extends OutputStream {
+
+  static final int CHUNK_SIZE = 64 * 1024;
+
+  // How long to wait for a drain before checking again whether the response is still writable
+  private static final long DRAIN_CHECK_INTERVAL_MILLIS = 100;
+
+  private final HttpServerResponse response;
+  private Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+  private boolean closed;
+
+  JsonResponseStreamer(final HttpServerResponse response) {
+    this.response = response;
+  }
+
+  /**
+   * Serializes the given value as compact JSON into the response, then ends it. If the
+   * serialization fails, the response ends with an internal error if nothing was sent yet, or the
+   * connection is closed otherwise.
+   *
+   * @param response the response to write to
+   * @param value the value to serialize
+   * @throws IOException if the value can't be serialized or the response was closed
+   */
+  static void streamJson(final HttpServerResponse response, final Object value)
+      throws IOException {
+    final JsonResponseStreamer streamer = new JsonResponseStreamer(response);
+    try {
+      writeJson(streamer, value);
+    } catch (final IOException | RuntimeException e) {
+      streamer.abort();
+      throw e;
+    }
+  }
+
+  /**
+   * Serializes the given value as compact JSON into the given stream, then closes it.
+   *
+   * @param out the stream to write to
+   * @param value the value to serialize
+   * @throws IOException if the value can't be serialized or written
+   */
+  static void writeJson(final OutputStream out, final Object value) throws IOException {
+    // Jackson serializes through its own recycled buffers, handing them over as they fill up
+    final JsonGenerator generator = Json.mapper.getFactory().createGenerator(out);
+    Json.mapper
+        .writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .writeValue(generator, value);
+    generator.close();
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkOpen();
+    chunk.appendByte((byte) b);
+    if (chunk.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  @Override
+  public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+    checkOpen();
+    int written = 0;
+    while (written < length) {
+      final int chunkLength = Math.min(length - written, CHUNK_SIZE - chunk.length());
+      chunk.appendBytes(bytes, offset + written, chunkLength);
+      written += chunkLength;
+      if (chunk.length() >= CHUNK_SIZE) {
+        writeChunk();
+      }
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    if (!response.isChunked()) {
+      response.setChunked(true);
+    }
+    response.write(chunk);
+    chunk = Buffer.buffer(CHUNK_SIZE);
+    awaitDrain();
+  }
+
+  private void awaitDrain() throws IOException {
+    if (!response.writeQueueFull()) {
+      return;
+    }
+    try {
+      while (response.writeQueueFull() && !response.closed()) {
+        final CountDownLatch drained = new CountDownLatch(1);
+        response.drainHandler(ignored -> drained.countDown());
+        // The queue may have drained before the handler was set, and a closed one never drains
+        drained.await(DRAIN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the response to drain");
+    } finally {
+      response.drainHandler(null);
+    }
+    checkOpen();
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed || response.closed()) {
+      throw new IOException("Response closed before it was fully written");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    checkOpen();
+    closed = true;
+    response.end(chunk);
+  }
+
+  private void abort() {
+    if (closed || response.closed()) {
+      return;
+    }
+    closed = true;
+    if (response.headWritten()) {
+      // Part of the body was sent already, so there is no way left to report the error
+      response.close();
+    } else {
+      response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
+    }
+  }
+}
@@ -47,6 +47,7 @@ import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.util.ExceptionUtils;
 import org.hyperledger.besu.util.NetworkUtility;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.nio.file.Path;
@@ -461,21 +462,23 @@ public class JsonRpcHttpService {
     vertx.executeBlocking(
         future -> {
           final JsonRpcResponse jsonRpcResponse = process(request, user);
-          future.complete(jsonRpcResponse);
+          // Serialized on the worker too, as streaming blocks while the response drains
+          if (!response.closed()) {
+            response
+                .setStatusCode(status(jsonRpcResponse).code())
+                .putHeader("Content-Type", APPLICATION_JSON);
+            if (jsonRpcResponse.getType() == JsonRpcResponseType.NONE) {
+              response.end(EMPTY_RESPONSE);
+            } else {
+              streamResponse(response, jsonRpcResponse);
+            }
+          }
+          future.complete();
         },
         false,
         (res) -> {
-          if (res.failed()) {
+          if (res.failed() && !response.closed() && !response.headWritten()) {
             response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
-            return;
-          }
-
-          final JsonRpcResponse jsonRpcResponse = (JsonRpcResponse) res.result();
-          if (!response.closed()) {
-            response
-                .setStatusCode(status(jsonRpcResponse).code())
-                .putHeader("Content-Type", APPLICATION_JSON)
-                .end(serialize(jsonRpcResponse));
           }
         });
   }
@@ -494,13 +497,12 @@ public class JsonRpcHttpService {
     }
   }
 
-  private String serialize(final JsonRpcResponse response) {
-
-    if (response.getType() == JsonRpcResponseType.NONE) {
-      return EMPTY_RESPONSE;
+  private void streamResponse(final HttpServerResponse response, final Object value) {
+    try {
+      JsonResponseStreamer.streamJson(response, value);
+    } catch (final IOException | RuntimeException e) {
+      LOG.error("Error writing JSON-RPC response", e);
     }
-
-    return Json.encodePrettily(response);
   }
 
   @SuppressWarnings("rawtypes")
@@ -549,7 +551,18 @@ public class JsonRpcHttpService {
                       .filter(this::isNonEmptyResponses)
                       .toArray(JsonRpcResponse[]::new);
 
-              response.end(Json.encode(completed));
+              // Streaming blocks while the response drains, so it can't run on the event loop
+              vertx.executeBlocking(
+                  future -> {
+                    streamResponse(response, completed);
+                    future.complete();
+                  },
+                  false,
+                  ar -> {
+                    if (ar.failed()) {
+                      LOG.error("Error writing JSON-RPC response", ar.cause());
+                    }
+                  });
             });
   }
 
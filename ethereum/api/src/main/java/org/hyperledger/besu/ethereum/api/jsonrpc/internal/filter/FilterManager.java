@@ -19,16 +19,23 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.parameters.BlockParameter;
 import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.api.query.LogsQuery;
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
 import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.vertx.core.AbstractVerticle;
@@ -41,14 +48,34 @@ public class FilterManager extends AbstractVerticle {
   private final FilterIdGenerator filterIdGenerator;
   private final FilterRepository filterRepository;
   private final BlockchainQueries blockchainQueries;
+  private final OperationTimer logsDispatchTimer;
 
   public FilterManager(
       final BlockchainQueries blockchainQueries,
       final TransactionPool transactionPool,
       final FilterIdGenerator filterIdGenerator,
       final FilterRepository filterRepository) {
+    this(
+        blockchainQueries,
+        transactionPool,
+        filterIdGenerator,
+        filterRepository,
+        new NoOpMetricsSystem());
+  }
+
+  public FilterManager(
+      final BlockchainQueries blockchainQueries,
+      final TransactionPool transactionPool,
+      final FilterIdGenerator filterIdGenerator,
+      final FilterRepository filterRepository,
+      final MetricsSystem metricsSystem) {
     this.filterIdGenerator = filterIdGenerator;
     this.filterRepository = filterRepository;
+    this.logsDispatchTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.RPC,
+            "filter_logs_dispatch_seconds",
+            "Time taken to match the logs of an added block against the installed log filters");
     checkNotNull(blockchainQueries.getBlockchain());
     blockchainQueries.getBlockchain().observeBlockAdded(this::recordBlockEvent);
     transactionPool.subscribePendingTransactions(this::recordPendingTransactionEvent);
@@ -136,20 +163,35 @@ public class FilterManager extends AbstractVerticle {
           }
         });
 
-    checkBlockchainForMatchingLogsForFilters();
+    dispatchLogsToFilters(event.getLogsWithMetadata());
   }
 
-  private void checkBlockchainForMatchingLogsForFilters() {
+  private void dispatchLogsToFilters(final List<LogWithMetadata> logs) {
     final Collection<LogFilter> logFilters = filterRepository.getFiltersOfType(LogFilter.class);
-    logFilters.forEach(
-        (filter) -> {
-          final long headBlockNumber = blockchainQueries.headBlockNumber();
-          final long toBlockNumber =
-              filter.getToBlock().getNumber().orElse(blockchainQueries.headBlockNumber());
-          final List<LogWithMetadata> logs =
-              blockchainQueries.matchingLogs(headBlockNumber, toBlockNumber, filter.getLogsQuery());
-          filter.addLog(logs);
-        });
+    if (logs.isEmpty() || logFilters.isEmpty()) {
+      return;
+    }
+
+    try (final OperationTimer.TimingContext ignored = logsDispatchTimer.startTimer()) {
+      // The logs of the block are matched once against all the filters, then handed to each
+      // filter in a single batch
+      final LogsQueryIndex<LogFilter> index =
+          new LogsQueryIndex<>(logFilters, LogFilter::getLogsQuery);
+      final Map<LogFilter, List<LogWithMetadata>> logsByFilter = new LinkedHashMap<>();
+      for (final LogWithMetadata log : logs) {
+        for (final LogFilter filter : index.matching(log)) {
+          if (filter.getToBlock().getNumber().orElse(Long.MAX_VALUE) >= log.getBlockNumber()) {
+            logsByFilter.computeIfAbsent(filter, f -> new ArrayList<>()).add(log);
+          }
+        }
+      }
+      logsByFilter.forEach(
+          (filter, filterLogs) -> {
+            synchronized (filter) {
+              filter.addLog(filterLogs);
+            }
+          });
+    }
   }
 
   @VisibleForTesting
@@ -14,13 +14,22 @@
  */
 package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
 
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
 import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater.StackedUpdater;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Address;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.DefaultEvmAccount;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
@@ -28,23 +37,75 @@ import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
 import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.units.bigints.UInt256;
+
 public class BlockReplay {
 
+  public static final int DEFAULT_CHECKPOINT_BLOCKS = 8;
+
   private final ProtocolSchedule<?> protocolSchedule;
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
+  // The world state after each transaction replayed so far in the most recently replayed blocks
+  private final Cache<Hash, BlockCheckpoints> checkpoints;
+  private final ForkJoinPool tracingPool;
 
   public BlockReplay(
       final ProtocolSchedule<?> protocolSchedule,
       final Blockchain blockchain,
       final WorldStateArchive worldStateArchive) {
+    this(
+        protocolSchedule,
+        blockchain,
+        worldStateArchive,
+        DEFAULT_CHECKPOINT_BLOCKS,
+        createTracingPool());
+  }
+
+  public BlockReplay(
+      final ProtocolSchedule<?> protocolSchedule,
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final int checkpointBlocks,
+      final ForkJoinPool tracingPool) {
     this.protocolSchedule = protocolSchedule;
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
+    this.checkpoints = CacheBuilder.newBuilder().maximumSize(checkpointBlocks).build();
+    this.tracingPool = tracingPool;
+    blockchain.observeBlockAdded(this::onBlockAdded);
+  }
+
+  /**
+   * Creates a pool to trace blocks in parallel. It's kept apart from the common pool, which block
+   * import uses, and only takes half of the cores so that tracing load leaves room for it.
+   *
+   * @return the tracing pool
+   */
+  public static ForkJoinPool createTracingPool() {
+    return new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+  }
+
+  private void onBlockAdded(final BlockAddedEvent event, final Blockchain blockchain) {
+    // The replaced blocks may no longer be replayed, and their state may end up pruned
+    if (event.getEventType() == BlockAddedEvent.EventType.CHAIN_REORG) {
+      checkpoints.invalidateAll();
+    }
   }
 
   public Optional<BlockTrace> block(
@@ -53,16 +114,13 @@ public class BlockReplay {
         block.getHeader(),
         block.getBody(),
         (body, header, blockchain, mutableWorldState, transactionProcessor) -> {
+          final WorldUpdater worldUpdater = mutableWorldState.updater();
           List<TransactionTrace> transactionTraces =
               body.getTransactions().stream()
                   .map(
                       transaction ->
                           action.performAction(
-                              transaction,
-                              header,
-                              blockchain,
-                              mutableWorldState,
-                              transactionProcessor))
+                              transaction, header, blockchain, worldUpdater, transactionProcessor))
                   .collect(Collectors.toList());
           return Optional.of(new BlockTrace(transactionTraces));
         });
@@ -78,42 +136,141 @@ public class BlockReplay {
     return performActionWithBlock(
         blockHash,
         (body, header, blockchain, mutableWorldState, transactionProcessor) -> {
-          final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
-          for (final Transaction transaction : body.getTransactions()) {
-            if (transaction.getHash().equals(transactionHash)) {
+          final List<Transaction> transactions = body.getTransactions();
+          for (int index = 0; index < transactions.size(); index++) {
+            if (transactions.get(index).getHash().equals(transactionHash)) {
+              final WorldUpdater stateBefore =
+                  replayTransactionsBefore(
+                          index, header, transactions, mutableWorldState, transactionProcessor)
+                      .beforeTransaction(index);
+              // Stacked so that the action can't alter the checkpoint
               return Optional.of(
                   action.performAction(
-                      transaction, header, blockchain, mutableWorldState, transactionProcessor));
-            } else {
-              final ProtocolSpec<?> spec = protocolSchedule.getByBlockNumber(header.getNumber());
-              transactionProcessor.processTransaction(
-                  blockchain,
-                  mutableWorldState.updater(),
-                  header,
-                  transaction,
-                  spec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
-                  blockHashLookup,
-                  false,
-                  TransactionValidationParams.blockReplay());
+                      transactions.get(index),
+                      header,
+                      blockchain,
+                      stateBefore.updater(),
+                      transactionProcessor));
             }
           }
           return Optional.empty();
         });
   }
 
+  /**
+   * Performs an action on each transaction of a block, in parallel on the tracing pool.
+   *
+   * <p>The transactions are first replayed one after the other without the action, so that the
+   * world state before each of them is checkpointed. The action is then performed on all of them at
+   * once, each from its own checkpoint. As actions such as tracing aren't thread safe, a new one is
+   * created for each transaction. The traces are returned in block order.
+   */
+  public Optional<BlockTrace> blockInParallel(
+      final Block block, final Supplier<TransactionAction<TransactionTrace>> actionSupplier) {
+    return performActionWithBlock(
+        block.getHeader(),
+        block.getBody(),
+        (body, header, blockchain, mutableWorldState, transactionProcessor) -> {
+          final List<Transaction> transactions = body.getTransactions();
+          if (transactions.isEmpty()) {
+            return Optional.of(new BlockTrace(Collections.emptyList()));
+          }
+          final BlockCheckpoints blockCheckpoints =
+              replayTransactionsBefore(
+                  transactions.size() - 1,
+                  header,
+                  transactions,
+                  mutableWorldState,
+                  transactionProcessor);
+          final List<ForkJoinTask<TransactionTrace>> tasks = new ArrayList<>();
+          for (int index = 0; index < transactions.size(); index++) {
+            final Transaction transaction = transactions.get(index);
+            final WorldUpdater stateBefore = blockCheckpoints.beforeTransaction(index);
+            tasks.add(
+                tracingPool.submit(
+                    () ->
+                        actionSupplier
+                            .get()
+                            .performAction(
+                                transaction,
+                                header,
+                                blockchain,
+                                stateBefore.updater(),
+                                transactionProcessor)));
+          }
+          return Optional.of(
+              new BlockTrace(tasks.stream().map(ForkJoinTask::join).collect(Collectors.toList())));
+        });
+  }
+
+  public Optional<BlockTrace> blockInParallel(
+      final Hash blockHash, final Supplier<TransactionAction<TransactionTrace>> actionSupplier) {
+    return getBlock(blockHash).flatMap(block -> blockInParallel(block, actionSupplier));
+  }
+
+  /**
+   * Replays the transactions of a block preceding the given one, resuming from the latest
+   * checkpoint of the block if any.
+   *
+   * <p>The world state after each transaction is a world updater stacked on the world state after
+   * the previous one, which is never updated afterwards. So each of them serves as a checkpoint
+   * from which the following transactions can be replayed again, as long as the checkpoints of the
+   * block are cached.
+   */
+  private BlockCheckpoints replayTransactionsBefore(
+      final int transactionIndex,
+      final BlockHeader header,
+      final List<Transaction> transactions,
+      final MutableWorldState parentWorldState,
+      final TransactionProcessor transactionProcessor) {
+    final BlockCheckpoints blockCheckpoints =
+        checkpoints
+            .asMap()
+            .computeIfAbsent(header.getHash(), hash -> new BlockCheckpoints(parentWorldState));
+    final Map.Entry<Integer, WorldUpdater> checkpoint =
+        blockCheckpoints.afterTransaction.floorEntry(transactionIndex - 1);
+    WorldUpdater worldState =
+        checkpoint == null ? blockCheckpoints.initialState : checkpoint.getValue();
+    final int firstIndex = checkpoint == null ? 0 : checkpoint.getKey() + 1;
+    if (firstIndex >= transactionIndex) {
+      return blockCheckpoints;
+    }
+
+    final Address miningBeneficiary = miningBeneficiary(header);
+    final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
+    for (int index = firstIndex; index < transactionIndex; index++) {
+      final WorldUpdater afterTransaction = worldState.updater();
+      transactionProcessor.processTransaction(
+          blockchain,
+          afterTransaction,
+          header,
+          transactions.get(index),
+          miningBeneficiary,
+          blockHashLookup,
+          false,
+          TransactionValidationParams.blockReplay());
+      if (afterTransaction instanceof StackedUpdater) {
+        // Storage values before the next transaction are the ones left by this one
+        ((StackedUpdater<?, ?>) afterTransaction).markTransactionBoundary();
+      }
+      blockCheckpoints.afterTransaction.putIfAbsent(index, afterTransaction);
+      worldState = afterTransaction;
+    }
+    return blockCheckpoints;
+  }
+
   public <T> Optional<T> afterTransactionInBlock(
       final Hash blockHash, final Hash transactionHash, final TransactionAction<T> action) {
     return beforeTransactionInBlock(
         blockHash,
         transactionHash,
         (transaction, blockHeader, blockchain, worldState, transactionProcessor) -> {
-          final ProtocolSpec<?> spec = protocolSchedule.getByBlockNumber(blockHeader.getNumber());
           transactionProcessor.processTransaction(
               blockchain,
-              worldState.updater(),
+              worldState,
               blockHeader,
               transaction,
-              spec.getMiningBeneficiaryCalculator().calculateBeneficiary(blockHeader),
+              miningBeneficiary(blockHeader),
               new BlockHashLookup(blockHeader, blockchain),
               false,
               TransactionValidationParams.blockReplay());
@@ -122,6 +279,14 @@ public class BlockReplay {
         });
   }
 
+  /** The account the transaction fees of a block go to, which on some chains isn't its coinbase. */
+  Address miningBeneficiary(final BlockHeader header) {
+    return protocolSchedule
+        .getByBlockNumber(header.getNumber())
+        .getMiningBeneficiaryCalculator()
+        .calculateBeneficiary(header);
+  }
+
   private <T> Optional<T> performActionWithBlock(
       final Hash blockHash, final BlockAction<T> action) {
     return getBlock(blockHash)
@@ -177,7 +342,81 @@ public class BlockReplay {
         Transaction transaction,
         BlockHeader blockHeader,
         Blockchain blockchain,
-        MutableWorldState worldState,
+        WorldUpdater worldState,
         TransactionProcessor transactionProcessor);
   }
+
+  /**
+   * The checkpoints of a block, shared by every request replaying it. Checkpoints are never updated
+   * once cached, and the world state they start from is only read through {@link
+   * ReadOnlyWorldUpdater}, so any number of threads can replay from them at once.
+   */
+  private static class BlockCheckpoints {
+    private final WorldUpdater initialState;
+    private final NavigableMap<Integer, WorldUpdater> afterTransaction =
+        new ConcurrentSkipListMap<>();
+
+    private BlockCheckpoints(final MutableWorldState parentWorldState) {
+      this.initialState = new ReadOnlyWorldUpdater(parentWorldState);
+    }
+
+    private WorldUpdater beforeTransaction(final int transactionIndex) {
+      return transactionIndex == 0 ? initialState : afterTransaction.get(transactionIndex - 1);
+    }
+  }
+
+  /**
+   * An updater that only reads from the world state it wraps. Prefetching would write to the
+   * wrapped world state, so it isn't passed on.
+   */
+  private static class ReadOnlyWorldUpdater extends AbstractWorldUpdater<WorldView, Account> {
+
+    private ReadOnlyWorldUpdater(final WorldView world) {
+      super(world);
+    }
+
+    @Override
+    protected Account getForMutation(final Address address) {
+      return wrappedWorldView().get(address);
+    }
+
+    @Override
+    public void prefetch(
+        final Collection<Address> addresses,
+        final Map<Address, ? extends Collection<UInt256>> storageKeys) {}
+
+    @Override
+    public DefaultEvmAccount createAccount(
+        final Address address, final long nonce, final Wei balance) {
+      throw new UnsupportedOperationException("Checkpoints are only updated by stacked updaters");
+    }
+
+    @Override
+    public DefaultEvmAccount getAccount(final Address address) {
+      throw new UnsupportedOperationException("Checkpoints are only updated by stacked updaters");
+    }
+
+    @Override
+    public void deleteAccount(final Address address) {
+      throw new UnsupportedOperationException("Checkpoints are only updated by stacked updaters");
+    }
+
+    @Override
+    public Collection<UpdateTrackingAccount<? extends Account>> getTouchedAccounts() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<Address> getDeletedAccountAddresses() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void revert() {}
+
+    @Override
+    public void commit() {
+      throw new UnsupportedOperationException("Replayed blocks are never committed");
+    }
+  }
 }
@@ -21,6 +21,7 @@ import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
 import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
@@ -32,27 +33,42 @@ import java.util.Optional;
 public class BlockTracer {
 
   private final BlockReplay blockReplay;
+  // Traces the transactions in parallel, each with a tracer of the same options as the given one
+  private final boolean parallel;
   // Either the initial block state or the state of the prior TX, including miner rewards.
   private WorldUpdater chainedUpdater;
 
   public BlockTracer(final BlockReplay blockReplay) {
+    this(blockReplay, false);
+  }
+
+  public BlockTracer(final BlockReplay blockReplay, final boolean parallel) {
     this.blockReplay = blockReplay;
+    this.parallel = parallel;
   }
 
   public Optional<BlockTrace> trace(final Hash blockHash, final DebugOperationTracer tracer) {
+    if (parallel) {
+      return blockReplay.blockInParallel(
+          blockHash, () -> prepareParallelReplayAction(tracer.getOptions()));
+    }
     return blockReplay.block(blockHash, prepareReplayAction(tracer));
   }
 
   public Optional<BlockTrace> trace(final Block block, final DebugOperationTracer tracer) {
+    if (parallel) {
+      return blockReplay.blockInParallel(
+          block, () -> prepareParallelReplayAction(tracer.getOptions()));
+    }
     return blockReplay.block(block, prepareReplayAction(tracer));
   }
 
   private TransactionAction<TransactionTrace> prepareReplayAction(
       final DebugOperationTracer tracer) {
-    return (transaction, header, blockchain, mutableWorldState, transactionProcessor) -> {
+    return (transaction, header, blockchain, worldUpdater, transactionProcessor) -> {
       // if we have no prior updater, it must be the first TX, so use the block's initial state
       if (chainedUpdater == null) {
-        chainedUpdater = mutableWorldState.updater();
+        chainedUpdater = worldUpdater.updater();
       } else if (chainedUpdater instanceof AbstractWorldUpdater.StackedUpdater) {
         ((StackedUpdater) chainedUpdater).markTransactionBoundary();
       }
@@ -73,4 +89,24 @@ public class BlockTracer {
       return new TransactionTrace(transaction, result, traceFrames);
     };
   }
+
+  private TransactionAction<TransactionTrace> prepareParallelReplayAction(
+      final TraceOptions options) {
+    return (transaction, header, blockchain, worldUpdater, transactionProcessor) -> {
+      // the replay provides the state before this tx, so only a tracer of its own is needed
+      final DebugOperationTracer tracer = new DebugOperationTracer(options);
+      // fees go where the replay paid them for the previous txs
+      final TransactionProcessor.Result result =
+          transactionProcessor.processTransaction(
+              blockchain,
+              worldUpdater,
+              header,
+              transaction,
+              blockReplay.miningBeneficiary(header),
+              tracer,
+              new BlockHashLookup(header, blockchain),
+              false);
+      return new TransactionTrace(transaction, result, tracer.getTraceFrames());
+    };
+  }
 }
@@ -35,11 +35,11 @@ public class TransactionTracer {
     return blockReplay.beforeTransactionInBlock(
         blockHash,
         transactionHash,
-        (transaction, header, blockchain, mutableWorldState, transactionProcessor) -> {
+        (transaction, header, blockchain, worldUpdater, transactionProcessor) -> {
           final Result result =
               transactionProcessor.processTransaction(
                   blockchain,
-                  mutableWorldState.updater(),
+                  worldUpdater.updater(),
                   header,
                   transaction,
                   header.getCoinbase(),
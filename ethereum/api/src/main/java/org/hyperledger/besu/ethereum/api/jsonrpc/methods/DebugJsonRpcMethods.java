@@ -33,20 +33,24 @@ import org.hyperledger.besu.ethereum.mainnet.ScheduleBasedBlockHeaderFunctions;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 public class DebugJsonRpcMethods extends ApiGroupJsonRpcMethods {
 
   private final BlockchainQueries blockchainQueries;
   private final ProtocolSchedule<?> protocolSchedule;
   private final ObservableMetricsSystem metricsSystem;
+  private final ForkJoinPool tracingPool;
 
   DebugJsonRpcMethods(
       final BlockchainQueries blockchainQueries,
       final ProtocolSchedule<?> protocolSchedule,
-      final ObservableMetricsSystem metricsSystem) {
+      final ObservableMetricsSystem metricsSystem,
+      final ForkJoinPool tracingPool) {
     this.blockchainQueries = blockchainQueries;
     this.protocolSchedule = protocolSchedule;
     this.metricsSystem = metricsSystem;
+    this.tracingPool = tracingPool;
   }
 
   @Override
@@ -60,7 +64,9 @@ public class DebugJsonRpcMethods extends ApiGroupJsonRpcMethods {
         new BlockReplay(
             protocolSchedule,
             blockchainQueries.getBlockchain(),
-            blockchainQueries.getWorldStateArchive());
+            blockchainQueries.getWorldStateArchive(),
+            BlockReplay.DEFAULT_CHECKPOINT_BLOCKS,
+            tracingPool);
 
     return mapOf(
         new DebugTraceTransaction(blockchainQueries, new TransactionTracer(blockReplay)),
@@ -68,10 +74,10 @@ public class DebugJsonRpcMethods extends ApiGroupJsonRpcMethods {
         new DebugStorageRangeAt(blockchainQueries, blockReplay),
         new DebugMetrics(metricsSystem),
         new DebugTraceBlock(
-            () -> new BlockTracer(blockReplay),
+            () -> new BlockTracer(blockReplay, true),
             ScheduleBasedBlockHeaderFunctions.create(protocolSchedule),
             blockchainQueries),
-        new DebugTraceBlockByNumber(() -> new BlockTracer(blockReplay), blockchainQueries),
-        new DebugTraceBlockByHash(() -> new BlockTracer(blockReplay)));
+        new DebugTraceBlockByNumber(() -> new BlockTracer(blockReplay, true), blockchainQueries),
+        new DebugTraceBlockByHash(() -> new BlockTracer(blockReplay, true)));
   }
 }
@@ -26,16 +26,21 @@ import org.hyperledger.besu.ethereum.api.query.BlockchainQueries;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 public class TraceJsonRpcMethods extends ApiGroupJsonRpcMethods {
 
   private final BlockchainQueries blockchainQueries;
   private final ProtocolSchedule<?> protocolSchedule;
+  private final ForkJoinPool tracingPool;
 
   TraceJsonRpcMethods(
-      final BlockchainQueries blockchainQueries, final ProtocolSchedule<?> protocolSchedule) {
+      final BlockchainQueries blockchainQueries,
+      final ProtocolSchedule<?> protocolSchedule,
+      final ForkJoinPool tracingPool) {
     this.blockchainQueries = blockchainQueries;
     this.protocolSchedule = protocolSchedule;
+    this.tracingPool = tracingPool;
   }
 
   @Override
@@ -50,12 +55,15 @@ public class TraceJsonRpcMethods extends ApiGroupJsonRpcMethods {
         new BlockReplay(
             protocolSchedule,
             blockchainQueries.getBlockchain(),
-            blockchainQueries.getWorldStateArchive());
+            blockchainQueries.getWorldStateArchive(),
+            BlockReplay.DEFAULT_CHECKPOINT_BLOCKS,
+            tracingPool);
     return mapOf(
         new TraceReplayBlockTransactions(
-            () -> new BlockTracer(blockReplay), protocolSchedule, blockchainQueries),
+            () -> new BlockTracer(blockReplay, true), protocolSchedule, blockchainQueries),
         new TraceTransaction(
-            () -> new BlockTracer(blockReplay), protocolSchedule, blockchainQueries),
-        new TraceBlock(() -> new BlockTracer(blockReplay), protocolSchedule, blockchainQueries));
+            () -> new BlockTracer(blockReplay, true), protocolSchedule, blockchainQueries),
+        new TraceBlock(
+            () -> new BlockTracer(blockReplay, true), protocolSchedule, blockchainQueries));
   }
 }
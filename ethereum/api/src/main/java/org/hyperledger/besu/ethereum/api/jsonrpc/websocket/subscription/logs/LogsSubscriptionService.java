@@ -17,25 +17,60 @@ package org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.logs;
 import org.hyperledger.besu.ethereum.api.jsonrpc.internal.results.LogResult;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.SubscriptionManager;
 import org.hyperledger.besu.ethereum.api.jsonrpc.websocket.subscription.request.SubscriptionType;
+import org.hyperledger.besu.ethereum.api.query.LogsQueryIndex;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 
-import java.util.function.Consumer;
+import java.util.List;
 
-public class LogsSubscriptionService implements Consumer<LogWithMetadata> {
+public class LogsSubscriptionService implements BlockAddedObserver {
 
   private final SubscriptionManager subscriptionManager;
+  private final OperationTimer logsDispatchTimer;
 
   public LogsSubscriptionService(final SubscriptionManager subscriptionManager) {
+    this(subscriptionManager, new NoOpMetricsSystem());
+  }
+
+  public LogsSubscriptionService(
+      final SubscriptionManager subscriptionManager, final MetricsSystem metricsSystem) {
     this.subscriptionManager = subscriptionManager;
+    this.logsDispatchTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.RPC,
+            "subscription_logs_dispatch_seconds",
+            "Time taken to match the logs of an added block against the logs subscriptions");
   }
 
   @Override
-  public void accept(final LogWithMetadata logWithMetadata) {
-    subscriptionManager.subscriptionsOfType(SubscriptionType.LOGS, LogsSubscription.class).stream()
-        .filter(logsSubscription -> logsSubscription.getLogsQuery().matches(logWithMetadata))
-        .forEach(
-            logsSubscription ->
-                subscriptionManager.sendMessage(
-                    logsSubscription.getSubscriptionId(), new LogResult(logWithMetadata)));
+  public void onBlockAdded(final BlockAddedEvent event, final Blockchain blockchain) {
+    final List<LogWithMetadata> logs = event.getLogsWithMetadata();
+    if (logs.isEmpty()) {
+      return;
+    }
+    final List<LogsSubscription> subscriptions =
+        subscriptionManager.subscriptionsOfType(SubscriptionType.LOGS, LogsSubscription.class);
+    if (subscriptions.isEmpty()) {
+      return;
+    }
+
+    try (final OperationTimer.TimingContext ignored = logsDispatchTimer.startTimer()) {
+      final LogsQueryIndex<LogsSubscription> index =
+          new LogsQueryIndex<>(subscriptions, LogsSubscription::getLogsQuery);
+      for (final LogWithMetadata log : logs) {
+        index
+            .matching(log)
+            .forEach(
+                subscription ->
+                    subscriptionManager.sendMessage(
+                        subscription.getSubscriptionId(), new LogResult(log)));
+      }
+    }
   }
 }
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.util.Optional;
 import java.util.OptionalLong;
 
 import org.apache.logging.log4j.LogManager;
@@ -52,7 +51,7 @@ public class AutoTransactionLogBloomCachingService {
                   (event, __) -> {
                     if (event.isNewCanonicalHead()) {
                       transactionLogBloomCacher.cacheLogsBloomForBlockHeader(
-                          event.getBlock().getHeader(), Optional.empty(), true);
+                          event.getBlock().getHeader(), true);
                     }
                   }));
       chainReorgSubscriptionId =
@@ -60,7 +59,7 @@ public class AutoTransactionLogBloomCachingService {
               blockchain.observeChainReorg(
                   (blockWithReceipts, __) ->
                       transactionLogBloomCacher.cacheLogsBloomForBlockHeader(
-                          blockWithReceipts.getHeader(), Optional.empty(), true)));
+                          blockWithReceipts.getHeader(), true)));
 
       transactionLogBloomCacher
           .getScheduler()
@@ -0,0 +1,283 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.hyperledger.besu.ethereum.api.query.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * The log blooms of a segment of {@link TransactionLogBloomCacher#BLOCKS_PER_BLOOM_CACHE} blocks,
+ * stored bit-sliced: the file holds one bitmap column per bloom bit, where bit {@code n} of column
+ * {@code c} is bit {@code c} of the bloom of the {@code n}th block of the segment. An address or a
+ * topic sets 3 bloom bits, so finding the blocks that could hold it only reads 3 columns, a long
+ * word for every 64 blocks, instead of every bloom of the segment.
+ *
+ * <p>A last column flags the blocks that have been indexed. Blocks that haven't been are always
+ * reported as candidates, so a partially written segment never hides a matching block. A block is
+ * unflagged while its bloom is overwritten, which keeps concurrent readers from seeing a mix of
+ * the old and new blooms.
+ *
+ * <p>Segments are read and written through memory mapped files. Writes are synchronized, and
+ * callers must keep a single writable instance per file.
+ */
+class BitSlicedLogBloomSegment {
+
+  static final int BLOOM_BITS = LogsBloomFilter.BYTE_SIZE * Byte.SIZE;
+  private static final int INDEXED_COLUMN = BLOOM_BITS;
+  private static final int WORDS_PER_COLUMN =
+      (BLOCKS_PER_BLOOM_CACHE + Long.SIZE - 1) / Long.SIZE;
+  static final long FILE_SIZE = (long) (BLOOM_BITS + 1) * WORDS_PER_COLUMN * Long.BYTES;
+
+  private final MappedByteBuffer buffer;
+  private final LongBuffer words;
+
+  private BitSlicedLogBloomSegment(final MappedByteBuffer buffer) {
+    this.buffer = buffer;
+    this.words = buffer.asLongBuffer();
+  }
+
+  static Path segmentFile(final Path cacheDir, final long segmentNumber) {
+    return cacheDir.resolve("logBloomSliced-" + segmentNumber + ".cache");
+  }
+
+  /**
+   * Map the given segment file for reading and writing, creating it if needed.
+   *
+   * @param file segment file
+   * @return the mapped segment
+   * @throws IOException if the file can't be created or mapped
+   */
+  static BitSlicedLogBloomSegment open(final Path file) throws IOException {
+    try (final FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      if (channel.size() < FILE_SIZE) {
+        // Grow the file with zeros, leaving every block unindexed
+        channel.write(ByteBuffer.allocate(1), FILE_SIZE - 1);
+      }
+      return new BitSlicedLogBloomSegment(channel.map(MapMode.READ_WRITE, 0, FILE_SIZE));
+    }
+  }
+
+  /**
+   * Map the given segment file for reading.
+   *
+   * @param file segment file
+   * @return the mapped segment
+   * @throws IOException if the file isn't a segment or can't be mapped
+   */
+  static BitSlicedLogBloomSegment openReadOnly(final Path file) throws IOException {
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() != FILE_SIZE) {
+        throw new IOException("Unexpected log bloom segment size for " + file);
+      }
+      return new BitSlicedLogBloomSegment(channel.map(MapMode.READ_ONLY, 0, FILE_SIZE));
+    }
+  }
+
+  /**
+   * Index the bloom of a block.
+   *
+   * @param offset offset of the block in the segment
+   * @param bloom logs bloom of the block
+   */
+  synchronized void put(final int offset, final LogsBloomFilter bloom) {
+    // Columns of unindexed blocks are all clear, so only overwrites have bits to clear
+    final boolean overwrite = isIndexed(offset);
+    if (overwrite) {
+      clearBit(INDEXED_COLUMN, offset);
+      VarHandle.fullFence();
+    }
+    final byte[] bytes = bloom.toArrayUnsafe();
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] == 0 && !overwrite) {
+        continue;
+      }
+      for (int bit = 0; bit < Byte.SIZE; bit++) {
+        final int column = i * Byte.SIZE + bit;
+        if ((bytes[i] & (1 << bit)) != 0) {
+          setBit(column, offset);
+        } else if (overwrite) {
+          clearBit(column, offset);
+        }
+      }
+    }
+    // Readers that see the indexed bit must see the whole bloom
+    VarHandle.releaseFence();
+    setBit(INDEXED_COLUMN, offset);
+  }
+
+  /**
+   * Index the blooms of a file written in the row-wise format of previous versions, which holds
+   * the 256 bytes of each bloom one after the other.
+   *
+   * @param rowFile row-wise cache file of the same segment
+   * @return number of imported blooms
+   * @throws IOException if the file can't be read
+   */
+  int importRows(final Path rowFile) throws IOException {
+    final byte[] row = new byte[LogsBloomFilter.BYTE_SIZE];
+    final LogsBloomFilter bloom = new LogsBloomFilter(Bytes.wrap(row));
+    int offset = 0;
+    try (final InputStream in = new BufferedInputStream(Files.newInputStream(rowFile))) {
+      while (offset < BLOCKS_PER_BLOOM_CACHE && in.readNBytes(row, 0, row.length) == row.length) {
+        put(offset++, bloom);
+      }
+    }
+    return offset;
+  }
+
+  boolean isIndexed(final int offset) {
+    return (word(INDEXED_COLUMN, offset / Long.SIZE) & (1L << offset)) != 0;
+  }
+
+  /**
+   * Whether every block of the segment has been indexed.
+   *
+   * @return true if the segment is complete
+   */
+  boolean isComplete() {
+    final int fullWords = BLOCKS_PER_BLOOM_CACHE / Long.SIZE;
+    for (int i = 0; i < fullWords; i++) {
+      if (word(INDEXED_COLUMN, i) != -1L) {
+        return false;
+      }
+    }
+    final int remainingBlocks = BLOCKS_PER_BLOOM_CACHE % Long.SIZE;
+    final long lastWordMask = (1L << remainingBlocks) - 1;
+    return remainingBlocks == 0
+        || (word(INDEXED_COLUMN, fullWords) & lastWordMask) == lastWordMask;
+  }
+
+  /**
+   * Find the blocks of a range that could hold logs matching the query, mirroring {@link
+   * LogsQuery#couldMatch(LogsBloomFilter)}: a block matches if its bloom contains any of the
+   * addresses, and any topic of each topic position. Blocks that aren't indexed are candidates.
+   *
+   * @param query logs query
+   * @param fromOffset offset of the first block of the range in the segment, inclusive
+   * @param toOffset offset of the last block of the range in the segment, inclusive
+   * @return bits set at the offsets of candidate blocks
+   */
+  BitSet candidates(final LogsQuery query, final int fromOffset, final int toOffset) {
+    if (fromOffset > toOffset) {
+      return new BitSet();
+    }
+    final int fromWord = fromOffset / Long.SIZE;
+    final int toWord = toOffset / Long.SIZE;
+    // Read the indexed column before the blooms, the reverse of the order put writes them in, so
+    // a block being indexed concurrently is either a candidate or has its whole bloom visible
+    final long[] indexed = new long[toWord + 1];
+    for (int i = fromWord; i <= toWord; i++) {
+      indexed[i] = word(INDEXED_COLUMN, i);
+    }
+    VarHandle.acquireFence();
+    final long[] result = new long[toWord + 1];
+    for (int i = fromWord; i <= toWord; i++) {
+      result[i] = -1L;
+    }
+
+    if (!query.getAddressBlooms().isEmpty()) {
+      andAnyOf(result, query.getAddressBlooms(), fromWord);
+    }
+    for (final List<LogsBloomFilter> topicBlooms : query.getTopicsBlooms()) {
+      if (!topicBlooms.isEmpty()) {
+        andAnyOf(result, topicBlooms, fromWord);
+      }
+    }
+
+    // Overwrites clear the indexed bit first, so blocks being overwritten meanwhile are candidates
+    VarHandle.acquireFence();
+    for (int i = fromWord; i <= toWord; i++) {
+      final long indexedThroughout = indexed[i] & word(INDEXED_COLUMN, i);
+      result[i] = (result[i] & indexedThroughout) | ~indexedThroughout;
+    }
+    result[fromWord] &= -1L << fromOffset;
+    result[toWord] &= -1L >>> (Long.SIZE - 1 - toOffset % Long.SIZE);
+    return BitSet.valueOf(result);
+  }
+
+  /** Flush the changes made to the segment to its file. */
+  void force() {
+    buffer.force();
+  }
+
+  private void andAnyOf(final long[] result, final List<LogsBloomFilter> blooms, final int from) {
+    final int[][] columns = blooms.stream().map(this::columnsOf).toArray(int[][]::new);
+    for (int i = from; i < result.length; i++) {
+      long anyOf = 0;
+      for (final int[] bloomColumns : columns) {
+        long allOf = -1L;
+        for (final int column : bloomColumns) {
+          allOf &= word(column, i);
+        }
+        anyOf |= allOf;
+      }
+      result[i] &= anyOf;
+    }
+  }
+
+  private int[] columnsOf(final LogsBloomFilter bloom) {
+    final byte[] bytes = bloom.toArrayUnsafe();
+    final int[] columns = new int[BLOOM_BITS];
+    int count = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      for (int bit = 0; bit < Byte.SIZE; bit++) {
+        if ((bytes[i] & (1 << bit)) != 0) {
+          columns[count++] = i * Byte.SIZE + bit;
+        }
+      }
+    }
+    return Arrays.copyOf(columns, count);
+  }
+
+  private long word(final int column, final int word) {
+    return words.get(column * WORDS_PER_COLUMN + word);
+  }
+
+  private void setBit(final int column, final int offset) {
+    final int index = column * WORDS_PER_COLUMN + offset / Long.SIZE;
+    words.put(index, words.get(index) | (1L << offset));
+  }
+
+  private void clearBit(final int column, final int offset) {
+    final int index = column * WORDS_PER_COLUMN + offset / Long.SIZE;
+    words.put(index, words.get(index) & ~(1L << offset));
+  }
+}
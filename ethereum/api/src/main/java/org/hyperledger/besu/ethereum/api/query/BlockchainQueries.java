@@ -26,7 +26,6 @@ import org.hyperledger.besu.ethereum.core.BlockBody;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.LogWithMetadata;
-import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
@@ -35,16 +34,18 @@ import org.hyperledger.besu.ethereum.core.WorldState;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
-import java.io.EOFException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -62,6 +63,8 @@ public class BlockchainQueries {
   private final Blockchain blockchain;
   private final Optional<Path> cachePath;
   private final Optional<TransactionLogBloomCacher> transactionLogBloomCacher;
+  // Segment files are never replaced, so their mappings are kept open across queries
+  private final Map<Path, BitSlicedLogBloomSegment> readOnlySegments = new ConcurrentHashMap<>();
 
   public BlockchainQueries(final Blockchain blockchain, final WorldStateArchive worldStateArchive) {
     this(blockchain, worldStateArchive, Optional.empty(), Optional.empty());
@@ -539,7 +542,7 @@ public class BlockchainQueries {
       final long nextStep = (segment + 1) * BLOCKS_PER_BLOOM_CACHE;
       result.addAll(
           cachePath
-              .map(path -> path.resolve("logBloom-" + thisSegment + ".cache"))
+              .map(path -> BitSlicedLogBloomSegment.segmentFile(path, thisSegment))
               .filter(Files::isRegularFile)
               .map(
                   cacheFile ->
@@ -581,32 +584,51 @@ public class BlockchainQueries {
       final long endOffset,
       final LogsQuery query,
       final Path cacheFile) {
-    final List<LogWithMetadata> results = new ArrayList<>();
-    try (final RandomAccessFile raf = new RandomAccessFile(cacheFile.toFile(), "r")) {
-      raf.seek(offset * 256);
-      final byte[] bloomBuff = new byte[256];
-      final Bytes bytesValue = Bytes.wrap(bloomBuff);
-      for (long pos = offset; pos <= endOffset; pos++) {
-        try {
-          raf.readFully(bloomBuff);
-        } catch (final EOFException e) {
-          results.addAll(matchingLogsUncached(segmentStart + pos, segmentStart + endOffset, query));
-          break;
-        }
-        final LogsBloomFilter logsBloom = new LogsBloomFilter(bytesValue);
-        if (query.couldMatch(logsBloom)) {
-          results.addAll(
-              matchingLogs(
-                  blockchain.getBlockHashByNumber(segmentStart + pos).orElseThrow(), query));
-        }
-      }
+    final BitSet candidates;
+    final BitSlicedLogBloomSegment segment;
+    try {
+      segment = readOnlySegment(cacheFile);
+      candidates = segment.candidates(query, (int) offset, (int) endOffset);
     } catch (final IOException e) {
-      e.printStackTrace(System.out);
       LOG.error("Error reading cached log blooms", e);
+      return matchingLogsUncached(segmentStart + offset, segmentStart + endOffset, query);
+    }
+    final List<LogWithMetadata> results = new ArrayList<>();
+    for (int pos = candidates.nextSetBit(0); pos >= 0; pos = candidates.nextSetBit(pos + 1)) {
+      final long blockNumber = segmentStart + pos;
+      if (segment.isIndexed(pos)) {
+        results.addAll(
+            matchingLogs(blockchain.getBlockHashByNumber(blockNumber).orElseThrow(), query));
+        continue;
+      }
+      // Blocks the cacher hasn't reached yet are checked against their header
+      final Optional<BlockHeader> header = blockchain.getBlockHeader(blockNumber);
+      if (header.isEmpty()) {
+        break;
+      }
+      if (query.couldMatch(header.get().getLogsBloom())) {
+        results.addAll(matchingLogs(header.get().getHash(), query));
+      }
     }
     return results;
   }
 
+  private BitSlicedLogBloomSegment readOnlySegment(final Path cacheFile) throws IOException {
+    try {
+      return readOnlySegments.computeIfAbsent(
+          cacheFile,
+          file -> {
+            try {
+              return BitSlicedLogBloomSegment.openReadOnly(file);
+            } catch (final IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
   public List<LogWithMetadata> matchingLogs(final Hash blockHash, final LogsQuery query) {
     final Optional<BlockHeader> blockHeader = blockchain.getBlockHeader(blockHash);
     if (blockHeader.isEmpty()) {
@@ -85,6 +85,22 @@ public class LogsQuery {
                     topics -> topics.isEmpty() || topics.stream().anyMatch(bloom::couldContain)));
   }
 
+  List<Address> getAddresses() {
+    return addresses;
+  }
+
+  List<List<LogTopic>> getTopics() {
+    return topics;
+  }
+
+  List<LogsBloomFilter> getAddressBlooms() {
+    return addressBlooms;
+  }
+
+  List<List<LogsBloomFilter>> getTopicsBlooms() {
+    return topicsBlooms;
+  }
+
   public boolean matches(final Log log) {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
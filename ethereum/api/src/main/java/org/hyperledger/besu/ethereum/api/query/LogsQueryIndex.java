@@ -0,0 +1,101 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static java.util.Collections.emptyList;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Matches logs against many {@link LogsQuery}s at once.
+ *
+ * <p>Each entry is indexed under the addresses its query accepts or, if it accepts any address,
+ * under the topics it accepts at the first position it constrains. Only the entries indexed under
+ * the logger or topics of a log, and those whose query can't be indexed, are then checked against
+ * it, so that matching a log costs the number of queries that could match it rather than the
+ * number of queries.
+ *
+ * @param <T> the type of the entries holding the queries
+ */
+public class LogsQueryIndex<T> {
+
+  private final Function<T, LogsQuery> queryOf;
+  private final Map<Address, List<T>> entriesByAddress = new HashMap<>();
+  private final List<Map<LogTopic, List<T>>> entriesByTopic = new ArrayList<>();
+  private final List<T> unindexedEntries = new ArrayList<>();
+
+  public LogsQueryIndex(final Collection<T> entries, final Function<T, LogsQuery> queryOf) {
+    this.queryOf = queryOf;
+    entries.forEach(this::index);
+  }
+
+  private void index(final T entry) {
+    final LogsQuery query = queryOf.apply(entry);
+    if (!query.getAddresses().isEmpty()) {
+      new LinkedHashSet<>(query.getAddresses())
+          .forEach(
+              address ->
+                  entriesByAddress.computeIfAbsent(address, a -> new ArrayList<>()).add(entry));
+      return;
+    }
+    final List<List<LogTopic>> topics = query.getTopics();
+    for (int position = 0; position < topics.size(); position++) {
+      // A null topic accepts any topic at this position
+      if (!topics.get(position).contains(null)) {
+        while (entriesByTopic.size() <= position) {
+          entriesByTopic.add(new HashMap<>());
+        }
+        final Map<LogTopic, List<T>> entriesByTopicAtPosition = entriesByTopic.get(position);
+        new LinkedHashSet<>(topics.get(position))
+            .forEach(
+                topic ->
+                    entriesByTopicAtPosition
+                        .computeIfAbsent(topic, t -> new ArrayList<>())
+                        .add(entry));
+        return;
+      }
+    }
+    unindexedEntries.add(entry);
+  }
+
+  /**
+   * Returns the entries whose query matches the given log.
+   *
+   * @param log the log to match
+   * @return the matching entries, each of them once
+   */
+  public List<T> matching(final Log log) {
+    final List<T> candidates = new ArrayList<>(unindexedEntries);
+    candidates.addAll(entriesByAddress.getOrDefault(log.getLogger(), emptyList()));
+    final List<LogTopic> topics = log.getTopics();
+    final int positions = Math.min(topics.size(), entriesByTopic.size());
+    for (int position = 0; position < positions; position++) {
+      candidates.addAll(
+          entriesByTopic.get(position).getOrDefault(topics.get(position), emptyList()));
+    }
+    candidates.removeIf(entry -> !queryOf.apply(entry).matches(log));
+    return candidates;
+  }
+}
@@ -17,29 +17,27 @@
 package org.hyperledger.besu.ethereum.api.query;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.base.Preconditions.checkState;
 
 import org.hyperledger.besu.ethereum.chain.Blockchain;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 import org.apache.logging.log4j.LogManager;
@@ -51,9 +49,12 @@ public class TransactionLogBloomCacher {
 
   public static final int BLOCKS_PER_BLOOM_CACHE = 100_000;
   private static final int BLOOM_BITS_LENGTH = 256;
-  private static final int EXPECTED_BLOOM_FILE_SIZE = BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH;
+  private static final long EXPECTED_ROW_FILE_SIZE =
+      (long) BLOCKS_PER_BLOOM_CACHE * BLOOM_BITS_LENGTH;
+  private static final Pattern ROW_FILE_NAME = Pattern.compile("logBloom-(\\d+)\\.cache");
   public static final String CURRENT = "current";
   private final Map<Long, Boolean> cachedSegments;
+  private final Map<Long, BitSlicedLogBloomSegment> openSegments = new ConcurrentHashMap<>();
 
   private final Lock submissionLock = new ReentrantLock();
   private final Lock populateLastFragmentLock = new ReentrantLock();
@@ -77,12 +78,25 @@ public class TransactionLogBloomCacher {
     ensurePreviousSegmentsArePresent(blockchain.getChainHeadBlockNumber());
   }
 
-  private static File calculateCacheFileName(final String name, final Path cacheDir) {
-    return cacheDir.resolve("logBloom-" + name + ".cache").toFile();
+  private static Path rowCacheFile(final String name, final Path cacheDir) {
+    return cacheDir.resolve("logBloom-" + name + ".cache");
   }
 
-  private static File calculateCacheFileName(final long blockNumber, final Path cacheDir) {
-    return calculateCacheFileName(Long.toString(blockNumber / BLOCKS_PER_BLOOM_CACHE), cacheDir);
+  private BitSlicedLogBloomSegment segment(final long segmentNumber) throws IOException {
+    try {
+      return openSegments.computeIfAbsent(
+          segmentNumber,
+          number -> {
+            try {
+              return BitSlicedLogBloomSegment.open(
+                  BitSlicedLogBloomSegment.segmentFile(cacheDir, number));
+            } catch (final IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
   }
 
   public CachingStatus generateLogBloomCache(final long start, final long stop) {
@@ -101,14 +115,13 @@ public class TransactionLogBloomCacher {
       }
       for (long blockNum = start; blockNum < stop; blockNum += BLOCKS_PER_BLOOM_CACHE) {
         LOG.info("Caching segment at {}", blockNum);
-        final File cacheFile = calculateCacheFileName(blockNum, cacheDir);
-        blockchain
-            .getBlockHeader(blockNum)
-            .ifPresent(
-                blockHeader ->
-                    cacheLogsBloomForBlockHeader(blockHeader, Optional.of(cacheFile), false));
-        try (final OutputStream os = new FileOutputStream(cacheFile)) {
-          fillCacheFile(blockNum, blockNum + BLOCKS_PER_BLOOM_CACHE, os);
+        final long segmentNumber = blockNum / BLOCKS_PER_BLOOM_CACHE;
+        final BitSlicedLogBloomSegment segment = segment(segmentNumber);
+        fillSegment(segment, blockNum, blockNum + BLOCKS_PER_BLOOM_CACHE);
+        segment.force();
+        if (segment.isComplete()) {
+          // Only reorgs near the chain head write to complete segments, no need to keep them mapped
+          openSegments.remove(segmentNumber);
         }
       }
     } catch (final Exception e) {
@@ -120,24 +133,21 @@ public class TransactionLogBloomCacher {
     return cachingStatus;
   }
 
-  private void fillCacheFile(final long startBlock, final long stopBlock, final OutputStream fos)
-      throws IOException {
+  private void fillSegment(
+      final BitSlicedLogBloomSegment segment, final long startBlock, final long stopBlock) {
     long blockNum = startBlock;
     while (blockNum < stopBlock) {
       final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNum);
       if (maybeHeader.isEmpty()) {
         break;
       }
-      fillCacheFileWithBlock(maybeHeader.get(), fos);
+      segment.put((int) (blockNum % BLOCKS_PER_BLOOM_CACHE), maybeHeader.get().getLogsBloom());
       cachingStatus.currentBlock = blockNum;
       blockNum++;
     }
   }
 
-  void cacheLogsBloomForBlockHeader(
-      final BlockHeader blockHeader,
-      final Optional<File> reusedCacheFile,
-      final boolean ensureChecks) {
+  void cacheLogsBloomForBlockHeader(final BlockHeader blockHeader, final boolean ensureChecks) {
     try {
       if (cachingStatus.cachingCount.incrementAndGet() != 1) {
         return;
@@ -147,9 +157,10 @@ public class TransactionLogBloomCacher {
       if (ensureChecks) {
         ensurePreviousSegmentsArePresent(blockNumber);
       }
-      final File cacheFile = reusedCacheFile.orElse(calculateCacheFileName(blockNumber, cacheDir));
-      if (cacheFile.exists()) {
-        cacheSingleBlock(blockHeader, cacheFile);
+      final long segmentNumber = blockNumber / BLOCKS_PER_BLOOM_CACHE;
+      if (openSegments.containsKey(segmentNumber)
+          || Files.isRegularFile(BitSlicedLogBloomSegment.segmentFile(cacheDir, segmentNumber))) {
+        cacheSingleBlock(blockHeader);
       } else {
         scheduler.scheduleComputationTask(this::populateLatestSegment);
       }
@@ -160,38 +171,23 @@ public class TransactionLogBloomCacher {
     }
   }
 
-  private void cacheSingleBlock(final BlockHeader blockHeader, final File cacheFile)
-      throws IOException {
-    try (final RandomAccessFile writer = new RandomAccessFile(cacheFile, "rw")) {
-      final long offset = (blockHeader.getNumber() % BLOCKS_PER_BLOOM_CACHE) * BLOOM_BITS_LENGTH;
-      writer.seek(offset);
-      writer.write(ensureBloomBitsAreCorrectLength(blockHeader.getLogsBloom().toArray()));
-    }
+  private void cacheSingleBlock(final BlockHeader blockHeader) throws IOException {
+    final long blockNumber = blockHeader.getNumber();
+    segment(blockNumber / BLOCKS_PER_BLOOM_CACHE)
+        .put((int) (blockNumber % BLOCKS_PER_BLOOM_CACHE), blockHeader.getLogsBloom());
   }
 
   private boolean populateLatestSegment() {
     try {
       if (populateLastFragmentLock.tryLock(100, TimeUnit.MILLISECONDS)) {
         try {
-          final File currentFile = calculateCacheFileName(CURRENT, cacheDir);
-
           final long chainHeadBlockNumber = blockchain.getChainHeadBlockNumber();
           final long segmentNumber = chainHeadBlockNumber / BLOCKS_PER_BLOOM_CACHE;
-          long blockNumber =
-              Math.min((segmentNumber + 1) * BLOCKS_PER_BLOOM_CACHE - 1, chainHeadBlockNumber);
-          try (final OutputStream out = new FileOutputStream(currentFile)) {
-            fillCacheFile(segmentNumber * BLOCKS_PER_BLOOM_CACHE, blockNumber, out);
-          }
-          while (blockNumber <= chainHeadBlockNumber
-              && (blockNumber % BLOCKS_PER_BLOOM_CACHE != 0)) {
-            cacheSingleBlock(blockchain.getBlockHeader(blockNumber).orElseThrow(), currentFile);
-            blockNumber++;
-          }
-          Files.move(
-              currentFile.toPath(),
-              calculateCacheFileName(blockNumber, cacheDir).toPath(),
-              StandardCopyOption.REPLACE_EXISTING,
-              StandardCopyOption.ATOMIC_MOVE);
+          // The segment file exists once mapped, so blocks added from now on are cached as they
+          // arrive, and blocks not reached yet are checked against their header by queries
+          final BitSlicedLogBloomSegment segment = segment(segmentNumber);
+          fillSegment(segment, segmentNumber * BLOCKS_PER_BLOOM_CACHE, chainHeadBlockNumber + 1);
+          segment.force();
           return true;
         } catch (final IOException e) {
           LOG.error("Unhandled caching exception.", e);
@@ -213,13 +209,11 @@ public class TransactionLogBloomCacher {
             while (currentSegment > 0) {
               try {
                 if (!cachedSegments.getOrDefault(currentSegment, false)) {
-                  final long startBlock = currentSegment * BLOCKS_PER_BLOOM_CACHE;
-                  final File cacheFile = calculateCacheFileName(startBlock, cacheDir);
-                  if (!cacheFile.isFile() || cacheFile.length() != EXPECTED_BLOOM_FILE_SIZE) {
-                    generateLogBloomCache(startBlock, startBlock + BLOCKS_PER_BLOOM_CACHE);
-                  }
+                  ensureSegmentIsPresent(currentSegment);
                   cachedSegments.put(currentSegment, true);
                 }
+              } catch (final IOException e) {
+                LOG.error("Unhandled caching exception.", e);
               } finally {
                 currentSegment--;
               }
@@ -229,15 +223,55 @@ public class TransactionLogBloomCacher {
     }
   }
 
-  private void fillCacheFileWithBlock(final BlockHeader blockHeader, final OutputStream fos)
-      throws IOException {
-    fos.write(ensureBloomBitsAreCorrectLength(blockHeader.getLogsBloom().toArray()));
+  private void ensureSegmentIsPresent(final long segmentNumber) throws IOException {
+    final BitSlicedLogBloomSegment segment = segment(segmentNumber);
+    if (segment.isComplete()) {
+      openSegments.remove(segmentNumber);
+      return;
+    }
+    final Path rowFile = rowCacheFile(Long.toString(segmentNumber), cacheDir);
+    if (Files.isRegularFile(rowFile) && Files.size(rowFile) == EXPECTED_ROW_FILE_SIZE) {
+      segment.importRows(rowFile);
+      segment.force();
+      Files.delete(rowFile);
+      openSegments.remove(segmentNumber);
+    } else {
+      final long startBlock = segmentNumber * BLOCKS_PER_BLOOM_CACHE;
+      generateLogBloomCache(startBlock, startBlock + BLOCKS_PER_BLOOM_CACHE);
+    }
   }
 
-  private byte[] ensureBloomBitsAreCorrectLength(final byte[] logs) {
-    checkNotNull(logs);
-    checkState(logs.length == BLOOM_BITS_LENGTH, "BloomBits are not the correct length");
-    return logs;
+  /**
+   * Convert the row-wise cache files written by previous versions to bit-sliced segments, deleting
+   * them once converted. Must not run while a node is using the cache directory.
+   *
+   * @param cacheDir cache directory
+   * @return number of converted files
+   * @throws IOException if a file can't be converted
+   */
+  public static int migrateRowCacheFiles(final Path cacheDir) throws IOException {
+    int migrated = 0;
+    try (final DirectoryStream<Path> files =
+        Files.newDirectoryStream(cacheDir, "logBloom-*.cache")) {
+      for (final Path rowFile : files) {
+        final Matcher matcher = ROW_FILE_NAME.matcher(rowFile.getFileName().toString());
+        if (!matcher.matches()) {
+          continue;
+        }
+        final long segmentNumber = Long.parseLong(matcher.group(1));
+        final BitSlicedLogBloomSegment segment =
+            BitSlicedLogBloomSegment.open(
+                BitSlicedLogBloomSegment.segmentFile(cacheDir, segmentNumber));
+        final int imported = segment.importRows(rowFile);
+        LOG.info("Migrated {} log blooms from {}", imported, rowFile);
+        segment.force();
+        Files.delete(rowFile);
+        migrated++;
+      }
+    }
+    // Leftover of an interrupted write of the latest segment, which is regenerated as needed
+    Files.deleteIfExists(rowCacheFile(CURRENT, cacheDir));
+    return migrated;
   }
 
   public CachingStatus requestCaching(final long fromBlock, final long toBlock) {
@@ -0,0 +1,167 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.api.jsonrpc.internal.response.JsonRpcSuccessResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.annotation.JsonGetter;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class JsonResponseStreamerTest {
+
+  private final HttpServerResponse response = mock(HttpServerResponse.class);
+  private final Buffer body = Buffer.buffer();
+  private boolean chunked;
+
+  @Before
+  public void setUp() {
+    when(response.isChunked()).thenAnswer(invocation -> chunked);
+    when(response.setChunked(true))
+        .thenAnswer(
+            invocation -> {
+              chunked = true;
+              return response;
+            });
+    when(response.write(any(Buffer.class)))
+        .thenAnswer(
+            invocation -> {
+              body.appendBuffer(invocation.getArgument(0));
+              return response;
+            });
+    when(response.setStatusCode(500)).thenReturn(response);
+  }
+
+  @Test
+  public void sendsSmallResponseInOneBuffer() throws Exception {
+    final JsonRpcSuccessResponse value = new JsonRpcSuccessResponse(1, "0x1");
+
+    JsonResponseStreamer.streamJson(response, value);
+
+    verify(response, never()).setChunked(true);
+    verify(response).end(Buffer.buffer(Json.encode(value)));
+  }
+
+  @Test
+  public void streamsLargeResponseInChunks() throws Exception {
+    final List<String> result =
+        IntStream.range(0, 20_000).mapToObj(i -> "0x" + i).collect(Collectors.toList());
+    final JsonRpcSuccessResponse value = new JsonRpcSuccessResponse(1, result);
+
+    JsonResponseStreamer.streamJson(response, value);
+
+    assertThat(chunked).isTrue();
+    final ArgumentCaptor<Buffer> lastChunk = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(lastChunk.capture());
+    body.appendBuffer(lastChunk.getValue());
+    assertThat(body.toString()).isEqualTo(Json.encode(value));
+  }
+
+  @Test
+  public void waitsForFullWriteQueueToDrain() throws Exception {
+    final AtomicBoolean writeQueueFull = new AtomicBoolean();
+    final AtomicReference<Handler<Void>> drainHandler = new AtomicReference<>();
+    final CountDownLatch waitingForDrain = new CountDownLatch(1);
+    when(response.writeQueueFull()).thenAnswer(invocation -> writeQueueFull.get());
+    // The queue is full once the first chunk is written
+    when(response.write(any(Buffer.class)))
+        .thenAnswer(
+            invocation -> {
+              if (body.length() == 0) {
+                writeQueueFull.set(true);
+              }
+              body.appendBuffer(invocation.getArgument(0));
+              return response;
+            });
+    when(response.drainHandler(any()))
+        .thenAnswer(
+            invocation -> {
+              if (invocation.getArgument(0) != null) {
+                drainHandler.set(invocation.getArgument(0));
+                waitingForDrain.countDown();
+              }
+              return response;
+            });
+    final List<String> result =
+        IntStream.range(0, 20_000).mapToObj(i -> "0x" + i).collect(Collectors.toList());
+    final JsonRpcSuccessResponse value = new JsonRpcSuccessResponse(1, result);
+
+    final ExecutorService worker = Executors.newSingleThreadExecutor();
+    try {
+      final Future<?> streamed =
+          worker.submit(
+              () -> {
+                JsonResponseStreamer.streamJson(response, value);
+                return null;
+              });
+
+      assertThat(waitingForDrain.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(streamed.isDone()).isFalse();
+      assertThat(body.length()).isEqualTo(JsonResponseStreamer.CHUNK_SIZE);
+
+      writeQueueFull.set(false);
+      drainHandler.get().handle(null);
+      streamed.get(10, TimeUnit.SECONDS);
+    } finally {
+      worker.shutdownNow();
+    }
+
+    final ArgumentCaptor<Buffer> lastChunk = ArgumentCaptor.forClass(Buffer.class);
+    verify(response).end(lastChunk.capture());
+    body.appendBuffer(lastChunk.getValue());
+    assertThat(body.toString()).isEqualTo(Json.encode(value));
+  }
+
+  @Test
+  public void failsWithInternalErrorWhenNothingWasSent() {
+    assertThatThrownBy(() -> JsonResponseStreamer.streamJson(response, new Unserializable()))
+        .isInstanceOf(IOException.class);
+
+    verify(response).setStatusCode(500);
+    verify(response).end();
+  }
+
+  public static class Unserializable {
+    @JsonGetter
+    public String getValue() {
+      throw new IllegalStateException("Not serializable");
+    }
+  }
+}
@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -80,34 +81,30 @@ public class FilterManagerLogFilterTest {
   }
 
   @Test
-  public void shouldCheckMatchingLogsWhenRecordedNewBlockEvent() {
-    when(blockchainQueries.headBlockNumber()).thenReturn(100L);
-
+  public void shouldMatchLogsOfNewBlockEventWithoutQueryingBlockchain() {
     filterManager.installLogFilter(latest(), latest(), logsQuery());
     recordNewBlockEvent();
 
-    verify(blockchainQueries).matchingLogs(eq(100L), eq(100L), eq(logsQuery()));
+    verify(blockchainQueries, never()).matchingLogs(anyLong(), anyLong(), any());
   }
 
   @Test
-  public void shouldUseHeadBlockAsFromBlockNumberWhenCheckingLogsForChanges() {
-    when(blockchainQueries.headBlockNumber()).thenReturn(3L);
-
-    filterManager.installLogFilter(blockNum(1L), blockNum(10L), logsQuery());
-    recordNewBlockEvent();
+  public void shouldNotAddLogsAfterFilterToBlock() {
+    final String filterId =
+        filterManager.installLogFilter(blockNum(1L), blockNum(10L), logsQuery());
+    recordBlockEventWithLogs(logWithMetadata(10L));
+    recordBlockEventWithLogs(logWithMetadata(11L));
 
-    verify(blockchainQueries).matchingLogs(eq(3L), eq(10L), eq(logsQuery()));
+    assertThat(filterManager.logsChanges(filterId))
+        .isEqualToComparingFieldByFieldRecursively(Lists.newArrayList(logWithMetadata(10L)));
   }
 
   @Test
   public void shouldReturnLogWhenLogFilterMatches() {
     final LogWithMetadata log = logWithMetadata();
-    when(blockchainQueries.headBlockNumber()).thenReturn(100L);
-    when(blockchainQueries.matchingLogs(eq(100L), eq(100L), eq(logsQuery())))
-        .thenReturn(Lists.newArrayList(log));
 
     final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+    recordBlockEventWithLogs(log);
 
     final List<LogWithMetadata> retrievedLogs = filterManager.logsChanges(filterId);
 
@@ -115,13 +112,26 @@ public class FilterManagerLogFilterTest {
   }
 
   @Test
-  public void shouldCheckLogsForEveryLogFilter() {
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
+  public void shouldNotReturnLogWhenLogFilterDoesNotMatch() {
+    final String filterId =
+        filterManager.installLogFilter(
+            latest(), latest(), new LogsQuery.Builder().address(Address.ECREC).build());
+    recordBlockEventWithLogs(logWithMetadata());
 
-    verify(blockchainQueries, times(3)).matchingLogs(anyLong(), anyLong(), any());
+    assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldAddLogsToEveryMatchingLogFilter() {
+    final List<String> filterIds =
+        List.of(
+            filterManager.installLogFilter(latest(), latest(), logsQuery()),
+            filterManager.installLogFilter(latest(), latest(), logsQuery()),
+            filterManager.installLogFilter(latest(), latest(), logsQuery()));
+    recordBlockEventWithLogs(logWithMetadata());
+
+    filterIds.forEach(
+        filterId -> assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(1));
   }
 
   @Test
@@ -134,17 +144,22 @@ public class FilterManagerLogFilterTest {
 
   @Test
   public void shouldClearLogsAfterGettingLogChanges() {
-    when(blockchainQueries.matchingLogs(anyLong(), anyLong(), any()))
-        .thenReturn(Lists.newArrayList(logWithMetadata()));
-
     final String filterId = filterManager.installLogFilter(latest(), latest(), logsQuery());
-    recordNewBlockEvent();
-    recordNewBlockEvent();
+    recordBlockEventWithLogs(logWithMetadata());
+    recordBlockEventWithLogs(logWithMetadata());
 
     assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(2);
     assertThat(filterManager.logsChanges(filterId).size()).isEqualTo(0);
   }
 
+  private void recordBlockEventWithLogs(final LogWithMetadata... logs) {
+    final Block block = new BlockDataGenerator().block();
+    filterManager.recordBlockEvent(
+        BlockAddedEvent.createForHeadAdvancement(
+            block, Lists.newArrayList(logs), Collections.emptyList()),
+        blockchainQueries.getBlockchain());
+  }
+
   private void recordNewBlockEvent() {
     final BlockDataGenerator gen = new BlockDataGenerator();
     final Block block = gen.block();
@@ -195,9 +210,13 @@ public class FilterManagerLogFilterTest {
   }
 
   private LogWithMetadata logWithMetadata() {
+    return logWithMetadata(100L);
+  }
+
+  private LogWithMetadata logWithMetadata(final long blockNumber) {
     return new LogWithMetadata(
         0,
-        100L,
+        blockNumber,
         Hash.ZERO,
         Hash.ZERO,
         0,
@@ -0,0 +1,252 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryUniTrieWorldStateArchive;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator.BlockOptions;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.ethereum.vm.OperationTracer;
+import org.hyperledger.besu.ethereum.worldstate.UniTrieMutableWorldState;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BlockReplayTest {
+
+  private static final int SENDERS = 3;
+  private static final int TRANSACTIONS = 30;
+  private static final int THREADS = 8;
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final WorldStateStorage worldStateStorage =
+      createInMemoryUniTrieWorldStateArchive().getWorldStateStorage();
+  private final NonceIncrementingProcessor transactionProcessor = new NonceIncrementingProcessor();
+  // Every world state the replay started from
+  private final List<MutableWorldState> parentWorldStates = new CopyOnWriteArrayList<>();
+  private final ForkJoinPool tracingPool = new ForkJoinPool(THREADS);
+
+  @Mock private ProtocolSchedule<Void> protocolSchedule;
+  @Mock private ProtocolSpec<Void> protocolSpec;
+  @Mock private WorldStateArchive worldStateArchive;
+
+  private Block block;
+  private BlockReplay blockReplay;
+
+  @Before
+  public void setUp() {
+    final List<Address> senders = new ArrayList<>();
+    final MutableWorldState parentWorldState = new UniTrieMutableWorldState(worldStateStorage);
+    final WorldUpdater updater = parentWorldState.updater();
+    for (int i = 0; i < SENDERS; i++) {
+      final Address sender = gen.address();
+      updater.createAccount(sender, 0, Wei.of(1_000_000));
+      senders.add(sender);
+    }
+    updater.commit();
+    parentWorldState.persist();
+    final Hash parentStateRoot = parentWorldState.rootHash();
+
+    // Each sender sends every few transactions, so the nonce before each one is its own
+    final KeyPair keyPair = KeyPair.generate();
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      transactions.add(
+          new TransactionTestFixture()
+              .sender(senders.get(i % SENDERS))
+              .nonce(i / SENDERS)
+              .createTransaction(keyPair));
+    }
+    final Block genesisBlock = gen.genesisBlock();
+    final MutableBlockchain blockchain = createInMemoryBlockchain(genesisBlock);
+    block =
+        gen.block(
+            BlockOptions.create()
+                .setBlockNumber(1)
+                .setParentHash(genesisBlock.getHash())
+                .addTransaction(transactions));
+    blockchain.appendBlock(block, gen.receipts(block));
+
+    when(protocolSchedule.getByBlockNumber(anyLong())).thenReturn(protocolSpec);
+    when(protocolSpec.getTransactionProcessor()).thenReturn(transactionProcessor);
+    when(protocolSpec.getMiningBeneficiaryCalculator()).thenReturn(BlockHeader::getCoinbase);
+    when(worldStateArchive.getMutable(any(Hash.class)))
+        .thenAnswer(
+            invocation -> {
+              final MutableWorldState worldState =
+                  spy(new UniTrieMutableWorldState(parentStateRoot, worldStateStorage));
+              parentWorldStates.add(worldState);
+              return Optional.of(worldState);
+            });
+    blockReplay =
+        new BlockReplay(
+            protocolSchedule,
+            blockchain,
+            worldStateArchive,
+            BlockReplay.DEFAULT_CHECKPOINT_BLOCKS,
+            tracingPool);
+  }
+
+  @After
+  public void tearDown() {
+    tracingPool.shutdownNow();
+  }
+
+  @Test
+  public void concurrentReplaysShouldShareCheckpointsWithoutWritingToThem() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    final List<Future<Optional<Long>>> nonces = new ArrayList<>();
+    try {
+      for (int round = 0; round < THREADS; round++) {
+        for (final Transaction transaction : transactions) {
+          nonces.add(
+              executor.submit(
+                  () ->
+                      blockReplay.beforeTransactionInBlock(
+                          block.getHash(),
+                          transaction.getHash(),
+                          (tx, header, blockchain, worldState, processor) -> {
+                            worldState.prefetch(List.of(tx.getSender()), Collections.emptyMap());
+                            return worldState.get(tx.getSender()).getNonce();
+                          })));
+        }
+      }
+      for (int i = 0; i < nonces.size(); i++) {
+        assertThat(nonces.get(i).get()).contains(transactions.get(i % TRANSACTIONS).getNonce());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertReplayedWithoutWritingToCheckpoints(transactions);
+  }
+
+  @Test
+  public void parallelTraceShouldNotWriteToCheckpoints() {
+    final List<Transaction> transactions = block.getBody().getTransactions();
+    for (int round = 0; round < THREADS; round++) {
+      final BlockTrace blockTrace =
+          blockReplay
+              .blockInParallel(
+                  block,
+                  () ->
+                      (transaction, header, blockchain, worldState, processor) -> {
+                        processor.processTransaction(
+                            blockchain,
+                            worldState,
+                            header,
+                            transaction,
+                            blockReplay.miningBeneficiary(header),
+                            new BlockHashLookup(header, blockchain),
+                            false,
+                            TransactionValidationParams.blockReplay());
+                        return new TransactionTrace(transaction, null, Collections.emptyList());
+                      })
+              .get();
+      assertThat(blockTrace.getTransactionTraces())
+          .extracting(TransactionTrace::getTransaction)
+          .containsExactlyElementsOf(transactions);
+    }
+
+    assertReplayedWithoutWritingToCheckpoints(transactions);
+  }
+
+  private void assertReplayedWithoutWritingToCheckpoints(final List<Transaction> transactions) {
+    for (final Transaction transaction : transactions.subList(0, TRANSACTIONS - 1)) {
+      assertThat(transactionProcessor.senderNonces.get(transaction.getHash()))
+          .containsExactly(transaction.getNonce());
+    }
+    assertThat(parentWorldStates).isNotEmpty();
+    for (final MutableWorldState parentWorldState : parentWorldStates) {
+      verify(parentWorldState, never()).prefetch(any(), any());
+    }
+  }
+
+  /** Bumps the nonce of the sender, prefetching it first as the mainnet processor does. */
+  private static class NonceIncrementingProcessor implements TransactionProcessor {
+
+    // Nonces of the sender seen by each transaction
+    private final Map<Hash, Set<Long>> senderNonces = new ConcurrentHashMap<>();
+
+    @Override
+    public Result processTransaction(
+        final Blockchain blockchain,
+        final WorldUpdater worldState,
+        final ProcessableBlockHeader blockHeader,
+        final Transaction transaction,
+        final Address miningBeneficiary,
+        final OperationTracer operationTracer,
+        final BlockHashLookup blockHashLookup,
+        final Boolean isPersistingPrivateState,
+        final TransactionValidationParams transactionValidationParams) {
+      worldState.prefetch(
+          List.of(transaction.getSender(), miningBeneficiary), Collections.emptyMap());
+      final MutableAccount sender = worldState.getOrCreate(transaction.getSender()).getMutable();
+      senderNonces
+          .computeIfAbsent(transaction.getHash(), hash -> ConcurrentHashMap.newKeySet())
+          .add(sender.getNonce());
+      sender.incrementNonce();
+      return null;
+    }
+  }
+}
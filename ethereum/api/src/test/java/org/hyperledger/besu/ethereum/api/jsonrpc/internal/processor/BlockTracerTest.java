@@ -0,0 +1,143 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.jsonrpc.internal.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockchainSetupUtil;
+import org.hyperledger.besu.ethereum.debug.TraceFrame;
+import org.hyperledger.besu.ethereum.debug.TraceOptions;
+import org.hyperledger.besu.ethereum.mainnet.MiningBeneficiaryCalculator;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
+import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
+import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
+import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockTracerTest {
+
+  private final BlockchainSetupUtil<Void> blockchainSetupUtil = BlockchainSetupUtil.forTesting();
+  private BlockReplay blockReplay;
+
+  @Before
+  public void setUp() {
+    blockchainSetupUtil.importAllBlocks();
+    blockReplay =
+        new BlockReplay(
+            blockchainSetupUtil.getProtocolSchedule(),
+            blockchainSetupUtil.getBlockchain(),
+            blockchainSetupUtil.getWorldArchive());
+  }
+
+  @Test
+  public void parallelTraceShouldMatchSequentialTrace() {
+    for (final Block block : blockchainSetupUtil.getBlocks()) {
+      if (block.getHeader().getNumber() == BlockHeader.GENESIS_BLOCK_NUMBER) {
+        continue;
+      }
+      final BlockTrace sequentialTrace =
+          new BlockTracer(blockReplay, false)
+              .trace(block, new DebugOperationTracer(TraceOptions.DEFAULT))
+              .get();
+      final BlockTrace parallelTrace =
+          new BlockTracer(blockReplay, true)
+              .trace(block, new DebugOperationTracer(TraceOptions.DEFAULT))
+              .get();
+
+      final List<TransactionTrace> sequential = sequentialTrace.getTransactionTraces();
+      final List<TransactionTrace> parallel = parallelTrace.getTransactionTraces();
+      assertThat(parallel).hasSameSizeAs(sequential);
+      for (int i = 0; i < sequential.size(); i++) {
+        assertSameTrace(parallel.get(i), sequential.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void parallelTraceShouldPayFeesToMiningBeneficiary() {
+    // As on Clique and IBFT chains, where fees go to the proposer rather than to the coinbase
+    final Address proposer = Address.fromHexString("0x00000000000000000000000000000000000000aa");
+    final Block block =
+        blockchainSetupUtil.getBlocks().stream()
+            .filter(b -> !b.getBody().getTransactions().isEmpty())
+            .findFirst()
+            .orElseThrow();
+    final ProtocolSchedule<Void> protocolSchedule = spy(blockchainSetupUtil.getProtocolSchedule());
+    final ProtocolSpec<Void> protocolSpec =
+        spy(protocolSchedule.getByBlockNumber(block.getHeader().getNumber()));
+    final TransactionProcessor transactionProcessor = spy(protocolSpec.getTransactionProcessor());
+    doReturn(transactionProcessor).when(protocolSpec).getTransactionProcessor();
+    doReturn((MiningBeneficiaryCalculator) header -> proposer)
+        .when(protocolSpec)
+        .getMiningBeneficiaryCalculator();
+    doReturn(protocolSpec).when(protocolSchedule).getByBlockNumber(anyLong());
+
+    new BlockTracer(
+            new BlockReplay(
+                protocolSchedule,
+                blockchainSetupUtil.getBlockchain(),
+                blockchainSetupUtil.getWorldArchive()),
+            true)
+        .trace(block, new DebugOperationTracer(TraceOptions.DEFAULT))
+        .get();
+
+    verify(transactionProcessor, atLeastOnce())
+        .processTransaction(any(), any(), any(), any(), eq(proposer), any(), any(), any(), any());
+    verify(transactionProcessor, never())
+        .processTransaction(
+            any(),
+            any(),
+            any(),
+            any(),
+            eq(block.getHeader().getCoinbase()),
+            any(),
+            any(),
+            any(),
+            any());
+  }
+
+  private void assertSameTrace(final TransactionTrace actual, final TransactionTrace expected) {
+    assertThat(actual.getTransaction()).isEqualTo(expected.getTransaction());
+    assertThat(actual.getResult().getStatus()).isEqualTo(expected.getResult().getStatus());
+    assertThat(actual.getResult().getGasRemaining())
+        .isEqualTo(expected.getResult().getGasRemaining());
+    assertThat(actual.getResult().getOutput()).isEqualTo(expected.getResult().getOutput());
+    assertThat(actual.getTraceFrames()).hasSameSizeAs(expected.getTraceFrames());
+    for (int i = 0; i < expected.getTraceFrames().size(); i++) {
+      final TraceFrame actualFrame = actual.getTraceFrames().get(i);
+      final TraceFrame expectedFrame = expected.getTraceFrames().get(i);
+      assertThat(actualFrame.getPc()).isEqualTo(expectedFrame.getPc());
+      assertThat(actualFrame.getOpcode()).isEqualTo(expectedFrame.getOpcode());
+      assertThat(actualFrame.getGasRemaining()).isEqualTo(expectedFrame.getGasRemaining());
+      assertThat(actualFrame.getDepth()).isEqualTo(expectedFrame.getDepth());
+      assertThat(actualFrame.getStorage()).isEqualTo(expectedFrame.getStorage());
+    }
+  }
+}
@@ -18,6 +18,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.hyperledger.besu.ethereum.chain.Blockchain;
@@ -33,6 +35,8 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionProcessor.Result;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
 import org.hyperledger.besu.ethereum.vm.DebugOperationTracer;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
@@ -71,6 +75,10 @@ public class TransactionTracerTest {
 
   @Mock private MutableWorldState mutableWorldState;
 
+  @Mock private WorldUpdater blockUpdater;
+
+  @Mock private WorldUpdater transactionUpdater;
+
   @Mock private TransactionProcessor transactionProcessor;
 
   private TransactionTracer transactionTracer;
@@ -99,6 +107,8 @@ public class TransactionTracerTest {
     when(blockHeader.getParentHash()).thenReturn(previousBlockHash);
     when(previousBlockHeader.getStateRoot()).thenReturn(Hash.ZERO);
     when(worldStateArchive.getMutable(Hash.ZERO)).thenReturn(Optional.of(mutableWorldState));
+    when(mutableWorldState.updater()).thenReturn(blockUpdater);
+    when(blockUpdater.updater()).thenReturn(transactionUpdater);
     when(protocolSchedule.getByBlockNumber(12)).thenReturn(protocolSpec);
     when(protocolSpec.getTransactionProcessor()).thenReturn(transactionProcessor);
     when(protocolSpec.getMiningBeneficiaryCalculator()).thenReturn(BlockHeader::getCoinbase);
@@ -143,6 +153,29 @@ public class TransactionTracerTest {
     assertThat(transactionTrace.map(TransactionTrace::getTraceFrames)).contains(traceFrames);
   }
 
+  @Test
+  public void traceTransactionShouldResumeFromCheckpointOfPreviousTransactions() {
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(blockHeader));
+    when(blockchain.getBlockHeader(previousBlockHash)).thenReturn(Optional.of(previousBlockHeader));
+
+    when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+
+    verify(transactionProcessor, times(1))
+        .processTransaction(
+            eq(blockchain),
+            eq(transactionUpdater),
+            eq(blockHeader),
+            eq(otherTransaction),
+            any(),
+            any(BlockHashLookup.class),
+            eq(false),
+            any(TransactionValidationParams.class));
+  }
+
   @Test
   public void traceTransactionShouldReturnResultFromProcessTransaction() {
     final Result result = mock(Result.class);
@@ -153,11 +186,10 @@ public class TransactionTracerTest {
     when(blockBody.getTransactions()).thenReturn(Collections.singletonList(transaction));
     when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
 
-    final WorldUpdater updater = mutableWorldState.updater();
     final Address coinbase = blockHeader.getCoinbase();
     when(transactionProcessor.processTransaction(
             eq(blockchain),
-            eq(updater),
+            eq(transactionUpdater),
             eq(blockHeader),
             eq(transaction),
             eq(coinbase),
@@ -71,7 +71,7 @@ public class LogsSubscriptionServiceTest {
   @Before
   public void before() {
     logsSubscriptionService = new LogsSubscriptionService(subscriptionManager);
-    blockchain.observeLogs(logsSubscriptionService);
+    blockchain.observeBlockAdded(logsSubscriptionService);
   }
 
   @Test
@@ -0,0 +1,176 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package org.hyperledger.besu.ethereum.api.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.api.query.TransactionLogBloomCacher.BLOCKS_PER_BLOOM_CACHE;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+import org.hyperledger.besu.ethereum.core.LogsBloomFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BitSlicedLogBloomSegmentTest {
+
+  private static final int BLOCKS = 1000;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Random random = new Random(1);
+  private final List<Address> addresses = new ArrayList<>();
+  private final List<LogTopic> topics = new ArrayList<>();
+  private final LogsBloomFilter[] blooms = new LogsBloomFilter[BLOCKS];
+  private Path file;
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < 8; i++) {
+      addresses.add(Address.wrap(Bytes.random(Address.SIZE, random)));
+      topics.add(LogTopic.wrap(Bytes32.random(random)));
+    }
+    for (int i = 0; i < BLOCKS; i++) {
+      final LogsBloomFilter.Builder builder = LogsBloomFilter.builder();
+      for (int log = random.nextInt(3); log > 0; log--) {
+        builder.insertLog(
+            new Log(
+                addresses.get(random.nextInt(addresses.size())),
+                Bytes.EMPTY,
+                List.of(topics.get(random.nextInt(topics.size())))));
+      }
+      blooms[i] = builder.build();
+    }
+    file = BitSlicedLogBloomSegment.segmentFile(folder.getRoot().toPath(), 0);
+  }
+
+  @Test
+  public void candidatesMirrorCouldMatch() throws IOException {
+    final BitSlicedLogBloomSegment segment = BitSlicedLogBloomSegment.open(file);
+    for (int i = 0; i < BLOCKS; i++) {
+      // Leave a few blocks unindexed, which must be reported as candidates
+      if (i % 17 != 0) {
+        segment.put(i, blooms[i]);
+      }
+    }
+
+    final List<LogsQuery> queries =
+        List.of(
+            new LogsQuery(List.of(), List.of()),
+            new LogsQuery(List.of(addresses.get(0)), List.of()),
+            new LogsQuery(List.of(addresses.get(1), addresses.get(2)), List.of()),
+            new LogsQuery(List.of(), List.of(List.of(topics.get(3)))),
+            new LogsQuery(List.of(), List.of(List.of(), List.of(topics.get(3), topics.get(4)))),
+            new LogsQuery(List.of(addresses.get(5)), List.of(List.of(topics.get(6)))));
+    for (final LogsQuery query : queries) {
+      assertCandidates(segment, query, 0, BLOCKS - 1);
+      assertCandidates(segment, query, 5, 900);
+      assertCandidates(segment, query, 64, 127);
+      assertCandidates(segment, query, 63, 64);
+      assertCandidates(segment, query, 300, 300);
+    }
+  }
+
+  @Test
+  public void overwriteReplacesPreviousBloom() throws IOException {
+    final LogsQuery query = new LogsQuery(List.of(addresses.get(0)), List.of());
+    final LogsBloomFilter matching =
+        LogsBloomFilter.builder().insertBytes(addresses.get(0)).build();
+    final LogsBloomFilter notMatching =
+        LogsBloomFilter.builder().insertBytes(addresses.get(1)).build();
+
+    final BitSlicedLogBloomSegment segment = BitSlicedLogBloomSegment.open(file);
+    segment.put(10, matching);
+    assertThat(segment.candidates(query, 10, 10).get(10)).isTrue();
+
+    segment.put(10, notMatching);
+    assertThat(segment.isIndexed(10)).isTrue();
+    assertThat(segment.candidates(query, 10, 10).get(10)).isFalse();
+  }
+
+  @Test
+  public void reopenedSegmentKeepsBlooms() throws IOException {
+    final LogsQuery query = new LogsQuery(List.of(addresses.get(0)), List.of());
+    final BitSlicedLogBloomSegment segment = BitSlicedLogBloomSegment.open(file);
+    for (int i = 0; i < BLOCKS; i++) {
+      segment.put(i, blooms[i]);
+    }
+    segment.force();
+
+    assertThat(Files.size(file)).isEqualTo(BitSlicedLogBloomSegment.FILE_SIZE);
+    assertThat(BitSlicedLogBloomSegment.openReadOnly(file).candidates(query, 0, BLOCKS - 1))
+        .isEqualTo(segment.candidates(query, 0, BLOCKS - 1));
+  }
+
+  @Test
+  public void importRowsIndexesRowWiseFile() throws IOException {
+    final Path rowFile = folder.newFile("logBloom-0.cache").toPath();
+    try (final OutputStream out = Files.newOutputStream(rowFile)) {
+      for (final LogsBloomFilter bloom : blooms) {
+        out.write(bloom.toArray());
+      }
+    }
+
+    final BitSlicedLogBloomSegment segment = BitSlicedLogBloomSegment.open(file);
+    assertThat(segment.importRows(rowFile)).isEqualTo(BLOCKS);
+    assertThat(segment.isIndexed(BLOCKS - 1)).isTrue();
+    assertThat(segment.isIndexed(BLOCKS)).isFalse();
+    assertThat(segment.isComplete()).isFalse();
+    assertCandidates(segment, new LogsQuery(List.of(addresses.get(0)), List.of()), 0, BLOCKS - 1);
+  }
+
+  @Test
+  public void segmentIsCompleteOnceEveryBlockIsIndexed() throws IOException {
+    final BitSlicedLogBloomSegment segment = BitSlicedLogBloomSegment.open(file);
+    final LogsBloomFilter empty = LogsBloomFilter.empty();
+    for (int i = 0; i < BLOCKS_PER_BLOOM_CACHE - 1; i++) {
+      segment.put(i, empty);
+    }
+    assertThat(segment.isComplete()).isFalse();
+
+    segment.put(BLOCKS_PER_BLOOM_CACHE - 1, empty);
+    assertThat(segment.isComplete()).isTrue();
+  }
+
+  private void assertCandidates(
+      final BitSlicedLogBloomSegment segment,
+      final LogsQuery query,
+      final int fromOffset,
+      final int toOffset) {
+    final BitSet expected = new BitSet();
+    for (int i = fromOffset; i <= toOffset; i++) {
+      if (!segment.isIndexed(i) || query.couldMatch(blooms[i])) {
+        expected.set(i);
+      }
+    }
+    assertThat(segment.candidates(query, fromOffset, toOffset)).isEqualTo(expected);
+  }
+}
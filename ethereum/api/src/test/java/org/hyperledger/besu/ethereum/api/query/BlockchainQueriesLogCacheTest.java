@@ -37,7 +37,6 @@ import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -74,22 +73,19 @@ public class BlockchainQueriesLogCacheTest {
     testLogsBloomFilter = LogsBloomFilter.builder().insertLog(testLog).build();
     logsQuery = new LogsQuery(List.of(testAddress), List.of());
 
+    final LogsBloomFilter emptyLogsBloomFilter = LogsBloomFilter.empty();
     for (int i = 0; i < 2; i++) {
-      final RandomAccessFile file =
-          new RandomAccessFile(cacheDir.newFile("logBloom-" + i + ".cache"), "rws");
-      writeThreeEntries(testLogsBloomFilter, file);
-      file.seek((BLOCKS_PER_BLOOM_CACHE - 3) * LogsBloomFilter.BYTE_SIZE);
-      writeThreeEntries(testLogsBloomFilter, file);
+      final BitSlicedLogBloomSegment segment =
+          BitSlicedLogBloomSegment.open(
+              BitSlicedLogBloomSegment.segmentFile(cacheDir.getRoot().toPath(), i));
+      for (int offset = 0; offset < BLOCKS_PER_BLOOM_CACHE; offset++) {
+        final boolean atEdge = offset < 3 || offset >= BLOCKS_PER_BLOOM_CACHE - 3;
+        segment.put(offset, atEdge ? testLogsBloomFilter : emptyLogsBloomFilter);
+      }
+      segment.force();
     }
   }
 
-  private static void writeThreeEntries(final LogsBloomFilter filter, final RandomAccessFile file)
-      throws IOException {
-    file.write(filter.toArray());
-    file.write(filter.toArray());
-    file.write(filter.toArray());
-  }
-
   @Before
   public void setup() {
     final BlockHeader fakeHeader =
@@ -0,0 +1,123 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.api.query;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Log;
+import org.hyperledger.besu.ethereum.core.LogTopic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class LogsQueryIndexTest {
+
+  private static final Address ADDRESS_1 = Address.fromHexString("0x1111");
+  private static final Address ADDRESS_2 = Address.fromHexString("0x2222");
+  private static final LogTopic TOPIC_1 = topic(1);
+  private static final LogTopic TOPIC_2 = topic(2);
+  private static final LogTopic TOPIC_3 = topic(3);
+
+  @Test
+  public void matchesByAddress() {
+    final LogsQuery query = new LogsQuery(List.of(ADDRESS_1, ADDRESS_2, ADDRESS_1), emptyList());
+    final LogsQueryIndex<LogsQuery> index = index(List.of(query));
+
+    assertThat(index.matching(log(ADDRESS_1))).containsExactly(query);
+    assertThat(index.matching(log(ADDRESS_2, TOPIC_1))).containsExactly(query);
+    assertThat(index.matching(log(Address.ZERO))).isEmpty();
+  }
+
+  @Test
+  public void matchesByTopicAtFirstConstrainedPosition() {
+    final LogsQuery query =
+        new LogsQuery(emptyList(), List.of(Arrays.asList(TOPIC_1, null), List.of(TOPIC_2)));
+    final LogsQueryIndex<LogsQuery> index = index(List.of(query));
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_3, TOPIC_2))).containsExactly(query);
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_2, TOPIC_3))).isEmpty();
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_3))).isEmpty();
+  }
+
+  @Test
+  public void matchesQueriesWithoutConstraintsAgainstEveryLog() {
+    final LogsQuery query = new LogsQuery(emptyList(), List.of(Arrays.asList((LogTopic) null)));
+    final LogsQueryIndex<LogsQuery> index = index(List.of(query));
+
+    assertThat(index.matching(log(ADDRESS_1, TOPIC_3))).containsExactly(query);
+    assertThat(index.matching(log(ADDRESS_2))).isEmpty();
+  }
+
+  @Test
+  public void matchesSameQueriesAsMatchingEachQuery() {
+    final Random random = new Random(1);
+    final List<LogsQuery> queries = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      final List<Address> addresses = new ArrayList<>();
+      for (int j = random.nextInt(3); j > 0; j--) {
+        addresses.add(randomAddress(random));
+      }
+      final List<List<LogTopic>> topics = new ArrayList<>();
+      for (int position = random.nextInt(4); position > 0; position--) {
+        final List<LogTopic> topicsAtPosition = new ArrayList<>();
+        for (int j = random.nextInt(3); j > 0; j--) {
+          topicsAtPosition.add(random.nextInt(4) == 0 ? null : randomTopic(random));
+        }
+        topics.add(topicsAtPosition);
+      }
+      queries.add(new LogsQuery(addresses, topics));
+    }
+    final LogsQueryIndex<LogsQuery> index = index(queries);
+
+    for (int i = 0; i < 1_000; i++) {
+      final LogTopic[] topics = new LogTopic[random.nextInt(4)];
+      Arrays.setAll(topics, j -> randomTopic(random));
+      final Log log = log(randomAddress(random), topics);
+
+      assertThat(index.matching(log))
+          .containsExactlyInAnyOrderElementsOf(
+              queries.stream().filter(query -> query.matches(log)).collect(Collectors.toList()));
+    }
+  }
+
+  private static LogsQueryIndex<LogsQuery> index(final List<LogsQuery> queries) {
+    return new LogsQueryIndex<>(queries, Function.identity());
+  }
+
+  private static Log log(final Address logger, final LogTopic... topics) {
+    return new Log(logger, Bytes.EMPTY, List.of(topics));
+  }
+
+  private static Address randomAddress(final Random random) {
+    return Address.fromHexString("0x" + Integer.toHexString(random.nextInt(4)));
+  }
+
+  private static LogTopic randomTopic(final Random random) {
+    return topic(random.nextInt(4));
+  }
+
+  private static LogTopic topic(final int value) {
+    return LogTopic.create(Bytes.ofUnsignedInt(value));
+  }
+}
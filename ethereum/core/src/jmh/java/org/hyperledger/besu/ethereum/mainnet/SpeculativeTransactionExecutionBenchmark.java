@@ -0,0 +1,119 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static java.util.Collections.emptyList;
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryBlockchain;
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.AddressHelpers;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Processes synthetic blocks of value transfers, executing their transactions in order or
+ * speculatively in parallel. The conflict rate is the share of transactions sending to the same
+ * account, each of which has to be executed again when executed in parallel.
+ */
+@State(Scope.Benchmark)
+public class SpeculativeTransactionExecutionBenchmark {
+
+  private static final long BLOCK_NUMBER = 10_000_000L;
+
+  @Param({"0.0", "0.1", "0.5", "1.0"})
+  public double conflictRate;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  @Param({"200"})
+  public int transactionCount;
+
+  private WorldStateArchive worldStateArchive;
+  private Blockchain blockchain;
+  private BlockProcessor blockProcessor;
+  private BlockHeader header;
+  private Hash parentStateRoot;
+  private List<Transaction> transactions;
+
+  @Setup
+  public void prepare() {
+    worldStateArchive = createInMemoryWorldStateArchive();
+    blockchain = createInMemoryBlockchain(new BlockDataGenerator().genesisBlock());
+    blockProcessor =
+        MainnetProtocolSchedule.create().getByBlockNumber(BLOCK_NUMBER).getBlockProcessor();
+    blockProcessor.setParallelTransactionExecution(parallel);
+    header =
+        new BlockHeaderTestFixture()
+            .number(BLOCK_NUMBER)
+            .gasLimit(transactionCount * 21_000L)
+            .coinbase(AddressHelpers.ofValue(1))
+            .buildHeader();
+
+    final Random random = new Random(1);
+    final Address hotAccount = AddressHelpers.ofValue(2);
+    final MutableWorldState worldState = worldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    transactions = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; i++) {
+      final KeyPair keys = KeyPair.generate();
+      final Address sender = Address.extract(Hash.hash(keys.getPublicKey().getEncodedBytes()));
+      updater.createAccount(sender).getMutable().setBalance(Wei.fromEth(1));
+      final Address recipient =
+          random.nextDouble() < conflictRate ? hotAccount : AddressHelpers.ofValue(1_000 + i);
+      transactions.add(
+          new TransactionTestFixture()
+              .sender(sender)
+              .nonce(0)
+              .gasPrice(Wei.of(1))
+              .gasLimit(21_000)
+              .to(Optional.of(recipient))
+              .value(Wei.of(1))
+              .chainId(Optional.empty())
+              .createTransaction(keys));
+    }
+    updater.commit();
+    worldState.persist();
+    parentStateRoot = worldState.rootHash();
+  }
+
+  @Benchmark
+  public BlockProcessor.Result processBlock() {
+    final MutableWorldState worldState = worldStateArchive.getMutable(parentStateRoot).get();
+    return blockProcessor.processBlock(blockchain, worldState, header, transactions, emptyList());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.mainnet.MainnetProtocolSchedule;
+import org.hyperledger.besu.ethereum.merkleutils.ClassicMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.vm.Code;
+import org.hyperledger.besu.ethereum.vm.EVM;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.OperationTracer;
+import org.hyperledger.besu.ethereum.vm.ehalt.ExceptionalHaltException;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Runs whole contracts, comparing the untraced interpreter path with the traced one. The traced
+ * runs use a tracer doing nothing but executing each step, so the difference between both is the
+ * cost of the tracing machinery alone.
+ */
+@State(Scope.Thread)
+public class ContractExecutionBenchmark {
+
+  // Counts down from 1000 to 0: PUSH2 1000, JUMPDEST, PUSH1 1, SWAP1, SUB, DUP1, PUSH1 3, JUMPI
+  private static final String LOOP = "0x6103e85b600190038060035700";
+
+  // Same loop, hashing the counter at each iteration: DUP1, PUSH1 0, MSTORE, PUSH1 32, PUSH1 0,
+  // SHA3, POP
+  private static final String KECCAK_LOOP = "0x6103e85b80600052602060002050600190038060035700";
+
+  private static final OperationTracer PASS_THROUGH_TRACER =
+      (frame, currentGasCost, executeOperation) -> executeOperation.execute();
+
+  @Param({"LOOP", "KECCAK_LOOP"})
+  public String contract;
+
+  @Param({"false", "true"})
+  public boolean traced;
+
+  private OperationBenchmarkHelper operationBenchmarkHelper;
+  private EVM evm;
+  private Bytes bytecode;
+  private Hash codeHash;
+  private OperationTracer tracer;
+
+  @Setup
+  public void prepare() throws Exception {
+    operationBenchmarkHelper = OperationBenchmarkHelper.create(new ClassicMerkleAwareProvider());
+    evm = MainnetProtocolSchedule.create().getByBlockNumber(10_000_000L).getEvm();
+    bytecode = Bytes.fromHexString(contract.equals("LOOP") ? LOOP : KECCAK_LOOP);
+    codeHash = Hash.hash(bytecode);
+    tracer = traced ? PASS_THROUGH_TRACER : OperationTracer.NO_TRACING;
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    operationBenchmarkHelper.cleanUp();
+  }
+
+  @Benchmark
+  public MessageFrame runContract() throws ExceptionalHaltException {
+    final MessageFrame frame =
+        operationBenchmarkHelper
+            .createMessageFrameBuilder()
+            .code(new Code(bytecode, codeHash))
+            .initialGas(Gas.of(10_000_000L))
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    evm.runToHalt(frame, tracer);
+    return frame;
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Difficulty;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps recently used decoded headers, bodies, receipts and canonical block hashes in size bounded
+ * caches in front of another {@link BlockchainStorage}.
+ *
+ * <p>Headers, bodies and receipts are keyed by block hash, so they never go stale. Canonical hashes
+ * by number change on reorgs, so cached hashes are only ever replaced by updaters after they
+ * commit, and reads only fill in numbers that aren't cached yet. A read racing a commit can then
+ * never leave a stale hash behind: either the read stores first and the commit overwrites it, or
+ * the commit stores first and the read leaves it alone. Numbers removed from the canonical chain
+ * are cached as empty for the same reason.
+ */
+class CachingBlockchainStorage implements BlockchainStorage {
+
+  static final int DEFAULT_HEADER_CACHE_SIZE = 1024;
+  static final int DEFAULT_BODY_CACHE_SIZE = 256;
+  static final int DEFAULT_RECEIPTS_CACHE_SIZE = 256;
+  static final int DEFAULT_BLOCK_HASH_CACHE_SIZE = 4096;
+
+  private final BlockchainStorage storage;
+  private final Cache<Hash, BlockHeader> headers;
+  private final Cache<Hash, BlockBody> bodies;
+  private final Cache<Hash, List<TransactionReceipt>> receipts;
+  private final Cache<Long, Optional<Hash>> blockHashes;
+
+  CachingBlockchainStorage(final BlockchainStorage storage, final MetricsSystem metricsSystem) {
+    this(
+        storage,
+        metricsSystem,
+        DEFAULT_HEADER_CACHE_SIZE,
+        DEFAULT_BODY_CACHE_SIZE,
+        DEFAULT_RECEIPTS_CACHE_SIZE,
+        DEFAULT_BLOCK_HASH_CACHE_SIZE);
+  }
+
+  CachingBlockchainStorage(
+      final BlockchainStorage storage,
+      final MetricsSystem metricsSystem,
+      final int headerCacheSize,
+      final int bodyCacheSize,
+      final int receiptsCacheSize,
+      final int blockHashCacheSize) {
+    this.storage = storage;
+    this.headers = createCache(metricsSystem, "header", headerCacheSize);
+    this.bodies = createCache(metricsSystem, "body", bodyCacheSize);
+    this.receipts = createCache(metricsSystem, "receipts", receiptsCacheSize);
+    this.blockHashes = createCache(metricsSystem, "block_hash", blockHashCacheSize);
+  }
+
+  private static <K, V> Cache<K, V> createCache(
+      final MetricsSystem metricsSystem, final String name, final int size) {
+    final Cache<K, V> cache = CacheBuilder.newBuilder().maximumSize(size).recordStats().build();
+    metricsSystem.createGauge(
+        BesuMetricCategory.BLOCKCHAIN,
+        name + "_cache_hit_ratio",
+        "Ratio of " + name.replace('_', ' ') + " lookups served from the blockchain cache",
+        () -> cache.stats().hitRate());
+    return cache;
+  }
+
+  private static <V> Optional<V> getThrough(
+      final Cache<Hash, V> cache, final Hash blockHash, final Function<Hash, Optional<V>> loader) {
+    final V cached = cache.getIfPresent(blockHash);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    final Optional<V> loaded = loader.apply(blockHash);
+    loaded.ifPresent(value -> cache.put(blockHash, value));
+    return loaded;
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return storage.getChainHead();
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return storage.getForkHeads();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return getThrough(headers, blockHash, storage::getBlockHeader);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return getThrough(bodies, blockHash, storage::getBlockBody);
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return getThrough(receipts, blockHash, storage::getTransactionReceipts);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    final Optional<Hash> cached = blockHashes.getIfPresent(blockNumber);
+    if (cached != null) {
+      return cached;
+    }
+    final Optional<Hash> loaded = storage.getBlockHash(blockNumber);
+    if (loaded.isPresent()) {
+      blockHashes.asMap().putIfAbsent(blockNumber, loaded);
+    }
+    return loaded;
+  }
+
+  @Override
+  public Optional<Difficulty> getTotalDifficulty(final Hash blockHash) {
+    return storage.getTotalDifficulty(blockHash);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return storage.getTransactionLocation(transactionHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new CachingUpdater(storage.updater());
+  }
+
+  /** Updater publishing what it wrote to the caches once it commits. */
+  private class CachingUpdater implements Updater {
+
+    private final Updater updater;
+    private final Map<Hash, BlockHeader> newHeaders = new HashMap<>();
+    private final Map<Hash, BlockBody> newBodies = new HashMap<>();
+    private final Map<Hash, List<TransactionReceipt>> newReceipts = new HashMap<>();
+    private final Map<Long, Optional<Hash>> newBlockHashes = new HashMap<>();
+
+    CachingUpdater(final Updater updater) {
+      this.updater = updater;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      updater.putBlockHeader(blockHash, blockHeader);
+      newHeaders.put(blockHash, blockHeader);
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      updater.putBlockBody(blockHash, blockBody);
+      newBodies.put(blockHash, blockBody);
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      updater.putTransactionLocation(transactionHash, transactionLocation);
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      updater.putTransactionReceipts(blockHash, transactionReceipts);
+      newReceipts.put(blockHash, transactionReceipts);
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      updater.putBlockHash(blockNumber, blockHash);
+      newBlockHashes.put(blockNumber, Optional.of(blockHash));
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final Difficulty totalDifficulty) {
+      updater.putTotalDifficulty(blockHash, totalDifficulty);
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      updater.setChainHead(blockHash);
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      updater.setForkHeads(forkHeadHashes);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      updater.removeBlockHash(blockNumber);
+      newBlockHashes.put(blockNumber, Optional.empty());
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      updater.removeTransactionLocation(transactionHash);
+    }
+
+    @Override
+    public void commit() {
+      updater.commit();
+      headers.putAll(newHeaders);
+      bodies.putAll(newBodies);
+      receipts.putAll(newReceipts);
+      blockHashes.putAll(newBlockHashes);
+      clear();
+    }
+
+    @Override
+    public void rollback() {
+      updater.rollback();
+      clear();
+    }
+
+    private void clear() {
+      newHeaders.clear();
+      newBodies.clear();
+      newReceipts.clear();
+      newBlockHashes.clear();
+    }
+  }
+}
@@ -68,7 +68,7 @@ public class DefaultBlockchain implements MutableBlockchain {
     checkNotNull(blockchainStorage);
     checkNotNull(metricsSystem);
 
-    this.blockchainStorage = blockchainStorage;
+    this.blockchainStorage = new CachingBlockchainStorage(blockchainStorage, metricsSystem);
     genesisBlock.ifPresent(this::setGenesis);
 
     final Hash chainHead = blockchainStorage.getChainHead().get();
@@ -101,6 +101,29 @@ public abstract class AbstractWorldUpdater<W extends WorldView, A extends Accoun
     }
   }
 
+  @Override
+  public void prefetch(
+      final Collection<Address> addresses,
+      final Map<Address, ? extends Collection<UInt256>> storageKeys) {
+    // Accounts buffered here are never read from the wrapped view, nor are slots of deleted ones
+    final Collection<Address> unbufferedAddresses = new ArrayList<>();
+    for (final Address address : addresses) {
+      if (!updatedAccounts.containsKey(address) && !deletedAccounts.contains(address)) {
+        unbufferedAddresses.add(address);
+      }
+    }
+    final Map<Address, Collection<UInt256>> unbufferedStorageKeys = new HashMap<>();
+    storageKeys.forEach(
+        (address, keys) -> {
+          if (!deletedAccounts.contains(address)) {
+            unbufferedStorageKeys.put(address, new ArrayList<>(keys));
+          }
+        });
+    if (!unbufferedAddresses.isEmpty() || !unbufferedStorageKeys.isEmpty()) {
+      world.prefetch(unbufferedAddresses, unbufferedStorageKeys);
+    }
+  }
+
   @Override
   public void deleteAccount(final Address address) {
     deletedAccounts.add(address);
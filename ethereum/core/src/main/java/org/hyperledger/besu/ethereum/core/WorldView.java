@@ -14,6 +14,11 @@
  */
 package org.hyperledger.besu.ethereum.core;
 
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.tuweni.units.bigints.UInt256;
+
 /** Generic interface for a view over the accounts of the world state. */
 public interface WorldView {
   WorldView EMPTY = address -> null;
@@ -26,4 +31,16 @@ public interface WorldView {
    *     such account.
    */
   Account get(Address address);
+
+  /**
+   * Hint that the given accounts, and the given storage slots of theirs, are about to be read.
+   * Views able to load several entries at once can use it to load them in a single pass; by
+   * default it does nothing.
+   *
+   * @param addresses addresses of the accounts to be read
+   * @param storageKeys storage slots to be read, per account address
+   */
+  default void prefetch(
+      final Collection<Address> addresses,
+      final Map<Address, ? extends Collection<UInt256>> storageKeys) {}
 }
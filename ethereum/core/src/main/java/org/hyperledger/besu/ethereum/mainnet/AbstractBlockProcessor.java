@@ -25,9 +25,11 @@ import org.hyperledger.besu.ethereum.core.Wei;
 import org.hyperledger.besu.ethereum.core.WorldState;
 import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
@@ -89,6 +91,13 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
 
   private final MiningBeneficiaryCalculator miningBeneficiaryCalculator;
 
+  private final TransactionPrevalidator transactionPrevalidator = new TransactionPrevalidator();
+
+  private final SpeculativeTransactionExecutor speculativeTransactionExecutor =
+      new SpeculativeTransactionExecutor();
+
+  private boolean parallelTransactionExecution;
+
   public AbstractBlockProcessor(final AbstractBlockProcessor blockProcessor) {
     this(
         blockProcessor.transactionProcessor,
@@ -111,6 +120,17 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
     this.skipZeroBlockRewards = skipZeroBlockRewards;
   }
 
+  @Override
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    transactionPrevalidator.setMetricsSystem(metricsSystem);
+    speculativeTransactionExecutor.setMetricsSystem(metricsSystem);
+  }
+
+  @Override
+  public void setParallelTransactionExecution(final boolean parallelTransactionExecution) {
+    this.parallelTransactionExecution = parallelTransactionExecution;
+  }
+
   @Override
   public AbstractBlockProcessor.Result processBlock(
       final Blockchain blockchain,
@@ -119,6 +139,42 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
       final List<Transaction> transactions,
       final List<BlockHeader> ommers) {
 
+    // Recover the senders and run the stateless checks of all transactions in parallel first
+    final ValidationResult<TransactionValidator.TransactionInvalidReason> prevalidationResult =
+        transactionPrevalidator.prevalidate(transactionProcessor, transactions);
+    if (!prevalidationResult.isValid()) {
+      LOG.warn("Transaction prevalidation error: {}", prevalidationResult.getErrorMessage());
+      return AbstractBlockProcessor.Result.failed();
+    }
+
+    final Optional<List<TransactionReceipt>> receipts =
+        parallelTransactionExecution
+            ? speculativeTransactionExecutor.execute(
+                transactionProcessor,
+                transactionReceiptFactory,
+                blockchain,
+                worldState,
+                blockHeader,
+                transactions,
+                miningBeneficiaryCalculator.calculateBeneficiary(blockHeader))
+            : processTransactions(blockchain, worldState, blockHeader, transactions);
+    if (!receipts.isPresent()) {
+      return AbstractBlockProcessor.Result.failed();
+    }
+
+    if (!rewardCoinbase(worldState, blockHeader, ommers, skipZeroBlockRewards)) {
+      return AbstractBlockProcessor.Result.failed();
+    }
+
+    worldState.persist();
+    return AbstractBlockProcessor.Result.successful(receipts.get());
+  }
+
+  private Optional<List<TransactionReceipt>> processTransactions(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions) {
     long gasUsed = 0;
     final List<TransactionReceipt> receipts = new ArrayList<>();
 
@@ -129,7 +185,7 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
             "Transaction processing error: transaction gas limit {} exceeds available block budget remaining {}",
             transaction.getGasLimit(),
             remainingGasBudget);
-        return AbstractBlockProcessor.Result.failed();
+        return Optional.empty();
       }
 
       final WorldUpdater worldStateUpdater = worldState.updater();
@@ -148,7 +204,7 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
               true,
               TransactionValidationParams.processingBlock());
       if (result.isInvalid()) {
-        return AbstractBlockProcessor.Result.failed();
+        return Optional.empty();
       }
 
       worldStateUpdater.commit();
@@ -158,12 +214,7 @@ public abstract class AbstractBlockProcessor implements BlockProcessor {
       receipts.add(transactionReceipt);
     }
 
-    if (!rewardCoinbase(worldState, blockHeader, ommers, skipZeroBlockRewards)) {
-      return AbstractBlockProcessor.Result.failed();
-    }
-
-    worldState.persist();
-    return AbstractBlockProcessor.Result.successful(receipts);
+    return Optional.of(receipts);
   }
 
   abstract boolean rewardCoinbase(
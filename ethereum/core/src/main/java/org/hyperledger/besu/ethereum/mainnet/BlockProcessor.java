@@ -21,6 +21,7 @@ import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.List;
 
@@ -108,4 +109,19 @@ public interface BlockProcessor {
       final Wei blockReward, final long blockNumber, final int numberOfOmmers) {
     return blockReward.add(blockReward.multiply(numberOfOmmers).divide(32));
   }
+
+  /**
+   * Sets the metrics system block processing metrics are reported to.
+   *
+   * @param metricsSystem the metrics system
+   */
+  default void setMetricsSystem(final MetricsSystem metricsSystem) {}
+
+  /**
+   * Sets whether the transactions of a block are executed speculatively in parallel. Processors
+   * not supporting it keep executing them in order.
+   *
+   * @param parallelTransactionExecution whether to execute transactions in parallel
+   */
+  default void setParallelTransactionExecution(final boolean parallelTransactionExecution) {}
 }
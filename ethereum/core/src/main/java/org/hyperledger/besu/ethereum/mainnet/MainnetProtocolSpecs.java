@@ -30,6 +30,7 @@ import org.hyperledger.besu.ethereum.mainnet.contractvalidation.MaxCodeSizeRule;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionProcessor;
 import org.hyperledger.besu.ethereum.privacy.PrivateTransactionValidator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.io.IOException;
 import java.math.BigInteger;
@@ -364,6 +365,16 @@ public abstract class MainnetProtocolSpecs {
       return wrapped.processBlock(blockchain, worldState, blockHeader, transactions, ommers);
     }
 
+    @Override
+    public void setMetricsSystem(final MetricsSystem metricsSystem) {
+      wrapped.setMetricsSystem(metricsSystem);
+    }
+
+    @Override
+    public void setParallelTransactionExecution(final boolean parallelTransactionExecution) {
+      wrapped.setParallelTransactionExecution(parallelTransactionExecution);
+    }
+
     private static final Address DAO_REFUND_CONTRACT_ADDRESS =
         Address.fromHexString("0xbf4ed7b27f1d666546e30d74d50d173d20bca754");
 
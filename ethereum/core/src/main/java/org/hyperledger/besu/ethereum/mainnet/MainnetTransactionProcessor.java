@@ -33,6 +33,7 @@ import org.hyperledger.besu.ethereum.vm.OperationTracer;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
@@ -163,6 +164,12 @@ public class MainnetTransactionProcessor implements TransactionProcessor {
     this.createContractAccountVersion = createContractAccountVersion;
   }
 
+  @Override
+  public ValidationResult<TransactionValidator.TransactionInvalidReason> prevalidate(
+      final Transaction transaction) {
+    return transactionValidator.validate(transaction);
+  }
+
   @Override
   public Result processTransaction(
       final Blockchain blockchain,
@@ -187,6 +194,13 @@ public class MainnetTransactionProcessor implements TransactionProcessor {
     }
 
     final Address senderAddress = transaction.getSender();
+    // Every transaction reads these accounts, so let the world state load them in one pass
+    final List<Address> touchedAddresses = new ArrayList<>();
+    touchedAddresses.add(senderAddress);
+    transaction.getTo().ifPresent(touchedAddresses::add);
+    touchedAddresses.add(miningBeneficiary);
+    worldState.prefetch(touchedAddresses, Collections.emptyMap());
+
     final DefaultEvmAccount sender = worldState.getOrCreate(senderAddress);
     validationResult =
         transactionValidator.validateForSender(transaction, sender, transactionValidationParams);
@@ -272,7 +286,10 @@ public class MainnetTransactionProcessor implements TransactionProcessor {
               .sender(senderAddress)
               .value(transaction.getValue())
               .apparentValue(transaction.getValue())
-              .code(new Code(contract != null ? contract.getCode() : Bytes.EMPTY))
+              .code(
+                  contract != null
+                      ? new Code(contract.getCode(), contract.getCodeHash())
+                      : new Code())
               .blockHeader(blockHeader)
               .depth(0)
               .completer(c -> {})
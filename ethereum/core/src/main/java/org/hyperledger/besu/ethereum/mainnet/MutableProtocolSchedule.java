@@ -18,6 +18,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import org.hyperledger.besu.ethereum.core.TransactionFilter;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.math.BigInteger;
 import java.util.Comparator;
@@ -80,6 +81,11 @@ public class MutableProtocolSchedule<C> implements ProtocolSchedule<C> {
     protocolSpecs.forEach(spec -> spec.getSpec().setTransactionFilter(transactionFilter));
   }
 
+  @Override
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    protocolSpecs.forEach(spec -> spec.getSpec().setMetricsSystem(metricsSystem));
+  }
+
   @Override
   public void setPublicWorldStateArchiveForPrivacyBlockProcessor(
       final WorldStateArchive publicWorldStateArchive) {
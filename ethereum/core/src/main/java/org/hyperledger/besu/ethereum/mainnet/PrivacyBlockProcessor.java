@@ -31,6 +31,7 @@ import org.hyperledger.besu.ethereum.privacy.storage.PrivateStateStorage;
 import org.hyperledger.besu.ethereum.privacy.storage.PrivateTransactionMetadata;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.util.ArrayList;
 import java.util.Base64;
@@ -71,6 +72,11 @@ public class PrivacyBlockProcessor implements BlockProcessor {
     this.publicWorldStateArchive = publicWorldStateArchive;
   }
 
+  @Override
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    blockProcessor.setMetricsSystem(metricsSystem);
+  }
+
   @Override
   public Result processBlock(
       final Blockchain blockchain,
@@ -23,6 +23,7 @@ import org.hyperledger.besu.ethereum.privacy.PrivateTransactionProcessor;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 /** A protocol specification. */
 public class ProtocolSpec<C> {
@@ -290,6 +291,10 @@ public class ProtocolSpec<C> {
     transactionValidator.setTransactionFilter(transactionFilter);
   }
 
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    blockProcessor.setMetricsSystem(metricsSystem);
+  }
+
   public void setPublicWorldStateArchiveForPrivacyBlockProcessor(
       final WorldStateArchive publicWorldStateArchive) {
     if (PrivacyBlockProcessor.class.isAssignableFrom(blockProcessor.getClass()))
@@ -38,6 +38,7 @@ public class ProtocolSpecBuilder<T> {
   private Supplier<GasCalculator> gasCalculatorBuilder;
   private Wei blockReward;
   private boolean skipZeroBlockRewards;
+  private boolean parallelTransactionExecution;
   private BlockHeaderFunctions blockHeaderFunctions;
   private MainnetBlockProcessor.TransactionReceiptFactory transactionReceiptFactory;
   private DifficultyCalculator<T> difficultyCalculator;
@@ -76,6 +77,12 @@ public class ProtocolSpecBuilder<T> {
     return this;
   }
 
+  public ProtocolSpecBuilder<T> parallelTransactionExecution(
+      final boolean parallelTransactionExecution) {
+    this.parallelTransactionExecution = parallelTransactionExecution;
+    return this;
+  }
+
   public ProtocolSpecBuilder<T> blockHeaderFunctions(
       final BlockHeaderFunctions blockHeaderFunctions) {
     this.blockHeaderFunctions = blockHeaderFunctions;
@@ -236,6 +243,7 @@ public class ProtocolSpecBuilder<T> {
         .blockHeaderFunctions(blockHeaderFunctions)
         .blockReward(blockReward)
         .skipZeroBlockRewards(skipZeroBlockRewards)
+        .parallelTransactionExecution(parallelTransactionExecution)
         .difficultyCalculator(difficultyCalculator)
         .transactionReceiptFactory(transactionReceiptFactory)
         .miningBeneficiaryCalculator(miningBeneficiaryCalculator)
@@ -325,6 +333,9 @@ public class ProtocolSpecBuilder<T> {
               privacyParameters.getPrivateStateStorage(),
               privacyParameters.getPrivateWorldStateArchive());
     }
+    // Private transactions update the private state as they are executed, so privacy block
+    // processors don't execute transactions in parallel
+    blockProcessor.setParallelTransactionExecution(parallelTransactionExecution);
 
     final BlockValidator<T> blockValidator =
         blockValidatorBuilder.apply(blockHeaderValidator, blockBodyValidator, blockProcessor);
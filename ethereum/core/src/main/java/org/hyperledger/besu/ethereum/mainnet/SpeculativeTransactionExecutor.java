@@ -0,0 +1,573 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.AbstractWorldUpdater;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.AccountStorageEntry;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.DefaultEvmAccount;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableAccount;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.core.WorldView;
+import org.hyperledger.besu.ethereum.vm.BlockHashLookup;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.google.common.base.Preconditions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * Executes the transactions of a block speculatively in parallel, then applies their effects in
+ * block order.
+ *
+ * <p>Each transaction is first executed on a fork-join pool against the world state as it is
+ * before the block, recording the accounts and storage slots it reads and buffering its updates.
+ * The updates are then applied in block order. A transaction that read an account or a slot
+ * written by a transaction before it in the block saw stale values, so it is executed again
+ * against the up to date world state instead. This gives the same world state and receipts as
+ * executing the transactions one after the other, while transactions touching disjoint accounts
+ * only pay for their execution in parallel.
+ *
+ * <p>Every transaction pays its fee to the mining beneficiary, which would make each transaction
+ * conflict with all those before it. So unless the beneficiary is otherwise used by the
+ * transaction, its fee is buffered as an increment of the beneficiary balance, which is applied on
+ * top of the fees of the previous transactions.
+ *
+ * <p>The world state is only read while the transactions are executed in parallel, and the block
+ * hash lookups are created for each transaction, so the executions share no mutable state.
+ */
+public class SpeculativeTransactionExecutor {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  /** Default number of transactions below which tasks stop forking. */
+  public static final int DEFAULT_FORK_THRESHOLD = 2;
+
+  private final ForkJoinPool pool;
+  private final int forkThreshold;
+  private OperationTimer speculativeExecutionTimer = NoOpMetricsSystem.NO_OP_OPERATION_TIMER;
+  private Counter reexecutedTransactionsCounter = NoOpMetricsSystem.NO_OP_COUNTER;
+
+  public SpeculativeTransactionExecutor() {
+    this(ForkJoinPool.commonPool(), DEFAULT_FORK_THRESHOLD);
+  }
+
+  public SpeculativeTransactionExecutor(final ForkJoinPool pool, final int forkThreshold) {
+    Preconditions.checkNotNull(pool);
+    Preconditions.checkArgument(forkThreshold > 0, "Fork threshold must be positive");
+    this.pool = pool;
+    this.forkThreshold = forkThreshold;
+  }
+
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    speculativeExecutionTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.BLOCKCHAIN,
+            "transactions_speculative_execution_seconds",
+            "Time spent executing the transactions of a block in parallel");
+    reexecutedTransactionsCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.BLOCKCHAIN,
+            "transactions_reexecuted_total",
+            "Number of speculatively executed transactions executed again in block order");
+  }
+
+  /**
+   * Execute the transactions of a block.
+   *
+   * @param transactionProcessor processor executing each transaction
+   * @param transactionReceiptFactory factory creating the receipt of each transaction
+   * @param blockchain blockchain the block is executed on
+   * @param worldState world state to apply the transactions to
+   * @param blockHeader header of the block
+   * @param transactions transactions of the block, in block order
+   * @param miningBeneficiary account the transaction fees are paid to
+   * @return the receipts of the transactions, or empty if a transaction is invalid or exceeds the
+   *     gas limit of the block
+   */
+  public Optional<List<TransactionReceipt>> execute(
+      final TransactionProcessor transactionProcessor,
+      final AbstractBlockProcessor.TransactionReceiptFactory transactionReceiptFactory,
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary) {
+    final Execution[] executions = new Execution[transactions.size()];
+    if (!transactions.isEmpty()) {
+      try (final OperationTimer.TimingContext ignored = speculativeExecutionTimer.startTimer()) {
+        pool.invoke(
+            new SpeculationTask(
+                transactionProcessor,
+                blockchain,
+                worldState,
+                blockHeader,
+                transactions,
+                miningBeneficiary,
+                executions,
+                0,
+                transactions.size()));
+      }
+    }
+
+    final Set<Address> writtenAccounts = new HashSet<>();
+    final Map<Address, Set<UInt256>> writtenSlots = new HashMap<>();
+    final List<TransactionReceipt> receipts = new ArrayList<>();
+    long gasUsed = 0;
+    for (int i = 0; i < executions.length; i++) {
+      final Transaction transaction = transactions.get(i);
+      final long remainingGasBudget = blockHeader.getGasLimit() - gasUsed;
+      if (Long.compareUnsigned(transaction.getGasLimit(), remainingGasBudget) > 0) {
+        LOG.warn(
+            "Transaction processing error: transaction gas limit {} exceeds available block budget remaining {}",
+            transaction.getGasLimit(),
+            remainingGasBudget);
+        return Optional.empty();
+      }
+
+      Execution execution = executions[i];
+      if (execution == null || execution.updater.readsAnyOf(writtenAccounts, writtenSlots)) {
+        reexecutedTransactionsCounter.inc();
+        execution =
+            execute(
+                transactionProcessor,
+                blockchain,
+                worldState,
+                blockHeader,
+                transaction,
+                miningBeneficiary,
+                null);
+      }
+      if (execution.result.isInvalid()) {
+        return Optional.empty();
+      }
+
+      execution.updater.collectWrites(writtenAccounts, writtenSlots);
+      final WorldUpdater worldStateUpdater = worldState.updater();
+      execution.updater.applyTo(worldStateUpdater);
+      worldStateUpdater.commit();
+      gasUsed = transaction.getGasLimit() - execution.result.getGasRemaining() + gasUsed;
+      receipts.add(transactionReceiptFactory.create(execution.result, worldState, gasUsed));
+    }
+    return Optional.of(receipts);
+  }
+
+  private static Execution execute(
+      final TransactionProcessor transactionProcessor,
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final Address bufferedFeeBeneficiary) {
+    final SpeculativeUpdater updater =
+        new SpeculativeUpdater(new ReadRecordingWorldView(worldState), bufferedFeeBeneficiary);
+    final TransactionProcessor.Result result =
+        transactionProcessor.processTransaction(
+            blockchain,
+            updater,
+            blockHeader,
+            transaction,
+            miningBeneficiary,
+            new BlockHashLookup(blockHeader, blockchain),
+            true,
+            TransactionValidationParams.processingBlock());
+    return new Execution(result, updater);
+  }
+
+  /** A transaction execution, along with the updates it made. */
+  private static class Execution {
+    final TransactionProcessor.Result result;
+    final SpeculativeUpdater updater;
+
+    Execution(final TransactionProcessor.Result result, final SpeculativeUpdater updater) {
+      this.result = result;
+      this.updater = updater;
+    }
+  }
+
+  private class SpeculationTask extends RecursiveAction {
+
+    private final TransactionProcessor transactionProcessor;
+    private final Blockchain blockchain;
+    private final MutableWorldState worldState;
+    private final BlockHeader blockHeader;
+    private final List<Transaction> transactions;
+    private final Address miningBeneficiary;
+    private final Execution[] executions;
+    private final int from;
+    private final int to;
+
+    SpeculationTask(
+        final TransactionProcessor transactionProcessor,
+        final Blockchain blockchain,
+        final MutableWorldState worldState,
+        final BlockHeader blockHeader,
+        final List<Transaction> transactions,
+        final Address miningBeneficiary,
+        final Execution[] executions,
+        final int from,
+        final int to) {
+      this.transactionProcessor = transactionProcessor;
+      this.blockchain = blockchain;
+      this.worldState = worldState;
+      this.blockHeader = blockHeader;
+      this.transactions = transactions;
+      this.miningBeneficiary = miningBeneficiary;
+      this.executions = executions;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= forkThreshold) {
+        for (int i = from; i < to; i++) {
+          executions[i] = speculate(transactions.get(i));
+        }
+        return;
+      }
+
+      final int middle = (from + to) >>> 1;
+      final SpeculationTask leftTask = subTask(from, middle);
+      leftTask.fork();
+      subTask(middle, to).compute();
+      leftTask.join();
+    }
+
+    private SpeculationTask subTask(final int from, final int to) {
+      return new SpeculationTask(
+          transactionProcessor,
+          blockchain,
+          worldState,
+          blockHeader,
+          transactions,
+          miningBeneficiary,
+          executions,
+          from,
+          to);
+    }
+
+    private Execution speculate(final Transaction transaction) {
+      // A transaction sent from or to the beneficiary reads it before paying its fee, so it can't
+      // have the fee buffered and is left to be executed in block order
+      if (transaction.getSender().equals(miningBeneficiary)
+          || transaction.getTo().map(miningBeneficiary::equals).orElse(false)) {
+        return null;
+      }
+      try {
+        return execute(
+            transactionProcessor,
+            blockchain,
+            worldState,
+            blockHeader,
+            transaction,
+            miningBeneficiary,
+            miningBeneficiary);
+      } catch (final RuntimeException e) {
+        // Stale reads may lead the execution astray, executing it in block order settles it
+        LOG.trace("Speculative execution of {} failed", transaction.getHash(), e);
+        return null;
+      }
+    }
+  }
+
+  /**
+   * A view of a world state recording the accounts and storage slots read through it. Prefetching
+   * would write to the shared world state, so it isn't passed on.
+   */
+  private static class ReadRecordingWorldView implements WorldView {
+    private final WorldView world;
+    private final Set<Address> readAccounts = new HashSet<>();
+    private final Map<Address, Set<UInt256>> readSlots = new HashMap<>();
+    private final Set<Address> scannedStorages = new HashSet<>();
+
+    ReadRecordingWorldView(final WorldView world) {
+      this.world = world;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      readAccounts.add(address);
+      final Account account = world.get(address);
+      return account == null ? null : new ReadRecordingAccount(account, this);
+    }
+
+    boolean readsAnyOf(
+        final Set<Address> writtenAccounts, final Map<Address, Set<UInt256>> writtenSlots) {
+      for (final Address address : readAccounts) {
+        if (writtenAccounts.contains(address)) {
+          return true;
+        }
+      }
+      for (final Map.Entry<Address, Set<UInt256>> entry : readSlots.entrySet()) {
+        final Set<UInt256> slots = writtenSlots.get(entry.getKey());
+        if (slots != null && !Collections.disjoint(slots, entry.getValue())) {
+          return true;
+        }
+      }
+      for (final Address address : scannedStorages) {
+        if (writtenSlots.containsKey(address)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** An account recording the storage slots read from it. */
+  private static class ReadRecordingAccount implements Account {
+    private final Account account;
+    private final ReadRecordingWorldView view;
+
+    ReadRecordingAccount(final Account account, final ReadRecordingWorldView view) {
+      this.account = account;
+      this.view = view;
+    }
+
+    private void recordSlot(final UInt256 key) {
+      view.readSlots.computeIfAbsent(account.getAddress(), a -> new HashSet<>()).add(key);
+    }
+
+    @Override
+    public Address getAddress() {
+      return account.getAddress();
+    }
+
+    @Override
+    public Hash getAddressHash() {
+      return account.getAddressHash();
+    }
+
+    @Override
+    public long getNonce() {
+      return account.getNonce();
+    }
+
+    @Override
+    public Wei getBalance() {
+      return account.getBalance();
+    }
+
+    @Override
+    public Bytes getCode() {
+      return account.getCode();
+    }
+
+    @Override
+    public Hash getCodeHash() {
+      return account.getCodeHash();
+    }
+
+    @Override
+    public Bytes32 getCodeSize() {
+      return account.getCodeSize();
+    }
+
+    @Override
+    public boolean hasCode() {
+      return account.hasCode();
+    }
+
+    @Override
+    public int getVersion() {
+      return account.getVersion();
+    }
+
+    @Override
+    public UInt256 getStorageValue(final UInt256 key) {
+      recordSlot(key);
+      return account.getStorageValue(key);
+    }
+
+    @Override
+    public UInt256 getOriginalStorageValue(final UInt256 key) {
+      recordSlot(key);
+      return account.getOriginalStorageValue(key);
+    }
+
+    @Override
+    public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
+        final Bytes32 startKeyHash, final int limit) {
+      view.scannedStorages.add(account.getAddress());
+      return account.storageEntriesFrom(startKeyHash, limit);
+    }
+  }
+
+  /**
+   * An updater buffering the updates of a single transaction over a {@link ReadRecordingWorldView},
+   * to be applied to the world state later on.
+   */
+  private static class SpeculativeUpdater
+      extends AbstractWorldUpdater<ReadRecordingWorldView, Account> {
+
+    // Beneficiary whose fee is buffered as a balance increment, or null if none is
+    private final Address bufferedFeeBeneficiary;
+    private MutableAccount bufferedFee;
+
+    SpeculativeUpdater(final ReadRecordingWorldView world, final Address bufferedFeeBeneficiary) {
+      super(world);
+      this.bufferedFeeBeneficiary = bufferedFeeBeneficiary;
+    }
+
+    @Override
+    protected Account getForMutation(final Address address) {
+      return wrappedWorldView().get(address);
+    }
+
+    @Override
+    public DefaultEvmAccount getAccount(final Address address) {
+      // Unless the transaction read the beneficiary before, this is the fee payment, which starts
+      // from an empty account so that its balance ends up being the fee alone
+      if (address.equals(bufferedFeeBeneficiary)
+          && bufferedFee == null
+          && !wrappedWorldView().readAccounts.contains(address)) {
+        final DefaultEvmAccount account = createAccount(address);
+        bufferedFee = account.getMutable();
+        return account;
+      }
+      return super.getAccount(address);
+    }
+
+    @Override
+    public Collection<UpdateTrackingAccount<? extends Account>> getTouchedAccounts() {
+      return new ArrayList<>(updatedAccounts());
+    }
+
+    @Override
+    public Collection<Address> getDeletedAccountAddresses() {
+      return new ArrayList<>(deletedAccounts());
+    }
+
+    @Override
+    public void revert() {
+      deletedAccounts().clear();
+      updatedAccounts().clear();
+      bufferedFee = null;
+    }
+
+    @Override
+    public void commit() {
+      throw new UnsupportedOperationException("Speculative updates are applied in block order");
+    }
+
+    boolean readsAnyOf(
+        final Set<Address> writtenAccounts, final Map<Address, Set<UInt256>> writtenSlots) {
+      return wrappedWorldView().readsAnyOf(writtenAccounts, writtenSlots);
+    }
+
+    private boolean isBufferedFee(final Address address) {
+      return bufferedFee != null && address.equals(bufferedFeeBeneficiary);
+    }
+
+    /**
+     * Add the accounts and storage slots written by the transaction to the given ones. Accounts
+     * only touched, without any of their fields changing, aren't written.
+     */
+    void collectWrites(
+        final Set<Address> writtenAccounts, final Map<Address, Set<UInt256>> writtenSlots) {
+      writtenAccounts.addAll(deletedAccounts());
+      for (final UpdateTrackingAccount<Account> updated : updatedAccounts()) {
+        final Address address = updated.getAddress();
+        final Account original = updated.getWrappedAccount();
+        if (isBufferedFee(address)
+            || original == null
+            || updated.codeWasUpdated()
+            || updated.getStorageWasCleared()
+            || updated.getNonce() != original.getNonce()
+            || !updated.getBalance().equals(original.getBalance())
+            || updated.getVersion() != original.getVersion()) {
+          writtenAccounts.add(address);
+        }
+        if (!updated.getUpdatedStorage().isEmpty()) {
+          writtenSlots
+              .computeIfAbsent(address, a -> new HashSet<>())
+              .addAll(updated.getUpdatedStorage().keySet());
+        }
+      }
+      if (bufferedFee != null) {
+        writtenAccounts.add(bufferedFeeBeneficiary);
+      }
+    }
+
+    /** Apply the buffered updates, leaving the given updater as the transaction would have. */
+    void applyTo(final WorldUpdater target) {
+      for (final Address address : deletedAccounts()) {
+        if (!isBufferedFee(address)) {
+          target.deleteAccount(address);
+        }
+      }
+      for (final UpdateTrackingAccount<Account> updated : updatedAccounts()) {
+        final Address address = updated.getAddress();
+        if (isBufferedFee(address)) {
+          continue;
+        }
+        final MutableAccount account =
+            updated.getWrappedAccount() == null
+                ? target.createAccount(address).getMutable()
+                : target.getOrCreate(address).getMutable();
+        account.setNonce(updated.getNonce());
+        account.setBalance(updated.getBalance());
+        if (updated.codeWasUpdated()) {
+          account.setCode(updated.getCode());
+          account.setVersion(updated.getVersion());
+        }
+        if (updated.getStorageWasCleared()) {
+          account.clearStorage();
+        }
+        updated.getUpdatedStorage().forEach(account::setStorageValue);
+      }
+
+      if (bufferedFee != null) {
+        // The fee account is only deleted when it was left empty, and the beneficiary then is if
+        // it is empty as well once paid, just as clearing empty accounts would have done
+        final boolean deleted = deletedAccounts().contains(bufferedFeeBeneficiary);
+        final MutableAccount beneficiary = target.getOrCreate(bufferedFeeBeneficiary).getMutable();
+        beneficiary.incrementBalance(deleted ? Wei.ZERO : bufferedFee.getBalance());
+        if (deleted && beneficiary.isEmpty()) {
+          target.deleteAccount(bufferedFeeBeneficiary);
+        }
+      }
+    }
+  }
+}
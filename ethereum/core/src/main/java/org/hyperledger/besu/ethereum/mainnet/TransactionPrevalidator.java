@@ -0,0 +1,149 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidator.TransactionInvalidReason;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Checks the transactions of a block before they are executed, on a fork-join pool. Recovering the
+ * senders is the bulk of the work, and transactions keep their recovered sender, so the sequential
+ * execution that follows doesn't pay for it again. Along with the signatures, the intrinsic gas of
+ * each transaction is checked, and the nonces of the transactions of each sender must follow each
+ * other, so a block failing these checks is rejected before any of it is executed.
+ */
+public class TransactionPrevalidator {
+
+  /** Default number of transactions below which tasks stop forking. */
+  public static final int DEFAULT_FORK_THRESHOLD = 4;
+
+  private final ForkJoinPool pool;
+  private final int forkThreshold;
+  private OperationTimer prevalidationTimer = NoOpMetricsSystem.NO_OP_OPERATION_TIMER;
+
+  public TransactionPrevalidator() {
+    this(ForkJoinPool.commonPool(), DEFAULT_FORK_THRESHOLD);
+  }
+
+  public TransactionPrevalidator(final ForkJoinPool pool, final int forkThreshold) {
+    Preconditions.checkNotNull(pool);
+    Preconditions.checkArgument(forkThreshold > 0, "Fork threshold must be positive");
+    this.pool = pool;
+    this.forkThreshold = forkThreshold;
+  }
+
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    prevalidationTimer =
+        metricsSystem.createTimer(
+            BesuMetricCategory.BLOCKCHAIN,
+            "transactions_prevalidation_seconds",
+            "Time spent checking the transactions of a block before executing them");
+  }
+
+  /**
+   * Check the transactions of a block.
+   *
+   * @param transactionProcessor processor whose stateless checks are run on each transaction
+   * @param transactions transactions of the block, in block order
+   * @return the result of the first invalid transaction, or a valid result
+   */
+  public ValidationResult<TransactionInvalidReason> prevalidate(
+      final TransactionProcessor transactionProcessor, final List<Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return ValidationResult.valid();
+    }
+    try (final OperationTimer.TimingContext ignored = prevalidationTimer.startTimer()) {
+      final Optional<ValidationResult<TransactionInvalidReason>> invalid =
+          pool.invoke(
+              new PrevalidationTask(transactionProcessor, transactions, 0, transactions.size()));
+      return invalid.orElseGet(() -> validateNonceSequences(transactions));
+    }
+  }
+
+  private static ValidationResult<TransactionInvalidReason> validateNonceSequences(
+      final List<Transaction> transactions) {
+    final Map<Address, Long> nextNonces = new HashMap<>();
+    for (final Transaction transaction : transactions) {
+      final Long expectedNonce =
+          nextNonces.put(transaction.getSender(), transaction.getNonce() + 1);
+      if (expectedNonce != null && expectedNonce != transaction.getNonce()) {
+        return ValidationResult.invalid(
+            TransactionInvalidReason.INCORRECT_NONCE,
+            String.format(
+                "transaction nonce %s does not follow nonce %s of the previous transaction of %s",
+                transaction.getNonce(), expectedNonce - 1, transaction.getSender()));
+      }
+    }
+    return ValidationResult.valid();
+  }
+
+  private class PrevalidationTask
+      extends RecursiveTask<Optional<ValidationResult<TransactionInvalidReason>>> {
+
+    private final TransactionProcessor transactionProcessor;
+    private final List<Transaction> transactions;
+    private final int from;
+    private final int to;
+
+    PrevalidationTask(
+        final TransactionProcessor transactionProcessor,
+        final List<Transaction> transactions,
+        final int from,
+        final int to) {
+      this.transactionProcessor = transactionProcessor;
+      this.transactions = transactions;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Optional<ValidationResult<TransactionInvalidReason>> compute() {
+      if (to - from <= forkThreshold) {
+        for (int i = from; i < to; i++) {
+          final ValidationResult<TransactionInvalidReason> result =
+              transactionProcessor.prevalidate(transactions.get(i));
+          if (!result.isValid()) {
+            return Optional.of(result);
+          }
+        }
+        return Optional.empty();
+      }
+
+      final int middle = (from + to) >>> 1;
+      final PrevalidationTask leftTask =
+          new PrevalidationTask(transactionProcessor, transactions, from, middle);
+      leftTask.fork();
+      final Optional<ValidationResult<TransactionInvalidReason>> rightResult =
+          new PrevalidationTask(transactionProcessor, transactions, middle, to).compute();
+      // Report the first invalid transaction in block order
+      final Optional<ValidationResult<TransactionInvalidReason>> leftResult = leftTask.join();
+      return leftResult.isPresent() ? leftResult : rightResult;
+    }
+  }
+}
@@ -107,6 +107,18 @@ public interface TransactionProcessor {
     Optional<Bytes> getRevertReason();
   }
 
+  /**
+   * Runs the checks of a transaction that don't depend on the world state, such as recovering its
+   * sender. These checks are safe to run concurrently for several transactions.
+   *
+   * @param transaction The transaction to check
+   * @return the validation result
+   */
+  default ValidationResult<TransactionValidator.TransactionInvalidReason> prevalidate(
+      final Transaction transaction) {
+    return ValidationResult.valid();
+  }
+
   /**
    * Applies a transaction to the current system state.
    *
@@ -15,18 +15,31 @@
  */
 package org.hyperledger.besu.ethereum.merkleutils;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.proof.UniTrieWorldStateProofProvider;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
+import org.hyperledger.besu.ethereum.unitrie.ParallelCommitter;
+import org.hyperledger.besu.ethereum.unitrie.UniNodeCache;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
 import org.hyperledger.besu.ethereum.worldstate.MarkSweepPruner;
 import org.hyperledger.besu.ethereum.worldstate.UniTrieMarkSweepPruner;
 import org.hyperledger.besu.ethereum.worldstate.UniTrieMutableWorldState;
+import org.hyperledger.besu.ethereum.worldstate.UniTrieRefCountPruner;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorage;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
 import org.apache.tuweni.bytes.Bytes32;
 
 /**
@@ -36,10 +49,73 @@ import org.apache.tuweni.bytes.Bytes32;
  */
 public class UniTrieMerkleAwareProvider implements MerkleAwareProvider {
 
+  public static final long DEFAULT_NODE_CACHE_SIZE = 64L * 1024 * 1024;
+
+  private final long nodeCacheSize;
+  private final Optional<ParallelCommitter> committer;
+  private final boolean incrementalPruning;
+  private final Map<WorldStateStorage, UniNodeCache> nodeCaches = new ConcurrentHashMap<>();
+
+  /**
+   * Create a provider whose world states load every trie node straight from storage, and commit
+   * trie changes sequentially.
+   */
+  public UniTrieMerkleAwareProvider() {
+    this.nodeCacheSize = 0;
+    this.committer = Optional.empty();
+    this.incrementalPruning = false;
+  }
+
+  /**
+   * Create a provider whose world states share a bounded cache of decoded trie nodes, one cache
+   * per world state storage.
+   *
+   * @param nodeCacheSize maximum size of cached node encodings per storage, in bytes; zero disables
+   *     caching
+   * @param parallelCommit whether to hash and encode independent dirty subtrees in parallel when
+   *     persisting world states
+   * @param incrementalPruning whether to prune by counting node references instead of marking
+   *     whole states
+   * @param metricsSystem metrics system where to report cache statistics
+   */
+  public UniTrieMerkleAwareProvider(
+      final long nodeCacheSize,
+      final boolean parallelCommit,
+      final boolean incrementalPruning,
+      final MetricsSystem metricsSystem) {
+    checkArgument(nodeCacheSize >= 0, "Node cache size can't be negative");
+    this.nodeCacheSize = nodeCacheSize;
+    this.committer = parallelCommit ? Optional.of(new ParallelCommitter()) : Optional.empty();
+    this.incrementalPruning = incrementalPruning;
+    if (nodeCacheSize > 0) {
+      metricsSystem.createLongGauge(
+          BesuMetricCategory.UNITRIE,
+          "node_cache_hits",
+          "Number of Unitrie node lookups served from the node cache",
+          () -> sum(UniNodeCache::hitCount));
+      metricsSystem.createLongGauge(
+          BesuMetricCategory.UNITRIE,
+          "node_cache_misses",
+          "Number of Unitrie node lookups that had to load the node from storage",
+          () -> sum(UniNodeCache::missCount));
+      metricsSystem.createLongGauge(
+          BesuMetricCategory.UNITRIE,
+          "node_cache_evictions",
+          "Number of Unitrie nodes evicted from the node cache",
+          () -> sum(UniNodeCache::evictionCount));
+      metricsSystem.createLongGauge(
+          BesuMetricCategory.UNITRIE,
+          "node_cache_size",
+          "Number of Unitrie nodes currently held in the node cache",
+          () -> sum(UniNodeCache::size));
+    }
+  }
+
   @Override
   public MutableWorldState createMutableWorldState(
       final WorldStateStorage storage, final WorldStatePreimageStorage preImageStorage) {
-    return new UniTrieMutableWorldState(storage);
+    return new UniTrieMutableWorldState(
+        UniTrie.NULL_UNINODE_HASH, storage, nodeCache(storage), committer);
   }
 
   @Override
@@ -47,7 +123,18 @@ public class UniTrieMerkleAwareProvider implements MerkleAwareProvider {
       final Bytes32 rootHash,
       final WorldStateStorage storage,
       final WorldStatePreimageStorage preImageStorage) {
-    return new UniTrieMutableWorldState(rootHash, storage);
+    return new UniTrieMutableWorldState(rootHash, storage, nodeCache(storage), committer);
+  }
+
+  private Optional<UniNodeCache> nodeCache(final WorldStateStorage storage) {
+    if (nodeCacheSize == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(nodeCaches.computeIfAbsent(storage, s -> new UniNodeCache(nodeCacheSize)));
+  }
+
+  private long sum(final ToLongFunction<UniNodeCache> stat) {
+    return nodeCaches.values().stream().mapToLong(stat).sum();
   }
 
   @Override
@@ -61,6 +148,9 @@ public class UniTrieMerkleAwareProvider implements MerkleAwareProvider {
       final MutableBlockchain blockchain,
       final KeyValueStorage pruningStorage,
       final ObservableMetricsSystem metricsSystem) {
+    if (incrementalPruning) {
+      return new UniTrieRefCountPruner(storage, blockchain, pruningStorage, metricsSystem);
+    }
     return new UniTrieMarkSweepPruner(storage, blockchain, pruningStorage, metricsSystem);
   }
 
@@ -182,7 +182,10 @@ public abstract class AbstractCallOperation extends AbstractOperation {
             .sender(sender(frame))
             .value(value(frame))
             .apparentValue(apparentValue(frame))
-            .code(new Code(contract != null ? contract.getCode() : Bytes.EMPTY))
+            .code(
+                contract != null
+                    ? new Code(contract.getCode(), contract.getCodeHash())
+                    : new Code())
             .blockHeader(frame.getBlockHeader())
             .depth(frame.getMessageStackDepth() + 1)
             .isStatic(isStatic(frame))
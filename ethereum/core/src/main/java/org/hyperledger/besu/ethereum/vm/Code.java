@@ -14,9 +14,9 @@
  */
 package org.hyperledger.besu.ethereum.vm;
 
-import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+import org.hyperledger.besu.ethereum.core.Hash;
 
-import java.util.BitSet;
+import java.util.Optional;
 
 import com.google.common.base.MoreObjects;
 import org.apache.tuweni.bytes.Bytes;
@@ -28,8 +28,11 @@ public class Code {
   /** The bytes representing the code. */
   private final Bytes bytes;
 
-  /** Used to cache valid jump destinations. */
-  private BitSet validJumpDestinations;
+  /** The hash of the code, if known. */
+  private final Optional<Hash> codeHash;
+
+  /** Used to cache the analysis of the code, including valid jump destinations. */
+  private CodeAnalysis analysis;
 
   /**
    * Public constructor.
@@ -38,6 +41,19 @@ public class Code {
    */
   public Code(final Bytes bytes) {
     this.bytes = bytes;
+    this.codeHash = Optional.empty();
+  }
+
+  /**
+   * Public constructor for code whose hash is known, such as the code of an account. Analyses of
+   * such code are shared by every {@link Code} with the same hash.
+   *
+   * @param bytes The byte representation of the code.
+   * @param codeHash The hash of the code.
+   */
+  public Code(final Bytes bytes, final Hash codeHash) {
+    this.bytes = bytes;
+    this.codeHash = Optional.of(codeHash);
   }
 
   public Code() {
@@ -85,25 +101,32 @@ public class Code {
     final int jumpDestination = destination.intValue();
     if (jumpDestination > getSize()) return false;
 
-    if (validJumpDestinations == null) {
-      // Calculate valid jump destinations
-      validJumpDestinations = new BitSet(getSize());
-      evm.forEachOperation(
-          this,
-          frame.getContractAccountVersion(),
-          (final Operation op, final Integer offset) -> {
-            if (op.getOpcode() == JumpDestOperation.OPCODE) {
-              validJumpDestinations.set(offset);
-            }
-          });
-    }
-    return validJumpDestinations.get(jumpDestination);
+    return evm.getCodeAnalysis(this, frame.getContractAccountVersion())
+        .isJumpDestination(jumpDestination);
   }
 
   public Bytes getBytes() {
     return bytes;
   }
 
+  public Optional<Hash> getCodeHash() {
+    return codeHash;
+  }
+
+  /**
+   * Returns the analysis of this code by the EVM running it. This is looked up on every step of
+   * some operations, hence no {@link Optional} is allocated.
+   *
+   * @return The code analysis, or null if the code hasn't been run yet.
+   */
+  public CodeAnalysis getAnalysis() {
+    return analysis;
+  }
+
+  void setAnalysis(final CodeAnalysis analysis) {
+    this.analysis = analysis;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this).add("bytes", bytes).toString();
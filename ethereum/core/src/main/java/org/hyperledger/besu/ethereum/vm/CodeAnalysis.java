@@ -0,0 +1,155 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import static java.lang.Math.min;
+
+import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+
+import java.util.BitSet;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.MutableBytes32;
+
+/**
+ * {@link Code} decoded by an {@link EVM} ahead of execution: the operation at every offset, the
+ * valid jump destinations and the immediate operands of PUSH operations, so executing the code
+ * needs no further decoding. Analyses are immutable and can be shared by every frame running the
+ * same code.
+ */
+public class CodeAnalysis {
+
+  // Estimated heap taken by each code byte, a reference in both the operation and immediate
+  // arrays, and by each immediate, a Bytes32 wrapping its own array
+  private static final long BYTES_PER_CODE_BYTE = 2 * 8;
+  private static final long BYTES_PER_IMMEDIATE = 80;
+
+  private final EVM evm;
+  private final int contractAccountVersion;
+  private final Operation[] operations;
+  private final BitSet jumpDestinations;
+  private final Bytes32[] immediates;
+  private final int immediateCount;
+
+  private CodeAnalysis(
+      final EVM evm,
+      final int contractAccountVersion,
+      final Operation[] operations,
+      final BitSet jumpDestinations,
+      final Bytes32[] immediates,
+      final int immediateCount) {
+    this.evm = evm;
+    this.contractAccountVersion = contractAccountVersion;
+    this.operations = operations;
+    this.jumpDestinations = jumpDestinations;
+    this.immediates = immediates;
+    this.immediateCount = immediateCount;
+  }
+
+  /**
+   * Decode the given code.
+   *
+   * @param evm the EVM that will execute the code
+   * @param code the code to decode
+   * @param contractAccountVersion the version of the account holding the code
+   * @return the code analysis
+   */
+  static CodeAnalysis analyze(final EVM evm, final Code code, final int contractAccountVersion) {
+    final Bytes bytes = code.getBytes();
+    final int size = bytes.size();
+    final Operation[] operations = new Operation[size];
+    final BitSet jumpDestinations = new BitSet(size);
+    final Bytes32[] immediates = new Bytes32[size];
+
+    // Offsets inside immediates are decoded too, exactly as the EVM would decode them if asked for
+    // the operation there
+    for (int offset = 0; offset < size; offset++) {
+      operations[offset] = evm.operationAtOffset(code, contractAccountVersion, offset);
+    }
+
+    int immediateCount = 0;
+    int pc = 0;
+    while (pc < size) {
+      final Operation operation = operations[pc];
+      if (operation.getOpcode() == JumpDestOperation.OPCODE) {
+        jumpDestinations.set(pc);
+      }
+      final int immediateLength = operation.getOpSize() - 1;
+      if (immediateLength > 0) {
+        final int copyLength = min(immediateLength, size - pc - 1);
+        final MutableBytes32 immediate = MutableBytes32.create();
+        bytes.slice(pc + 1, copyLength).copyTo(immediate, immediate.size() - immediateLength);
+        immediates[pc] = immediate.copy();
+        immediateCount++;
+      }
+      pc += operation.getOpSize();
+    }
+
+    return new CodeAnalysis(
+        evm, contractAccountVersion, operations, jumpDestinations, immediates, immediateCount);
+  }
+
+  boolean isFor(final EVM evm, final int contractAccountVersion) {
+    return this.evm == evm && this.contractAccountVersion == contractAccountVersion;
+  }
+
+  /** @return The number of bytes in the analyzed code. */
+  public int getSize() {
+    return operations.length;
+  }
+
+  /**
+   * Estimate the heap taken by this analysis, which is several times the size of the code.
+   *
+   * @return the estimated size of the analysis, in bytes
+   */
+  public long getEstimatedMemorySize() {
+    return operations.length * BYTES_PER_CODE_BYTE
+        + jumpDestinations.size() / Byte.SIZE
+        + immediateCount * BYTES_PER_IMMEDIATE;
+  }
+
+  /**
+   * Get the operation at the given offset.
+   *
+   * @param offset code offset, which must be less than the code size
+   * @return the operation at the offset
+   */
+  public Operation getOperation(final int offset) {
+    return operations[offset];
+  }
+
+  /**
+   * Determine whether the given offset is a valid jump destination.
+   *
+   * @param offset code offset
+   * @return whether or not the offset is a JUMPDEST operation
+   */
+  public boolean isJumpDestination(final int offset) {
+    return jumpDestinations.get(offset);
+  }
+
+  /**
+   * Get the immediate operand of the operation at the given offset, as a word. Operands cut short
+   * by the end of code are padded with zeros on the right, as PUSH operations do.
+   *
+   * @param offset code offset
+   * @return the immediate operand, or null if the operation at the offset takes none
+   */
+  public Bytes32 getImmediate(final int offset) {
+    return immediates[offset];
+  }
+}
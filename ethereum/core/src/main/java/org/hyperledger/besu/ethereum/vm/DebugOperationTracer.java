@@ -171,6 +171,10 @@ public class DebugOperationTracer implements OperationTracer {
     return Optional.of(stackContents);
   }
 
+  public TraceOptions getOptions() {
+    return options;
+  }
+
   public List<TraceFrame> getTraceFrames() {
     return traceFrames;
   }
@@ -17,6 +17,7 @@ package org.hyperledger.besu.ethereum.vm;
 import static org.apache.logging.log4j.LogManager.getLogger;
 
 import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.vm.MessageFrame.State;
 import org.hyperledger.besu.ethereum.vm.ehalt.ExceptionalHaltException;
 import org.hyperledger.besu.ethereum.vm.ehalt.ExceptionalHaltManager;
@@ -29,29 +30,136 @@ import java.util.Optional;
 import java.util.function.BiConsumer;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
 
 public class EVM {
   private static final Logger LOG = getLogger();
 
+  /**
+   * Maximum total estimated heap, in bytes, taken by the code analyses cached by an EVM. Typical
+   * code takes a few tens of bytes of analysis per code byte, so this holds about a megabyte of it.
+   */
+  public static final long CODE_ANALYSIS_CACHE_SIZE = 32 * 1024 * 1024;
+
+  // Result of the untraced halt check for steps that must go through the traced path
+  private static final long MIGHT_HALT = -1;
+
   private final OperationRegistry operations;
   private final Operation invalidOperation;
   private final Operation endOfScriptStop;
+  private final Cache<Hash, CodeAnalysis> codeAnalysisCache;
 
   public EVM(final OperationRegistry operations, final GasCalculator gasCalculator) {
     this.operations = operations;
     this.invalidOperation = new InvalidOperation(gasCalculator);
     this.endOfScriptStop = new VirtualOperation(new StopOperation(gasCalculator));
+    this.codeAnalysisCache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(CODE_ANALYSIS_CACHE_SIZE)
+            .weigher(
+                (final Hash codeHash, final CodeAnalysis analysis) ->
+                    (int) Math.min(analysis.getEstimatedMemorySize(), Integer.MAX_VALUE))
+            .build();
   }
 
   public void runToHalt(final MessageFrame frame, final OperationTracer operationTracer)
       throws ExceptionalHaltException {
+    final CodeAnalysis analysis =
+        getCodeAnalysis(frame.getCode(), frame.getContractAccountVersion());
+    if (operationTracer == OperationTracer.NO_TRACING) {
+      runUntracedToHalt(frame, analysis);
+      return;
+    }
+    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+      executeNextOperation(frame, analysis, operationTracer);
+    }
+  }
+
+  /**
+   * Run the given frame with no tracer attached. Steps are executed without going through {@link
+   * OperationTracer#traceExecution}, so they allocate nothing on their own: halt conditions are
+   * checked with primitive results and gas is accounted as a long. Steps that might halt are handed
+   * to the traced path, which collects every halt reason exactly as before.
+   */
+  private void runUntracedToHalt(final MessageFrame frame, final CodeAnalysis analysis)
+      throws ExceptionalHaltException {
     while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
-      executeNextOperation(frame, operationTracer);
+      final Operation operation = operationAt(analysis, frame.getPC());
+      frame.setCurrentOperation(operation);
+      final long gasCost = gasCostUnlessHalting(frame, operation);
+      if (gasCost == MIGHT_HALT) {
+        executeNextOperation(frame, analysis, OperationTracer.NO_TRACING);
+        continue;
+      }
+      if (LOG.isTraceEnabled()) {
+        logState(frame, Optional.of(Gas.of(gasCost)));
+      }
+      frame.decrementRemainingGas(gasCost);
+      operation.execute(frame);
+      incrementProgramCounter(frame);
     }
   }
 
+  /**
+   * Primitive counterpart of {@link ExceptionalHaltManager#evaluateAll}, checking the same
+   * conditions in the same order.
+   *
+   * @return the gas cost of the current operation, or {@link #MIGHT_HALT} if it might halt
+   */
+  private long gasCostUnlessHalting(final MessageFrame frame, final Operation operation) {
+    final int stackSize = frame.stackSize();
+    if (operation.getOpcode() == InvalidOperation.OPCODE
+        || stackSize + operation.getStackSizeChange() > frame.getMaxStackSize()
+        || stackSize < operation.getStackItemsConsumed()) {
+      return MIGHT_HALT;
+    }
+
+    final Gas cost;
+    try {
+      cost = operation.cost(frame);
+    } catch (final IllegalArgumentException e) {
+      return MIGHT_HALT;
+    }
+    if (cost == null || frame.getRemainingGasAsLong() < cost.toLong()) {
+      return MIGHT_HALT;
+    }
+
+    final EnumSet<ExceptionalHaltReason> noReasons = frame.getExceptionalHaltReasons();
+    if (operation.exceptionalHaltCondition(frame, noReasons, this).isPresent()) {
+      return MIGHT_HALT;
+    }
+    return cost.toLong();
+  }
+
+  /**
+   * Get the analysis of the given code, decoding it if it hasn't been decoded yet. Analyses of code
+   * with a known hash are shared through a bounded LRU cache.
+   *
+   * @param code the code to analyze
+   * @param contractAccountVersion the version of the account holding the code
+   * @return the code analysis
+   */
+  public CodeAnalysis getCodeAnalysis(final Code code, final int contractAccountVersion) {
+    CodeAnalysis analysis = code.getAnalysis();
+    if (analysis != null && analysis.isFor(this, contractAccountVersion)) {
+      return analysis;
+    }
+
+    final Optional<Hash> codeHash = code.getCodeHash();
+    analysis = codeHash.map(codeAnalysisCache::getIfPresent).orElse(null);
+    if (analysis == null || !analysis.isFor(this, contractAccountVersion)) {
+      analysis = CodeAnalysis.analyze(this, code, contractAccountVersion);
+      if (codeHash.isPresent()) {
+        codeAnalysisCache.put(codeHash.get(), analysis);
+      }
+    }
+    code.setAnalysis(analysis);
+    return analysis;
+  }
+
   public void forEachOperation(
       final Code code,
       final int contractAccountVersion,
@@ -66,10 +174,12 @@ public class EVM {
     }
   }
 
-  private void executeNextOperation(final MessageFrame frame, final OperationTracer operationTracer)
+  private void executeNextOperation(
+      final MessageFrame frame,
+      final CodeAnalysis analysis,
+      final OperationTracer operationTracer)
       throws ExceptionalHaltException {
-    frame.setCurrentOperation(
-        operationAtOffset(frame.getCode(), frame.getContractAccountVersion(), frame.getPC()));
+    frame.setCurrentOperation(operationAt(analysis, frame.getPC()));
     evaluateExceptionalHaltReasons(frame);
     final Optional<Gas> currentGasCost = calculateGasCost(frame);
     operationTracer.traceExecution(
@@ -85,9 +195,7 @@ public class EVM {
   }
 
   private void evaluateExceptionalHaltReasons(final MessageFrame frame) {
-    final EnumSet<ExceptionalHaltReason> haltReasons =
-        ExceptionalHaltManager.evaluateAll(frame, this);
-    frame.getExceptionalHaltReasons().addAll(haltReasons);
+    ExceptionalHaltManager.evaluateAll(frame, this, frame.getExceptionalHaltReasons());
   }
 
   private Optional<Gas> calculateGasCost(final MessageFrame frame) {
@@ -147,6 +255,11 @@ public class EVM {
     }
   }
 
+  private Operation operationAt(final CodeAnalysis analysis, final int offset) {
+    // If the length of the program code is shorter than the required offset, halt execution.
+    return offset < analysis.getSize() ? analysis.getOperation(offset) : endOfScriptStop;
+  }
+
   @VisibleForTesting
   Operation operationAtOffset(final Code code, final int contractAccountVersion, final int offset) {
     final Bytes bytecode = code.getBytes();
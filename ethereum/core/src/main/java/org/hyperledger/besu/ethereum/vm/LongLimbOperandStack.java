@@ -0,0 +1,299 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * An {@link OperandStack} holding each operand as four 64-bit limbs in a single pre-allocated
+ * {@code long[]}.
+ *
+ * <p>Operands pushed and popped as {@link Bytes32} are converted from and to limbs, so that API
+ * allocates on every read. Operations on the hot path use the primitive methods instead, which read
+ * and write limbs in place and allocate nothing. Limbs are numbered from the least significant one,
+ * limb 0, to the most significant one, limb 3.
+ */
+public class LongLimbOperandStack implements OperandStack {
+
+  private static final int LIMBS = 4;
+
+  private final long[] limbs;
+
+  private final int maxSize;
+
+  private int top;
+
+  public LongLimbOperandStack(final int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException(
+          String.format("max size (%d) must be non-negative", maxSize));
+    }
+    this.limbs = new long[maxSize * LIMBS];
+    this.maxSize = maxSize;
+    this.top = -1;
+  }
+
+  private int index(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new IndexOutOfBoundsException();
+    }
+    return (top - offset) * LIMBS;
+  }
+
+  private int pushIndex() {
+    final int nextTop = top + 1;
+    if (nextTop == maxSize) {
+      throw new IllegalStateException("operand stack overflow");
+    }
+    top = nextTop;
+    return nextTop * LIMBS;
+  }
+
+  @Override
+  public Bytes32 get(final int offset) {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    copyToBytes(offset, bytes, 0);
+    return Bytes32.wrap(bytes);
+  }
+
+  @Override
+  public Bytes32 pop() {
+    if (top < 0) {
+      throw new IllegalStateException("operand stack underflow");
+    }
+
+    final Bytes32 removed = get(0);
+    top--;
+    return removed;
+  }
+
+  @Override
+  public void bulkPop(final int items) {
+    if (items < 0) {
+      throw new IllegalArgumentException(
+          String.format("requested number of items to bulk pop (%d) is negative", items));
+    }
+    if (items == 0) {
+      throw new IllegalArgumentException("number of items to pop must be greater than 0");
+    }
+    if (items > size()) {
+      throw new IllegalStateException(
+          String.format("requested to bulk pop %d items off a stack of size %d", items, size()));
+    }
+    top -= items;
+  }
+
+  @Override
+  public void push(final Bytes32 operand) {
+    final int index = pushIndex();
+    for (int limb = 0; limb < LIMBS; limb++) {
+      limbs[index + limb] = operand.getLong(Bytes32.SIZE - (limb + 1) * Long.BYTES);
+    }
+  }
+
+  @Override
+  public void set(final int offset, final Bytes32 operand) {
+    final int index = index(offset);
+    for (int limb = 0; limb < LIMBS; limb++) {
+      limbs[index + limb] = operand.getLong(Bytes32.SIZE - (limb + 1) * Long.BYTES);
+    }
+  }
+
+  @Override
+  public int size() {
+    return top + 1;
+  }
+
+  /**
+   * Returns a limb of the operand at the specified offset from the top of the stack.
+   *
+   * @param offset the position relative to the top of the stack of the operand
+   * @param limb the limb to return, from 0 (least significant) to 3 (most significant)
+   * @return the limb
+   */
+  public long getLimb(final int offset, final int limb) {
+    return limbs[index(offset) + limb];
+  }
+
+  /**
+   * Pushes the operand with the given limbs onto the stack.
+   *
+   * @param limb3 the most significant limb
+   * @param limb2 the second most significant limb
+   * @param limb1 the second least significant limb
+   * @param limb0 the least significant limb
+   */
+  public void push(final long limb3, final long limb2, final long limb1, final long limb0) {
+    final int index = pushIndex();
+    limbs[index] = limb0;
+    limbs[index + 1] = limb1;
+    limbs[index + 2] = limb2;
+    limbs[index + 3] = limb3;
+  }
+
+  /**
+   * Sets the operand at the specified offset from the top of the stack to the given limbs.
+   *
+   * @param offset the position relative to the top of the stack of the operand
+   * @param limb3 the most significant limb
+   * @param limb2 the second most significant limb
+   * @param limb1 the second least significant limb
+   * @param limb0 the least significant limb
+   */
+  public void set(
+      final int offset, final long limb3, final long limb2, final long limb1, final long limb0) {
+    final int index = index(offset);
+    limbs[index] = limb0;
+    limbs[index + 1] = limb1;
+    limbs[index + 2] = limb2;
+    limbs[index + 3] = limb3;
+  }
+
+  /**
+   * Pushes a copy of the operand at the specified offset from the top of the stack.
+   *
+   * @param offset the position relative to the top of the stack of the operand to copy
+   */
+  public void dup(final int offset) {
+    final int from = index(offset);
+    System.arraycopy(limbs, from, limbs, pushIndex(), LIMBS);
+  }
+
+  /**
+   * Swaps the operand at the top of the stack with the one at the specified offset.
+   *
+   * @param offset the position relative to the top of the stack of the operand to swap
+   */
+  public void swap(final int offset) {
+    final int topIndex = index(0);
+    final int otherIndex = index(offset);
+    for (int limb = 0; limb < LIMBS; limb++) {
+      final long tmp = limbs[topIndex + limb];
+      limbs[topIndex + limb] = limbs[otherIndex + limb];
+      limbs[otherIndex + limb] = tmp;
+    }
+  }
+
+  /**
+   * Returns whether the operand at the specified offset from the top of the stack is zero.
+   *
+   * @param offset the position relative to the top of the stack of the operand
+   * @return true if the operand is zero
+   */
+  public boolean isZero(final int offset) {
+    final int index = index(offset);
+    return (limbs[index] | limbs[index + 1] | limbs[index + 2] | limbs[index + 3]) == 0;
+  }
+
+  /**
+   * Compares two operands as unsigned 256-bit integers.
+   *
+   * @param offset0 the position relative to the top of the stack of the first operand
+   * @param offset1 the position relative to the top of the stack of the second operand
+   * @return a negative value, zero or a positive value as the first operand is less than, equal to
+   *     or greater than the second one
+   */
+  public int compareUnsigned(final int offset0, final int offset1) {
+    final int index0 = index(offset0);
+    final int index1 = index(offset1);
+    for (int limb = LIMBS - 1; limb >= 0; limb--) {
+      final int comparison = Long.compareUnsigned(limbs[index0 + limb], limbs[index1 + limb]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Compares two operands as two's complement signed 256-bit integers.
+   *
+   * @param offset0 the position relative to the top of the stack of the first operand
+   * @param offset1 the position relative to the top of the stack of the second operand
+   * @return a negative value, zero or a positive value as the first operand is less than, equal to
+   *     or greater than the second one
+   */
+  public int compareSigned(final int offset0, final int offset1) {
+    final int index0 = index(offset0);
+    final int index1 = index(offset1);
+    final int comparison = Long.compare(limbs[index0 + LIMBS - 1], limbs[index1 + LIMBS - 1]);
+    return comparison != 0 ? comparison : compareUnsigned(offset0, offset1);
+  }
+
+  /**
+   * Copies the operand at the specified offset from the top of the stack, as 32 big-endian bytes.
+   *
+   * @param offset the position relative to the top of the stack of the operand
+   * @param destination the array to copy to
+   * @param destinationPos the position in the array to copy to
+   */
+  public void copyToBytes(final int offset, final byte[] destination, final int destinationPos) {
+    final int index = index(offset);
+    int pos = destinationPos;
+    for (int limb = LIMBS - 1; limb >= 0; limb--) {
+      final long value = limbs[index + limb];
+      for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+        destination[pos++] = (byte) (value >>> shift);
+      }
+    }
+  }
+
+  /**
+   * Sets the operand at the specified offset from the top of the stack to 32 big-endian bytes.
+   *
+   * @param offset the position relative to the top of the stack of the operand
+   * @param source the array to copy from
+   * @param sourcePos the position in the array to copy from
+   */
+  public void setFromBytes(final int offset, final byte[] source, final int sourcePos) {
+    final int index = index(offset);
+    int pos = sourcePos;
+    for (int limb = LIMBS - 1; limb >= 0; limb--) {
+      long value = 0;
+      for (int i = 0; i < Long.BYTES; i++) {
+        value = (value << Byte.SIZE) | (source[pos++] & 0xFF);
+      }
+      limbs[index + limb] = value;
+    }
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < size(); ++i) {
+      builder.append(String.format("\n0x%04X ", i)).append(get(i));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(Arrays.copyOf(limbs, size() * LIMBS));
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof LongLimbOperandStack)) {
+      return false;
+    }
+
+    final LongLimbOperandStack that = (LongLimbOperandStack) other;
+    final int length = size() * LIMBS;
+    return this.size() == that.size()
+        && Arrays.equals(this.limbs, 0, length, that.limbs, 0, length);
+  }
+}
@@ -196,12 +196,14 @@ public class MessageFrame {
   private State state;
 
   // Machine state fields.
-  private Gas gasRemaining;
+  private long gasRemaining;
+  // Last Gas handed out by getRemainingGas, reused while the remaining gas doesn't change
+  private Gas gasRemainingView;
   private final BlockHashLookup blockHashLookup;
   private final int maxStackSize;
   private int pc;
   private final Memory memory;
-  private final OperandStack stack;
+  private final LongLimbOperandStack stack;
   private Bytes output;
   private Bytes returnData;
   private final boolean isStatic;
@@ -239,6 +241,9 @@ public class MessageFrame {
   private Operation currentOperation;
   private final Consumer<MessageFrame> completer;
   private Optional<MemoryEntry> maybeUpdatedMemory = Optional.empty();
+  // Memory updated by the last operation but not copied to maybeUpdatedMemory yet, if length > 0
+  private long updatedMemoryOffset;
+  private int updatedMemoryLength;
   private Optional<MemoryEntry> maybeUpdatedStorage = Optional.empty();
 
   public static Builder builder() {
@@ -275,12 +280,12 @@ public class MessageFrame {
     this.blockchain = blockchain;
     this.messageFrameStack = messageFrameStack;
     this.worldState = worldState;
-    this.gasRemaining = initialGas;
+    this.gasRemaining = initialGas.toLong();
     this.blockHashLookup = blockHashLookup;
     this.maxStackSize = maxStackSize;
     this.pc = 0;
     this.memory = new Memory();
-    this.stack = new PreAllocatedOperandStack(maxStackSize);
+    this.stack = new LongLimbOperandStack(maxStackSize);
     this.output = Bytes.EMPTY;
     this.returnData = Bytes.EMPTY;
     this.logs = new ArrayList<>();
@@ -328,7 +333,7 @@ public class MessageFrame {
 
   /** Deducts the remaining gas. */
   public void clearGasRemaining() {
-    this.gasRemaining = Gas.ZERO;
+    this.gasRemaining = 0;
   }
 
   /**
@@ -337,7 +342,16 @@ public class MessageFrame {
    * @param amount The amount of gas to deduct
    */
   public void decrementRemainingGas(final Gas amount) {
-    this.gasRemaining = gasRemaining.minus(amount);
+    decrementRemainingGas(amount.toLong());
+  }
+
+  /**
+   * Decrement the amount of remaining gas, without allocating any {@link Gas}.
+   *
+   * @param amount The amount of gas to deduct
+   */
+  public void decrementRemainingGas(final long amount) {
+    this.gasRemaining -= amount;
   }
 
   /**
@@ -346,6 +360,20 @@ public class MessageFrame {
    * @return the amount of remaining gas
    */
   public Gas getRemainingGas() {
+    Gas view = gasRemainingView;
+    if (view == null || view.toLong() != gasRemaining) {
+      view = Gas.of(gasRemaining);
+      gasRemainingView = view;
+    }
+    return view;
+  }
+
+  /**
+   * Return the amount of remaining gas, without allocating any {@link Gas}.
+   *
+   * @return the amount of remaining gas
+   */
+  public long getRemainingGasAsLong() {
     return gasRemaining;
   }
 
@@ -355,7 +383,7 @@ public class MessageFrame {
    * @param amount The amount of gas to increment
    */
   public void incrementRemainingGas(final Gas amount) {
-    this.gasRemaining = gasRemaining.plus(amount);
+    this.gasRemaining = Gas.of(gasRemaining).plus(amount).toLong();
   }
 
   /**
@@ -364,7 +392,7 @@ public class MessageFrame {
    * @param amount The amount of remaining gas
    */
   public void setGasRemaining(final Gas amount) {
-    this.gasRemaining = amount;
+    this.gasRemaining = amount.toLong();
   }
 
   /**
@@ -465,6 +493,125 @@ public class MessageFrame {
     stack.set(offset, value);
   }
 
+  /**
+   * Returns a 64-bit limb of the item at the specified offset in the stack.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @param limb The limb to return, from 0 (least significant) to 3 (most significant)
+   * @return The limb of the item at the specified offset in the stack
+   * @throws IndexOutOfBoundsException if the offset is out of range
+   */
+  public long getStackItemLimb(final int offset, final int limb) {
+    return stack.getLimb(offset, limb);
+  }
+
+  /**
+   * Pushes the item with the given 64-bit limbs onto the top of the stack.
+   *
+   * @param limb3 The most significant limb
+   * @param limb2 The second most significant limb
+   * @param limb1 The second least significant limb
+   * @param limb0 The least significant limb
+   * @throws IllegalStateException if the stack is full
+   */
+  public void pushStackItem(
+      final long limb3, final long limb2, final long limb1, final long limb0) {
+    stack.push(limb3, limb2, limb1, limb0);
+  }
+
+  /**
+   * Sets the stack item at the specified offset from the top of the stack to the given limbs.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @param limb3 The most significant limb
+   * @param limb2 The second most significant limb
+   * @param limb1 The second least significant limb
+   * @param limb0 The least significant limb
+   * @throws IndexOutOfBoundsException if the offset is out of range
+   */
+  public void setStackItem(
+      final int offset, final long limb3, final long limb2, final long limb1, final long limb0) {
+    stack.set(offset, limb3, limb2, limb1, limb0);
+  }
+
+  /**
+   * Pushes a copy of the stack item at the specified offset onto the top of the stack.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @throws IllegalStateException if the stack is full
+   */
+  public void dupStackItem(final int offset) {
+    stack.dup(offset);
+  }
+
+  /**
+   * Swaps the item at the top of the stack with the one at the specified offset.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @throws IndexOutOfBoundsException if the offset is out of range
+   */
+  public void swapStackItem(final int offset) {
+    stack.swap(offset);
+  }
+
+  /**
+   * Returns whether the stack item at the specified offset is zero.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @return true if the item is zero
+   */
+  public boolean isStackItemZero(final int offset) {
+    return stack.isZero(offset);
+  }
+
+  /**
+   * Compares two stack items as unsigned 256-bit integers.
+   *
+   * @param offset0 The first item's position relative to the top of the stack
+   * @param offset1 The second item's position relative to the top of the stack
+   * @return a negative value, zero or a positive value as the first item is less than, equal to or
+   *     greater than the second one
+   */
+  public int compareStackItems(final int offset0, final int offset1) {
+    return stack.compareUnsigned(offset0, offset1);
+  }
+
+  /**
+   * Compares two stack items as two's complement signed 256-bit integers.
+   *
+   * @param offset0 The first item's position relative to the top of the stack
+   * @param offset1 The second item's position relative to the top of the stack
+   * @return a negative value, zero or a positive value as the first item is less than, equal to or
+   *     greater than the second one
+   */
+  public int compareStackItemsSigned(final int offset0, final int offset1) {
+    return stack.compareSigned(offset0, offset1);
+  }
+
+  /**
+   * Returns the item at the specified offset in the stack as an unsigned integer.
+   *
+   * @param offset The item's position relative to the top of the stack
+   * @return The item at the specified offset in the stack
+   * @throws IndexOutOfBoundsException if the offset is out of range
+   */
+  public UInt256 getStackItemAsUInt256(final int offset) {
+    final long limb0 = stack.getLimb(offset, 0);
+    if (limb0 >= 0
+        && (stack.getLimb(offset, 1) | stack.getLimb(offset, 2) | stack.getLimb(offset, 3)) == 0) {
+      return UInt256.valueOf(limb0);
+    }
+    return UInt256.fromBytes(stack.get(offset));
+  }
+
+  // The stack item as a memory location, out of the range Memory accepts if it doesn't fit a long
+  private long getStackItemAsMemoryLocation(final int offset) {
+    if ((stack.getLimb(offset, 1) | stack.getLimb(offset, 2) | stack.getLimb(offset, 3)) != 0) {
+      return Long.MAX_VALUE;
+    }
+    return stack.getLimb(offset, 0);
+  }
+
   /**
    * Return the current stack size.
    *
@@ -642,6 +789,47 @@ public class MessageFrame {
     }
   }
 
+  /**
+   * Replaces a stack item holding a memory location with the 32 bytes word at that location.
+   *
+   * <p>This is always an explicit memory read, as only the MLOAD opcode reads memory to the stack.
+   *
+   * @param offset The item's position relative to the top of the stack
+   */
+  public void readMemoryWord(final int offset) {
+    final long location = getStackItemAsMemoryLocation(offset);
+    memory.getWord(location, stack, offset);
+    setUpdatedMemory(location, Bytes32.SIZE);
+  }
+
+  /**
+   * Write a stack item to memory, as a 32 bytes word.
+   *
+   * <p>This is always an explicit memory update, as only the MSTORE opcode writes stack items.
+   *
+   * @param locationOffset The position relative to the top of the stack of the memory location
+   * @param valueOffset The position relative to the top of the stack of the item to write
+   */
+  public void writeMemoryWord(final int locationOffset, final int valueOffset) {
+    final long location = getStackItemAsMemoryLocation(locationOffset);
+    memory.setWord(location, stack, valueOffset);
+    setUpdatedMemory(location, Bytes32.SIZE);
+  }
+
+  /**
+   * Write the least significant byte of a stack item to memory.
+   *
+   * <p>This is always an explicit memory update, as only the MSTORE8 opcode writes stack items.
+   *
+   * @param locationOffset The position relative to the top of the stack of the memory location
+   * @param valueOffset The position relative to the top of the stack of the item to write
+   */
+  public void writeMemoryByte(final int locationOffset, final int valueOffset) {
+    final long location = getStackItemAsMemoryLocation(locationOffset);
+    memory.setByte(location, (byte) stack.getLimb(valueOffset, 0));
+    setUpdatedMemory(location, 1);
+  }
+
   private void setUpdatedMemory(
       final UInt256 offset, final UInt256 sourceOffset, final UInt256 length, final Bytes value) {
     final int srcOff = sourceOffset.fitsInt() ? sourceOffset.intValue() : Integer.MAX_VALUE;
@@ -663,6 +851,14 @@ public class MessageFrame {
 
   private void setUpdatedMemory(final UInt256 offset, final Bytes value) {
     maybeUpdatedMemory = Optional.of(new MemoryEntry(offset, value));
+    updatedMemoryLength = 0;
+  }
+
+  // Records the updated memory without copying it, which only tracers need
+  private void setUpdatedMemory(final long offset, final int length) {
+    maybeUpdatedMemory = Optional.empty();
+    updatedMemoryOffset = offset;
+    updatedMemoryLength = length;
   }
 
   public void storageWasUpdated(final UInt256 storageAddress, final Bytes value) {
@@ -984,6 +1180,13 @@ public class MessageFrame {
   }
 
   Optional<MemoryEntry> getMaybeUpdatedMemory() {
+    if (updatedMemoryLength > 0) {
+      // Tracers ask right after the operation, so memory still holds what it read or wrote
+      setUpdatedMemory(
+          UInt256.valueOf(updatedMemoryOffset),
+          memory.getBytes(
+              UInt256.valueOf(updatedMemoryOffset), UInt256.valueOf(updatedMemoryLength)));
+    }
     return maybeUpdatedMemory;
   }
 
@@ -993,6 +1196,7 @@ public class MessageFrame {
 
   public void reset() {
     maybeUpdatedMemory = Optional.empty();
+    updatedMemoryLength = 0;
     maybeUpdatedStorage = Optional.empty();
   }
 
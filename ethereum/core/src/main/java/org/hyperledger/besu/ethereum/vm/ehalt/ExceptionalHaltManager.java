@@ -17,25 +17,40 @@ package org.hyperledger.besu.ethereum.vm.ehalt;
 import org.hyperledger.besu.ethereum.vm.EVM;
 import org.hyperledger.besu.ethereum.vm.ExceptionalHaltReason;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.Operation;
 
-import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.List;
+import java.util.Optional;
 
 public class ExceptionalHaltManager {
 
-  private static final List<ExceptionalHaltPredicate> GLOBAL =
-      Arrays.asList(
-          new InvalidOperationExceptionalHaltPredicate(),
-              new StackOverflowExceptionalHaltPredicate(),
-          new StackUnderflowExceptionalHaltPredicate(),
-              new InsufficientGasExceptionalHaltPredicate());
+  private static final ExceptionalHaltPredicate[] GLOBAL = {
+    new InvalidOperationExceptionalHaltPredicate(),
+    new StackOverflowExceptionalHaltPredicate(),
+    new StackUnderflowExceptionalHaltPredicate(),
+    new InsufficientGasExceptionalHaltPredicate()
+  };
 
   public static EnumSet<ExceptionalHaltReason> evaluateAll(
       final MessageFrame frame, final EVM evm) {
     final EnumSet<ExceptionalHaltReason> answer = EnumSet.noneOf(ExceptionalHaltReason.class);
+    evaluateAll(frame, evm, answer);
+    return answer;
+  }
+
+  /**
+   * Evaluate every exceptional halt condition, adding the reasons that apply to the given set. The
+   * EVM passes the frame's own reasons, which are empty until the frame halts, so evaluating the
+   * conditions of each step allocates no set.
+   *
+   * @param frame the current frame
+   * @param evm the currently executing EVM
+   * @param answer the set where to add the reasons that apply
+   */
+  public static void evaluateAll(
+      final MessageFrame frame, final EVM evm, final EnumSet<ExceptionalHaltReason> answer) {
     for (final ExceptionalHaltPredicate predicate : GLOBAL) {
-      predicate.exceptionalHaltCondition(frame, answer, evm).ifPresent(answer::add);
+      addIfPresent(predicate.exceptionalHaltCondition(frame, answer, evm), answer);
     }
 
     // TODO: Determine whether or not to short-circuit here.
@@ -43,12 +58,16 @@ public class ExceptionalHaltManager {
 
     if (!answer.contains(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS)) {
       // Evaluate any operation specific halt conditions too.
-      frame
-          .getCurrentOperation()
-          .exceptionalHaltCondition(frame, answer, evm)
-          .ifPresent(answer::add);
+      final Operation operation = frame.getCurrentOperation();
+      addIfPresent(operation.exceptionalHaltCondition(frame, answer, evm), answer);
     }
+  }
 
-    return answer;
+  // Unlike Optional::ifPresent with a method reference, this captures nothing
+  private static void addIfPresent(
+      final Optional<ExceptionalHaltReason> reason, final EnumSet<ExceptionalHaltReason> answer) {
+    if (reason.isPresent()) {
+      answer.add(reason.get());
+    }
   }
 }
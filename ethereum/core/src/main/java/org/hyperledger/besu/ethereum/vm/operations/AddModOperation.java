@@ -19,9 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class AddModOperation extends AbstractOperation {
 
   public AddModOperation(final GasCalculator gasCalculator) {
@@ -35,15 +32,17 @@ public class AddModOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value2 = UInt256.fromBytes(frame.popStackItem());
-
-    if (value2.isZero()) {
-      frame.pushStackItem(Bytes32.ZERO);
+    final long[] modulus = LimbArithmetic.getStackItem(frame, 2);
+    if (LimbArithmetic.isZero(modulus)) {
+      frame.setStackItem(2, 0, 0, 0, 0);
     } else {
-      final UInt256 result = value0.addMod(value1, value2);
-      frame.pushStackItem(result.toBytes());
+      final long[] value0 = LimbArithmetic.getStackItem(frame, 0);
+      final long[] value1 = LimbArithmetic.getStackItem(frame, 1);
+      LimbArithmetic.mod(value0, modulus, value0);
+      LimbArithmetic.mod(value1, modulus, value1);
+      LimbArithmetic.addMod(value0, value1, modulus, value0);
+      LimbArithmetic.setStackItem(frame, 2, value0);
     }
+    frame.popStackItems(2);
   }
 }
@@ -19,8 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class AndOperation extends AbstractOperation {
 
   public AndOperation(final GasCalculator gasCalculator) {
@@ -34,11 +32,12 @@ public class AndOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value0.and(value1);
-
-    frame.pushStackItem(result.toBytes());
+    frame.setStackItem(
+        1,
+        frame.getStackItemLimb(0, 3) & frame.getStackItemLimb(1, 3),
+        frame.getStackItemLimb(0, 2) & frame.getStackItemLimb(1, 2),
+        frame.getStackItemLimb(0, 1) & frame.getStackItemLimb(1, 1),
+        frame.getStackItemLimb(0, 0) & frame.getStackItemLimb(1, 0));
+    frame.popStackItems(1);
   }
 }
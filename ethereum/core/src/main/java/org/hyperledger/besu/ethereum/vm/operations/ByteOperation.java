@@ -19,8 +19,7 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.MutableBytes32;
-import org.apache.tuweni.units.bigints.UInt256;
+import org.apache.tuweni.bytes.Bytes32;
 
 public class ByteOperation extends AbstractOperation {
 
@@ -33,31 +32,18 @@ public class ByteOperation extends AbstractOperation {
     return gasCalculator().getVeryLowTierGasCost();
   }
 
-  private UInt256 getByte(final UInt256 seq, final UInt256 offset) {
-    if (!offset.fitsInt()) {
-      return UInt256.ZERO;
-    }
-
-    final int index = offset.intValue();
-    if (index >= 32) {
-      return UInt256.ZERO;
-    }
-
-    final byte b = seq.toBytes().get(index);
-    MutableBytes32 res = MutableBytes32.create();
-    res.set(31, b);
-    return UInt256.fromBytes(res);
-  }
-
   @Override
   public void execute(final MessageFrame frame) {
-
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    // Stack items are reversed for the BYTE operation.
-    final UInt256 result = getByte(value1, value0);
-
-    frame.pushStackItem(result.toBytes());
+    // Stack items are reversed for the BYTE operation: the index, from the most significant byte,
+    // is on top of the word
+    final int index = LimbArithmetic.getStackItemClamped(frame, 0, Bytes32.SIZE);
+    if (index == Bytes32.SIZE) {
+      frame.setStackItem(1, 0, 0, 0, 0);
+    } else {
+      final int bitIndex = (Bytes32.SIZE - 1 - index) * Byte.SIZE;
+      final long limb = frame.getStackItemLimb(1, bitIndex / Long.SIZE);
+      frame.setStackItem(1, 0, 0, 0, (limb >>> (bitIndex % Long.SIZE)) & 0xFF);
+    }
+    frame.popStackItems(1);
   }
 }
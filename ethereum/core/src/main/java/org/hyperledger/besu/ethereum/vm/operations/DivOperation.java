@@ -19,9 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class DivOperation extends AbstractOperation {
 
   public DivOperation(final GasCalculator gasCalculator) {
@@ -35,14 +32,15 @@ public class DivOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    if (value1.isZero()) {
-      frame.pushStackItem(Bytes32.ZERO);
+    final long[] value0 = LimbArithmetic.getStackItem(frame, 0);
+    final long[] value1 = LimbArithmetic.getStackItem(frame, 1);
+    if (LimbArithmetic.isZero(value1)) {
+      frame.setStackItem(1, 0, 0, 0, 0);
     } else {
-      final UInt256 result = value0.divide(value1);
-      frame.pushStackItem(result.toBytes());
+      final long[] quotient = new long[LimbArithmetic.LIMBS];
+      LimbArithmetic.divide(value0, value1, quotient, value0);
+      LimbArithmetic.setStackItem(frame, 1, quotient);
     }
+    frame.popStackItems(1);
   }
 }
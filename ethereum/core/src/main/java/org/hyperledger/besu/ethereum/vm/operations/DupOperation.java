@@ -35,6 +35,6 @@ public class DupOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    frame.pushStackItem(frame.getStackItem(index - 1));
+    frame.dupStackItem(index - 1);
   }
 }
@@ -19,9 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class EqOperation extends AbstractOperation {
 
   public EqOperation(final GasCalculator gasCalculator) {
@@ -35,11 +32,9 @@ public class EqOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    final Bytes32 result = (value0.equals(value1) ? UInt256.valueOf(1) : UInt256.ZERO).toBytes();
+    final long result = frame.compareStackItems(0, 1) == 0 ? 1 : 0;
 
-    frame.pushStackItem(result);
+    frame.popStackItems(1);
+    frame.setStackItem(0, 0, 0, 0, result);
   }
 }
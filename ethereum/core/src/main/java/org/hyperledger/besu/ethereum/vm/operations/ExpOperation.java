@@ -19,8 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class ExpOperation extends AbstractOperation {
 
   public ExpOperation(final GasCalculator gasCalculator) {
@@ -29,20 +27,38 @@ public class ExpOperation extends AbstractOperation {
 
   @Override
   public Gas cost(final MessageFrame frame) {
-    final UInt256 power = UInt256.fromBytes(frame.getStackItem(1));
+    final long[] power = LimbArithmetic.getStackItem(frame, 1);
 
-    final int numBytes = (power.bitLength() + 7) / 8;
+    final int numBytes = (LimbArithmetic.bitLength(power) + 7) / 8;
     return gasCalculator().expOperationGasCost(numBytes);
     //    return FrontierGasCosts.EXP.plus(FrontierGasCosts.EXP_BYTE.times(numBytes));
   }
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
+    long[] base = LimbArithmetic.getStackItem(frame, 0);
+    final long[] power = LimbArithmetic.getStackItem(frame, 1);
 
-    final UInt256 result = value0.pow(value1);
+    // Square and multiply, swapping each product with the scratch array it was written to
+    long[] result = {1, 0, 0, 0};
+    long[] scratch = new long[LimbArithmetic.LIMBS];
+    final int bits = LimbArithmetic.bitLength(power);
+    for (int bit = 0; bit < bits; bit++) {
+      if (LimbArithmetic.testBit(power, bit)) {
+        LimbArithmetic.multiply(result, base, scratch);
+        final long[] product = scratch;
+        scratch = result;
+        result = product;
+      }
+      if (bit + 1 < bits) {
+        LimbArithmetic.multiply(base, base, scratch);
+        final long[] square = scratch;
+        scratch = base;
+        base = square;
+      }
+    }
 
-    frame.pushStackItem(result.toBytes());
+    LimbArithmetic.setStackItem(frame, 1, result);
+    frame.popStackItems(1);
   }
 }
@@ -22,8 +22,10 @@ import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
 public class InvalidOperation extends AbstractOperation {
 
+  public static final int OPCODE = 0xFE;
+
   public InvalidOperation(final GasCalculator gasCalculator) {
-    super(0xFE, "INVALID", -1, -1, false, 1, gasCalculator);
+    super(OPCODE, "INVALID", -1, -1, false, 1, gasCalculator);
   }
 
   @Override
@@ -19,8 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class IsZeroOperation extends AbstractOperation {
 
   public IsZeroOperation(final GasCalculator gasCalculator) {
@@ -34,8 +32,6 @@ public class IsZeroOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value = UInt256.fromBytes(frame.popStackItem());
-
-    frame.pushStackItem(value.isZero() ? UInt256.ONE.toBytes() : UInt256.ZERO.toBytes());
+    frame.setStackItem(0, 0, 0, 0, frame.isStackItemZero(0) ? 1 : 0);
   }
 }
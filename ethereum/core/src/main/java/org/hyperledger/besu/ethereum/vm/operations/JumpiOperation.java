@@ -25,7 +25,6 @@ import org.hyperledger.besu.ethereum.vm.MessageFrame;
 import java.util.EnumSet;
 import java.util.Optional;
 
-import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 
 public class JumpiOperation extends AbstractOperation {
@@ -41,14 +40,13 @@ public class JumpiOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 jumpDestination = UInt256.fromBytes(frame.popStackItem());
-    final Bytes32 condition = frame.popStackItem();
-
-    if (!condition.isZero()) {
-      frame.setPC(jumpDestination.intValue());
+    // The destination fits in an int when the jump is taken, see exceptionalHaltCondition.
+    if (!frame.isStackItemZero(1)) {
+      frame.setPC((int) frame.getStackItemLimb(0, 0));
     } else {
       frame.setPC(frame.getPC() + getOpSize());
     }
+    frame.popStackItems(2);
   }
 
   @Override
@@ -57,7 +55,7 @@ public class JumpiOperation extends AbstractOperation {
       final EnumSet<ExceptionalHaltReason> previousReasons,
       final EVM evm) {
     // If condition is zero (false), no jump is will be performed. Therefore skip the test.
-    if (frame.getStackItem(1).isZero()) {
+    if (frame.isStackItemZero(1)) {
       return Optional.empty();
     }
 
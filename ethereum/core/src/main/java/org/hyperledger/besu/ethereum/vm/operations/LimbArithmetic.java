@@ -0,0 +1,234 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+
+/**
+ * Unsigned 256-bit arithmetic on stack items held as four 64-bit limbs, least significant first.
+ *
+ * <p>Values are {@code long[]} of {@link #LIMBS} limbs, the same order as {@link
+ * MessageFrame#getStackItemLimb(int, int)}. Results are written to arrays supplied by the caller
+ * and, unless stated otherwise, must not be one of the operands.
+ */
+final class LimbArithmetic {
+
+  static final int LIMBS = 4;
+
+  private LimbArithmetic() {}
+
+  static long[] getStackItem(final MessageFrame frame, final int offset) {
+    final long[] value = new long[LIMBS];
+    for (int limb = 0; limb < LIMBS; limb++) {
+      value[limb] = frame.getStackItemLimb(offset, limb);
+    }
+    return value;
+  }
+
+  static void setStackItem(final MessageFrame frame, final int offset, final long[] value) {
+    frame.setStackItem(offset, value[3], value[2], value[1], value[0]);
+  }
+
+  /** Returns the stack item as an int if it's less than the given bound, otherwise the bound. */
+  static int getStackItemClamped(final MessageFrame frame, final int offset, final int bound) {
+    final long limb0 = frame.getStackItemLimb(offset, 0);
+    if ((frame.getStackItemLimb(offset, 1)
+                | frame.getStackItemLimb(offset, 2)
+                | frame.getStackItemLimb(offset, 3))
+            != 0
+        || Long.compareUnsigned(limb0, bound) >= 0) {
+      return bound;
+    }
+    return (int) limb0;
+  }
+
+  static boolean isZero(final long[] value) {
+    return (value[0] | value[1] | value[2] | value[3]) == 0;
+  }
+
+  /** Returns whether the value is less than 2^64, so its least significant limb is all of it. */
+  static boolean fitsLimb(final long[] value) {
+    return (value[1] | value[2] | value[3]) == 0;
+  }
+
+  static boolean isNegative(final long[] value) {
+    return value[LIMBS - 1] < 0;
+  }
+
+  static int compare(final long[] a, final long[] b) {
+    for (int limb = LIMBS - 1; limb >= 0; limb--) {
+      final int comparison = Long.compareUnsigned(a[limb], b[limb]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  static int bitLength(final long[] value) {
+    for (int limb = LIMBS - 1; limb >= 0; limb--) {
+      if (value[limb] != 0) {
+        return (limb + 1) * Long.SIZE - Long.numberOfLeadingZeros(value[limb]);
+      }
+    }
+    return 0;
+  }
+
+  static boolean testBit(final long[] value, final int bit) {
+    return (value[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  /** Sets result to a + b modulo 2^256, and returns the carry out of it. May alias an operand. */
+  static long add(final long[] a, final long[] b, final long[] result) {
+    long carry = 0;
+    for (int limb = 0; limb < LIMBS; limb++) {
+      final long sum = a[limb] + b[limb] + carry;
+      carry = ((a[limb] & b[limb]) | ((a[limb] | b[limb]) & ~sum)) >>> 63;
+      result[limb] = sum;
+    }
+    return carry;
+  }
+
+  /** Subtracts b from a in place, modulo 2^256. */
+  static void subtract(final long[] a, final long[] b) {
+    long borrow = 0;
+    for (int limb = 0; limb < LIMBS; limb++) {
+      final long difference = a[limb] - b[limb] - borrow;
+      borrow = ((~a[limb] & b[limb]) | (~(a[limb] ^ b[limb]) & difference)) >>> 63;
+      a[limb] = difference;
+    }
+  }
+
+  /** Flips all the bits of the value in place. */
+  static void not(final long[] value) {
+    for (int limb = 0; limb < LIMBS; limb++) {
+      value[limb] = ~value[limb];
+    }
+  }
+
+  /** Negates the value in place, as a two's complement signed integer. */
+  static void negate(final long[] value) {
+    long carry = 1;
+    for (int limb = 0; limb < LIMBS; limb++) {
+      final long sum = ~value[limb] + carry;
+      carry = sum == 0 && carry == 1 ? 1 : 0;
+      value[limb] = sum;
+    }
+  }
+
+  /** Shifts the value left in place, dropping the bits shifted past 2^256. */
+  static void shiftLeft(final long[] value, final int shift) {
+    final int limbShift = shift >>> 6;
+    final int bitShift = shift & 63;
+    for (int limb = LIMBS - 1; limb >= 0; limb--) {
+      final int from = limb - limbShift;
+      long shifted = from >= 0 ? value[from] << bitShift : 0;
+      if (bitShift != 0 && from > 0) {
+        shifted |= value[from - 1] >>> (Long.SIZE - bitShift);
+      }
+      value[limb] = shifted;
+    }
+  }
+
+  /** Shifts the value right in place, filling with zeros. */
+  static void shiftRight(final long[] value, final int shift) {
+    final int limbShift = shift >>> 6;
+    final int bitShift = shift & 63;
+    for (int limb = 0; limb < LIMBS; limb++) {
+      final int from = limb + limbShift;
+      long shifted = from < LIMBS ? value[from] >>> bitShift : 0;
+      if (bitShift != 0 && from + 1 < LIMBS) {
+        shifted |= value[from + 1] << (Long.SIZE - bitShift);
+      }
+      value[limb] = shifted;
+    }
+  }
+
+  /** Sets product to a * b modulo 2^256. */
+  static void multiply(final long[] a, final long[] b, final long[] product) {
+    product[0] = product[1] = product[2] = product[3] = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      if (a[i] == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; i + j < LIMBS; j++) {
+        // a[i] * b[j] + product[i + j] + carry is at most 2^128 - 1, so high can't overflow
+        final long low = a[i] * b[j];
+        long high = unsignedMultiplyHigh(a[i], b[j]);
+        final long partial = low + product[i + j];
+        high += Long.compareUnsigned(partial, low) < 0 ? 1 : 0;
+        final long sum = partial + carry;
+        high += Long.compareUnsigned(sum, partial) < 0 ? 1 : 0;
+        product[i + j] = sum;
+        carry = high;
+      }
+    }
+  }
+
+  private static long unsignedMultiplyHigh(final long a, final long b) {
+    return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+  }
+
+  /**
+   * Sets quotient and remainder to dividend / divisor and dividend % divisor.
+   *
+   * <p>The divisor must not be zero. This is long division one bit at a time, starting from the
+   * divisor aligned with the most significant bit of the dividend, so it's quick when their
+   * magnitudes are close, which is the common case for contracts.
+   */
+  static void divide(
+      final long[] dividend, final long[] divisor, final long[] quotient, final long[] remainder) {
+    quotient[0] = quotient[1] = quotient[2] = quotient[3] = 0;
+    if (fitsLimb(dividend) && fitsLimb(divisor)) {
+      quotient[0] = Long.divideUnsigned(dividend[0], divisor[0]);
+      remainder[0] = Long.remainderUnsigned(dividend[0], divisor[0]);
+      remainder[1] = remainder[2] = remainder[3] = 0;
+      return;
+    }
+
+    System.arraycopy(dividend, 0, remainder, 0, LIMBS);
+    final int shift = bitLength(dividend) - bitLength(divisor);
+    if (shift < 0) {
+      return;
+    }
+    final long[] shiftedDivisor = divisor.clone();
+    shiftLeft(shiftedDivisor, shift);
+    for (int bit = shift; bit >= 0; bit--) {
+      if (compare(remainder, shiftedDivisor) >= 0) {
+        subtract(remainder, shiftedDivisor);
+        quotient[bit >>> 6] |= 1L << bit;
+      }
+      shiftRight(shiftedDivisor, 1);
+    }
+  }
+
+  /** Sets result to a mod modulus, the modulus not being zero. May alias the dividend. */
+  static void mod(final long[] a, final long[] modulus, final long[] result) {
+    divide(a, modulus, new long[LIMBS], result);
+  }
+
+  /**
+   * Sets result to (a + b) mod modulus, where a and b are already less than the modulus. May alias
+   * an operand.
+   */
+  static void addMod(final long[] a, final long[] b, final long[] modulus, final long[] result) {
+    // The sum is less than twice the modulus, so one subtraction reduces it, even past 2^256
+    final long carry = add(a, b, result);
+    if (carry != 0 || compare(result, modulus) >= 0) {
+      subtract(result, modulus);
+    }
+  }
+}
@@ -19,7 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 
 public class MStoreOperation extends AbstractOperation {
@@ -30,16 +29,14 @@ public class MStoreOperation extends AbstractOperation {
 
   @Override
   public Gas cost(final MessageFrame frame) {
-    final UInt256 offset = UInt256.fromBytes(frame.getStackItem(0));
+    final UInt256 offset = frame.getStackItemAsUInt256(0);
 
     return gasCalculator().mStoreOperationGasCost(frame, offset);
   }
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 location = UInt256.fromBytes(frame.popStackItem());
-    final Bytes32 value = frame.popStackItem();
-
-    frame.writeMemory(location, UInt256.valueOf(32), value, true);
+    frame.writeMemoryWord(0, 1);
+    frame.popStackItems(2);
   }
 }
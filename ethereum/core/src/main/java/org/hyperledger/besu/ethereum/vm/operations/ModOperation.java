@@ -19,8 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class ModOperation extends AbstractOperation {
 
   public ModOperation(final GasCalculator gasCalculator) {
@@ -34,10 +32,15 @@ public class ModOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value0.mod0(value1);
-    frame.pushStackItem(result.toBytes());
+    final long[] value0 = LimbArithmetic.getStackItem(frame, 0);
+    final long[] value1 = LimbArithmetic.getStackItem(frame, 1);
+    if (LimbArithmetic.isZero(value1)) {
+      frame.setStackItem(1, 0, 0, 0, 0);
+    } else {
+      final long[] remainder = new long[LimbArithmetic.LIMBS];
+      LimbArithmetic.mod(value0, value1, remainder);
+      LimbArithmetic.setStackItem(frame, 1, remainder);
+    }
+    frame.popStackItems(1);
   }
 }
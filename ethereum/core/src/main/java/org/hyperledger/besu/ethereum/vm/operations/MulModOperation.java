@@ -19,9 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class MulModOperation extends AbstractOperation {
 
   public MulModOperation(final GasCalculator gasCalculator) {
@@ -35,15 +32,24 @@ public class MulModOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value2 = UInt256.fromBytes(frame.popStackItem());
-
-    if (value2.isZero()) {
-      frame.pushStackItem(Bytes32.ZERO);
+    final long[] modulus = LimbArithmetic.getStackItem(frame, 2);
+    if (LimbArithmetic.isZero(modulus)) {
+      frame.setStackItem(2, 0, 0, 0, 0);
     } else {
-      final UInt256 result = value0.multiplyMod(value1, value2);
-      frame.pushStackItem(result.toBytes());
+      final long[] value0 = LimbArithmetic.getStackItem(frame, 0);
+      final long[] value1 = LimbArithmetic.getStackItem(frame, 1);
+      LimbArithmetic.mod(value0, modulus, value0);
+      LimbArithmetic.mod(value1, modulus, value1);
+      // The product can take 512 bits, so it's accumulated modulo the modulus one bit at a time
+      final long[] result = new long[LimbArithmetic.LIMBS];
+      for (int bit = LimbArithmetic.bitLength(value1) - 1; bit >= 0; bit--) {
+        LimbArithmetic.addMod(result, result, modulus, result);
+        if (LimbArithmetic.testBit(value1, bit)) {
+          LimbArithmetic.addMod(result, value0, modulus, result);
+        }
+      }
+      LimbArithmetic.setStackItem(frame, 2, result);
     }
+    frame.popStackItems(2);
   }
 }
@@ -19,8 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class NotOperation extends AbstractOperation {
 
   public NotOperation(final GasCalculator gasCalculator) {
@@ -34,10 +32,11 @@ public class NotOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value.not();
-
-    frame.pushStackItem(result.toBytes());
+    frame.setStackItem(
+        0,
+        ~frame.getStackItemLimb(0, 3),
+        ~frame.getStackItemLimb(0, 2),
+        ~frame.getStackItemLimb(0, 1),
+        ~frame.getStackItemLimb(0, 0));
   }
 }
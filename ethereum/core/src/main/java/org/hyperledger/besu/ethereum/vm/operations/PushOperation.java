@@ -18,10 +18,13 @@ import static java.lang.Math.min;
 
 import org.hyperledger.besu.ethereum.core.Gas;
 import org.hyperledger.besu.ethereum.vm.AbstractOperation;
+import org.hyperledger.besu.ethereum.vm.Code;
+import org.hyperledger.besu.ethereum.vm.CodeAnalysis;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.bytes.MutableBytes32;
 
 public class PushOperation extends AbstractOperation {
@@ -41,11 +44,23 @@ public class PushOperation extends AbstractOperation {
   @Override
   public void execute(final MessageFrame frame) {
     final int pc = frame.getPC();
-    final Bytes code = frame.getCode().getBytes();
+    final Code code = frame.getCode();
 
-    final int copyLength = min(length, code.size() - pc - 1);
-    final MutableBytes32 bytes = MutableBytes32.create();
-    code.slice(pc + 1, copyLength).copyTo(bytes, bytes.size() - length);
-    frame.pushStackItem(bytes);
+    // Use the operand decoded by the code analysis if the EVM has analyzed this code
+    final CodeAnalysis analysis = code.getAnalysis();
+    if (analysis != null && pc < analysis.getSize()) {
+      final Bytes32 immediate = analysis.getImmediate(pc);
+      if (immediate != null) {
+        frame.pushStackItem(immediate);
+        return;
+      }
+    }
+
+    final Bytes bytes = code.getBytes();
+
+    final int copyLength = min(length, bytes.size() - pc - 1);
+    final MutableBytes32 value = MutableBytes32.create();
+    bytes.slice(pc + 1, copyLength).copyTo(value, value.size() - length);
+    frame.pushStackItem(value);
   }
 }
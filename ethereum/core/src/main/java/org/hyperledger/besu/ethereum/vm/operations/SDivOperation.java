@@ -19,12 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import java.math.BigInteger;
-import java.util.Arrays;
-
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
-
 public class SDivOperation extends AbstractOperation {
 
   public SDivOperation(final GasCalculator gasCalculator) {
@@ -38,21 +32,27 @@ public class SDivOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final Bytes32 value0 = frame.popStackItem();
-    final Bytes32 value1 = frame.popStackItem();
-    if (value1.isZero()) {
-      frame.pushStackItem(Bytes32.ZERO);
+    final long[] value0 = LimbArithmetic.getStackItem(frame, 0);
+    final long[] value1 = LimbArithmetic.getStackItem(frame, 1);
+    if (LimbArithmetic.isZero(value1)) {
+      frame.setStackItem(1, 0, 0, 0, 0);
     } else {
-      BigInteger result = value0.toBigInteger().divide(value1.toBigInteger());
-      Bytes resultBytes = Bytes.wrap(result.toByteArray());
-      if (resultBytes.size() > 32) {
-        resultBytes = resultBytes.slice(resultBytes.size() - 32, 32);
+      // Divide the magnitudes, the quotient being negative if exactly one operand is
+      final boolean negative0 = LimbArithmetic.isNegative(value0);
+      final boolean negative1 = LimbArithmetic.isNegative(value1);
+      if (negative0) {
+        LimbArithmetic.negate(value0);
       }
-
-      byte[] padding = new byte[32 - resultBytes.size()];
-      Arrays.fill(padding, result.signum() < 0 ? (byte) 0xFF : 0x00);
-
-      frame.pushStackItem(Bytes32.wrap(Bytes.concatenate(Bytes.wrap(padding), resultBytes)));
+      if (negative1) {
+        LimbArithmetic.negate(value1);
+      }
+      final long[] quotient = new long[LimbArithmetic.LIMBS];
+      LimbArithmetic.divide(value0, value1, quotient, value0);
+      if (negative0 != negative1) {
+        LimbArithmetic.negate(quotient);
+      }
+      LimbArithmetic.setStackItem(frame, 1, quotient);
     }
+    frame.popStackItems(1);
   }
 }
@@ -19,11 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import java.math.BigInteger;
-
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class SGtOperation extends AbstractOperation {
 
   public SGtOperation(final GasCalculator gasCalculator) {
@@ -37,14 +32,9 @@ public class SGtOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final Bytes32 value0 = frame.popStackItem();
-    final Bytes32 value1 = frame.popStackItem();
-
-    BigInteger b0 = value0.toBigInteger();
-    BigInteger b1 = value1.toBigInteger();
-
-    final Bytes32 result = b0.compareTo(b1) > 0 ? UInt256.ONE.toBytes() : UInt256.ZERO.toBytes();
+    final long result = frame.compareStackItemsSigned(0, 1) > 0 ? 1 : 0;
 
-    frame.pushStackItem(result);
+    frame.popStackItems(1);
+    frame.setStackItem(0, 0, 0, 0, result);
   }
 }
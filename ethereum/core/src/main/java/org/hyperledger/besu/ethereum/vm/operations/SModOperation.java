@@ -19,12 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import java.math.BigInteger;
-import java.util.Arrays;
-
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
-
 public class SModOperation extends AbstractOperation {
 
   public SModOperation(final GasCalculator gasCalculator) {
@@ -38,28 +32,26 @@ public class SModOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final Bytes32 value0 = frame.popStackItem();
-    final Bytes32 value1 = frame.popStackItem();
-
-    if (value1.isZero()) {
-      frame.pushStackItem(Bytes32.ZERO);
+    final long[] value0 = LimbArithmetic.getStackItem(frame, 0);
+    final long[] value1 = LimbArithmetic.getStackItem(frame, 1);
+    if (LimbArithmetic.isZero(value1)) {
+      frame.setStackItem(1, 0, 0, 0, 0);
     } else {
-      BigInteger b1 = value0.toBigInteger();
-      BigInteger b2 = value1.toBigInteger();
-      BigInteger result = b1.abs().mod(b2.abs());
-      if (b1.signum() < 0) {
-        result = result.negate();
+      // The remainder of the magnitudes, with the sign of the dividend
+      final boolean negative = LimbArithmetic.isNegative(value0);
+      if (negative) {
+        LimbArithmetic.negate(value0);
       }
-
-      Bytes resultBytes = Bytes.wrap(result.toByteArray());
-      if (resultBytes.size() > 32) {
-        resultBytes = resultBytes.slice(resultBytes.size() - 32, 32);
+      if (LimbArithmetic.isNegative(value1)) {
+        LimbArithmetic.negate(value1);
       }
-
-      byte[] padding = new byte[32 - resultBytes.size()];
-      Arrays.fill(padding, result.signum() < 0 ? (byte) 0xFF : 0x00);
-
-      frame.pushStackItem(Bytes32.wrap(Bytes.concatenate(Bytes.wrap(padding), resultBytes)));
+      final long[] remainder = new long[LimbArithmetic.LIMBS];
+      LimbArithmetic.mod(value0, value1, remainder);
+      if (negative) {
+        LimbArithmetic.negate(remainder);
+      }
+      LimbArithmetic.setStackItem(frame, 1, remainder);
     }
+    frame.popStackItems(1);
   }
 }
@@ -19,14 +19,8 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class SarOperation extends AbstractOperation {
 
-  private static final Bytes32 ALL_BITS =
-      Bytes32.fromHexString("0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
-
   public SarOperation(final GasCalculator gasCalculator) {
     super(0x1d, "SAR", 2, 1, false, 1, gasCalculator);
   }
@@ -38,26 +32,28 @@ public class SarOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 shiftAmount = UInt256.fromBytes(frame.popStackItem());
-    Bytes32 value = frame.popStackItem();
-
-    final boolean negativeNumber = value.get(0) < 0;
+    final int shiftAmount = LimbArithmetic.getStackItemClamped(frame, 0, 256);
+    final long[] value = LimbArithmetic.getStackItem(frame, 1);
+    final boolean negativeNumber = LimbArithmetic.isNegative(value);
 
     // short circuit result if we are shifting more than the width of the data.
-    if (!shiftAmount.fitsInt() || shiftAmount.intValue() >= 256) {
-      final Bytes32 overflow = negativeNumber ? ALL_BITS : Bytes32.ZERO;
-      frame.pushStackItem(overflow);
+    if (shiftAmount == 256) {
+      final long overflow = negativeNumber ? -1L : 0L;
+      frame.setStackItem(1, overflow, overflow, overflow, overflow);
+      frame.popStackItems(1);
       return;
     }
 
-    // first perform standard shift right.
-    value = value.shiftRight(shiftAmount.intValue());
-
-    // if a negative number, carry through the sign.
+    // if a negative number, carry through the sign: shifting zeros into its complement and
+    // complementing back shifts in ones.
     if (negativeNumber) {
-      final Bytes32 significantBits = ALL_BITS.shiftLeft(256 - shiftAmount.intValue());
-      value = value.or(significantBits);
+      LimbArithmetic.not(value);
+      LimbArithmetic.shiftRight(value, shiftAmount);
+      LimbArithmetic.not(value);
+    } else {
+      LimbArithmetic.shiftRight(value, shiftAmount);
     }
-    frame.pushStackItem(value);
+    LimbArithmetic.setStackItem(frame, 1, value);
+    frame.popStackItems(1);
   }
 }
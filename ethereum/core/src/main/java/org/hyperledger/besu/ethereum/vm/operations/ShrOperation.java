@@ -19,9 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.Bytes32;
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class ShrOperation extends AbstractOperation {
 
   public ShrOperation(final GasCalculator gasCalculator) {
@@ -35,13 +32,14 @@ public class ShrOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 shiftAmount = UInt256.fromBytes(frame.popStackItem());
-    final Bytes32 value = frame.popStackItem();
-
-    if (!shiftAmount.fitsInt() || shiftAmount.intValue() >= 256) {
-      frame.pushStackItem(Bytes32.ZERO);
+    final int shiftAmount = LimbArithmetic.getStackItemClamped(frame, 0, 256);
+    if (shiftAmount == 256) {
+      frame.setStackItem(1, 0, 0, 0, 0);
     } else {
-      frame.pushStackItem(value.shiftRight(shiftAmount.intValue()));
+      final long[] value = LimbArithmetic.getStackItem(frame, 1);
+      LimbArithmetic.shiftRight(value, shiftAmount);
+      LimbArithmetic.setStackItem(frame, 1, value);
     }
+    frame.popStackItems(1);
   }
 }
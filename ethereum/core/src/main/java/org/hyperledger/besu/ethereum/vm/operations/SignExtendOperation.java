@@ -19,8 +19,7 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.bytes.MutableBytes32;
-import org.apache.tuweni.units.bigints.UInt256;
+import org.apache.tuweni.bytes.Bytes32;
 
 public class SignExtendOperation extends AbstractOperation {
 
@@ -35,30 +34,23 @@ public class SignExtendOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
     // Stack items are reversed for the SIGNEXTEND operation.
-    final UInt256 result = signExtend(value1, value0);
-
-    frame.pushStackItem(result.toBytes());
-  }
-
-  private static UInt256 signExtend(final UInt256 v1, final UInt256 v2) {
-    final MutableBytes32 result = MutableBytes32.create();
-
     // Any value >= 31 imply an index <= 0, so no work to do (note that 0 itself is a valid index,
     // but copying the 0th byte to itself is only so useful).
-    if (!v2.fitsInt() || v2.intValue() >= 31) {
-      v1.toBytes().copyTo(result);
-      return UInt256.fromBytes(result);
+    final int byteIndex = LimbArithmetic.getStackItemClamped(frame, 0, Bytes32.SIZE - 1);
+    if (byteIndex < Bytes32.SIZE - 1) {
+      final long[] value = LimbArithmetic.getStackItem(frame, 1);
+      // Copy the sign bit, the most significant one of the indexed byte, to all the bits above it
+      final int signBit = byteIndex * Byte.SIZE + Byte.SIZE - 1;
+      final int signLimb = signBit / Long.SIZE;
+      final boolean negative = LimbArithmetic.testBit(value, signBit);
+      final long extendedBits = -1L << (signBit % Long.SIZE) << 1;
+      value[signLimb] = negative ? value[signLimb] | extendedBits : value[signLimb] & ~extendedBits;
+      for (int limb = signLimb + 1; limb < LimbArithmetic.LIMBS; limb++) {
+        value[limb] = negative ? -1L : 0L;
+      }
+      LimbArithmetic.setStackItem(frame, 1, value);
     }
-
-    // This is safe, since other < 31.
-    final int byteIndex = 32 - 1 - v2.toBytes().getInt(32 - 4);
-    final byte toSet = v1.toBytes().get(byteIndex) < 0 ? (byte) 0xFF : 0x00;
-    result.mutableSlice(0, byteIndex).fill(toSet);
-    v1.toBytes().slice(byteIndex).copyTo(result, byteIndex);
-    return UInt256.fromBytes(result);
+    frame.popStackItems(1);
   }
 }
@@ -19,8 +19,6 @@ import org.hyperledger.besu.ethereum.vm.AbstractOperation;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
 import org.hyperledger.besu.ethereum.vm.MessageFrame;
 
-import org.apache.tuweni.units.bigints.UInt256;
-
 public class SubOperation extends AbstractOperation {
 
   public SubOperation(final GasCalculator gasCalculator) {
@@ -34,11 +32,26 @@ public class SubOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = UInt256.fromBytes(frame.popStackItem());
-    final UInt256 value1 = UInt256.fromBytes(frame.popStackItem());
-
-    final UInt256 result = value0.subtract(value1);
+    final long a0 = frame.getStackItemLimb(0, 0);
+    final long a1 = frame.getStackItemLimb(0, 1);
+    final long a2 = frame.getStackItemLimb(0, 2);
+    final long a3 = frame.getStackItemLimb(0, 3);
+    final long b0 = frame.getStackItemLimb(1, 0);
+    final long b1 = frame.getStackItemLimb(1, 1);
+    final long b2 = frame.getStackItemLimb(1, 2);
+    final long b3 = frame.getStackItemLimb(1, 3);
+
+    final long r0 = a0 - b0;
+    final long r1 = a1 - b1 - borrow(a0, b0, r0);
+    final long r2 = a2 - b2 - borrow(a1, b1, r1);
+    final long r3 = a3 - b3 - borrow(a2, b2, r2);
+
+    frame.setStackItem(1, r3, r2, r1, r0);
+    frame.popStackItems(1);
+  }
 
-    frame.pushStackItem(result.toBytes());
+  /** Returns the borrow out of the most significant bit of the limb difference {@code a - b}. */
+  private static long borrow(final long a, final long b, final long difference) {
+    return ((~a & b) | (~(a ^ b) & difference)) >>> 63;
   }
 }
@@ -27,7 +27,9 @@ import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPException;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
+import org.hyperledger.besu.ethereum.unitrie.ParallelCommitter;
 import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniNodeCache;
 import org.hyperledger.besu.ethereum.unitrie.UniTrie;
 import org.hyperledger.besu.ethereum.unitrie.UniTrieKeyMapper;
 
@@ -37,6 +39,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -52,10 +58,14 @@ import org.apache.tuweni.units.bigints.UInt256;
 public class UniTrieMutableWorldState implements MutableWorldState {
 
   private final WorldStateStorage worldStateStorage;
+  private final Optional<UniNodeCache> nodeCache;
+  private final Optional<ParallelCommitter> committer;
   private final UniTrie<Bytes, Bytes> trie;
 
   private final Map<Address, Bytes> updatedAccountCode = new HashMap<>();
-  private final UniTrieKeyMapper keyMapper = new UniTrieKeyMapper();
+  // Values read ahead by prefetch, keyed by mapped key; empty if there's no value for the key
+  private final Map<Bytes, Optional<Bytes>> prefetchedValues = new HashMap<>();
+  private static final UniTrieKeyMapper KEY_MAPPER = new UniTrieKeyMapper();
 
   public UniTrieMutableWorldState(final WorldStateStorage storage) {
     this(UniTrie.NULL_UNINODE_HASH, storage);
@@ -63,7 +73,17 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
   public UniTrieMutableWorldState(
       final Bytes32 rootHash, final WorldStateStorage worldStateStorage) {
+    this(rootHash, worldStateStorage, Optional.empty(), Optional.empty());
+  }
+
+  public UniTrieMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final Optional<UniNodeCache> nodeCache,
+      final Optional<ParallelCommitter> committer) {
     this.worldStateStorage = worldStateStorage;
+    this.nodeCache = nodeCache;
+    this.committer = committer;
     this.trie = initTrie(rootHash);
   }
 
@@ -74,12 +94,14 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
     final UniTrieMutableWorldState other = (UniTrieMutableWorldState) worldState;
     this.worldStateStorage = other.worldStateStorage;
+    this.nodeCache = other.nodeCache;
+    this.committer = other.committer;
     this.trie = initTrie(other.trie.getRootHash());
   }
 
   private UniTrie<Bytes, Bytes> initTrie(final Bytes32 rootHash) {
     return new StoredUniTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b, nodeCache);
   }
 
   public UniTrie<Bytes, Bytes> getTrie() {
@@ -93,14 +115,19 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new UniTrieMutableWorldState(rootHash(), worldStateStorage);
+    return new UniTrieMutableWorldState(rootHash(), worldStateStorage, nodeCache, committer);
   }
 
   @Override
   public void persist() {
     final WorldStateStorage.Updater stateUpdater = worldStateStorage.updater();
-    trie.commit(stateUpdater::putAccountStateTrieNode, stateUpdater::rawPut);
+    if (committer.isPresent()) {
+      trie.commit(stateUpdater::putAccountStateTrieNode, stateUpdater::rawPut, committer.get());
+    } else {
+      trie.commit(stateUpdater::putAccountStateTrieNode, stateUpdater::rawPut);
+    }
     updatedAccountCode.clear();
+    prefetchedValues.clear();
     stateUpdater.commit();
   }
 
@@ -111,15 +138,58 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
   @Override
   public Stream<StreamableAccount> streamAccounts(final Bytes32 startKeyHash, final int limit) {
-    throw new UnsupportedOperationException(
-        "Unitries don't associate account entries to their "
-            + "hashes, so they don't support iterating from a given account entry hash");
+    // Account keys are ordered by a prefix of the address hash, so seek to the first key that
+    // can hold the start hash and then drop any account sharing the prefix but hashing lower
+    final int accountKeySize = KEY_MAPPER.getAccountKeySize(Address.SIZE);
+    return trie.entriesFrom(
+            KEY_MAPPER.getAccountKeyPrefix(),
+            KEY_MAPPER.getAccountKeyFrom(startKeyHash),
+            accountKeySize)
+        .filter(entry -> entry.getKey().size() == accountKeySize)
+        .map(
+            entry -> {
+              final Address address =
+                  Address.wrap(KEY_MAPPER.getAddressFromAccountKey(entry.getKey()));
+              return new StreamableAccount(
+                  Optional.of(address), deserializeAccount(address, entry.getValue()));
+            })
+        .filter(account -> account.getAddressHash().compareTo(startKeyHash) >= 0)
+        .limit(limit);
   }
 
   @Override
   public Account get(final Address address) {
-    final Bytes mappedKey = keyMapper.getAccountKey(address);
-    return trie.get(mappedKey).map(bytes -> deserializeAccount(address, bytes)).orElse(null);
+    final Bytes mappedKey = KEY_MAPPER.getAccountKey(address);
+    return read(mappedKey).map(bytes -> deserializeAccount(address, bytes)).orElse(null);
+  }
+
+  @Override
+  public void prefetch(
+      final Collection<Address> addresses,
+      final Map<Address, ? extends Collection<UInt256>> storageKeys) {
+    // Keys mapped for one account share a long prefix, so the trie walks it once for all of them
+    final SortedSet<Bytes> keys = new TreeSet<>();
+    for (final Address address : addresses) {
+      keys.add(KEY_MAPPER.getAccountKey(address));
+      keys.add(KEY_MAPPER.getAccountCodeKey(address));
+    }
+    storageKeys.forEach(
+        (address, slots) ->
+            slots.forEach(slot -> keys.add(KEY_MAPPER.getAccountStorageKey(address, slot))));
+    keys.removeAll(prefetchedValues.keySet());
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    final Map<Bytes, Bytes> values = trie.getAll(keys);
+    for (final Bytes key : keys) {
+      prefetchedValues.put(key, Optional.ofNullable(values.get(key)));
+    }
+  }
+
+  private Optional<Bytes> read(final Bytes mappedKey) {
+    final Optional<Bytes> prefetched = prefetchedValues.get(mappedKey);
+    return prefetched != null ? prefetched : trie.get(mappedKey);
   }
 
   @Override
@@ -176,9 +246,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
 
     @Override
     public Hash getAddressHash() {
-      // NB: this call is only used to support retesteth debug_AccountRange method,
-      // which the UniTrie doesn't support.
-      throw new UnsupportedOperationException("Unitrie stored accounts can't return address hash");
+      return Hash.hash(address);
     }
 
     @Override
@@ -202,8 +270,8 @@ public class UniTrieMutableWorldState implements MutableWorldState {
       // The account has code, we must retrieve it from the Unitrie. Since Unitries
       // don't associate code entries to the code hash, the lookup key can't be the
       // code hash. The key must come from the key mapper.
-      Bytes mappedKey = keyMapper.getAccountCodeKey(address);
-      return trie.get(mappedKey).orElse(Bytes.EMPTY);
+      Bytes mappedKey = KEY_MAPPER.getAccountCodeKey(address);
+      return read(mappedKey).orElse(Bytes.EMPTY);
     }
 
     @Override
@@ -217,7 +285,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
         return Hash.hash(updatedAccountCode.get(address));
       }
 
-      Bytes mappedKey = keyMapper.getAccountCodeKey(address);
+      Bytes mappedKey = KEY_MAPPER.getAccountCodeKey(address);
       return trie.getValueHash(mappedKey).map(Hash::wrap).orElse(Hash.EMPTY);
     }
 
@@ -227,7 +295,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
         return UInt256.valueOf(updatedAccountCode.get(address).size()).toBytes();
       }
 
-      Bytes mappedKey = keyMapper.getAccountCodeKey(address);
+      Bytes mappedKey = KEY_MAPPER.getAccountCodeKey(address);
       return trie.getValueLength(mappedKey)
           .map(n -> UInt256.valueOf(n).toBytes())
           .orElse(Bytes32.ZERO);
@@ -242,8 +310,8 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     public UInt256 getStorageValue(final UInt256 key) {
       // UniTries don't associate storage entries to their hashes. So the lookup
       // key for a storage entry must come from the key mapper.
-      Bytes mappedKey = keyMapper.getAccountStorageKey(address, key);
-      return trie.get(mappedKey).map(this::convertToUInt256).orElse(UInt256.ZERO);
+      Bytes mappedKey = KEY_MAPPER.getAccountStorageKey(address, key);
+      return read(mappedKey).map(this::convertToUInt256).orElse(UInt256.ZERO);
     }
 
     @Override
@@ -254,9 +322,23 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     @Override
     public NavigableMap<Bytes32, AccountStorageEntry> storageEntriesFrom(
         final Bytes32 startKeyHash, final int limit) {
-      throw new UnsupportedOperationException(
-          "Unitries don't associate storage entries to their "
-              + "hashes, so they don't support iterating from a given storage entry hash");
+      // As with accounts, storage keys are ordered by a prefix of the subkey hash
+      final Bytes prefixKey = KEY_MAPPER.getAccountStoragePrefixKey(address);
+      final NavigableMap<Bytes32, AccountStorageEntry> storageEntries = new TreeMap<>();
+      trie.entriesFrom(
+              prefixKey,
+              KEY_MAPPER.getAccountStorageKeyFrom(address, startKeyHash),
+              Integer.MAX_VALUE)
+          .filter(entry -> entry.getKey().size() > prefixKey.size())
+          .map(
+              entry ->
+                  AccountStorageEntry.forKeyAndValue(
+                      KEY_MAPPER.getSubkeyFromAccountStorageKey(address, entry.getKey()),
+                      convertToUInt256(entry.getValue())))
+          .filter(entry -> entry.getKeyHash().compareTo(startKeyHash) >= 0)
+          .limit(limit)
+          .forEach(entry -> storageEntries.put(entry.getKeyHash(), entry));
+      return storageEntries;
     }
 
     private UInt256 convertToUInt256(final Bytes value) {
@@ -306,10 +388,9 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     @Override
     protected UniTrieMutableWorldState.WorldStateAccount getForMutation(final Address address) {
       final UniTrieMutableWorldState wrapped = wrappedWorldView();
-      final Bytes mappedKey = wrapped.keyMapper.getAccountKey(address);
+      final Bytes mappedKey = KEY_MAPPER.getAccountKey(address);
       return wrapped
-          .trie
-          .get(mappedKey)
+          .read(mappedKey)
           .map(bytes -> wrapped.deserializeAccount(address, bytes))
           .orElse(null);
     }
@@ -323,9 +404,10 @@ public class UniTrieMutableWorldState implements MutableWorldState {
     @Override
     public void commit() {
       final UniTrieMutableWorldState wrapped = wrappedWorldView();
+      wrapped.prefetchedValues.clear();
 
       for (final Address address : deletedAccounts()) {
-        final Bytes accountKey = wrapped.keyMapper.getAccountKey(address);
+        final Bytes accountKey = KEY_MAPPER.getAccountKey(address);
         wrapped.trie.removeRecursive(accountKey);
         wrapped.updatedAccountCode.remove(address);
       }
@@ -340,14 +422,14 @@ public class UniTrieMutableWorldState implements MutableWorldState {
           Bytes updatedCode = updated.getCode();
           wrapped.updatedAccountCode.put(address, updatedCode);
           if (updatedCode.isEmpty()) {
-            wrapped.trie.remove(wrapped.keyMapper.getAccountCodeKey(address));
+            wrapped.trie.remove(KEY_MAPPER.getAccountCodeKey(address));
           } else {
-            wrapped.trie.put(wrapped.keyMapper.getAccountCodeKey(address), updatedCode);
+            wrapped.trie.put(KEY_MAPPER.getAccountCodeKey(address), updatedCode);
           }
         }
 
         // Persist account storage
-        Bytes storageRootPrefixKey = wrapped.keyMapper.getAccountStoragePrefixKey(address);
+        Bytes storageRootPrefixKey = KEY_MAPPER.getAccountStoragePrefixKey(address);
 
         if (updated.getStorageWasCleared()) {
           wrapped.trie.removeRecursive(storageRootPrefixKey);
@@ -358,8 +440,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
           wrapped.trie.put(storageRootPrefixKey, Bytes.of(0));
           for (final Map.Entry<UInt256, UInt256> entry : updatedStorage.entrySet()) {
             final UInt256 value = entry.getValue();
-            final Bytes storageKey =
-                wrapped.keyMapper.getAccountStorageKey(address, entry.getKey());
+            final Bytes storageKey = KEY_MAPPER.getAccountStorageKey(address, entry.getKey());
             if (value.isZero()) {
               wrapped.trie.remove(storageKey);
             } else {
@@ -377,7 +458,7 @@ public class UniTrieMutableWorldState implements MutableWorldState {
         final Bytes account =
             serializeAccount(updated.getNonce(), updated.getBalance(), updated.getVersion());
 
-        Bytes accountKey = wrapped.keyMapper.getAccountKey(address);
+        Bytes accountKey = KEY_MAPPER.getAccountKey(address);
         wrapped.trie.put(accountKey, account);
       }
     }
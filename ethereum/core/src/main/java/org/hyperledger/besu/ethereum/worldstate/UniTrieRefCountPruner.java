@@ -0,0 +1,432 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.unitrie.UniTrieNodeDecoder;
+import org.hyperledger.besu.metrics.BesuMetricCategory;
+import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Incremental storage collector based on UniTrie storage. Instead of marking every node of a
+ * state on each round, it keeps a persistent reference count per stored node: the number of
+ * tracked nodes pointing to it, either as a child referenced by hash or as a long value.
+ *
+ * <p>Added nodes are reported by the world state storage, and are counted once committed. When
+ * the state root of a block leaves the retention window it's released, and every node whose count
+ * drops to zero is removed, so the work done is proportional to state churn rather than to state
+ * size. Sweeps that find added nodes still being committed are postponed, as those nodes may reuse
+ * released ones.
+ *
+ * <p>The first sweep on a storage without counts does a one-off full prune, removing every node
+ * that wasn't tracked by then. Later sweeps only remove released nodes, so states of blocks that
+ * never made it to the canonical chain are kept.
+ *
+ * @author ppedemon
+ */
+public class UniTrieRefCountPruner implements MarkSweepPruner {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final int DEFAULT_OPS_PER_TRANSACTION = 1000;
+  private static final byte[] LAST_RELEASED_BLOCK_KEY = "lastReleasedBlock".getBytes(UTF_8);
+
+  // Kinds of tracked hashes
+  private static final byte NODE = 0;
+  private static final byte UNEXPANDED_NODE = 1;
+  private static final byte VALUE = 2;
+
+  private final int operationsPerTransaction;
+  private final WorldStateStorage worldStateStorage;
+  private final MutableBlockchain blockchain;
+  private final KeyValueStorage refCountStorage;
+  private final UniTrieNodeDecoder nodeDecoder;
+  private final Counter trackedNodesCounter;
+  private final Counter reclaimedNodesCounter;
+  private final Counter reclaimedBytesCounter;
+  private volatile long nodeAddedListenerId;
+  private final ReentrantLock lock = new ReentrantLock(true);
+  private final Deque<List<Bytes32>> pendingNodes = new ArrayDeque<>();
+  private int pendingNodeCount;
+  private final Map<Bytes32, RefCount> bufferedCounts = new HashMap<>();
+
+  public UniTrieRefCountPruner(
+      final WorldStateStorage worldStateStorage,
+      final MutableBlockchain blockchain,
+      final KeyValueStorage refCountStorage,
+      final ObservableMetricsSystem metricsSystem) {
+    this(
+        worldStateStorage,
+        blockchain,
+        refCountStorage,
+        metricsSystem,
+        DEFAULT_OPS_PER_TRANSACTION);
+  }
+
+  public UniTrieRefCountPruner(
+      final WorldStateStorage worldStateStorage,
+      final MutableBlockchain blockchain,
+      final KeyValueStorage refCountStorage,
+      final ObservableMetricsSystem metricsSystem,
+      final int operationsPerTransaction) {
+    this.worldStateStorage = worldStateStorage;
+    this.blockchain = blockchain;
+    this.refCountStorage = refCountStorage;
+    this.operationsPerTransaction = operationsPerTransaction;
+    this.nodeDecoder = new UniTrieNodeDecoder(worldStateStorage::getAccountStateTrieNode);
+
+    trackedNodesCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.PRUNER,
+            "tracked_nodes_total",
+            "Total number of nodes whose references started being counted");
+    reclaimedNodesCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.PRUNER,
+            "reclaimed_nodes_total",
+            "Total number of nodes removed after their reference count dropped to zero");
+    reclaimedBytesCounter =
+        metricsSystem.createCounter(
+            BesuMetricCategory.PRUNER,
+            "reclaimed_bytes_total",
+            "Total size in bytes of nodes removed after their reference count dropped to zero");
+  }
+
+  @Override
+  public void prepare() {
+    nodeAddedListenerId = worldStateStorage.addNodeAddedListener(this::onNodesAdded);
+  }
+
+  @Override
+  public void mark(final Hash rootHash) {
+    lock.lock();
+    try {
+      trackPendingNodes();
+      trackNode(rootHash);
+      flushCounts();
+    } finally {
+      lock.unlock();
+    }
+    LOG.debug("Completed counting references of added nodes");
+  }
+
+  @Override
+  public void sweepBefore(final long markedBlockNumber) {
+    LOG.debug("Releasing state roots before block {}", markedBlockNumber);
+    lock.lock();
+    try {
+      trackPendingNodes();
+      if (!pendingNodes.isEmpty()) {
+        // The batch still being committed may reuse nodes that would be released, and what it
+        // refers to is only known once it's in storage, so releasing waits for the next sweep
+        flushCounts();
+        LOG.debug("Postponed releasing state roots until added nodes are committed");
+        return;
+      }
+
+      // Roots of retained states must never be released, even if nothing refers to them
+      final Set<Bytes32> retainedRoots = new HashSet<>();
+      final long chainHead = blockchain.getChainHeadBlockNumber();
+      for (long blockNumber = markedBlockNumber; blockNumber <= chainHead; blockNumber++) {
+        final Hash stateRoot = blockchain.getBlockHeader(blockNumber).get().getStateRoot();
+        retainedRoots.add(stateRoot);
+        trackNode(stateRoot);
+      }
+
+      final Optional<Long> lastReleasedBlock = getLastReleasedBlock();
+      final Set<Bytes32> releasedRoots = new HashSet<>();
+      for (long blockNumber = markedBlockNumber - 1;
+          blockNumber > lastReleasedBlock.orElse(-1L);
+          blockNumber--) {
+        final Hash stateRoot = blockchain.getBlockHeader(blockNumber).get().getStateRoot();
+        if (retainedRoots.contains(stateRoot) || !releasedRoots.add(stateRoot)) {
+          continue;
+        }
+        if (!worldStateStorage.isWorldStateAvailable(stateRoot)) {
+          break;
+        }
+        if (lastReleasedBlock.isPresent()) {
+          // Roots added while no listener was registered are counted just before release
+          trackNode(stateRoot);
+        }
+        final RefCount refCount = readCount(stateRoot);
+        if (refCount != null && refCount.count == 0) {
+          removeNodes(release(stateRoot, retainedRoots));
+        }
+      }
+      flushCounts();
+      if (lastReleasedBlock.isEmpty()) {
+        // Nothing was counted before this first sweep, so remove whatever is left untracked.
+        // New nodes can't be reported while the lock is held, so none land during the scan.
+        final long prunedNodeCount =
+            worldStateStorage.prune(key -> refCountStorage.containsKey(key));
+        reclaimedNodesCounter.inc(prunedNodeCount);
+        LOG.debug("Removed {} untracked nodes", prunedNodeCount);
+      }
+      setLastReleasedBlock(markedBlockNumber - 1);
+      LOG.debug("Completed releasing state roots");
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void cleanup() {
+    worldStateStorage.removeNodeAddedListener(nodeAddedListenerId);
+    lock.lock();
+    try {
+      pendingNodes.clear();
+      pendingNodeCount = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void onNodesAdded(final Collection<Bytes32> nodeHashes) {
+    lock.lock();
+    try {
+      // Listeners are called before nodes are committed, so previously added nodes are counted
+      // here, and the nodes reported now wait until they are in storage
+      if (pendingNodeCount > operationsPerTransaction) {
+        trackPendingNodes();
+        flushCounts();
+      }
+      if (!nodeHashes.isEmpty()) {
+        pendingNodes.addLast(new ArrayList<>(nodeHashes));
+        pendingNodeCount += nodeHashes.size();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void trackPendingNodes() {
+    while (!pendingNodes.isEmpty()) {
+      final List<Bytes32> nodeHashes = pendingNodes.peekFirst();
+      final Bytes32 lastHash = nodeHashes.get(nodeHashes.size() - 1);
+      if (worldStateStorage.getNodeData(lastHash).isEmpty()) {
+        if (pendingNodes.size() == 1) {
+          // Still being committed
+          return;
+        }
+        // Never committed. Should its nodes show up later, they are tracked once referenced.
+      } else {
+        // Nodes are added bottom-up, go backwards so parents are tracked before their children
+        for (int i = nodeHashes.size() - 1; i >= 0; i--) {
+          trackNode(nodeHashes.get(i));
+        }
+      }
+      pendingNodes.removeFirst();
+      pendingNodeCount -= nodeHashes.size();
+    }
+  }
+
+  /**
+   * Start counting the references held by the given node, if not counted yet. Untracked nodes it
+   * refers to are tracked too, so everything reachable from a tracked node is tracked.
+   */
+  private void trackNode(final Bytes32 hash) {
+    final RefCount refCount = readCount(hash);
+    if (refCount == null) {
+      writeCount(hash, new RefCount(UNEXPANDED_NODE, 0));
+      trackedNodesCounter.inc();
+    } else if (refCount.kind != UNEXPANDED_NODE) {
+      return;
+    }
+
+    final Deque<Bytes32> toExpand = new ArrayDeque<>();
+    toExpand.push(hash);
+    while (!toExpand.isEmpty()) {
+      final Bytes32 nodeHash = toExpand.pop();
+      final Optional<Bytes> encoding = worldStateStorage.getAccountStateTrieNode(nodeHash);
+      if (encoding.isEmpty()) {
+        // Not in storage yet, its references are counted once it's added
+        continue;
+      }
+      writeCount(nodeHash, readCount(nodeHash).withKind(NODE));
+      nodeDecoder.decodeReferences(
+          encoding.get(),
+          child -> {
+            if (addReference(child, UNEXPANDED_NODE)) {
+              toExpand.push(child);
+            }
+          },
+          value -> addReference(value, VALUE));
+    }
+  }
+
+  /** Count a reference to the given hash, returning whether it wasn't tracked before. */
+  private boolean addReference(final Bytes32 hash, final byte kind) {
+    final RefCount refCount = readCount(hash);
+    if (refCount == null) {
+      writeCount(hash, new RefCount(kind, 1));
+      trackedNodesCounter.inc();
+      return true;
+    }
+    writeCount(hash, refCount.withCount(refCount.count + 1));
+    return false;
+  }
+
+  /**
+   * Release an unreferenced node, cascading to every node left without references. Returns the
+   * hashes of released nodes still in storage.
+   */
+  private List<Bytes32> release(final Bytes32 hash, final Set<Bytes32> retainedRoots) {
+    final List<Bytes32> reclaimed = new ArrayList<>();
+    final Deque<Bytes32> toRelease = new ArrayDeque<>();
+    toRelease.push(hash);
+    while (!toRelease.isEmpty()) {
+      final Bytes32 nodeHash = toRelease.pop();
+      final RefCount refCount = readCount(nodeHash);
+      if (refCount == null) {
+        continue;
+      }
+      writeCount(nodeHash, RefCount.REMOVED);
+
+      final Optional<Bytes> data = worldStateStorage.getAccountStateTrieNode(nodeHash);
+      if (data.isEmpty()) {
+        continue;
+      }
+      reclaimed.add(nodeHash);
+      reclaimedBytesCounter.inc(data.get().size());
+      // Unexpanded nodes never counted their references, so there's nothing to drop
+      if (refCount.kind == NODE) {
+        nodeDecoder.decodeReferences(
+            data.get(),
+            child -> dropReference(child, retainedRoots, toRelease),
+            value -> dropReference(value, retainedRoots, toRelease));
+      }
+    }
+    return reclaimed;
+  }
+
+  private void dropReference(
+      final Bytes32 hash, final Set<Bytes32> retainedRoots, final Deque<Bytes32> toRelease) {
+    final RefCount refCount = readCount(hash);
+    if (refCount == null || refCount.count == 0) {
+      return;
+    }
+    writeCount(hash, refCount.withCount(refCount.count - 1));
+    if (refCount.count == 1 && !retainedRoots.contains(hash)) {
+      toRelease.push(hash);
+    }
+  }
+
+  private void removeNodes(final List<Bytes32> nodeHashes) {
+    WorldStateStorage.Updater updater = worldStateStorage.updater();
+    long removedNodeCount = 0;
+    for (final Bytes32 nodeHash : nodeHashes) {
+      updater.removeAccountStateTrieNode(nodeHash);
+      removedNodeCount++;
+      if (removedNodeCount % operationsPerTransaction == 0) {
+        updater.commit();
+        updater = worldStateStorage.updater();
+      }
+    }
+    updater.commit();
+    reclaimedNodesCounter.inc(removedNodeCount);
+  }
+
+  private RefCount readCount(final Bytes32 hash) {
+    if (bufferedCounts.containsKey(hash)) {
+      final RefCount refCount = bufferedCounts.get(hash);
+      return refCount == RefCount.REMOVED ? null : refCount;
+    }
+    return refCountStorage.get(hash.toArrayUnsafe()).map(RefCount::decode).orElse(null);
+  }
+
+  private void writeCount(final Bytes32 hash, final RefCount refCount) {
+    bufferedCounts.put(hash, refCount);
+    if (bufferedCounts.size() > operationsPerTransaction) {
+      flushCounts();
+    }
+  }
+
+  private void flushCounts() {
+    final KeyValueStorageTransaction transaction = refCountStorage.startTransaction();
+    bufferedCounts.forEach(
+        (hash, refCount) -> {
+          if (refCount == RefCount.REMOVED) {
+            transaction.remove(hash.toArrayUnsafe());
+          } else {
+            transaction.put(hash.toArrayUnsafe(), refCount.encode());
+          }
+        });
+    transaction.commit();
+    bufferedCounts.clear();
+  }
+
+  private Optional<Long> getLastReleasedBlock() {
+    return refCountStorage.get(LAST_RELEASED_BLOCK_KEY).map(b -> Bytes.wrap(b).toLong());
+  }
+
+  private void setLastReleasedBlock(final long blockNumber) {
+    final KeyValueStorageTransaction transaction = refCountStorage.startTransaction();
+    transaction.put(LAST_RELEASED_BLOCK_KEY, Bytes.ofUnsignedLong(blockNumber).toArrayUnsafe());
+    transaction.commit();
+  }
+
+  /** Kind of a tracked hash, along with the number of tracked nodes referring to it. */
+  private static class RefCount {
+    static final RefCount REMOVED = new RefCount(NODE, -1);
+
+    final byte kind;
+    final long count;
+
+    RefCount(final byte kind, final long count) {
+      this.kind = kind;
+      this.count = count;
+    }
+
+    RefCount withKind(final byte kind) {
+      return new RefCount(kind, count);
+    }
+
+    RefCount withCount(final long count) {
+      return new RefCount(kind, count);
+    }
+
+    byte[] encode() {
+      return Bytes.concatenate(Bytes.of(kind), Bytes.ofUnsignedLong(count)).toArrayUnsafe();
+    }
+
+    static RefCount decode(final byte[] bytes) {
+      return new RefCount(bytes[0], Bytes.wrap(bytes, 1, 8).toLong());
+    }
+  }
+}
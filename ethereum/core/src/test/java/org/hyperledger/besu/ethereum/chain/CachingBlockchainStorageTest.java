@@ -0,0 +1,113 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import org.junit.Test;
+
+public class CachingBlockchainStorageTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final BlockchainStorage storage =
+      spy(
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              new InMemoryKeyValueStorage(), new MainnetBlockHeaderFunctions()));
+  private final CachingBlockchainStorage cachingStorage =
+      new CachingBlockchainStorage(storage, new NoOpMetricsSystem());
+
+  @Test
+  public void readsAreServedFromCache() {
+    final Block block = gen.block();
+    final Hash hash = block.getHash();
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockBody(hash, block.getBody());
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.commit();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(cachingStorage.getBlockHeader(hash)).contains(block.getHeader());
+      assertThat(cachingStorage.getBlockBody(hash)).contains(block.getBody());
+      assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).contains(hash);
+    }
+
+    verify(storage, times(1)).getBlockHeader(hash);
+    verify(storage, times(1)).getBlockBody(hash);
+    verify(storage, times(1)).getBlockHash(block.getHeader().getNumber());
+  }
+
+  @Test
+  public void committedWritesAreCached() {
+    final Block block = gen.block();
+    final Hash hash = block.getHash();
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.commit();
+
+    assertThat(cachingStorage.getBlockHeader(hash)).contains(block.getHeader());
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).contains(hash);
+    verify(storage, times(0)).getBlockHeader(hash);
+    verify(storage, times(0)).getBlockHash(block.getHeader().getNumber());
+  }
+
+  @Test
+  public void rolledBackWritesAreNotCached() {
+    final Block block = gen.block();
+    final Hash hash = block.getHash();
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(hash, block.getHeader());
+    updater.putBlockHash(block.getHeader().getNumber(), hash);
+    updater.rollback();
+
+    assertThat(cachingStorage.getBlockHeader(hash)).isEmpty();
+    assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber())).isEmpty();
+  }
+
+  @Test
+  public void canonicalHashChangesReplaceCachedHashes() {
+    final Hash oldHash = gen.hash();
+    final Hash newHash = gen.hash();
+    final BlockchainStorage.Updater initialUpdater = storage.updater();
+    initialUpdater.putBlockHash(1L, oldHash);
+    initialUpdater.putBlockHash(2L, oldHash);
+    initialUpdater.commit();
+    assertThat(cachingStorage.getBlockHash(1L)).contains(oldHash);
+    assertThat(cachingStorage.getBlockHash(2L)).contains(oldHash);
+
+    final BlockchainStorage.Updater reorgUpdater = cachingStorage.updater();
+    reorgUpdater.putBlockHash(1L, newHash);
+    reorgUpdater.removeBlockHash(2L);
+    // Nothing changes until the updater commits
+    assertThat(cachingStorage.getBlockHash(1L)).contains(oldHash);
+    assertThat(cachingStorage.getBlockHash(2L)).contains(oldHash);
+    reorgUpdater.commit();
+
+    assertThat(cachingStorage.getBlockHash(1L)).contains(newHash);
+    assertThat(cachingStorage.getBlockHash(2L)).isEmpty();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryWorldStateArchive;
+
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.AddressHelpers;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.core.Wei;
+import org.hyperledger.besu.ethereum.core.WorldUpdater;
+import org.hyperledger.besu.ethereum.vm.TestBlockchain;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpeculativeTransactionExecutorTest {
+
+  private static final long FRONTIER_BLOCK = 1L;
+  private static final long ISTANBUL_BLOCK = 10_000_000L;
+
+  // Increments the value in slot 0: PUSH1 0, SLOAD, PUSH1 1, ADD, PUSH1 0, SSTORE, STOP
+  private static final Bytes COUNTER_CODE = Bytes.fromHexString("0x60005460010160005500");
+
+  private final WorldStateArchive worldStateArchive = createInMemoryWorldStateArchive();
+  private final Address coinbase = AddressHelpers.ofValue(1);
+  private final Address counter = AddressHelpers.ofValue(2);
+  private final Address sharedRecipient = AddressHelpers.ofValue(3);
+  private final List<KeyPair> senders = new ArrayList<>();
+  private Hash genesisStateRoot;
+
+  @Before
+  public void setUp() {
+    final MutableWorldState worldState = worldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    for (int i = 0; i < 8; i++) {
+      senders.add(KeyPair.generate());
+      updater.createAccount(senderAddress(i)).getMutable().setBalance(Wei.fromEth(10));
+    }
+    updater.createAccount(counter).getMutable().setCode(COUNTER_CODE);
+    updater.commit();
+    worldState.persist();
+    genesisStateRoot = worldState.rootHash();
+  }
+
+  @Test
+  public void disjointTransactionsGiveSameStateAndReceiptsAsSequentialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(transfer(i, 0, AddressHelpers.ofValue(100 + i)));
+    }
+
+    assertSameAsSequentialExecution(FRONTIER_BLOCK, transactions);
+    assertSameAsSequentialExecution(ISTANBUL_BLOCK, transactions);
+  }
+
+  @Test
+  public void conflictingTransactionsGiveSameStateAndReceiptsAsSequentialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    // Same recipient
+    transactions.add(transfer(0, 0, sharedRecipient));
+    transactions.add(transfer(1, 0, sharedRecipient));
+    // Same sender
+    transactions.add(transfer(0, 1, AddressHelpers.ofValue(100)));
+    // Same storage slot
+    transactions.add(transfer(2, 0, counter));
+    transactions.add(transfer(3, 0, counter));
+    // Recipient of a previous transfer sending in turn
+    transactions.add(transfer(4, 0, senderAddress(5)));
+    transactions.add(transfer(5, 0, AddressHelpers.ofValue(101)));
+    // Mining beneficiary
+    transactions.add(transfer(6, 0, coinbase));
+
+    assertSameAsSequentialExecution(FRONTIER_BLOCK, transactions);
+    assertSameAsSequentialExecution(ISTANBUL_BLOCK, transactions);
+  }
+
+  @Test
+  public void emptyAccountsAreClearedAsInSequentialExecution() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < senders.size(); i++) {
+      transactions.add(
+          new TransactionTestFixture()
+              .sender(senderAddress(i))
+              .nonce(0)
+              .gasPrice(Wei.ZERO)
+              .gasLimit(100_000)
+              .to(Optional.of(AddressHelpers.ofValue(100 + i % 2)))
+              .value(Wei.ZERO)
+              .chainId(Optional.empty())
+              .createTransaction(senders.get(i)));
+    }
+
+    assertSameAsSequentialExecution(FRONTIER_BLOCK, transactions);
+    assertSameAsSequentialExecution(ISTANBUL_BLOCK, transactions);
+  }
+
+  @Test
+  public void failsBlockWithInvalidTransaction() {
+    final Transaction overdraft =
+        new TransactionTestFixture()
+            .sender(senderAddress(1))
+            .nonce(0)
+            .gasLimit(100_000)
+            .to(Optional.of(sharedRecipient))
+            .value(Wei.fromEth(100))
+            .chainId(Optional.empty())
+            .createTransaction(senders.get(1));
+    final List<Transaction> transactions = List.of(transfer(0, 0, sharedRecipient), overdraft);
+
+    assertThat(processBlock(ISTANBUL_BLOCK, transactions, true).isSuccessful()).isFalse();
+  }
+
+  private void assertSameAsSequentialExecution(
+      final long blockNumber, final List<Transaction> transactions) {
+    final MutableWorldState sequentialState = worldStateArchive.getMutable(genesisStateRoot).get();
+    final BlockProcessor.Result sequentialResult =
+        processBlock(blockNumber, transactions, false, sequentialState);
+    final MutableWorldState parallelState = worldStateArchive.getMutable(genesisStateRoot).get();
+    final BlockProcessor.Result parallelResult =
+        processBlock(blockNumber, transactions, true, parallelState);
+
+    assertThat(sequentialResult.isSuccessful()).isTrue();
+    assertThat(parallelResult.isSuccessful()).isTrue();
+    assertThat(parallelState.rootHash()).isEqualTo(sequentialState.rootHash());
+    assertThat(parallelResult.getReceipts()).isEqualTo(sequentialResult.getReceipts());
+  }
+
+  private BlockProcessor.Result processBlock(
+      final long blockNumber, final List<Transaction> transactions, final boolean parallel) {
+    return processBlock(
+        blockNumber, transactions, parallel, worldStateArchive.getMutable(genesisStateRoot).get());
+  }
+
+  private BlockProcessor.Result processBlock(
+      final long blockNumber,
+      final List<Transaction> transactions,
+      final boolean parallel,
+      final MutableWorldState worldState) {
+    final BlockProcessor blockProcessor =
+        MainnetProtocolSchedule.create().getByBlockNumber(blockNumber).getBlockProcessor();
+    blockProcessor.setParallelTransactionExecution(parallel);
+    final BlockHeader header =
+        new BlockHeaderTestFixture()
+            .number(blockNumber)
+            .gasLimit(10_000_000L)
+            .coinbase(coinbase)
+            .buildHeader();
+    return blockProcessor.processBlock(
+        new TestBlockchain(), worldState, header, transactions, emptyList());
+  }
+
+  private Transaction transfer(final int sender, final long nonce, final Address to) {
+    return new TransactionTestFixture()
+        .sender(senderAddress(sender))
+        .nonce(nonce)
+        .gasPrice(Wei.of(5))
+        .gasLimit(100_000)
+        .to(Optional.of(to))
+        .value(Wei.of(1_000))
+        .chainId(Optional.empty())
+        .createTransaction(senders.get(sender));
+  }
+
+  private Address senderAddress(final int sender) {
+    return Address.extract(Hash.hash(senders.get(sender).getPublicKey().getEncodedBytes()));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidator.TransactionInvalidReason;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class TransactionPrevalidatorTest {
+
+  private final KeyPair senderKeys = KeyPair.generate();
+  private final KeyPair otherSenderKeys = KeyPair.generate();
+  private final TransactionProcessor transactionProcessor = mock(TransactionProcessor.class);
+  private final TransactionPrevalidator prevalidator =
+      new TransactionPrevalidator(ForkJoinPool.commonPool(), 1);
+
+  @Test
+  public void checksEveryTransaction() {
+    when(transactionProcessor.prevalidate(any())).thenReturn(ValidationResult.valid());
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      transactions.add(transaction(senderKeys, i));
+    }
+
+    assertThat(prevalidator.prevalidate(transactionProcessor, transactions).isValid()).isTrue();
+    for (final Transaction transaction : transactions) {
+      verify(transactionProcessor, times(1)).prevalidate(transaction);
+    }
+  }
+
+  @Test
+  public void reportsFirstInvalidTransactionInBlockOrder() {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      final Transaction transaction = transaction(senderKeys, i);
+      transactions.add(transaction);
+      when(transactionProcessor.prevalidate(transaction))
+          .thenReturn(
+              i % 5 == 3
+                  ? ValidationResult.invalid(
+                      TransactionInvalidReason.INTRINSIC_GAS_EXCEEDS_GAS_LIMIT, "tx " + i)
+                  : ValidationResult.valid());
+    }
+
+    final ValidationResult<TransactionInvalidReason> result =
+        prevalidator.prevalidate(transactionProcessor, transactions);
+    assertThat(result.isValid()).isFalse();
+    assertThat(result.getErrorMessage()).isEqualTo("tx 3");
+  }
+
+  @Test
+  public void acceptsInterleavedSenders() {
+    when(transactionProcessor.prevalidate(any())).thenReturn(ValidationResult.valid());
+    final List<Transaction> transactions =
+        List.of(
+            transaction(senderKeys, 0),
+            transaction(otherSenderKeys, 5),
+            transaction(senderKeys, 1),
+            transaction(otherSenderKeys, 6));
+
+    assertThat(prevalidator.prevalidate(transactionProcessor, transactions).isValid()).isTrue();
+  }
+
+  @Test
+  public void rejectsNonConsecutiveNoncesOfSameSender() {
+    when(transactionProcessor.prevalidate(any())).thenReturn(ValidationResult.valid());
+    final List<Transaction> transactions =
+        List.of(
+            transaction(senderKeys, 0),
+            transaction(otherSenderKeys, 5),
+            transaction(senderKeys, 2));
+
+    final ValidationResult<TransactionInvalidReason> result =
+        prevalidator.prevalidate(transactionProcessor, transactions);
+    assertThat(result.isValid()).isFalse();
+    assertThat(result.getInvalidReason()).isEqualTo(TransactionInvalidReason.INCORRECT_NONCE);
+  }
+
+  @Test
+  public void emptyBlockIsValid() {
+    assertThat(prevalidator.prevalidate(transactionProcessor, Collections.emptyList()).isValid())
+        .isTrue();
+    verifyZeroInteractions(transactionProcessor);
+  }
+
+  private static Transaction transaction(final KeyPair keys, final long nonce) {
+    return new TransactionTestFixture().nonce(nonce).createTransaction(keys);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.mainnet.FrontierGasCalculator;
+import org.hyperledger.besu.ethereum.vm.operations.JumpDestOperation;
+import org.hyperledger.besu.ethereum.vm.operations.PushOperation;
+import org.hyperledger.besu.ethereum.vm.operations.StopOperation;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CodeAnalysisTest {
+
+  // PUSH2 0x5b5b, JUMPDEST, PUSH1 0x01, STOP, PUSH2 0x02 (truncated)
+  private static final Bytes BYTECODE = Bytes.fromHexString("0x615b5b5b6001006102");
+
+  private EVM evm;
+
+  @Before
+  public void setup() {
+    final GasCalculator gasCalculator = new FrontierGasCalculator();
+    final OperationRegistry registry = new OperationRegistry();
+    registry.put(new StopOperation(gasCalculator), Account.DEFAULT_VERSION);
+    registry.put(new JumpDestOperation(gasCalculator), Account.DEFAULT_VERSION);
+    registry.put(new PushOperation(1, gasCalculator), Account.DEFAULT_VERSION);
+    registry.put(new PushOperation(2, gasCalculator), Account.DEFAULT_VERSION);
+    evm = new EVM(registry, gasCalculator);
+  }
+
+  @Test
+  public void decodesOperationsJumpDestinationsAndImmediates() {
+    final CodeAnalysis analysis = evm.getCodeAnalysis(new Code(BYTECODE), Account.DEFAULT_VERSION);
+
+    assertThat(analysis.getSize()).isEqualTo(BYTECODE.size());
+    assertThat(analysis.getOperation(0).getName()).isEqualTo("PUSH2");
+    assertThat(analysis.getOperation(3).getName()).isEqualTo("JUMPDEST");
+    assertThat(analysis.getOperation(6).getName()).isEqualTo("STOP");
+
+    // Only the JUMPDEST outside of PUSH data is a valid destination
+    assertThat(analysis.isJumpDestination(1)).isFalse();
+    assertThat(analysis.isJumpDestination(2)).isFalse();
+    assertThat(analysis.isJumpDestination(3)).isTrue();
+
+    assertThat(analysis.getImmediate(0)).isEqualTo(Bytes32.fromHexStringLenient("0x5b5b"));
+    assertThat(analysis.getImmediate(4)).isEqualTo(Bytes32.fromHexStringLenient("0x01"));
+    assertThat(analysis.getImmediate(3)).isNull();
+    // Operands cut short by the end of code are padded with zeros on the right
+    assertThat(analysis.getImmediate(7)).isEqualTo(Bytes32.fromHexStringLenient("0x0200"));
+  }
+
+  @Test
+  public void estimatesMemorySizeFromCodeAndImmediates() {
+    final CodeAnalysis analysis = evm.getCodeAnalysis(new Code(BYTECODE), Account.DEFAULT_VERSION);
+    final CodeAnalysis withoutImmediates =
+        evm.getCodeAnalysis(
+            new Code(Bytes.fromHexString("0x5b5b5b5b5b5b5b5b5b")), Account.DEFAULT_VERSION);
+
+    // Each immediate is an object of its own, so it weighs far more than a code byte
+    assertThat(withoutImmediates.getEstimatedMemorySize()).isGreaterThan(BYTECODE.size());
+    assertThat(analysis.getEstimatedMemorySize() - withoutImmediates.getEstimatedMemorySize())
+        .isGreaterThan(3 * Bytes32.SIZE);
+  }
+
+  @Test
+  public void sharesAnalysesOfCodeWithTheSameHash() {
+    final Hash codeHash = Hash.hash(BYTECODE);
+    final CodeAnalysis first =
+        evm.getCodeAnalysis(new Code(BYTECODE, codeHash), Account.DEFAULT_VERSION);
+    final CodeAnalysis second =
+        evm.getCodeAnalysis(new Code(BYTECODE, codeHash), Account.DEFAULT_VERSION);
+    assertThat(second).isSameAs(first);
+
+    // Code without a known hash is analyzed on its own
+    assertThat(evm.getCodeAnalysis(new Code(BYTECODE), Account.DEFAULT_VERSION))
+        .isNotSameAs(first);
+  }
+
+  @Test
+  public void reusesAnalysisStoredInCode() {
+    final Code code = new Code(BYTECODE);
+    final CodeAnalysis analysis = evm.getCodeAnalysis(code, Account.DEFAULT_VERSION);
+    assertThat(code.getAnalysis()).isSameAs(analysis);
+    assertThat(evm.getCodeAnalysis(code, Account.DEFAULT_VERSION)).isSameAs(analysis);
+  }
+}
@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.vm;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -31,6 +32,8 @@ import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.debug.TraceFrame;
 import org.hyperledger.besu.ethereum.debug.TraceOptions;
 import org.hyperledger.besu.ethereum.vm.ehalt.ExceptionalHaltException;
+import org.hyperledger.besu.ethereum.vm.operations.MLoadOperation;
+import org.hyperledger.besu.ethereum.vm.operations.MStoreOperation;
 
 import java.util.EnumSet;
 import java.util.Map;
@@ -44,6 +47,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DebugOperationTracerTest {
@@ -139,6 +143,41 @@ public class DebugOperationTracerTest {
     assertThat(traceFrame.getMemory()).isEmpty();
   }
 
+  @Test
+  public void shouldRecordMemoryWrittenFromStack() throws Exception {
+    final MessageFrame frame = validMessageFrame();
+    final Bytes32 word = Bytes32.fromHexString("0x0102");
+    frame.pushStackItem(word);
+    frame.pushStackItem(Bytes32.fromHexString("0x20"));
+    doAnswer(executeOn(frame, new MStoreOperation(null))).when(executeOperationAction).execute();
+
+    final TraceFrame traceFrame = traceFrame(frame, Gas.ZERO);
+    assertThat(traceFrame.getMaybeUpdatedMemory())
+        .hasValueSatisfying(
+            entry -> {
+              assertThat(entry.getOffset()).isEqualTo(UInt256.valueOf(32));
+              assertThat(entry.getValue()).isEqualTo(word);
+            });
+  }
+
+  @Test
+  public void shouldRecordMemoryReadToStack() throws Exception {
+    final MessageFrame frame = validMessageFrame();
+    final Bytes32 word = Bytes32.fromHexString("0x0102");
+    frame.writeMemory(UInt256.valueOf(32), UInt256.valueOf(32), word);
+    frame.pushStackItem(Bytes32.fromHexString("0x20"));
+    doAnswer(executeOn(frame, new MLoadOperation(null))).when(executeOperationAction).execute();
+
+    final TraceFrame traceFrame = traceFrame(frame, Gas.ZERO);
+    assertThat(frame.getStackItem(0)).isEqualTo(word);
+    assertThat(traceFrame.getMaybeUpdatedMemory())
+        .hasValueSatisfying(
+            entry -> {
+              assertThat(entry.getOffset()).isEqualTo(UInt256.valueOf(32));
+              assertThat(entry.getValue()).isEqualTo(word);
+            });
+  }
+
   @Test
   public void shouldRecordStorageWhenEnabled() throws Exception {
     final MessageFrame frame = validMessageFrame();
@@ -175,6 +214,13 @@ public class DebugOperationTracerTest {
     assertThat(traceFrame.getStorage()).contains(updatedStorage);
   }
 
+  private static Answer<Void> executeOn(final MessageFrame frame, final Operation operation) {
+    return invocation -> {
+      operation.execute(frame);
+      return null;
+    };
+  }
+
   private TraceFrame traceFrame(final MessageFrame frame, final Gas currentGasCost)
       throws Exception {
     return traceFrame(frame, currentGasCost, new TraceOptions(false, false, false));
@@ -15,11 +15,16 @@
 package org.hyperledger.besu.ethereum.vm;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import org.hyperledger.besu.ethereum.core.Gas;
+import org.hyperledger.besu.ethereum.core.MessageFrameTestFixture;
+import org.hyperledger.besu.ethereum.mainnet.MainnetProtocolSchedule;
+import org.hyperledger.besu.ethereum.vm.ehalt.ExceptionalHaltException;
 import org.hyperledger.besu.ethereum.vm.operations.StopOperation;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -62,4 +67,42 @@ public class EVMTest {
     assertThat(operation).isNotNull();
     assertThat(operation.isVirtualOperation()).isFalse();
   }
+
+  @Test
+  public void untracedRunLeavesSameStateAsTracedRun() throws ExceptionalHaltException {
+    final EVM mainnetEvm = MainnetProtocolSchedule.create().getByBlockNumber(0).getEvm();
+    // Counts down from 3 to 0, then stops
+    final Code code = new Code(Bytes.fromHexString("0x60035b600190038060025700"));
+
+    final MessageFrame untraced = createCodeExecutingFrame(code);
+    mainnetEvm.runToHalt(untraced, OperationTracer.NO_TRACING);
+    final MessageFrame traced = createCodeExecutingFrame(code);
+    mainnetEvm.runToHalt(traced, (frame, cost, executeOperation) -> executeOperation.execute());
+
+    assertThat(untraced.getState()).isEqualTo(MessageFrame.State.CODE_SUCCESS);
+    assertThat(untraced.getState()).isEqualTo(traced.getState());
+    assertThat(untraced.getRemainingGas()).isEqualTo(traced.getRemainingGas());
+    assertThat(untraced.getRemainingGas().toLong()).isLessThan(100_000L);
+    assertThat(untraced.getStackItem(0)).isEqualTo(traced.getStackItem(0));
+  }
+
+  @Test
+  public void untracedRunReportsExceptionalHaltReasons() {
+    final EVM mainnetEvm = MainnetProtocolSchedule.create().getByBlockNumber(0).getEvm();
+    // ADD with an empty stack
+    final MessageFrame frame = createCodeExecutingFrame(new Code(Bytes.fromHexString("0x01")));
+
+    assertThatThrownBy(() -> mainnetEvm.runToHalt(frame, OperationTracer.NO_TRACING))
+        .isInstanceOf(ExceptionalHaltException.class);
+    assertThat(frame.getState()).isEqualTo(MessageFrame.State.EXCEPTIONAL_HALT);
+    assertThat(frame.getExceptionalHaltReasons())
+        .containsExactly(ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
+  }
+
+  private MessageFrame createCodeExecutingFrame(final Code code) {
+    final MessageFrame frame =
+        new MessageFrameTestFixture().code(code).initialGas(Gas.of(100_000)).build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    return frame;
+  }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+public class LongLimbOperandStackTest {
+
+  private static final Bytes32 WORD =
+      Bytes32.fromHexString("0x0102030405060708111213141516171821222324252627283132333435363738");
+  private static final Bytes32 MINUS_ONE =
+      Bytes32.fromHexString("0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff");
+
+  @Test(expected = IllegalArgumentException.class)
+  public void construction_NegativeMaximumSize() {
+    new LongLimbOperandStack(-1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void push_StackOverflow() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(1);
+    stack.push(0, 0, 0, 1);
+    stack.push(0, 0, 0, 2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void dup_StackOverflow() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(1);
+    stack.push(WORD);
+    stack.dup(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void pop_StackUnderflow() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(1);
+    stack.pop();
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getLimb_IndexGreaterThanSize() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(WORD);
+    stack.getLimb(1, 0);
+  }
+
+  @Test
+  public void pushPop() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(1);
+    stack.push(WORD);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.pop()).isEqualTo(WORD);
+    assertThat(stack.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void limbsAreLittleEndianOrdered() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(WORD);
+    assertThat(stack.getLimb(0, 0)).isEqualTo(0x3132333435363738L);
+    assertThat(stack.getLimb(0, 1)).isEqualTo(0x2122232425262728L);
+    assertThat(stack.getLimb(0, 2)).isEqualTo(0x1112131415161718L);
+    assertThat(stack.getLimb(0, 3)).isEqualTo(0x0102030405060708L);
+
+    stack.push(0x0102030405060708L, 0x1112131415161718L, 0x2122232425262728L, 0x3132333435363738L);
+    assertThat(stack.get(0)).isEqualTo(WORD);
+    assertThat(stack).isEqualTo(copyOf(stack));
+  }
+
+  @Test
+  public void setLimbs() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(Bytes32.ZERO);
+    stack.push(Bytes32.ZERO);
+    stack.set(1, -1L, -1L, -1L, -1L);
+    assertThat(stack.get(1)).isEqualTo(MINUS_ONE);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.ZERO);
+  }
+
+  @Test
+  public void dupAndSwap() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(3);
+    stack.push(WORD);
+    stack.push(MINUS_ONE);
+    stack.dup(1);
+    assertThat(stack.get(0)).isEqualTo(WORD);
+
+    stack.swap(1);
+    assertThat(stack.get(0)).isEqualTo(MINUS_ONE);
+    assertThat(stack.get(1)).isEqualTo(WORD);
+    assertThat(stack.get(2)).isEqualTo(WORD);
+  }
+
+  @Test
+  public void bulkPop() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(3);
+    stack.push(WORD);
+    stack.push(MINUS_ONE);
+    stack.push(MINUS_ONE);
+    stack.bulkPop(2);
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.get(0)).isEqualTo(WORD);
+  }
+
+  @Test
+  public void isZero() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(Bytes32.ZERO);
+    stack.push(1L, 0, 0, 0);
+    assertThat(stack.isZero(0)).isFalse();
+    assertThat(stack.isZero(1)).isTrue();
+  }
+
+  @Test
+  public void compare() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(3);
+    stack.push(MINUS_ONE);
+    stack.push(WORD);
+    stack.push(WORD);
+
+    assertThat(stack.compareUnsigned(0, 1)).isZero();
+    assertThat(stack.compareSigned(0, 1)).isZero();
+    // -1 is the greatest unsigned value but a negative signed one
+    assertThat(stack.compareUnsigned(0, 2)).isNegative();
+    assertThat(stack.compareSigned(0, 2)).isPositive();
+    assertThat(stack.compareUnsigned(2, 0)).isPositive();
+    assertThat(stack.compareSigned(2, 0)).isNegative();
+  }
+
+  @Test
+  public void copyToAndSetFromBytes() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(WORD);
+    stack.push(Bytes32.ZERO);
+    final byte[] bytes = new byte[Bytes32.SIZE + 2];
+    stack.copyToBytes(1, bytes, 1);
+    assertThat(Bytes32.wrap(bytes, 1)).isEqualTo(WORD);
+    assertThat(bytes[0]).isZero();
+    assertThat(bytes[Bytes32.SIZE + 1]).isZero();
+
+    stack.setFromBytes(0, bytes, 1);
+    assertThat(stack.get(0)).isEqualTo(WORD);
+  }
+
+  private static LongLimbOperandStack copyOf(final LongLimbOperandStack stack) {
+    final LongLimbOperandStack copy = new LongLimbOperandStack(stack.size());
+    for (int i = stack.size() - 1; i >= 0; i--) {
+      copy.push(stack.get(i));
+    }
+    return copy;
+  }
+}
@@ -38,6 +38,20 @@ public class MemoryTest {
     assertThat(memory.getWord(index)).isEqualTo(value);
   }
 
+  @Test
+  public void shouldSetAndGetMemoryWordFromStack() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    final Bytes32 value = Bytes32.fromHexString("0xABCDEF");
+    stack.push(value);
+    stack.push(Bytes32.ZERO);
+    memory.setWord(20, stack, 1);
+    assertThat(memory.getWord(UInt256.valueOf(20))).isEqualTo(value);
+    assertThat(memory.getActiveWords()).isEqualTo(UInt256.valueOf(2));
+
+    memory.getWord(20, stack, 0);
+    assertThat(stack.get(0)).isEqualTo(value);
+  }
+
   @Test
   public void shouldSetMemoryWhenLengthEqualToSourceLength() {
     final Bytes value = Bytes.concatenate(WORD1, WORD2, WORD3);
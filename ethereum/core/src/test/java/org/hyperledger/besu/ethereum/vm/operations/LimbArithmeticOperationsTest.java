@@ -0,0 +1,187 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.mainnet.SpuriousDragonGasCalculator;
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+import org.hyperledger.besu.ethereum.vm.LongLimbOperandStack;
+import org.hyperledger.besu.ethereum.vm.Operation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+
+/** Checks the operations computing on limbs against the same arithmetic on big integers. */
+public class LimbArithmeticOperationsTest {
+
+  private static final BigInteger TWO_256 = BigInteger.ONE.shiftLeft(256);
+  private static final BigInteger TWO_255 = BigInteger.ONE.shiftLeft(255);
+
+  private final GasCalculator gasCalculator = new SpuriousDragonGasCalculator();
+  private final List<BigInteger> values = values();
+
+  @Test
+  public void mul() {
+    assertBinaryOperation(new MulOperation(gasCalculator), BigInteger::multiply);
+  }
+
+  @Test
+  public void div() {
+    assertBinaryOperation(
+        new DivOperation(gasCalculator),
+        (a, b) -> b.signum() == 0 ? BigInteger.ZERO : a.divide(b));
+  }
+
+  @Test
+  public void mod() {
+    assertBinaryOperation(
+        new ModOperation(gasCalculator), (a, b) -> b.signum() == 0 ? BigInteger.ZERO : a.mod(b));
+  }
+
+  @Test
+  public void sdiv() {
+    assertBinaryOperation(
+        new SDivOperation(gasCalculator),
+        (a, b) -> b.signum() == 0 ? BigInteger.ZERO : signed(a).divide(signed(b)));
+  }
+
+  @Test
+  public void smod() {
+    assertBinaryOperation(
+        new SModOperation(gasCalculator),
+        (a, b) -> b.signum() == 0 ? BigInteger.ZERO : signed(a).remainder(signed(b)));
+  }
+
+  @Test
+  public void exp() {
+    assertBinaryOperation(new ExpOperation(gasCalculator), (a, b) -> a.modPow(b, TWO_256));
+  }
+
+  @Test
+  public void signExtend() {
+    assertBinaryOperation(
+        new SignExtendOperation(gasCalculator),
+        (a, b) -> {
+          if (a.compareTo(BigInteger.valueOf(31)) >= 0) {
+            return b;
+          }
+          final int bits = (a.intValue() + 1) * 8;
+          final BigInteger low = b.mod(BigInteger.ONE.shiftLeft(bits));
+          return low.testBit(bits - 1) ? low.subtract(BigInteger.ONE.shiftLeft(bits)) : low;
+        });
+  }
+
+  @Test
+  public void byteOperation() {
+    assertBinaryOperation(
+        new ByteOperation(gasCalculator),
+        (a, b) ->
+            a.compareTo(BigInteger.valueOf(32)) >= 0
+                ? BigInteger.ZERO
+                : b.shiftRight((31 - a.intValue()) * 8).and(BigInteger.valueOf(0xFF)));
+  }
+
+  @Test
+  public void addMod() {
+    assertTernaryOperation(new AddModOperation(gasCalculator), BigInteger::add);
+  }
+
+  @Test
+  public void mulMod() {
+    assertTernaryOperation(new MulModOperation(gasCalculator), BigInteger::multiply);
+  }
+
+  private void assertBinaryOperation(
+      final Operation operation, final BinaryOperator<BigInteger> expected) {
+    for (final BigInteger a : values) {
+      for (final BigInteger b : values) {
+        final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+        stack.push(word(b));
+        stack.push(word(a));
+
+        operation.execute(LimbStackFrame.backedBy(stack));
+
+        assertThat(stack.size()).isEqualTo(1);
+        assertThat(stack.get(0))
+            .describedAs("%s(%s, %s)", operation.getName(), a, b)
+            .isEqualTo(word(expected.apply(a, b)));
+      }
+    }
+  }
+
+  private void assertTernaryOperation(
+      final Operation operation, final BinaryOperator<BigInteger> expectedBeforeModulo) {
+    for (final BigInteger a : values) {
+      for (final BigInteger b : values) {
+        for (final BigInteger modulus : values) {
+          final LongLimbOperandStack stack = new LongLimbOperandStack(3);
+          stack.push(word(modulus));
+          stack.push(word(b));
+          stack.push(word(a));
+
+          operation.execute(LimbStackFrame.backedBy(stack));
+
+          final BigInteger expected =
+              modulus.signum() == 0
+                  ? BigInteger.ZERO
+                  : expectedBeforeModulo.apply(a, b).mod(modulus);
+          assertThat(stack.size()).isEqualTo(1);
+          assertThat(stack.get(0))
+              .describedAs("%s(%s, %s, %s)", operation.getName(), a, b, modulus)
+              .isEqualTo(word(expected));
+        }
+      }
+    }
+  }
+
+  /** Edge values at the boundaries between limbs and of the signed range, then random ones. */
+  private static List<BigInteger> values() {
+    final List<BigInteger> values = new ArrayList<>();
+    values.add(BigInteger.ZERO);
+    values.add(BigInteger.ONE);
+    values.add(BigInteger.TWO);
+    values.add(BigInteger.valueOf(31));
+    values.add(BigInteger.valueOf(255));
+    for (int bits = 63; bits <= 256; bits += 64) {
+      values.add(BigInteger.ONE.shiftLeft(bits));
+      values.add(BigInteger.ONE.shiftLeft(bits + 1).subtract(BigInteger.ONE));
+    }
+    values.add(TWO_255.subtract(BigInteger.ONE));
+    final Random random = new Random(42);
+    for (int bits = 8; bits <= 256; bits += 40) {
+      values.add(new BigInteger(bits, random));
+    }
+    return values;
+  }
+
+  private static BigInteger signed(final BigInteger value) {
+    return value.compareTo(TWO_255) >= 0 ? value.subtract(TWO_256) : value;
+  }
+
+  private static Bytes32 word(final BigInteger value) {
+    final byte[] bytes = value.mod(TWO_256).toByteArray();
+    final byte[] word = new byte[Bytes32.SIZE];
+    final int length = Math.min(bytes.length, Bytes32.SIZE);
+    System.arraycopy(bytes, bytes.length - length, word, Bytes32.SIZE - length, length);
+    return Bytes32.wrap(word);
+  }
+}
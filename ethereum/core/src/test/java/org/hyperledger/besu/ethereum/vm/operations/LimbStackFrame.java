@@ -0,0 +1,57 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.ethereum.vm.LongLimbOperandStack;
+import org.hyperledger.besu.ethereum.vm.MessageFrame;
+
+/** Mocks the limb accessors of a {@link MessageFrame} with a stack operations run against. */
+final class LimbStackFrame {
+
+  private LimbStackFrame() {}
+
+  static MessageFrame backedBy(final LongLimbOperandStack stack) {
+    final MessageFrame frame = mock(MessageFrame.class);
+    when(frame.getStackItemLimb(anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> stack.getLimb(invocation.getArgument(0), invocation.getArgument(1)));
+    doAnswer(
+            invocation -> {
+              stack.set(
+                  invocation.<Integer>getArgument(0),
+                  invocation.<Long>getArgument(1),
+                  invocation.<Long>getArgument(2),
+                  invocation.<Long>getArgument(3),
+                  invocation.<Long>getArgument(4));
+              return null;
+            })
+        .when(frame)
+        .setStackItem(anyInt(), anyLong(), anyLong(), anyLong(), anyLong());
+    doAnswer(
+            invocation -> {
+              stack.bulkPop(invocation.getArgument(0));
+              return null;
+            })
+        .when(frame)
+        .popStackItems(anyInt());
+    return frame;
+  }
+}
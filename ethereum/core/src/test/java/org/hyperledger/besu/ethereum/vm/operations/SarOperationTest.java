@@ -14,13 +14,11 @@
  */
 package org.hyperledger.besu.ethereum.vm.operations;
 
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import org.hyperledger.besu.ethereum.mainnet.SpuriousDragonGasCalculator;
 import org.hyperledger.besu.ethereum.vm.GasCalculator;
-import org.hyperledger.besu.ethereum.vm.MessageFrame;
+import org.hyperledger.besu.ethereum.vm.LongLimbOperandStack;
 
 import java.util.Arrays;
 
@@ -39,8 +37,6 @@ public class SarOperationTest {
   private final GasCalculator gasCalculator = new SpuriousDragonGasCalculator();
   private final SarOperation operation = new SarOperation(gasCalculator);
 
-  private MessageFrame frame;
-
   static String[][] testData = {
     {
       "0x0000000000000000000000000000000000000000000000000000000000000001",
@@ -157,11 +153,13 @@ public class SarOperationTest {
 
   @Test
   public void shiftOperation() {
-    frame = mock(MessageFrame.class);
-    when(frame.popStackItem())
-        .thenReturn(Bytes32.fromHexStringLenient(shift))
-        .thenReturn(Bytes32.fromHexString(number));
-    operation.execute(frame);
-    verify(frame).pushStackItem(Bytes32.fromHexString(expectedResult));
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(Bytes32.fromHexString(number));
+    stack.push(Bytes32.fromHexStringLenient(shift));
+
+    operation.execute(LimbStackFrame.backedBy(stack));
+
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString(expectedResult));
   }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.vm.operations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.mainnet.SpuriousDragonGasCalculator;
+import org.hyperledger.besu.ethereum.vm.GasCalculator;
+import org.hyperledger.besu.ethereum.vm.LongLimbOperandStack;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class SubOperationTest {
+
+  private final String a;
+  private final String b;
+  private final String expectedResult;
+
+  private final GasCalculator gasCalculator = new SpuriousDragonGasCalculator();
+  private final SubOperation operation = new SubOperation(gasCalculator);
+
+  // Operands crossing the boundaries between limbs
+  static String[][] testData = {
+    {
+      "0x0000000000000000000000000000000000000000000000000000000000000000",
+      "0x0000000000000000000000000000000000000000000000000000000000000001",
+      "0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"
+    },
+    {
+      "0x0000000000000000000000000000000000000000000000010000000000000000",
+      "0x0000000000000000000000000000000000000000000000000000000000000001",
+      "0x000000000000000000000000000000000000000000000000ffffffffffffffff"
+    },
+    {
+      "0x0000000000000000000000000000000100000000000000000000000000000000",
+      "0x0000000000000000000000000000000000000000000000000000000000000001",
+      "0x00000000000000000000000000000000ffffffffffffffffffffffffffffffff"
+    },
+    {
+      "0x0000000000000001000000000000000000000000000000000000000000000000",
+      "0x0000000000000000000000000000000000000000000000000000000000000001",
+      "0x0000000000000000ffffffffffffffffffffffffffffffffffffffffffffffff"
+    },
+    {
+      "0x0000000000000000000000000000000000000000000000000000000000000001",
+      "0x0000000000000000000000000000000000000000000000000000000000000002",
+      "0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"
+    },
+    {
+      "0x0000000000000000000000000000000000000000000000000000000000000000",
+      "0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff",
+      "0x0000000000000000000000000000000000000000000000000000000000000001"
+    },
+    {
+      "0x000000000000000000000000000000000000000000000000ffffffffffffffff",
+      "0x0000000000000000000000000000000000000000000000010000000000000000",
+      "0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"
+    },
+    {
+      "0x0000000000000000000000000000000000000000000000008000000000000000",
+      "0x0000000000000000000000000000000000000000000000008000000000000001",
+      "0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"
+    }
+  };
+
+  @Parameterized.Parameters(name = "{index}: {0}, {1}, {2}")
+  public static Iterable<Object[]> data() {
+    return Arrays.asList((Object[][]) testData);
+  }
+
+  public SubOperationTest(final String a, final String b, final String expectedResult) {
+    this.a = a;
+    this.b = b;
+    this.expectedResult = expectedResult;
+  }
+
+  @Test
+  public void subOperation() {
+    final LongLimbOperandStack stack = new LongLimbOperandStack(2);
+    stack.push(Bytes32.fromHexString(b));
+    stack.push(Bytes32.fromHexString(a));
+
+    operation.execute(LimbStackFrame.backedBy(stack));
+
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes32.fromHexString(expectedResult));
+  }
+}
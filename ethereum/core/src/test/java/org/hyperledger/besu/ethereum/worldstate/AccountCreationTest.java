@@ -70,7 +70,7 @@ public class AccountCreationTest {
         return;
       }
 
-      int len = node.getPath().length;
+      int len = node.getPath().length();
       min = Math.min(min, len);
       max = Math.max(max, len);
 
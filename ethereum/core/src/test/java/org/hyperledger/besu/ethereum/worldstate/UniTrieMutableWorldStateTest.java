@@ -26,6 +26,7 @@ import org.hyperledger.besu.ethereum.core.MutableAccount;
 import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Wei;
 import org.hyperledger.besu.ethereum.core.WorldState;
+import org.hyperledger.besu.ethereum.core.WorldState.StreamableAccount;
 import org.hyperledger.besu.ethereum.core.WorldUpdater;
 import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.MerklePatriciaTrie;
@@ -36,9 +37,15 @@ import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.base.Strings;
 import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.Test;
 
@@ -84,6 +91,40 @@ public class UniTrieMutableWorldStateTest {
     assertThat(worldState.get(ADDRESS).getCodeHash()).isEqualTo(Hash.EMPTY);
   }
 
+  @Test
+  public void prefetch_readsSameValuesAndIsDroppedOnCommit() {
+    final MutableWorldState worldState = createEmpty();
+    WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.createAccount(ADDRESS).getMutable();
+    account.setBalance(Wei.of(100000));
+    account.setCode(Bytes.fromHexString("0x600160005401600055"));
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(2));
+    updater.commit();
+    worldState.persist();
+
+    final Address otherAddress =
+        Address.fromHexString("0xb94f5374fce5edbc8e2a8697c15331677e6ebf0c");
+    worldState.prefetch(
+        List.of(ADDRESS, otherAddress),
+        Map.of(ADDRESS, List.of(UInt256.ONE, UInt256.valueOf(3))));
+
+    assertThat(worldState.get(otherAddress)).isNull();
+    final Account prefetched = worldState.get(ADDRESS);
+    assertThat(prefetched.getBalance()).isEqualTo(Wei.of(100000));
+    assertThat(prefetched.getCode()).isEqualTo(Bytes.fromHexString("0x600160005401600055"));
+    assertThat(prefetched.getStorageValue(UInt256.ONE)).isEqualTo(UInt256.valueOf(2));
+    assertThat(prefetched.getStorageValue(UInt256.valueOf(3))).isEqualTo(UInt256.ZERO);
+
+    // Changes committed after the prefetch must be visible
+    updater = worldState.updater();
+    updater.getAccount(ADDRESS).getMutable().setStorageValue(UInt256.ONE, UInt256.valueOf(5));
+    updater.createAccount(otherAddress).getMutable().setBalance(Wei.of(1));
+    updater.commit();
+    assertThat(worldState.get(ADDRESS).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(5));
+    assertThat(worldState.get(otherAddress).getBalance()).isEqualTo(Wei.of(1));
+  }
+
   @Test
   public void removeAccount_AccountDoesNotExist() {
     final MutableWorldState worldState = createEmpty();
@@ -156,6 +197,84 @@ public class UniTrieMutableWorldStateTest {
     assertThat(worldState.rootHash()).isEqualTo(UniTrie.NULL_UNINODE_HASH);
   }
 
+  @Test
+  public void streamAccounts_empty() {
+    final MutableWorldState worldState = createEmpty();
+    final Stream<StreamableAccount> accounts = worldState.streamAccounts(Bytes32.ZERO, 10);
+    assertThat(accounts.count()).isEqualTo(0L);
+  }
+
+  @Test
+  public void streamAccounts_singleAccount() {
+    final MutableWorldState worldState = createEmpty();
+    final WorldUpdater updater = worldState.updater();
+    updater.createAccount(ADDRESS).getMutable().setBalance(Wei.of(100000));
+    updater.commit();
+
+    List<StreamableAccount> accounts =
+        worldState.streamAccounts(Bytes32.ZERO, 10).collect(Collectors.toList());
+    assertThat(accounts.size()).isEqualTo(1L);
+    assertThat(accounts.get(0).getAddress()).hasValue(ADDRESS);
+    assertThat(accounts.get(0).getBalance()).isEqualTo(Wei.of(100000));
+
+    // Check again after persisting
+    worldState.persist();
+    accounts = worldState.streamAccounts(Bytes32.ZERO, 10).collect(Collectors.toList());
+    assertThat(accounts.size()).isEqualTo(1L);
+    assertThat(accounts.get(0).getAddress()).hasValue(ADDRESS);
+    assertThat(accounts.get(0).getBalance()).isEqualTo(Wei.of(100000));
+  }
+
+  @Test
+  public void streamAccounts_multipleAccounts() {
+    final Address addr1 = Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+    final Address addr2 = Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0c");
+
+    final MutableWorldState worldState = createEmpty();
+    final WorldUpdater updater = worldState.updater();
+
+    // Create an account
+    final MutableAccount accountA = updater.createAccount(addr1).getMutable();
+    accountA.setBalance(Wei.of(100000));
+    // Create another
+    final MutableAccount accountB = updater.createAccount(addr2).getMutable();
+    accountB.setNonce(1);
+    // Commit changes
+    updater.commit();
+
+    final boolean accountAIsFirst =
+        accountA
+                .getAddressHash()
+                .toUnsignedBigInteger()
+                .compareTo(accountB.getAddressHash().toUnsignedBigInteger())
+            < 0;
+    final Hash startHash = accountAIsFirst ? accountA.getAddressHash() : accountB.getAddressHash();
+
+    // Get first account
+    final List<StreamableAccount> firstAccount =
+        worldState.streamAccounts(startHash, 1).collect(Collectors.toList());
+    assertThat(firstAccount.size()).isEqualTo(1L);
+    assertThat(firstAccount.get(0).getAddress())
+        .hasValue(accountAIsFirst ? accountA.getAddress() : accountB.getAddress());
+
+    // Get both accounts
+    final List<StreamableAccount> allAccounts =
+        worldState.streamAccounts(Bytes32.ZERO, 2).collect(Collectors.toList());
+    assertThat(allAccounts.size()).isEqualTo(2L);
+    assertThat(allAccounts.get(0).getAddress())
+        .hasValue(accountAIsFirst ? accountA.getAddress() : accountB.getAddress());
+    assertThat(allAccounts.get(1).getAddress())
+        .hasValue(accountAIsFirst ? accountB.getAddress() : accountA.getAddress());
+
+    // Get second account
+    final Bytes32 startHashForSecondAccount = UInt256.fromBytes(startHash).add(1L).toBytes();
+    final List<StreamableAccount> secondAccount =
+        worldState.streamAccounts(startHashForSecondAccount, 100).collect(Collectors.toList());
+    assertThat(secondAccount.size()).isEqualTo(1L);
+    assertThat(secondAccount.get(0).getAddress())
+        .hasValue(accountAIsFirst ? accountB.getAddress() : accountA.getAddress());
+  }
+
   @Test
   public void commitAndPersist() {
     final KeyValueStorage storage = new InMemoryKeyValueStorage();
@@ -620,6 +739,35 @@ public class UniTrieMutableWorldStateTest {
         .isEqualTo(UInt256.valueOf(code.size()).toBytes());
   }
 
+  @Test
+  public void storageEntriesFrom() {
+    final MutableWorldState worldState = createEmpty();
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.createAccount(ADDRESS).getMutable();
+    account.setCode(Bytes.of(1, 2, 3));
+    for (int i = 1; i <= 10; i++) {
+      account.setStorageValue(UInt256.valueOf(i), UInt256.valueOf(100 + i));
+    }
+    updater.commit();
+    worldState.persist();
+
+    final NavigableMap<Bytes32, AccountStorageEntry> expected = new TreeMap<>();
+    for (int i = 1; i <= 10; i++) {
+      final AccountStorageEntry entry =
+          AccountStorageEntry.forKeyAndValue(UInt256.valueOf(i), UInt256.valueOf(100 + i));
+      expected.put(entry.getKeyHash(), entry);
+    }
+
+    final Account stored = worldState.get(ADDRESS);
+    assertThat(stored.storageEntriesFrom(Hash.ZERO, 100)).isEqualTo(expected);
+    final Bytes32 fourthKeyHash = expected.keySet().stream().skip(3).findFirst().orElseThrow();
+    assertThat(stored.storageEntriesFrom(Hash.ZERO, 3)).isEqualTo(expected.headMap(fourthKeyHash));
+
+    final Bytes32 thirdKeyHash = expected.keySet().stream().skip(2).findFirst().orElseThrow();
+    assertThat(stored.storageEntriesFrom(thirdKeyHash, 100))
+        .isEqualTo(expected.tailMap(thirdKeyHash, true));
+  }
+
   private void verifyStoragePrefixRootIsPresent(
       final UniTrieMutableWorldState worldState, final Address address) {
     Bytes storagePrefix = keyMapper.getAccountStoragePrefixKey(address);
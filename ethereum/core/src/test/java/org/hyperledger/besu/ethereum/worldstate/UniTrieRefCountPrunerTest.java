@@ -0,0 +1,353 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+package org.hyperledger.besu.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.core.InMemoryStorageProvider.createInMemoryBlockchain;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.Account;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator;
+import org.hyperledger.besu.ethereum.core.BlockDataGenerator.BlockOptions;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Hash;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.TransactionReceipt;
+import org.hyperledger.besu.ethereum.core.WorldState;
+import org.hyperledger.besu.ethereum.merkleutils.UniTrieMerkleAwareProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class UniTrieRefCountPrunerTest {
+
+  // Block generation
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final Block genesisBlock = gen.genesisBlock();
+  private final MutableBlockchain blockchain = createInMemoryBlockchain(genesisBlock);
+
+  // World state
+  private final Map<Bytes, byte[]> hashValueStore = new HashMap<>();
+  private final InMemoryKeyValueStorage stateStorage = spy(new TestInMemoryStorage(hashValueStore));
+  private final WorldStateStorage worldStateStorage = new WorldStateKeyValueStorage(stateStorage);
+
+  // World state archive
+  private final WorldStateArchive worldStateArchive =
+      new WorldStateArchive(
+          worldStateStorage,
+          new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage()),
+          new UniTrieMerkleAwareProvider());
+
+  // Pruner dependencies
+  private final NoOpMetricsSystem metricsSystem = new NoOpMetricsSystem();
+  private final InMemoryKeyValueStorage refCountStorage = new InMemoryKeyValueStorage();
+
+  @Test
+  public void sweepBefore_keepsOnlyRetainedStates() {
+    final UniTrieRefCountPruner pruner =
+        new UniTrieRefCountPruner(worldStateStorage, blockchain, refCountStorage, metricsSystem, 1);
+    pruner.prepare();
+
+    final int numAccounts = 10;
+    final List<Account> accounts = generateBlockchainData(15, numAccounts);
+
+    final int markBlockNumber = 10;
+    final BlockHeader markBlock = blockchain.getBlockHeader(markBlockNumber).get();
+    pruner.mark(markBlock.getStateRoot());
+    pruner.sweepBefore(markBlockNumber);
+
+    // Retained states are complete
+    final WorldState markedState =
+        worldStateArchive
+            .get(markBlock.getStateRoot())
+            .orElseGet(
+                () -> Assertions.fail("No world state for hash = %s", markBlock.getStateRoot()));
+    verifyAccounts(markedState, accounts.subList(0, numAccounts * markBlockNumber));
+
+    // Older states are gone, including the untracked genesis state
+    for (long i = 0; i < markBlockNumber; i++) {
+      assertThat(worldStateArchive.get(blockchain.getBlockHeader(i).get().getStateRoot()))
+          .isEmpty();
+    }
+
+    assertStorageHoldsStatesFrom(markBlockNumber);
+  }
+
+  @Test
+  public void sweepBefore_onlyReleasesChurnOnceCounted() {
+    final UniTrieRefCountPruner pruner =
+        new UniTrieRefCountPruner(worldStateStorage, blockchain, refCountStorage, metricsSystem, 1);
+    pruner.prepare();
+    generateBlockchainData(10, 10);
+    pruner.mark(blockchain.getBlockHeader(5).get().getStateRoot());
+    pruner.sweepBefore(5);
+    pruner.cleanup();
+
+    // Counts are persisted, so a new pruner picks up where the previous one left
+    final UniTrieRefCountPruner newPruner =
+        new UniTrieRefCountPruner(worldStateStorage, blockchain, refCountStorage, metricsSystem, 1);
+    newPruner.prepare();
+    generateBlockchainData(10, 10);
+    newPruner.mark(blockchain.getBlockHeader(15).get().getStateRoot());
+    newPruner.sweepBefore(15);
+
+    // Only the first sweep had to go through the whole storage
+    verify(stateStorage, times(1)).removeAllKeysUnless(any());
+
+    for (long i = 0; i < 15; i++) {
+      assertThat(worldStateArchive.get(blockchain.getBlockHeader(i).get().getStateRoot()))
+          .isEmpty();
+    }
+    assertStorageHoldsStatesFrom(15);
+  }
+
+  @Test
+  public void sweepBefore_releasesStatesAddedWhileNotListening() {
+    final UniTrieRefCountPruner pruner =
+        new UniTrieRefCountPruner(worldStateStorage, blockchain, refCountStorage, metricsSystem, 1);
+    pruner.prepare();
+    generateBlockchainData(5, 10);
+    pruner.mark(blockchain.getBlockHeader(3).get().getStateRoot());
+    pruner.sweepBefore(3);
+    pruner.cleanup();
+
+    // These blocks are added with no pruner listening
+    generateBlockchainData(5, 10);
+
+    pruner.prepare();
+    generateBlockchainData(5, 10);
+    pruner.mark(blockchain.getBlockHeader(12).get().getStateRoot());
+    pruner.sweepBefore(12);
+
+    assertStorageHoldsStatesFrom(12);
+  }
+
+  @Test
+  public void sweepBefore_waitsForNodesBeingCommittedOnFirstSweep() {
+    final UniTrieRefCountPruner pruner =
+        new UniTrieRefCountPruner(worldStateStorage, blockchain, refCountStorage, metricsSystem, 1);
+    pruner.prepare();
+    generateBlockchainData(5, 10);
+
+    // The nodes of the next state are reported, but not in storage yet when the sweep starts
+    final List<KeyValueStorageTransaction> inFlight = deferNextTransaction();
+    final MutableWorldState nextState =
+        worldStateArchive.getMutable(blockchain.getChainHeadHeader().getStateRoot()).get();
+    final List<Account> accounts =
+        gen.createRandomContractAccountsWithNonEmptyStorage(nextState, 10);
+    assertThat(worldStateArchive.get(nextState.rootHash())).isEmpty();
+
+    pruner.mark(blockchain.getBlockHeader(3).get().getStateRoot());
+    pruner.sweepBefore(3);
+    verify(stateStorage, never()).removeAllKeysUnless(any());
+
+    inFlight.forEach(KeyValueStorageTransaction::commit);
+    pruner.mark(blockchain.getBlockHeader(3).get().getStateRoot());
+    pruner.sweepBefore(3);
+    verify(stateStorage, times(1)).removeAllKeysUnless(any());
+
+    verifyAccounts(getState(nextState.rootHash()), accounts);
+  }
+
+  @Test
+  public void sweepBefore_keepsReleasedNodesReusedByNodesBeingCommitted() {
+    final UniTrieRefCountPruner pruner =
+        new UniTrieRefCountPruner(worldStateStorage, blockchain, refCountStorage, metricsSystem, 1);
+    pruner.prepare();
+    final int numAccounts = 10;
+    final List<Account> accounts = generateBlockchainData(5, numAccounts);
+    pruner.mark(blockchain.getBlockHeader(2).get().getStateRoot());
+    pruner.sweepBefore(2);
+
+    // A state built on the one of block 2, which the next sweep releases, is being committed
+    final List<KeyValueStorageTransaction> inFlight = deferNextTransaction();
+    final MutableWorldState forkState =
+        worldStateArchive.getMutable(blockchain.getBlockHeader(2).get().getStateRoot()).get();
+    final List<Account> forkAccounts =
+        gen.createRandomContractAccountsWithNonEmptyStorage(forkState, numAccounts);
+
+    pruner.mark(blockchain.getBlockHeader(4).get().getStateRoot());
+    pruner.sweepBefore(4);
+    inFlight.forEach(KeyValueStorageTransaction::commit);
+
+    // Once committed, its references keep the reused nodes of the released state
+    pruner.mark(blockchain.getBlockHeader(4).get().getStateRoot());
+    pruner.sweepBefore(4);
+    assertThat(worldStateArchive.get(blockchain.getBlockHeader(3).get().getStateRoot())).isEmpty();
+
+    final WorldState committedState = getState(forkState.rootHash());
+    verifyAccounts(committedState, accounts.subList(0, numAccounts * 2));
+    verifyAccounts(committedState, forkAccounts);
+  }
+
+  /** Hold back the commit of the next world state transaction, returning it to commit later. */
+  private List<KeyValueStorageTransaction> deferNextTransaction() {
+    final List<KeyValueStorageTransaction> deferred = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              final KeyValueStorageTransaction transaction =
+                  new DeferredTransaction((KeyValueStorageTransaction) invocation.callRealMethod());
+              deferred.add(transaction);
+              return transaction;
+            })
+        .doCallRealMethod()
+        .when(stateStorage)
+        .startTransaction();
+    return deferred;
+  }
+
+  private WorldState getState(final Hash rootHash) {
+    return worldStateArchive
+        .get(rootHash)
+        .orElseGet(() -> Assertions.fail("No world state for hash = %s", rootHash));
+  }
+
+  private void assertStorageHoldsStatesFrom(final long blockNumber) {
+    final Set<Bytes> expectedNodes = new HashSet<>();
+    for (long i = blockNumber; i <= blockchain.getChainHeadBlockNumber(); i++) {
+      collectUniTrieNodes(
+          createUniTrie(blockchain.getBlockHeader(i).get().getStateRoot()), expectedNodes);
+    }
+    assertThat(hashValueStore.values())
+        .containsExactlyInAnyOrderElementsOf(
+            expectedNodes.stream().map(Bytes::toArrayUnsafe).collect(Collectors.toList()));
+  }
+
+  private List<Account> generateBlockchainData(final int numBlocks, final int numAccounts) {
+    List<List<Account>> accountsPerBlock = new ArrayList<>();
+
+    Block parentBlock = blockchain.getChainHeadBlock();
+    for (int i = 0; i < numBlocks; i++) {
+      final MutableWorldState worldState =
+          worldStateArchive.getMutable(parentBlock.getHeader().getStateRoot()).get();
+
+      List<Account> accounts =
+          gen.createRandomContractAccountsWithNonEmptyStorage(worldState, numAccounts);
+      accountsPerBlock.add(accounts);
+
+      final Hash stateRoot = worldState.rootHash();
+
+      final Block block =
+          gen.block(
+              BlockOptions.create()
+                  .setStateRoot(stateRoot)
+                  .setBlockNumber(parentBlock.getHeader().getNumber() + 1L)
+                  .setParentHash(parentBlock.getHash()));
+      final List<TransactionReceipt> receipts = gen.receipts(block);
+      blockchain.appendBlock(block, receipts);
+      parentBlock = block;
+    }
+
+    return accountsPerBlock.stream().flatMap(Collection::stream).collect(Collectors.toList());
+  }
+
+  private void verifyAccounts(final WorldState state, final List<Account> accounts) {
+    for (Account account : accounts) {
+      if (state.get(account.getAddress()) == null) {
+        Assertions.fail("State doesn't have account: %s", account.getAddress());
+      }
+    }
+  }
+
+  private void collectUniTrieNodes(final UniTrie<Bytes, Bytes> trie, final Set<Bytes> collector) {
+    final Bytes32 rootHash = trie.getRootHash();
+    trie.visitAll(
+        node -> {
+          if (node.getValueWrapper().isLong()) {
+            node.getValue(worldStateStorage::getAccountStateTrieNode)
+                .ifPresent(v -> collector.add(Bytes.of(v)));
+          }
+          if (node.isReferencedByHash() || Bytes32.wrap(node.getHash()).equals(rootHash)) {
+            collector.add(Bytes.of(node.getEncoding()));
+          }
+        });
+  }
+
+  private UniTrie<Bytes, Bytes> createUniTrie(final Bytes32 rootHash) {
+    return new StoredUniTrie<>(
+        worldStateStorage::getAccountStateTrieNode,
+        rootHash,
+        Function.identity(),
+        Function.identity());
+  }
+
+  /** Transaction whose first commit is skipped, so it can be committed later on. */
+  private static class DeferredTransaction implements KeyValueStorageTransaction {
+    private final KeyValueStorageTransaction transaction;
+    private boolean deferred = true;
+
+    DeferredTransaction(final KeyValueStorageTransaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void put(final byte[] key, final byte[] value) {
+      transaction.put(key, value);
+    }
+
+    @Override
+    public void remove(final byte[] key) {
+      transaction.remove(key);
+    }
+
+    @Override
+    public void commit() {
+      if (deferred) {
+        deferred = false;
+        return;
+      }
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+
+  /** Proxy class so we can access to the constructor that takes a map */
+  private static class TestInMemoryStorage extends InMemoryKeyValueStorage {
+    TestInMemoryStorage(final Map<Bytes, byte[]> hashValueStore) {
+      super(hashValueStore);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
+import org.hyperledger.besu.ethereum.core.AddressHelpers;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransactions.TransactionSelectionResult;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Adds gossiped transactions to the pool from several threads while another one keeps selecting
+ * transactions for blocks, removing the ones it includes so that they are added again.
+ */
+@State(Scope.Group)
+public class PendingTransactionsBenchmark {
+
+  private static final int MAX_PENDING_TRANSACTIONS = 4096;
+  private static final int MAX_POOLED_TRANSACTION_HASHES = 4096;
+
+  @Param({"200"})
+  public int transactionsPerBlock;
+
+  private PendingTransactions pendingTransactions;
+
+  @Setup
+  public void prepare() {
+    pendingTransactions =
+        new PendingTransactions(
+            TransactionPoolConfiguration.DEFAULT_TX_RETENTION_HOURS,
+            MAX_PENDING_TRANSACTIONS,
+            MAX_POOLED_TRANSACTION_HASHES,
+            Clock.systemUTC(),
+            new NoOpMetricsSystem());
+  }
+
+  @State(Scope.Thread)
+  public static class Producer {
+
+    private static final AtomicInteger PRODUCER_COUNT = new AtomicInteger();
+    private static final int SENDERS_PER_PRODUCER = 64;
+    private static final int TRANSACTIONS_PER_SENDER = 16;
+
+    private final List<Transaction> transactions = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void prepare() {
+      final int producer = PRODUCER_COUNT.getAndIncrement();
+      final KeyPair keys = KeyPair.generate();
+      for (int nonce = 0; nonce < TRANSACTIONS_PER_SENDER; nonce++) {
+        for (int sender = 0; sender < SENDERS_PER_PRODUCER; sender++) {
+          transactions.add(
+              new TransactionTestFixture()
+                  .sender(AddressHelpers.ofValue(producer * SENDERS_PER_PRODUCER + sender + 1))
+                  .nonce(nonce)
+                  .createTransaction(keys));
+        }
+      }
+    }
+
+    Transaction nextTransaction() {
+      final Transaction transaction = transactions.get(next);
+      next = (next + 1) % transactions.size();
+      return transaction;
+    }
+  }
+
+  @Benchmark
+  @Group("pool")
+  @GroupThreads(3)
+  public boolean addTransaction(final Producer producer) {
+    return pendingTransactions.addRemoteTransaction(producer.nextTransaction());
+  }
+
+  @Benchmark
+  @Group("pool")
+  @GroupThreads(1)
+  public int selectTransactions() {
+    final int[] selected = new int[1];
+    pendingTransactions.selectTransactions(
+        transaction ->
+            selected[0]++ < transactionsPerBlock
+                ? TransactionSelectionResult.DELETE_TRANSACTION_AND_CONTINUE
+                : TransactionSelectionResult.COMPLETE_OPERATION);
+    return selected[0];
+  }
+}
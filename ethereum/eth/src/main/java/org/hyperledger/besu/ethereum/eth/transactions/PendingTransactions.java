@@ -35,39 +35,53 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Queue;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.EvictingQueue;
+import com.google.common.util.concurrent.Striped;
 
 /**
  * Holds the current set of pending transactions with the ability to iterate them based on priority
  * for mining or look-up by hash.
  *
- * <p>This class is safe for use across multiple threads.
+ * <p>This class is safe for use across multiple threads. Transactions are looked up by hash in a
+ * concurrent map and kept in priority order in a concurrent skip list, while the transactions of
+ * each sender are guarded by a lock striped by sender. So transactions from different senders are
+ * added and removed in parallel, and selecting transactions for a block doesn't hold back any of
+ * them: it walks the priority order as it stands, taking a consistent snapshot of the transactions
+ * of each sender as it first reaches it.
  */
 public class PendingTransactions {
 
+  private static final int SENDER_LOCK_STRIPES = 64;
+
   private final int maxTransactionRetentionHours;
   private final Clock clock;
 
   private final Queue<Hash> newPooledHashes;
   private final Map<Hash, TransactionInfo> pendingTransactions = new ConcurrentHashMap<>();
-  private final SortedSet<TransactionInfo> prioritizedTransactions =
-      new TreeSet<>(
+  private final NavigableSet<TransactionInfo> prioritizedTransactions =
+      new ConcurrentSkipListSet<>(
           comparing(TransactionInfo::isReceivedFromLocalSource)
               .thenComparing(TransactionInfo::getSequence)
               .reversed());
-  private final Map<Address, TransactionsForSenderInfo> transactionsBySender = new HashMap<>();
+  // Only accessed for a sender while holding its lock
+  private final Map<Address, TransactionsForSenderInfo> transactionsBySender =
+      new ConcurrentHashMap<>();
+  private final Striped<Lock> senderLocks = Striped.lock(SENDER_LOCK_STRIPES);
 
   private final Subscribers<PendingTransactionListener> pendingTransactionSubscribers =
       Subscribers.create();
@@ -167,16 +181,30 @@ public class PendingTransactions {
     doRemoveTransaction(transaction, true);
   }
 
-  private void doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
-    synchronized (pendingTransactions) {
-      final TransactionInfo removedTransactionInfo =
-          pendingTransactions.remove(transaction.getHash());
-      if (removedTransactionInfo != null) {
-        prioritizedTransactions.remove(removedTransactionInfo);
-        removeTransactionTrackedBySenderAndNonce(transaction);
-        incrementTransactionRemovedCounter(
-            removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
-      }
+  private boolean doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
+    return withSenderLock(
+        transaction.getSender(),
+        () -> {
+          final TransactionInfo removedTransactionInfo =
+              pendingTransactions.remove(transaction.getHash());
+          if (removedTransactionInfo == null) {
+            return false;
+          }
+          prioritizedTransactions.remove(removedTransactionInfo);
+          removeTransactionTrackedBySenderAndNonce(transaction);
+          incrementTransactionRemovedCounter(
+              removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
+          return true;
+        });
+  }
+
+  private <T> T withSenderLock(final Address sender, final Supplier<T> action) {
+    final Lock lock = senderLocks.get(sender);
+    lock.lock();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -188,65 +216,90 @@ public class PendingTransactions {
   }
 
   /*
-   * The BlockTransaction selection process (part of block mining) requires synchronised access to
-   * all pendingTransactions - this allows it to iterate over the available transactions without
-   * releasing the lock in between items.
-   *
+   * The BlockTransaction selection process (part of block mining) iterates over the transactions in
+   * priority order while they keep being added and removed. Transactions of a sender added after
+   * its snapshot was taken are left for the next block.
    */
   public void selectTransactions(final TransactionSelector selector) {
-    synchronized (pendingTransactions) {
-      final List<Transaction> transactionsToRemove = new ArrayList<>();
-      final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
-      for (final TransactionInfo transactionInfo : prioritizedTransactions) {
-        final AccountTransactionOrder accountTransactionOrder =
-            accountTransactions.computeIfAbsent(
-                transactionInfo.getSender(), this::createSenderTransactionOrder);
-
-        for (final Transaction transactionToProcess :
-            accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
-          final TransactionSelectionResult result =
-              selector.evaluateTransaction(transactionToProcess);
-          switch (result) {
-            case DELETE_TRANSACTION_AND_CONTINUE:
-              transactionsToRemove.add(transactionToProcess);
-              break;
-            case CONTINUE:
-              break;
-            case COMPLETE_OPERATION:
-              transactionsToRemove.forEach(this::removeTransaction);
-              return;
-            default:
-              throw new RuntimeException("Illegal value for TransactionSelectionResult.");
-          }
+    final List<Transaction> transactionsToRemove = new ArrayList<>();
+    final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
+    for (final TransactionInfo transactionInfo : prioritizedTransactions) {
+      final AccountTransactionOrder accountTransactionOrder =
+          accountTransactions.computeIfAbsent(
+              transactionInfo.getSender(), this::createSenderTransactionOrder);
+
+      for (final Transaction transactionToProcess :
+          accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
+        final TransactionSelectionResult result =
+            selector.evaluateTransaction(transactionToProcess);
+        switch (result) {
+          case DELETE_TRANSACTION_AND_CONTINUE:
+            transactionsToRemove.add(transactionToProcess);
+            break;
+          case CONTINUE:
+            break;
+          case COMPLETE_OPERATION:
+            transactionsToRemove.forEach(this::removeTransaction);
+            return;
+          default:
+            throw new RuntimeException("Illegal value for TransactionSelectionResult.");
         }
       }
-      transactionsToRemove.forEach(this::removeTransaction);
     }
+    transactionsToRemove.forEach(this::removeTransaction);
   }
 
   private AccountTransactionOrder createSenderTransactionOrder(final Address address) {
-    return new AccountTransactionOrder(
-        transactionsBySender.get(address).getTransactionsInfos().values().stream()
-            .map(TransactionInfo::getTransaction));
+    final List<Transaction> senderTransactions =
+        withSenderLock(
+            address,
+            () ->
+                Optional.ofNullable(transactionsBySender.get(address))
+                    .map(TransactionsForSenderInfo::getTransactionsInfos)
+                    .map(Map::values)
+                    .map(Collection::stream)
+                    .orElseGet(Stream::empty)
+                    .map(TransactionInfo::getTransaction)
+                    .collect(Collectors.toList()));
+    return new AccountTransactionOrder(senderTransactions.stream());
   }
 
   private boolean addTransaction(final TransactionInfo transactionInfo) {
-    Optional<Transaction> droppedTransaction = Optional.empty();
-    synchronized (pendingTransactions) {
-      if (pendingTransactions.containsKey(transactionInfo.getHash())) {
-        return false;
-      }
-
-      if (!addTransactionForSenderAndNonce(transactionInfo)) {
-        return false;
-      }
-      prioritizedTransactions.add(transactionInfo);
-      pendingTransactions.put(transactionInfo.getHash(), transactionInfo);
-      tryEvictTransactionHash(transactionInfo.getHash());
+    // Empty if the transaction isn't added, holding the transaction it replaces if any otherwise
+    final Optional<Optional<Transaction>> replacedTransaction =
+        withSenderLock(
+            transactionInfo.getSender(),
+            () -> {
+              if (pendingTransactions.containsKey(transactionInfo.getHash())) {
+                return Optional.empty();
+              }
+              final TransactionInfo existingTransaction =
+                  getTrackedTransactionBySenderAndNonce(transactionInfo);
+              if (existingTransaction != null
+                  && !shouldReplace(existingTransaction, transactionInfo)) {
+                return Optional.empty();
+              }
+              if (existingTransaction != null) {
+                doRemoveTransaction(existingTransaction.getTransaction(), false);
+              }
+              trackTransactionBySenderAndNonce(transactionInfo);
+              prioritizedTransactions.add(transactionInfo);
+              pendingTransactions.put(transactionInfo.getHash(), transactionInfo);
+              return Optional.of(
+                  Optional.ofNullable(existingTransaction).map(TransactionInfo::getTransaction));
+            });
+    if (replacedTransaction.isEmpty()) {
+      return false;
+    }
+    replacedTransaction.get().ifPresent(this::notifyTransactionDropped);
+    tryEvictTransactionHash(transactionInfo.getHash());
 
-      if (pendingTransactions.size() > maxPendingTransactions) {
-        final TransactionInfo toRemove = prioritizedTransactions.last();
-        doRemoveTransaction(toRemove.getTransaction(), false);
+    // The evicted transaction is removed under the lock of its own sender, so this one's is
+    // released first
+    Optional<Transaction> droppedTransaction = Optional.empty();
+    if (pendingTransactions.size() > maxPendingTransactions) {
+      final TransactionInfo toRemove = prioritizedTransactions.pollLast();
+      if (toRemove != null && doRemoveTransaction(toRemove.getTransaction(), false)) {
         droppedTransaction = Optional.of(toRemove.getTransaction());
       }
     }
@@ -255,19 +308,6 @@ public class PendingTransactions {
     return true;
   }
 
-  private boolean addTransactionForSenderAndNonce(final TransactionInfo transactionInfo) {
-    final TransactionInfo existingTransaction =
-        getTrackedTransactionBySenderAndNonce(transactionInfo);
-    if (existingTransaction != null) {
-      if (!shouldReplace(existingTransaction, transactionInfo)) {
-        return false;
-      }
-      removeTransaction(existingTransaction.getTransaction());
-    }
-    trackTransactionBySenderAndNonce(transactionInfo);
-    return true;
-  }
-
   private void trackTransactionBySenderAndNonce(final TransactionInfo transactionInfo) {
     final TransactionsForSenderInfo transactionsForSenderInfo =
         transactionsBySender.computeIfAbsent(
@@ -290,9 +330,10 @@ public class PendingTransactions {
   private TransactionInfo getTrackedTransactionBySenderAndNonce(
       final TransactionInfo transactionInfo) {
     final TransactionsForSenderInfo transactionsForSenderInfo =
-        transactionsBySender.computeIfAbsent(
-            transactionInfo.getSender(), key -> new TransactionsForSenderInfo());
-    return transactionsForSenderInfo.getTransactionsInfos().get(transactionInfo.getNonce());
+        transactionsBySender.get(transactionInfo.getSender());
+    return transactionsForSenderInfo == null
+        ? null
+        : transactionsForSenderInfo.getTransactionsInfos().get(transactionInfo.getNonce());
   }
 
   private boolean shouldReplace(
@@ -350,17 +391,21 @@ public class PendingTransactions {
   }
 
   public OptionalLong getNextNonceForSender(final Address sender) {
-    synchronized (pendingTransactions) {
-      final TransactionsForSenderInfo transactionsForSenderInfo = transactionsBySender.get(sender);
-      if (transactionsForSenderInfo == null
-          || transactionsForSenderInfo.getTransactionsInfos().isEmpty()) {
-        return OptionalLong.empty();
-      } else if (!transactionsForSenderInfo.getGaps().isEmpty()) {
-        return OptionalLong.of(Objects.requireNonNull(transactionsForSenderInfo.getGaps().poll()));
-      } else {
-        return OptionalLong.of(transactionsForSenderInfo.getTransactionsInfos().lastKey() + 1);
-      }
-    }
+    return withSenderLock(
+        sender,
+        () -> {
+          final TransactionsForSenderInfo transactionsForSenderInfo =
+              transactionsBySender.get(sender);
+          if (transactionsForSenderInfo == null
+              || transactionsForSenderInfo.getTransactionsInfos().isEmpty()) {
+            return OptionalLong.empty();
+          } else if (!transactionsForSenderInfo.getGaps().isEmpty()) {
+            return OptionalLong.of(
+                Objects.requireNonNull(transactionsForSenderInfo.getGaps().poll()));
+          } else {
+            return OptionalLong.of(transactionsForSenderInfo.getTransactionsInfos().lastKey() + 1);
+          }
+        });
   }
 
   public void tryEvictTransactionHash(final Hash hash) {
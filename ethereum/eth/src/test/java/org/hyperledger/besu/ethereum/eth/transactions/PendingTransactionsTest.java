@@ -22,6 +22,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 
 import org.hyperledger.besu.crypto.SECP256K1.KeyPair;
 import org.hyperledger.besu.ethereum.core.Address;
+import org.hyperledger.besu.ethereum.core.AddressHelpers;
 import org.hyperledger.besu.ethereum.core.Hash;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
@@ -34,6 +35,13 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.Lists;
 import org.junit.Test;
@@ -517,6 +525,83 @@ public class PendingTransactionsTest {
         .containsExactly(transaction4, transaction1, transaction2, transaction3);
   }
 
+  @Test
+  public void shouldAddTransactionsFromConcurrentSendersWhileSelecting() throws Exception {
+    final int senderCount = 4;
+    final int transactionsPerSender = 100;
+    final PendingTransactions pendingTransactions =
+        new PendingTransactions(
+            TransactionPoolConfiguration.DEFAULT_TX_RETENTION_HOURS,
+            senderCount * transactionsPerSender,
+            MAX_TRANSACTION_HASHES,
+            TestClock.fixed(),
+            metricsSystem);
+    final List<List<Transaction>> transactionsBySender =
+        IntStream.range(0, senderCount)
+            .mapToObj(
+                sender ->
+                    IntStream.range(0, transactionsPerSender)
+                        .mapToObj(
+                            nonce ->
+                                new TransactionTestFixture()
+                                    .sender(AddressHelpers.ofValue(100 + sender))
+                                    .nonce(nonce)
+                                    .createTransaction(KEYS1))
+                        .collect(Collectors.toList()))
+            .collect(Collectors.toList());
+
+    final ExecutorService executor = Executors.newFixedThreadPool(senderCount + 1);
+    try {
+      final CountDownLatch start = new CountDownLatch(1);
+      final AtomicBoolean adding = new AtomicBoolean(true);
+      final CompletableFuture<?> selection =
+          CompletableFuture.runAsync(
+              () -> {
+                while (adding.get()) {
+                  pendingTransactions.selectTransactions(
+                      transaction -> PendingTransactions.TransactionSelectionResult.CONTINUE);
+                }
+              },
+              executor);
+      final List<CompletableFuture<?>> producers =
+          transactionsBySender.stream()
+              .map(
+                  senderTransactions ->
+                      CompletableFuture.runAsync(
+                          () -> {
+                            try {
+                              start.await();
+                            } catch (final InterruptedException e) {
+                              throw new IllegalStateException(e);
+                            }
+                            senderTransactions.forEach(pendingTransactions::addRemoteTransaction);
+                          },
+                          executor))
+              .collect(Collectors.toList());
+      start.countDown();
+      CompletableFuture.allOf(producers.toArray(CompletableFuture[]::new)).get();
+      adding.set(false);
+      selection.get();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(pendingTransactions.size()).isEqualTo(senderCount * transactionsPerSender);
+    for (int sender = 0; sender < senderCount; sender++) {
+      assertThat(pendingTransactions.getNextNonceForSender(AddressHelpers.ofValue(100 + sender)))
+          .isEqualTo(OptionalLong.of(transactionsPerSender));
+    }
+    final List<Transaction> selected = new ArrayList<>();
+    pendingTransactions.selectTransactions(
+        transaction -> {
+          selected.add(transaction);
+          return PendingTransactions.TransactionSelectionResult.CONTINUE;
+        });
+    assertThat(selected)
+        .containsExactlyInAnyOrderElementsOf(
+            transactionsBySender.stream().flatMap(List::stream).collect(Collectors.toList()));
+  }
+
   private void assertMaximumNonceForSender(final Address sender1, final int i) {
     assertThat(transactions.getNextNonceForSender(sender1)).isEqualTo(OptionalLong.of(i));
   }
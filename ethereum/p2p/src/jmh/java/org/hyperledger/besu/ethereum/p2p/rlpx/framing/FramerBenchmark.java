@@ -0,0 +1,89 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.p2p.rlpx.framing;
+
+import org.hyperledger.besu.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
+import org.hyperledger.besu.ethereum.p2p.rlpx.wire.RawMessage;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Frames block bodies messages of a few megabytes into a pooled direct buffer, as the outbound
+ * pipeline does, then deframes them with a framer sharing the same secrets.
+ */
+@State(Scope.Thread)
+public class FramerBenchmark {
+
+  // Block bodies, offset by the codes reserved for the wire protocol
+  private static final int BLOCK_BODIES = 0x16;
+
+  @Param({"1048576", "4194304", "10485760"})
+  public int messageSize;
+
+  @Param({"false", "true"})
+  public boolean compression;
+
+  private Framer sendingFramer;
+  private Framer receivingFramer;
+  private MessageData message;
+  private ByteBuf buffer;
+
+  @Setup
+  public void prepare() {
+    final byte[] aes = new byte[32];
+    final byte[] mac = new byte[32];
+    Arrays.fill(aes, (byte) 0xa);
+    Arrays.fill(mac, (byte) 0x2);
+    sendingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+    receivingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+    if (compression) {
+      sendingFramer.enableCompression();
+      receivingFramer.enableCompression();
+    }
+
+    // Half random, half repeated bytes, so that compression has something to work with
+    final byte[] data = new byte[messageSize];
+    new Random(1).nextBytes(data);
+    for (int i = 0; i < data.length; i += 64) {
+      Arrays.fill(data, i, Math.min(i + 32, data.length), (byte) 0);
+    }
+    message = new RawMessage(BLOCK_BODIES, Bytes.wrap(data));
+    buffer = PooledByteBufAllocator.DEFAULT.directBuffer();
+  }
+
+  @TearDown
+  public void release() {
+    buffer.release();
+  }
+
+  @Benchmark
+  public MessageData frameAndDeframe() {
+    buffer.clear();
+    sendingFramer.frame(message, buffer);
+    return receivingFramer.deframe(buffer);
+  }
+}
@@ -49,6 +49,10 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
  * fragmented frames, as well as streams of multiple messages within the same incoming buffer, as
  * long as the order of incoming bytes matches the underlying TCP sequence.
  *
+ * <p>Incoming and outgoing frames use distinct ciphers and MACs, so a message can be deframed while
+ * another one is framed. Frames are decrypted in place in the array backing the message data, and
+ * encrypted chunk by chunk straight into the output buffer.
+ *
  * @see <a href="https://github.com/ethereum/devp2p/blob/master/rlpx.md#framing">RLPx framing</a>
  */
 public class Framer {
@@ -58,6 +62,7 @@ public class Framer {
   private static final int LENGTH_FRAME_SIZE = 3;
   private static final int LENGTH_MESSAGE_ID = 1;
   private static final int LENGTH_MAX_MESSAGE_FRAME = 0xFFFFFF;
+  private static final int LENGTH_EGRESS_CHUNK = 16 * 1024;
 
   private static final byte[] IV = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
   private static final byte[] PROTOCOL_HEADER =
@@ -74,10 +79,14 @@ public class Framer {
   private static final SnappyCompressor compressor = new SnappyCompressor();
   private final StreamCipher encryptor;
   private final StreamCipher decryptor;
-  private final BlockCipher macEncryptor;
+  private final BlockCipher ingressMacEncryptor;
+  private final BlockCipher egressMacEncryptor;
+  private final Object ingressLock = new Object();
+  private final Object egressLock = new Object();
+  private final byte[] egressChunk = new byte[LENGTH_EGRESS_CHUNK];
   private boolean headerProcessed;
   private int frameSize;
-  private boolean compressionEnabled = false;
+  private volatile boolean compressionEnabled = false;
 
   /**
    * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
@@ -96,8 +105,11 @@ public class Framer {
     decryptor = new SICBlockCipher(new AESEngine());
     decryptor.init(false, new ParametersWithIV(aesKey, IV));
 
-    macEncryptor = new AESEngine();
-    macEncryptor.init(true, macKey);
+    ingressMacEncryptor = new AESEngine();
+    ingressMacEncryptor.init(true, macKey);
+
+    egressMacEncryptor = new AESEngine();
+    egressMacEncryptor.init(true, macKey);
   }
 
   public void enableCompression() {
@@ -134,30 +146,32 @@ public class Framer {
    *     could be extracted yet.
    * @throws FramingException Thrown when a decryption or internal error occurs.
    */
-  public synchronized MessageData deframe(final ByteBuf buf) throws FramingException {
+  public MessageData deframe(final ByteBuf buf) throws FramingException {
     if (buf == null || !buf.isReadable()) {
       return null;
     }
 
-    if (!headerProcessed) {
-      // We don't have enough bytes to read the header.
-      if (buf.readableBytes() < LENGTH_FULL_HEADER) {
+    synchronized (ingressLock) {
+      if (!headerProcessed) {
+        // We don't have enough bytes to read the header.
+        if (buf.readableBytes() < LENGTH_FULL_HEADER) {
+          return null;
+        }
+        frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
+        headerProcessed = true;
+      }
+
+      final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
+      if (buf.readableBytes() < size) {
         return null;
       }
-      frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
-      headerProcessed = true;
-      buf.discardReadBytes();
-    }
 
-    final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
-    if (buf.readableBytes() < size) {
-      return null;
+      // The read bytes are left for the caller to discard, rather than moving the bytes of the
+      // following frames on every message.
+      final MessageData msg = processFrame(buf.readSlice(size), frameSize);
+      headerProcessed = false;
+      return msg;
     }
-
-    final MessageData msg = processFrame(buf.readSlice(size), frameSize);
-    buf.discardReadBytes();
-    headerProcessed = false;
-    return msg;
   }
 
   /**
@@ -184,7 +198,7 @@ public class Framer {
 
     // Header MAC validation.
     byte[] expectedMac = new byte[16];
-    macEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
+    ingressMacEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
     expectedMac = secrets.updateIngress(xor(expectedMac, hCipher)).getIngressMac();
     expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
 
@@ -247,7 +261,7 @@ public class Framer {
     // Validate the frame's MAC.
     final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
     final byte[] fMacSeedEnc = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
+    ingressMacEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
     byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
     expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
 
@@ -260,20 +274,18 @@ public class Framer {
     final Bytes idbv = RLP.decodeOne(Bytes.of(frameData[0]));
     final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
 
-    // Write message data to ByteBuf, decompressing as necessary
+    // Wrap the message data within the frame, decompressing as necessary
+    final int messageLength = frameSize - LENGTH_MESSAGE_ID;
     final Bytes data;
     if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+      final int uncompressedLength =
+          compressor.uncompressedLength(frameData, LENGTH_MESSAGE_ID, messageLength);
       if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
         throw error("Message size %s in excess of maximum length.", uncompressedLength);
       }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
-      data = Bytes.wrap(decompressedMessageData);
+      data = Bytes.wrap(compressor.decompress(frameData, LENGTH_MESSAGE_ID, messageLength));
     } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = Bytes.wrap(frameData, 1, messageLength);
+      data = Bytes.wrap(frameData, LENGTH_MESSAGE_ID, messageLength);
     }
 
     return new RawMessage(id, data);
@@ -294,18 +306,20 @@ public class Framer {
    * @param message The message to frame.
    * @param output The {@link ByteBuf} to write framed data to.
    */
-  public synchronized void frame(final MessageData message, final ByteBuf output) {
+  public void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
-    // Compress message
-    if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().toArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), Bytes.wrap(compressed)), output);
-    } else {
-      frameMessage(message, output);
+    synchronized (egressLock) {
+      // Compress message
+      if (compressionEnabled) {
+        // Extract data from message
+        // Compress data
+        final byte[] compressed = compressor.compress(message.getData().toArrayUnsafe());
+        // Construct new, compressed message
+        frameMessage(new RawMessage(message.getCode(), Bytes.wrap(compressed)), output);
+      } else {
+        frameMessage(message, output);
+      }
     }
   }
 
@@ -313,6 +327,7 @@ public class Framer {
   void frameMessage(final MessageData message, final ByteBuf buf) {
     final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
     final int pad = padding16(frameSize);
+    buf.ensureWritable(LENGTH_FULL_HEADER + frameSize + pad + LENGTH_MAC);
 
     final byte id = (byte) message.getCode();
 
@@ -327,30 +342,46 @@ public class Framer {
 
     // Generate the header MAC.
     byte[] hMac = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
-    macEncryptor.processBlock(hMac, 0, hMac, 0);
+    egressMacEncryptor.processBlock(hMac, 0, hMac, 0);
     hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
     hMac = Arrays.copyOf(hMac, LENGTH_MAC);
     buf.writeBytes(h).writeBytes(hMac);
 
-    // Encrypt payload.
-    final MutableBytes f = MutableBytes.create(frameSize + pad);
-
     final Bytes bv = id == 0 ? RLP.NULL : RLP.encodeOne(Bytes.of(id));
     assert bv.size() == 1;
-    f.set(0, bv.get(0));
 
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 1);
-    encryptor.processBytes(f.toArrayUnsafe(), 0, f.size(), f.toArrayUnsafe(), 0);
+    // Encrypt the payload and update the egress MAC with it one chunk at a time, rather than
+    // copying the whole message into a frame first.
+    final Bytes data = message.getData();
+    final MutableBytes chunk = MutableBytes.wrap(egressChunk);
+    final int payloadSize = frameSize + pad;
+    int dataOffset = 0;
+    for (int offset = 0; offset < payloadSize; offset += LENGTH_EGRESS_CHUNK) {
+      final int chunkSize = Math.min(LENGTH_EGRESS_CHUNK, payloadSize - offset);
+      int position = 0;
+      if (offset == 0) {
+        egressChunk[position++] = bv.get(0);
+      }
+      final int dataLength = Math.min(chunkSize - position, data.size() - dataOffset);
+      if (dataLength > 0) {
+        data.slice(dataOffset, dataLength).copyTo(chunk, position);
+        dataOffset += dataLength;
+        position += dataLength;
+      }
+      // Zero-padded to 16-byte boundary.
+      Arrays.fill(egressChunk, position, chunkSize, (byte) 0x00);
+      encryptor.processBytes(egressChunk, 0, chunkSize, egressChunk, 0);
+      secrets.updateEgress(egressChunk, 0, chunkSize);
+      buf.writeBytes(egressChunk, 0, chunkSize);
+    }
 
     // Calculate the frame MAC.
-    final byte[] fMacSeed =
-        Arrays.copyOf(secrets.updateEgress(f.toArrayUnsafe()).getEgressMac(), LENGTH_MAC);
+    final byte[] fMacSeed = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
     byte[] fMac = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
+    egressMacEncryptor.processBlock(fMacSeed, 0, fMac, 0);
     fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
 
-    buf.writeBytes(f.toArrayUnsafe()).writeBytes(fMac);
+    buf.writeBytes(fMac);
   }
 
   private static int padding16(final int size) {
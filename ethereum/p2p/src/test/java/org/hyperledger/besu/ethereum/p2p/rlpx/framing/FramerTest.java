@@ -31,6 +31,8 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -242,6 +244,47 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void shouldDeframeFramedMessagesSpanningSeveralChunks() {
+    assertDeframesFramedMessages(false);
+  }
+
+  @Test
+  public void shouldDeframeCompressedFramedMessagesSpanningSeveralChunks() {
+    assertDeframesFramedMessages(true);
+  }
+
+  private void assertDeframesFramedMessages(final boolean compression) {
+    final byte[] aes = new byte[32];
+    final byte[] mac = new byte[32];
+    Arrays.fill(aes, (byte) 0xa);
+    Arrays.fill(mac, (byte) 0x2);
+    final Framer sendingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+    final Framer receivingFramer = new Framer(new HandshakeSecrets(aes, mac, mac));
+    if (compression) {
+      sendingFramer.enableCompression();
+      receivingFramer.enableCompression();
+    }
+
+    final Random random = new Random(1);
+    final List<MessageData> messages = new ArrayList<>();
+    for (final int size : new int[] {0, 15, 16 * 1024 - 1, 16 * 1024, 100_003}) {
+      final byte[] data = new byte[size];
+      random.nextBytes(data);
+      messages.add(new RawMessage(0x10 + messages.size(), Bytes.wrap(data)));
+    }
+
+    final ByteBuf out = Unpooled.buffer();
+    messages.forEach(message -> sendingFramer.frame(message, out));
+
+    for (final MessageData message : messages) {
+      final MessageData deframed = receivingFramer.deframe(out);
+      assertThat(deframed.getCode()).isEqualTo(message.getCode());
+      assertThat(deframed.getData()).isEqualTo(message.getData());
+    }
+    assertThat(out.readableBytes()).isZero();
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
@@ -35,6 +35,17 @@ public class SnappyCompressorTest {
     assertThat(snappy.decompress(snappy.compress(data))).isEqualTo(data);
   }
 
+  @Test
+  public void roundTripWithinLargerArray() {
+    final byte[] data = "Sample text within a larger array".getBytes(StandardCharsets.UTF_8);
+    final byte[] compressed = snappy.compress(data);
+    final byte[] framed = new byte[compressed.length + 3];
+    System.arraycopy(compressed, 0, framed, 1, compressed.length);
+
+    assertThat(snappy.uncompressedLength(framed, 1, compressed.length)).isEqualTo(data.length);
+    assertThat(snappy.decompress(framed, 1, compressed.length)).isEqualTo(data);
+  }
+
   @Test
   public void roundTripEmptyByteArray() {
     final byte[] data = new byte[0];
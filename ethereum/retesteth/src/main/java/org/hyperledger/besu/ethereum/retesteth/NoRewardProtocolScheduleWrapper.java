@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.mainnet.MainnetBlockProcessor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.plugin.services.MetricsSystem;
 
 import java.math.BigInteger;
 import java.util.Optional;
@@ -86,6 +87,11 @@ public class NoRewardProtocolScheduleWrapper<C> implements ProtocolSchedule<C> {
     delegate.setTransactionFilter(transactionFilter);
   }
 
+  @Override
+  public void setMetricsSystem(final MetricsSystem metricsSystem) {
+    delegate.setMetricsSystem(metricsSystem);
+  }
+
   @Override
   public void setPublicWorldStateArchiveForPrivacyBlockProcessor(
       final WorldStateArchive publicWorldStateArchive) {
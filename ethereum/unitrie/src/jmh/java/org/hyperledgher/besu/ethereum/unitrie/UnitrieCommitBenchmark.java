@@ -0,0 +1,91 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package org.hyperledgher.besu.ethereum.unitrie;
+
+import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
+import org.hyperledger.besu.ethereum.trie.MerkleStorage;
+import org.hyperledger.besu.ethereum.unitrie.ParallelCommitter;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Commit a batch of changes to a stored Unitrie, as persisting a world state does, comparing the
+ * sequential commit against the fork-join one.
+ */
+@State(Scope.Thread)
+public class UnitrieCommitBenchmark {
+
+  private static final int KEY_SIZE = 42;
+
+  private final ParallelCommitter committer = new ParallelCommitter();
+
+  private MerkleStorage storage;
+  private UniTrie<Bytes, Bytes> trie;
+
+  @Param({"1000", "10000"})
+  public int updates;
+
+  @Setup(Level.Invocation)
+  public void prepare() {
+    Random random = new Random(1);
+    storage = new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+
+    UniTrie<Bytes, Bytes> initial =
+        new StoredUniTrie<>(storage::get, Function.identity(), Function.identity());
+    for (int i = 0; i < 10_000; i++) {
+      initial.put(Bytes.wrap(randomBytes(random, KEY_SIZE)), Bytes.wrap(randomBytes(random, 32)));
+    }
+    initial.commit(storage::put, storage::put);
+    Bytes32 rootHash = initial.getRootHash();
+
+    trie = new StoredUniTrie<>(storage::get, rootHash, Function.identity(), Function.identity());
+    for (int i = 0; i < updates; i++) {
+      trie.put(Bytes.wrap(randomBytes(random, KEY_SIZE)), Bytes.wrap(randomBytes(random, 64)));
+    }
+  }
+
+  @Benchmark
+  public Bytes32 sequentialCommit() {
+    trie.commit(storage::put, storage::put);
+    return trie.getRootHash();
+  }
+
+  @Benchmark
+  public Bytes32 parallelCommit() {
+    trie.commit(storage::put, storage::put, committer);
+    return trie.getRootHash();
+  }
+
+  private static byte[] randomBytes(final Random random, final int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
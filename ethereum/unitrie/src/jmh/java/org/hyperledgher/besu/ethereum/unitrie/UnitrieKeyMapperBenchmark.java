@@ -0,0 +1,91 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package org.hyperledgher.besu.ethereum.unitrie;
+
+import org.hyperledger.besu.ethereum.unitrie.UniTrieKeyMapper;
+import org.hyperledger.besu.plugin.data.Address;
+
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.DelegatingBytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+public class UnitrieKeyMapperBenchmark {
+
+  private static final int KEY_COUNT = 1024;
+
+  private UniTrieKeyMapper mapper;
+  private Address[] addresses;
+  private UInt256[] subkeys;
+  private byte[] buffer;
+  private int index;
+
+  // Digest cache size; 0 means every key pays for the Keccak hashing
+  @Param({"65536", "0"})
+  public long digestCacheSize;
+
+  @Setup
+  public void prepare() {
+    Random random = new Random(1);
+    mapper = new UniTrieKeyMapper(digestCacheSize);
+    addresses = new Address[KEY_COUNT];
+    subkeys = new UInt256[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++) {
+      addresses[i] = new BenchmarkAddress(Bytes.wrap(randomBytes(random, 20)));
+      subkeys[i] = UInt256.fromBytes(Bytes.wrap(randomBytes(random, 32)));
+    }
+    buffer = new byte[mapper.getMaxAccountStorageKeySize(20)];
+  }
+
+  @Benchmark
+  public void getAccountStorageKey(final Blackhole blackhole) {
+    int i = nextIndex();
+    blackhole.consume(mapper.getAccountStorageKey(addresses[i], subkeys[i]));
+  }
+
+  @Benchmark
+  public void writeAccountStorageKey(final Blackhole blackhole) {
+    int i = nextIndex();
+    blackhole.consume(mapper.writeAccountStorageKey(addresses[i], subkeys[i], buffer, 0));
+    blackhole.consume(buffer);
+  }
+
+  private int nextIndex() {
+    index = (index + 1) % KEY_COUNT;
+    return index;
+  }
+
+  private static byte[] randomBytes(final Random random, final int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private static class BenchmarkAddress extends DelegatingBytes implements Address {
+    BenchmarkAddress(final Bytes bytes) {
+      super(bytes);
+    }
+  }
+}
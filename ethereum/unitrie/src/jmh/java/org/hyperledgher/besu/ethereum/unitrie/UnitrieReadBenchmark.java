@@ -0,0 +1,96 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ */
+
+package org.hyperledgher.besu.ethereum.unitrie;
+
+import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
+import org.hyperledger.besu.ethereum.trie.MerkleStorage;
+import org.hyperledger.besu.ethereum.unitrie.StoredUniTrie;
+import org.hyperledger.besu.ethereum.unitrie.UniTrie;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Read short values from a freshly loaded stored Unitrie, as world state reads do. Every node on
+ * the read path is decoded from storage, so this measures decoding cost and compares reads that
+ * only need the value against reads that force the value hash.
+ */
+@State(Scope.Thread)
+public class UnitrieReadBenchmark {
+
+  private static final int KEY_COUNT = 10_000;
+  private static final int KEY_SIZE = 42;
+
+  private MerkleStorage storage;
+  private Bytes32 rootHash;
+  private Bytes[] keys;
+
+  @Param({"32", "10"})
+  public int valueLength;
+
+  @Setup
+  public void prepare() {
+    Random random = new Random(1);
+    storage = new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+
+    UniTrie<Bytes, Bytes> trie =
+        new StoredUniTrie<>(storage::get, Function.identity(), Function.identity());
+    keys = new Bytes[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys[i] = Bytes.wrap(randomBytes(random, KEY_SIZE));
+      trie.put(keys[i], Bytes.wrap(randomBytes(random, valueLength)));
+    }
+    trie.commit(storage::put, storage::put);
+    rootHash = trie.getRootHash();
+  }
+
+  @Benchmark
+  public void getValue(final Blackhole blackhole) {
+    UniTrie<Bytes, Bytes> trie = loadTrie();
+    for (Bytes key : keys) {
+      blackhole.consume(trie.get(key));
+    }
+  }
+
+  @Benchmark
+  public void getValueHash(final Blackhole blackhole) {
+    UniTrie<Bytes, Bytes> trie = loadTrie();
+    for (Bytes key : keys) {
+      blackhole.consume(trie.getValueHash(key));
+    }
+  }
+
+  private UniTrie<Bytes, Bytes> loadTrie() {
+    return new StoredUniTrie<>(storage::get, rootHash, Function.identity(), Function.identity());
+  }
+
+  private static byte[] randomBytes(final Random random, final int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -19,6 +19,7 @@ package org.hyperledgher.besu.ethereum.unitrie;
 import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
 import org.hyperledger.besu.ethereum.trie.MerkleStorage;
 import org.hyperledger.besu.ethereum.unitrie.AllUniNodesVisitor;
+import org.hyperledger.besu.ethereum.unitrie.BitPath;
 import org.hyperledger.besu.ethereum.unitrie.DataLoader;
 import org.hyperledger.besu.ethereum.unitrie.DefaultUniNodeFactory;
 import org.hyperledger.besu.ethereum.unitrie.NullUniNode;
@@ -31,6 +32,7 @@ import java.util.Random;
 import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
@@ -62,7 +64,9 @@ public class UnitrieValueBenchmark {
             .limit(1000)
             .<UniNode>reduce(
                 NullUniNode.instance(),
-                (n, k) -> n.accept(new PutVisitor(randomBytes(valueLength), nodeFactory), k),
+                (n, k) ->
+                    n.accept(
+                        new PutVisitor(randomBytes(valueLength), nodeFactory), BitPath.fromKey(k)),
                 (n, __) -> n);
   }
 
@@ -18,12 +18,9 @@ package org.hyperledger.besu.ethereum.unitrie;
 
 import org.hyperledger.besu.crypto.Hash;
 
-import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import java.util.Optional;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import org.apache.tuweni.bytes.Bytes;
@@ -35,67 +32,27 @@ import org.apache.tuweni.bytes.Bytes;
  */
 public abstract class AbstractUniNode implements UniNode {
 
-  private static final byte[] EMPTY_PATH = new byte[0];
-
   static final int MAX_INLINED_NODE_SIZE = 44;
   static final UniNodeEncoding encodingHelper = new UniNodeEncoding();
 
-  private byte len;
-  private byte shortPath;
-  private SoftReference<byte[]> longPath;
+  private final BitPath path;
 
   private ValueWrapper longValueWrapper;
   private boolean dirty = false;
 
-  AbstractUniNode(final byte[] path, final ValueWrapper valueWrapper) {
+  AbstractUniNode(final BitPath path, final ValueWrapper valueWrapper) {
     Preconditions.checkNotNull(path);
     Preconditions.checkNotNull(valueWrapper);
 
-    this.initPath(path);
+    this.path = path;
 
     if (valueWrapper.isLong()) {
       this.longValueWrapper = valueWrapper;
     }
   }
 
-  private void initPath(final byte[] path) {
-    if (path.length == 0) {
-      len = 0;
-      shortPath = 0;
-      longPath = null;
-    } else if (path.length <= 8) {
-      len = (byte) path.length;
-      shortPath = PathEncoding.fastEncodePath(path)[0];
-      longPath = null;
-    } else {
-      len = -1;
-      shortPath = 0;
-      longPath = new SoftReference<>(path);
-    }
-  }
-
-  @VisibleForTesting
-  void clearWeakReferences() {
-    if (longPath != null) {
-      longPath.clear();
-    }
-  }
-
   @Override
-  public byte[] getPath() {
-    if (len == 0) {
-      return EMPTY_PATH;
-    }
-
-    if (len != -1) {
-      return PathEncoding.decodeSingleBytePath(shortPath, len);
-    }
-
-    byte[] path = longPath.get();
-    if (path == null) {
-      path = encodingHelper.decodePathFromFullEncoding(ByteBuffer.wrap(getEncoding()));
-      longPath = new SoftReference<>(path);
-    }
+  public BitPath getPath() {
     return path;
   }
 
@@ -125,8 +82,8 @@ public abstract class AbstractUniNode implements UniNode {
 
   @Override
   public String print(final int indent) {
-    Bytes path = PathEncoding.encodePath(Bytes.wrap(getPath()));
-    long pathLength = getPath().length;
+    Bytes path = Bytes.wrap(getPath().encode());
+    long pathLength = getPath().length();
     ValueWrapper vr = getValueWrapper();
     return String.format(
         "%s%s%s%s",
@@ -175,8 +132,8 @@ public abstract class AbstractUniNode implements UniNode {
         getPath(), ValueWrapper.fromValue(newValue), getLeftChild(), getRightChild());
   }
 
-  UniNode replacePath(final byte[] newPath, final UniNodeFactory nodeFactory) {
-    if (Arrays.equals(newPath, getPath())) {
+  UniNode replacePath(final BitPath newPath, final UniNodeFactory nodeFactory) {
+    if (newPath.equals(getPath())) {
       return this;
     }
     return nodeFactory.createBranch(newPath, getValueWrapper(), getLeftChild(), getRightChild());
@@ -248,11 +205,7 @@ public abstract class AbstractUniNode implements UniNode {
       child = node.getRightChild();
     }
 
-    byte[] nodePath = node.getPath();
-    byte[] childPath = child.getPath();
-    byte[] newPath = Arrays.copyOf(nodePath, nodePath.length + 1 + childPath.length);
-    newPath[nodePath.length] = pos;
-    System.arraycopy(childPath, 0, newPath, nodePath.length + 1, childPath.length);
+    BitPath newPath = node.getPath().concat(pos, child.getPath());
 
     return nodeFactory.createBranch(
         newPath, child.getValueWrapper(), child.getLeftChild(), child.getRightChild());
@@ -0,0 +1,309 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.nio.ByteBuffer;
+
+import com.google.common.base.Preconditions;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * Packed binary path: a window of {@code length} bits starting at bit {@code offset} of a backing
+ * byte array, most significant bit first. Slicing a path yields a new view over the same backing
+ * array, so walking a Unitrie never copies or expands the key being looked up.
+ *
+ * <p>The backing array is never written to, and callers must not mutate it after wrapping it.
+ */
+public final class BitPath {
+
+  /** The empty path. */
+  public static final BitPath EMPTY = new BitPath(new byte[0], 0, 0);
+
+  private final byte[] bytes;
+  private final int offset;
+  private final int length;
+
+  private BitPath(final byte[] bytes, final int offset, final int length) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Path covering every bit of the given key.
+   *
+   * @param key key to view as a path
+   * @return path of {@code 8 * key.size()} bits, backed by the key bytes
+   */
+  public static BitPath fromKey(final Bytes key) {
+    Preconditions.checkNotNull(key, "Key is null");
+    return wrap(key.toArrayUnsafe());
+  }
+
+  /**
+   * Path covering every bit of the given byte array.
+   *
+   * @param bytes packed path bytes
+   * @return path of {@code 8 * bytes.length} bits, backed by the given array
+   */
+  static BitPath wrap(final byte[] bytes) {
+    return wrap(bytes, 0, bytes.length * 8);
+  }
+
+  /**
+   * Path over a window of the given byte array.
+   *
+   * @param bytes packed path bytes
+   * @param offset offset of the first path bit in the array, in bits
+   * @param length path length in bits
+   * @return path backed by the given array
+   */
+  static BitPath wrap(final byte[] bytes, final int offset, final int length) {
+    Preconditions.checkNotNull(bytes, "Path bytes are null");
+    Preconditions.checkArgument(
+        offset >= 0 && length >= 0 && offset + length <= bytes.length * 8,
+        "Path window out of bounds");
+    return length == 0 ? EMPTY : new BitPath(bytes, offset, length);
+  }
+
+  /**
+   * Pack a path given as a sequence of binary digits, one per byte. For example, {1, 0, 1}.
+   *
+   * @param bits path as a sequence of binary digits
+   * @return packed path
+   */
+  public static BitPath fromBits(final Bytes bits) {
+    Preconditions.checkNotNull(bits, "Path is null");
+    return fromBits(bits.toArrayUnsafe());
+  }
+
+  /**
+   * Pack a path given as a sequence of binary digits, one per byte. For example, {1, 0, 1}.
+   *
+   * @param bits path as a sequence of binary digits
+   * @return packed path
+   */
+  public static BitPath fromBits(final byte[] bits) {
+    return wrap(PathEncoding.fastEncodePath(bits), 0, bits.length);
+  }
+
+  /**
+   * Get path length in bits.
+   *
+   * @return path length in bits
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Answer whether this path is empty.
+   *
+   * @return whether path length is zero
+   */
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  /**
+   * Get the bit at the given position.
+   *
+   * @param i bit position, relative to the start of this path
+   * @return bit at the given position, either 0 or 1
+   */
+  public byte get(final int i) {
+    Preconditions.checkElementIndex(i, length);
+    int bit = offset + i;
+    return (byte) ((bytes[bit >>> 3] >>> (7 - (bit & 7))) & 0x01);
+  }
+
+  /**
+   * Get the suffix of this path starting at the given position.
+   *
+   * @param start first bit of the suffix
+   * @return suffix view sharing this path's backing array
+   */
+  public BitPath slice(final int start) {
+    return slice(start, length - start);
+  }
+
+  /**
+   * Get a sub path of this path.
+   *
+   * @param start first bit of the sub path
+   * @param len sub path length in bits
+   * @return sub path view sharing this path's backing array
+   */
+  public BitPath slice(final int start, final int len) {
+    Preconditions.checkPositionIndexes(start, start + len, length);
+    if (start == 0 && len == length) {
+      return this;
+    }
+    return len == 0 ? EMPTY : new BitPath(bytes, offset + start, len);
+  }
+
+  /**
+   * Compute the length of the longest common prefix of this path and the given one.
+   *
+   * @param other path to compare against
+   * @return length in bits of the longest common prefix
+   */
+  public int commonPrefixLength(final BitPath other) {
+    int max = Math.min(length, other.length);
+    int i = 0;
+    while (i + 8 <= max) {
+      int diff = octetAt(i) ^ other.octetAt(i);
+      if (diff != 0) {
+        return i + Integer.numberOfLeadingZeros(diff) - 24;
+      }
+      i += 8;
+    }
+    while (i < max && get(i) == other.get(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Build the path given by this path, followed by the given bit, followed by the given suffix.
+   *
+   * @param bit bit to insert between this path and the suffix
+   * @param suffix path to append
+   * @return new packed path
+   */
+  public BitPath concat(final byte bit, final BitPath suffix) {
+    int newLength = length + 1 + suffix.length;
+    byte[] packed = new byte[PathEncoding.encodedPathLength(newLength)];
+    copyBits(this, packed, 0);
+    if (bit != 0) {
+      packed[length >>> 3] |= (byte) (0x80 >>> (length & 7));
+    }
+    copyBits(suffix, packed, length + 1);
+    return new BitPath(packed, 0, newLength);
+  }
+
+  /**
+   * Encode this path, packing it from the first bit of the first byte. Trailing bits are zero.
+   *
+   * @return encoded path
+   */
+  public byte[] encode() {
+    byte[] encoded = new byte[PathEncoding.encodedPathLength(length)];
+    copyBits(this, encoded, 0);
+    return encoded;
+  }
+
+  /**
+   * Dump the encoding of this path (as given by {@link #encode()}) to the given buffer.
+   *
+   * @param buffer destination buffer
+   */
+  void encodeTo(final ByteBuffer buffer) {
+    int fullOctets = length >>> 3;
+    if ((offset & 7) == 0) {
+      buffer.put(bytes, offset >>> 3, fullOctets);
+    } else {
+      for (int i = 0; i < fullOctets; i++) {
+        buffer.put((byte) octetAt(i << 3));
+      }
+    }
+    int tail = length & 7;
+    if (tail != 0) {
+      buffer.put((byte) (partialOctetAt(fullOctets << 3) & (0xFF << (8 - tail))));
+    }
+  }
+
+  /**
+   * Expand this path to a sequence of binary digits, one per byte.
+   *
+   * @return expanded path
+   */
+  public Bytes toBits() {
+    MutableBytes bits = MutableBytes.create(length);
+    for (int i = 0; i < length; i++) {
+      bits.set(i, get(i));
+    }
+    return bits;
+  }
+
+  /**
+   * Read eight bits starting at the given position. There must be at least eight bits left.
+   *
+   * @param i position of the first bit to read
+   * @return unsigned octet holding the read bits
+   */
+  private int octetAt(final int i) {
+    int bit = offset + i;
+    int index = bit >>> 3;
+    int shift = bit & 7;
+    int hi = bytes[index] & 0xFF;
+    if (shift == 0) {
+      return hi;
+    }
+    return ((hi << shift) | ((bytes[index + 1] & 0xFF) >>> (8 - shift))) & 0xFF;
+  }
+
+  /**
+   * Read up to eight bits starting at the given position, padding with whatever lies past the end
+   * of the backing array as zeros. Bits past the end of this path are left unmasked.
+   *
+   * @param i position of the first bit to read
+   * @return unsigned octet holding the read bits
+   */
+  private int partialOctetAt(final int i) {
+    int bit = offset + i;
+    int index = bit >>> 3;
+    int shift = bit & 7;
+    int hi = bytes[index] & 0xFF;
+    int lo = index + 1 < bytes.length ? bytes[index + 1] & 0xFF : 0;
+    return ((hi << shift) | (lo >>> (8 - shift))) & 0xFF;
+  }
+
+  private static void copyBits(final BitPath src, final byte[] dst, final int dstOffset) {
+    for (int i = 0; i < src.length; i++) {
+      if (src.get(i) != 0) {
+        int bit = dstOffset + i;
+        dst[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof BitPath)) {
+      return false;
+    }
+    BitPath other = (BitPath) obj;
+    return length == other.length && commonPrefixLength(other) == length;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = length;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + get(i);
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s (%d)", Bytes.wrap(encode()), length);
+  }
+}
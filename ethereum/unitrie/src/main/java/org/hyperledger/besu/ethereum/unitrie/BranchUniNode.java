@@ -17,7 +17,6 @@ package org.hyperledger.besu.ethereum.unitrie;
 import java.nio.ByteBuffer;
 
 import com.google.common.base.Preconditions;
-import org.apache.tuweni.bytes.Bytes;
 
 /**
  * An inner unitrie node, possibly with children. A leaf is comprised by an instance of this class
@@ -32,7 +31,7 @@ public class BranchUniNode extends AbstractUniNode {
   private final byte[] encoding;
 
   BranchUniNode(
-      final byte[] path,
+      final BitPath path,
       final ValueWrapper valueWrapper,
       final UniNode leftChild,
       final UniNode rightChild) {
@@ -60,7 +59,7 @@ public class BranchUniNode extends AbstractUniNode {
   }
 
   @Override
-  public UniNode accept(final UniPathVisitor visitor, final Bytes path) {
+  public UniNode accept(final UniPathVisitor visitor, final BitPath path) {
     return visitor.visit(this, path);
   }
 
@@ -101,7 +100,7 @@ public class BranchUniNode extends AbstractUniNode {
     return true;
   }
 
-  private byte[] encode(final byte[] path, final ValueWrapper valueWrapper) {
+  private byte[] encode(final BitPath path, final ValueWrapper valueWrapper) {
     UniNodeEncodingInput encData =
         new UniNodeEncodingInput(path, valueWrapper, leftChild, rightChild);
     return encodingHelper.encode(encData).toArrayUnsafe();
@@ -47,10 +47,23 @@ public class CommitVisitor implements UniNodeVisitor {
       node.getRightChild().accept(this);
     }
 
-    maybeStoreNode(node);
+    maybeStoreNode(node, loader, nodeUpdater, valueUpdater);
   }
 
-  private void maybeStoreNode(final UniNode node) {
+  /**
+   * Store the given dirty node, along with its value if the value is not embedded in the node.
+   * Children are not visited.
+   *
+   * @param node dirty node to store
+   * @param loader loader used to solve the node value
+   * @param nodeUpdater updater storing node encodings
+   * @param valueUpdater updater storing long values
+   */
+  static void maybeStoreNode(
+      final UniNode node,
+      final DataLoader loader,
+      final DataUpdater nodeUpdater,
+      final DataUpdater valueUpdater) {
     // If value is not embedded in node it must be explicitly stored
     if (node.getValueWrapper().isLong()) {
       node.getValue(loader)
@@ -22,13 +22,13 @@ package org.hyperledger.besu.ethereum.unitrie;
 public class DefaultUniNodeFactory implements UniNodeFactory {
 
   @Override
-  public UniNode createLeaf(final byte[] path, final ValueWrapper valueWrapper) {
+  public UniNode createLeaf(final BitPath path, final ValueWrapper valueWrapper) {
     return new LeafUniNode(path, valueWrapper);
   }
 
   @Override
   public UniNode createBranch(
-      final byte[] path,
+      final BitPath path,
       final ValueWrapper valueWrapper,
       final UniNode leftChild,
       final UniNode rightChild) {
@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.unitrie;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /**
  * Visitor implementing get operation in a Unitrie.
  *
@@ -24,25 +22,25 @@ import org.apache.tuweni.bytes.Bytes;
 public class GetVisitor implements UniPathVisitor {
 
   @Override
-  public UniNode visit(final NullUniNode node, final Bytes path) {
+  public UniNode visit(final NullUniNode node, final BitPath path) {
     return NullUniNode.instance();
   }
 
   @Override
-  public UniNode visit(final AbstractUniNode node, final Bytes path) {
-    Bytes nodePath = Bytes.of(node.getPath());
-    Bytes commonPath = path.commonPrefix(nodePath);
+  public UniNode visit(final AbstractUniNode node, final BitPath path) {
+    BitPath nodePath = node.getPath();
+    int commonLength = path.commonPrefixLength(nodePath);
 
-    if (commonPath.size() == path.size() && commonPath.size() == nodePath.size()) {
+    if (commonLength == path.length() && commonLength == nodePath.length()) {
       return node;
     }
 
-    if (commonPath.size() < nodePath.size()) {
+    if (commonLength < nodePath.length()) {
       return NullUniNode.instance();
     }
 
-    byte pos = path.get(commonPath.size());
-    Bytes newPath = path.slice(commonPath.size() + 1);
+    byte pos = path.get(commonLength);
+    BitPath newPath = path.slice(commonLength + 1);
     if (pos == 0) {
       return node.getLeftChild().accept(this, newPath);
     } else {
@@ -16,7 +16,6 @@
 package org.hyperledger.besu.ethereum.unitrie;
 
 import com.google.common.base.Preconditions;
-import org.apache.tuweni.bytes.Bytes;
 
 /**
  * A leaf UniNode.
@@ -27,7 +26,7 @@ public class LeafUniNode extends AbstractUniNode {
 
   private final byte[] encoding;
 
-  public LeafUniNode(final byte[] path, final ValueWrapper valueWrapper) {
+  public LeafUniNode(final BitPath path, final ValueWrapper valueWrapper) {
     super(path, valueWrapper);
     encoding = encode(path, valueWrapper);
   }
@@ -40,7 +39,7 @@ public class LeafUniNode extends AbstractUniNode {
   }
 
   @Override
-  public UniNode accept(final UniPathVisitor visitor, final Bytes path) {
+  public UniNode accept(final UniPathVisitor visitor, final BitPath path) {
     return visitor.visit(this, path);
   }
 
@@ -81,7 +80,7 @@ public class LeafUniNode extends AbstractUniNode {
     return getEncoding().length > MAX_INLINED_NODE_SIZE;
   }
 
-  private byte[] encode(final byte[] path, final ValueWrapper valueWrapper) {
+  private byte[] encode(final BitPath path, final ValueWrapper valueWrapper) {
     UniNodeEncodingInput encData = new UniNodeEncodingInput(path, valueWrapper);
     return encodingHelper.encode(encData).toArrayUnsafe();
   }
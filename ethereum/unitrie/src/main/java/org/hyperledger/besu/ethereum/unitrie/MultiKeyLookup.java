@@ -0,0 +1,108 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Find the nodes of several keys of a Unitrie in a single walk from the root. At each node the
+ * keys still being looked up are split by their next bit, so a node on a path shared by several
+ * keys is visited, and loaded from storage, only once.
+ */
+class MultiKeyLookup {
+
+  private MultiKeyLookup() {}
+
+  /**
+   * Find the node at each of the given keys.
+   *
+   * @param root trie root
+   * @param keys keys to look up
+   * @param <K> key type
+   * @return map from keys to the nodes at them, holding only keys with a node
+   */
+  static <K extends Bytes> Map<K, UniNode> lookup(final UniNode root, final Collection<K> keys) {
+    final Map<K, UniNode> found = new HashMap<>();
+    final List<Target<K>> targets = new ArrayList<>(keys.size());
+    for (final K key : keys) {
+      targets.add(new Target<>(key, BitPath.fromKey(key)));
+    }
+
+    final Deque<Frame<K>> stack = new ArrayDeque<>();
+    stack.push(new Frame<>(root, targets));
+    while (!stack.isEmpty()) {
+      final Frame<K> frame = stack.pop();
+      final UniNode node = frame.node;
+      if (node == null || node == NullUniNode.instance()) {
+        continue;
+      }
+
+      final BitPath nodePath = node.getPath();
+      final List<Target<K>> left = new ArrayList<>();
+      final List<Target<K>> right = new ArrayList<>();
+      for (final Target<K> target : frame.targets) {
+        final BitPath path = target.path;
+        final int commonLength = path.commonPrefixLength(nodePath);
+        if (commonLength < nodePath.length()) {
+          continue;
+        }
+        if (commonLength == path.length()) {
+          found.put(target.key, node);
+          continue;
+        }
+        final Target<K> next = new Target<>(target.key, path.slice(commonLength + 1));
+        (path.get(commonLength) == 0 ? left : right).add(next);
+      }
+
+      if (!right.isEmpty()) {
+        stack.push(new Frame<>(node.getRightChild(), right));
+      }
+      if (!left.isEmpty()) {
+        stack.push(new Frame<>(node.getLeftChild(), left));
+      }
+    }
+    return found;
+  }
+
+  /** A key being looked up, along with the part of its path still to be matched. */
+  private static class Target<K> {
+    final K key;
+    final BitPath path;
+
+    Target(final K key, final BitPath path) {
+      this.key = key;
+      this.path = path;
+    }
+  }
+
+  /** A node to visit, along with the keys that may be found below it. */
+  private static class Frame<K> {
+    final UniNode node;
+    final List<Target<K>> targets;
+
+    Frame(final UniNode node, final List<Target<K>> targets) {
+      this.node = node;
+      this.targets = targets;
+    }
+  }
+}
@@ -17,7 +17,6 @@ package org.hyperledger.besu.ethereum.unitrie;
 import java.util.Optional;
 
 import com.google.common.base.Strings;
-import org.apache.tuweni.bytes.Bytes;
 
 /**
  * Empty Unitrie node.
@@ -26,7 +25,6 @@ import org.apache.tuweni.bytes.Bytes;
  */
 public class NullUniNode implements UniNode {
 
-  private static final byte[] EMPTY_BYES = new byte[0];
   private static final NullUniNode INSTANCE = new NullUniNode();
 
   private NullUniNode() {
@@ -38,8 +36,8 @@ public class NullUniNode implements UniNode {
   }
 
   @Override
-  public byte[] getPath() {
-    return EMPTY_BYES;
+  public BitPath getPath() {
+    return BitPath.EMPTY;
   }
 
   @Override
@@ -93,7 +91,7 @@ public class NullUniNode implements UniNode {
   }
 
   @Override
-  public UniNode accept(final UniPathVisitor visitor, final Bytes path) {
+  public UniNode accept(final UniPathVisitor visitor, final BitPath path) {
     return visitor.visit(this, path);
   }
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.common.base.Preconditions;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Commits the dirty nodes of a Unitrie using a fork-join pool. Dirty left and right subtrees of a
+ * node are hashed and encoded in parallel, provided the node's children size (the RSKIP107 size of
+ * everything below it) reaches the fork threshold.
+ *
+ * <p>Parallel tasks never touch the destination updaters, which aren't thread safe. They collect
+ * nodes and long values into batches instead, and batches are flushed from the calling thread in
+ * the same order {@link CommitVisitor} would store them.
+ */
+public class ParallelCommitter {
+
+  /** Default minimum children size, in bytes, of nodes whose subtrees are committed in parallel. */
+  public static final long DEFAULT_FORK_THRESHOLD = 16 * 1024;
+
+  private final ForkJoinPool pool;
+  private final long forkThreshold;
+
+  public ParallelCommitter() {
+    this(ForkJoinPool.commonPool(), DEFAULT_FORK_THRESHOLD);
+  }
+
+  public ParallelCommitter(final ForkJoinPool pool, final long forkThreshold) {
+    Preconditions.checkNotNull(pool);
+    Preconditions.checkArgument(forkThreshold >= 0, "Fork threshold can't be negative");
+    this.pool = pool;
+    this.forkThreshold = forkThreshold;
+  }
+
+  /**
+   * Store every dirty node reachable from the given root, along with their long values.
+   *
+   * @param root root of the trie to commit
+   * @param loader loader used to solve node values
+   * @param nodeUpdater updater storing node encodings
+   * @param valueUpdater updater storing long values
+   */
+  void commit(
+      final UniNode root,
+      final DataLoader loader,
+      final DataUpdater nodeUpdater,
+      final DataUpdater valueUpdater) {
+    if (!root.isDirty()) {
+      return;
+    }
+    pool.invoke(new CommitTask(root, loader)).flush(nodeUpdater, valueUpdater);
+  }
+
+  private class CommitTask extends RecursiveTask<Batch> {
+
+    private final UniNode node;
+    private final DataLoader loader;
+
+    CommitTask(final UniNode node, final DataLoader loader) {
+      this.node = node;
+      this.loader = loader;
+    }
+
+    @Override
+    protected Batch compute() {
+      Batch batch = new Batch();
+      commit(node, batch);
+      return batch;
+    }
+
+    private void commit(final UniNode node, final Batch batch) {
+      if (!node.isDirty()) {
+        return;
+      }
+
+      UniNode leftChild = node.getLeftChild();
+      UniNode rightChild = node.getRightChild();
+      if (leftChild.isDirty() && rightChild.isDirty() && node.getChildrenSize() >= forkThreshold) {
+        CommitTask leftTask = new CommitTask(leftChild, loader);
+        leftTask.fork();
+        Batch rightBatch = new CommitTask(rightChild, loader).compute();
+        batch.append(leftTask.join());
+        batch.append(rightBatch);
+      } else {
+        commit(leftChild, batch);
+        commit(rightChild, batch);
+      }
+
+      CommitVisitor.maybeStoreNode(node, loader, batch::storeNode, batch::storeValue);
+    }
+  }
+
+  /** Nodes and long values to store, in store order. */
+  private static class Batch {
+    private final List<Entry> entries = new ArrayList<>();
+
+    void storeNode(final Bytes32 hash, final Bytes node) {
+      entries.add(new Entry(false, hash, node));
+    }
+
+    void storeValue(final Bytes32 hash, final Bytes value) {
+      entries.add(new Entry(true, hash, value));
+    }
+
+    void append(final Batch other) {
+      entries.addAll(other.entries);
+    }
+
+    void flush(final DataUpdater nodeUpdater, final DataUpdater valueUpdater) {
+      for (Entry entry : entries) {
+        (entry.isValue ? valueUpdater : nodeUpdater).store(entry.hash, entry.data);
+      }
+    }
+  }
+
+  /** Dead simple (isValue, hash, data) triple. */
+  private static class Entry {
+    final boolean isValue;
+    final Bytes32 hash;
+    final Bytes data;
+
+    Entry(final boolean isValue, final Bytes32 hash, final Bytes data) {
+      this.isValue = isValue;
+      this.hash = hash;
+      this.data = data;
+    }
+  }
+}
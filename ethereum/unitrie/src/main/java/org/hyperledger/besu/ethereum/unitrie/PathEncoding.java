@@ -57,25 +57,6 @@ public final class PathEncoding {
     return decoded;
   }
 
-  /**
-   * Decode an encoded path whose length is at most 8 bits.
-   *
-   * @param encodedPath path to decode
-   * @param decodedLengthInBits decoded length in bits, guaranteed to be less oor equal 8
-   * @return decoded path, given by a sequence of binary digits of length {@code decodedLengthBits}
-   */
-  static byte[] decodeSingleBytePath(final byte encodedPath, final int decodedLengthInBits) {
-    Preconditions.checkArgument(decodedLengthInBits <= 8, "Path is longer than 8 bits");
-
-    byte[] decoded = new byte[decodedLengthInBits];
-
-    for (int i = 0; i < decodedLengthInBits; i++) {
-      decoded[i] = (byte) (((encodedPath >>> (7 - i)) & 0x01) == 1 ? 1 : 0);
-    }
-
-    return decoded;
-  }
-
   /**
    * Encode the given path, turning it into a sequence of bytes. For example, the path {1, 0, 1, 0,
    * 0, 0, 0, 1, 0, 1} becomes {0xA1, 0x40}.
@@ -0,0 +1,173 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Lazily iterate, in key order, over the entries of a Unitrie whose keys start with a given prefix,
+ * beginning at the first key not less than a given start key.
+ *
+ * <p>Iteration is a depth first walk driven by an explicit stack, so memory use is bounded by the
+ * trie depth. Children are only pushed, and so only loaded from storage, when they can hold keys
+ * matching the prefix, not less than the start key and not longer than the maximum key length.
+ * Keys are ordered bitwise, with a key coming before any key it is a prefix of.
+ */
+class PrefixSeekIterator implements Iterator<Map.Entry<Bytes, byte[]>> {
+
+  private final DataLoader loader;
+  private final BitPath prefix;
+  private final BitPath start;
+  private final long maxKeyBits;
+
+  private final Deque<Frame> stack = new ArrayDeque<>();
+  private Map.Entry<Bytes, byte[]> next;
+
+  /**
+   * Create an iterator over the trie with the given root.
+   *
+   * @param root trie root
+   * @param loader loader used to solve long values
+   * @param prefix prefix all returned keys must start with
+   * @param startKey smallest key to return, it must start with the given prefix
+   * @param maxKeyLength maximum length in bytes of returned keys, subtrees holding only longer keys
+   *     are never visited
+   */
+  PrefixSeekIterator(
+      final UniNode root,
+      final DataLoader loader,
+      final Bytes prefix,
+      final Bytes startKey,
+      final int maxKeyLength) {
+    Preconditions.checkArgument(
+        startKey.commonPrefixLength(prefix) == prefix.size(),
+        "Start key must start with the given prefix");
+    this.loader = loader;
+    this.prefix = BitPath.fromKey(prefix);
+    this.start = BitPath.fromKey(startKey);
+    this.maxKeyBits = 8L * maxKeyLength;
+
+    if (root != NullUniNode.instance()) {
+      stack.push(new Frame(root, null, (byte) 0, false));
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = advance();
+    }
+    return next != null;
+  }
+
+  @Override
+  public Map.Entry<Bytes, byte[]> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Map.Entry<Bytes, byte[]> result = next;
+    next = null;
+    return result;
+  }
+
+  private Map.Entry<Bytes, byte[]> advance() {
+    while (!stack.isEmpty()) {
+      Frame frame = stack.pop();
+      UniNode node = frame.node;
+      BitPath path =
+          frame.parentPath == null
+              ? node.getPath()
+              : frame.parentPath.concat(frame.bit, node.getPath());
+
+      if (path.length() > maxKeyBits) {
+        continue;
+      }
+
+      // Skip the subtree if its path diverges from the prefix
+      int prefixMatch = path.commonPrefixLength(prefix);
+      if (prefixMatch < Math.min(path.length(), prefix.length())) {
+        continue;
+      }
+
+      // Skip the subtree if every key in it is before the start key
+      boolean pastStart = frame.pastStart;
+      if (!pastStart) {
+        int startMatch = path.commonPrefixLength(start);
+        if (startMatch < Math.min(path.length(), start.length())) {
+          if (path.get(startMatch) < start.get(startMatch)) {
+            continue;
+          }
+          pastStart = true;
+        } else if (startMatch == start.length()) {
+          pastStart = true;
+        }
+      }
+
+      pushChildren(node, path, pastStart);
+
+      if (pastStart && path.length() >= prefix.length() && (path.length() & 7) == 0) {
+        Optional<byte[]> value = node.getValue(loader);
+        if (value.isPresent()) {
+          return Map.entry(Bytes.wrap(path.encode()), value.get());
+        }
+      }
+    }
+    return null;
+  }
+
+  private void pushChildren(final UniNode node, final BitPath path, final boolean pastStart) {
+    int depth = path.length();
+    if (depth + 1 > maxKeyBits) {
+      return;
+    }
+    // Right goes first, so the left child is popped first
+    for (byte bit = 1; bit >= 0; bit--) {
+      UniNode child = bit == 0 ? node.getLeftChild() : node.getRightChild();
+      if (child == null || child == NullUniNode.instance()) {
+        continue;
+      }
+      if (depth < prefix.length() && prefix.get(depth) != bit) {
+        continue;
+      }
+      if (!pastStart && depth < start.length() && start.get(depth) > bit) {
+        continue;
+      }
+      stack.push(new Frame(child, path, bit, pastStart));
+    }
+  }
+
+  /** A node to visit, along with the path leading to it. */
+  private static class Frame {
+    final UniNode node;
+    final BitPath parentPath;
+    final byte bit;
+    final boolean pastStart;
+
+    Frame(final UniNode node, final BitPath parentPath, final byte bit, final boolean pastStart) {
+      this.node = node;
+      this.parentPath = parentPath;
+      this.bit = bit;
+      this.pastStart = pastStart;
+    }
+  }
+}
@@ -18,8 +18,6 @@ package org.hyperledger.besu.ethereum.unitrie;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /**
  * Class implementing a {@link GetVisitor} that in addition records the not embedded nodes visited
  * through the path.
@@ -39,13 +37,13 @@ public class ProofVisitor extends GetVisitor {
   }
 
   @Override
-  public UniNode visit(final AbstractUniNode branchNode, final Bytes path) {
+  public UniNode visit(final AbstractUniNode branchNode, final BitPath path) {
     maybeTrackNode(branchNode);
     return super.visit(branchNode, path);
   }
 
   @Override
-  public UniNode visit(final NullUniNode nullNode, final Bytes path) {
+  public UniNode visit(final NullUniNode nullNode, final BitPath path) {
     return super.visit(nullNode, path);
   }
 
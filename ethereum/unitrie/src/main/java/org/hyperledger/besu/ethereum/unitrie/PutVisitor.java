@@ -15,7 +15,6 @@
 package org.hyperledger.besu.ethereum.unitrie;
 
 import com.google.common.base.Preconditions;
-import org.apache.tuweni.bytes.Bytes;
 
 /**
  * Visitor implementing put operation on a Unitrie.
@@ -34,42 +33,38 @@ public class PutVisitor implements UniPathVisitor {
   }
 
   @Override
-  public UniNode visit(final NullUniNode node, final Bytes path) {
-    return nodeFactory.createLeaf(path.toArrayUnsafe(), ValueWrapper.fromValue(value));
+  public UniNode visit(final NullUniNode node, final BitPath path) {
+    return nodeFactory.createLeaf(path, ValueWrapper.fromValue(value));
   }
 
   @Override
-  public UniNode visit(final AbstractUniNode node, final Bytes path) {
-    Bytes nodePath = Bytes.of(node.getPath());
-    Bytes commonPath = path.commonPrefix(nodePath);
+  public UniNode visit(final AbstractUniNode node, final BitPath path) {
+    BitPath nodePath = node.getPath();
+    int commonLength = path.commonPrefixLength(nodePath);
 
-    if (commonPath.size() == path.size() && commonPath.size() == nodePath.size()) {
+    if (commonLength == path.length() && commonLength == nodePath.length()) {
       return node.replaceValue(value, nodeFactory);
     }
 
-    if (commonPath.size() < nodePath.size()) {
-      Bytes updatedNodePath = nodePath.slice(commonPath.size() + 1);
+    if (commonLength < nodePath.length()) {
+      BitPath commonPath = path.slice(0, commonLength);
+      BitPath updatedNodePath = nodePath.slice(commonLength + 1);
 
-      UniNode updatedNode = node.replacePath(updatedNodePath.toArrayUnsafe(), nodeFactory);
-      byte updatedNodePos = nodePath.get(commonPath.size());
+      UniNode updatedNode = node.replacePath(updatedNodePath, nodeFactory);
+      byte updatedNodePos = nodePath.get(commonLength);
 
-      if (commonPath.size() == path.size()) {
-        return splitWithoutNewLeaf(commonPath.toArrayUnsafe(), value, updatedNode, updatedNodePos);
+      if (commonLength == path.length()) {
+        return splitWithoutNewLeaf(commonPath, value, updatedNode, updatedNodePos);
       } else {
-        Bytes newLeafPath = path.slice(commonPath.size() + 1);
-        return splitWithNewLeaf(
-            commonPath.toArrayUnsafe(),
-            value,
-            updatedNode,
-            updatedNodePos,
-            newLeafPath.toArrayUnsafe());
+        BitPath newLeafPath = path.slice(commonLength + 1);
+        return splitWithNewLeaf(commonPath, value, updatedNode, updatedNodePos, newLeafPath);
       }
     }
 
-    // If we get here then commonPath.size() == nodePath.size() and
-    // commonPath.size() < path.size().This is the recursive case.
-    byte pos = path.get(commonPath.size());
-    Bytes newPath = path.slice(commonPath.size() + 1);
+    // If we get here then commonLength == nodePath.length() and
+    // commonLength < path.length(). This is the recursive case.
+    byte pos = path.get(commonLength);
+    BitPath newPath = path.slice(commonLength + 1);
     if (pos == 0) {
       return node.replaceChild(pos, node.getLeftChild().accept(this, newPath), nodeFactory);
     } else {
@@ -87,7 +82,7 @@ public class PutVisitor implements UniPathVisitor {
    * @return root node of the split, holding the new value and the updated node as the only child
    */
   private UniNode splitWithoutNewLeaf(
-      final byte[] commonPath,
+      final BitPath commonPath,
       final byte[] value,
       final UniNode updatedNode,
       final byte updatedNodePos) {
@@ -114,11 +109,11 @@ public class PutVisitor implements UniPathVisitor {
    * @return root node of the split, having as children the updated node and the new leaf
    */
   private UniNode splitWithNewLeaf(
-      final byte[] commonPath,
+      final BitPath commonPath,
       final byte[] value,
       final UniNode updatedNode,
       final byte updatedNodePos,
-      final byte[] newLeafPath) {
+      final BitPath newLeafPath) {
 
     UniNode newLeaf = nodeFactory.createLeaf(newLeafPath, ValueWrapper.fromValue(value));
     if (updatedNodePos == 0) {
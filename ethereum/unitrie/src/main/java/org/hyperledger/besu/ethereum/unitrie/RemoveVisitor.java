@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.unitrie;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /**
  * Visitor implementing Remove operation in a unitrie. Removal can be recursive, in that case the
  * operation will remove the node and both subtrees.
@@ -37,25 +35,25 @@ public class RemoveVisitor implements UniPathVisitor {
   }
 
   @Override
-  public UniNode visit(final NullUniNode node, final Bytes path) {
+  public UniNode visit(final NullUniNode node, final BitPath path) {
     return NullUniNode.instance();
   }
 
   @Override
-  public UniNode visit(final AbstractUniNode node, final Bytes path) {
-    Bytes nodePath = Bytes.wrap(node.getPath());
-    Bytes commonPath = path.commonPrefix(nodePath);
+  public UniNode visit(final AbstractUniNode node, final BitPath path) {
+    BitPath nodePath = node.getPath();
+    int commonLength = path.commonPrefixLength(nodePath);
 
-    if (commonPath.size() == path.size() && commonPath.size() == nodePath.size()) {
+    if (commonLength == path.length() && commonLength == nodePath.length()) {
       return recursiveRemove ? NullUniNode.instance() : node.removeValue(nodeFactory);
     }
 
-    if (commonPath.size() < nodePath.size()) {
+    if (commonLength < nodePath.length()) {
       return node;
     }
 
-    byte pos = path.get(commonPath.size());
-    Bytes newPath = path.slice(commonPath.size() + 1);
+    byte pos = path.get(commonLength);
+    BitPath newPath = path.slice(commonLength + 1);
     if (pos == 0) {
       return node.replaceChild(pos, node.getLeftChild().accept(this, newPath), nodeFactory);
     } else {
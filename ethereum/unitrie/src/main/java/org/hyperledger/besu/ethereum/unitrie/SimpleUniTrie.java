@@ -20,12 +20,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import org.hyperledger.besu.ethereum.trie.NodeUpdater;
 import org.hyperledger.besu.ethereum.trie.Proof;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.google.common.collect.Streams;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -68,6 +73,20 @@ public class SimpleUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
     return root.accept(getVisitor, bytesToPath(key)).getValue(loader).map(valueDeserializer);
   }
 
+  @Override
+  public Map<K, V> getAll(final SortedSet<K> keys) {
+    checkNotNull(keys);
+    final Map<K, UniNode> nodes = MultiKeyLookup.lookup(root, keys);
+    final Map<K, V> values = new LinkedHashMap<>();
+    for (final K key : keys) {
+      final UniNode node = nodes.get(key);
+      if (node != null) {
+        node.getValue(loader).map(valueDeserializer).ifPresent(value -> values.put(key, value));
+      }
+    }
+    return values;
+  }
+
   @Override
   public Bytes32 getHash(final K key) {
     checkNotNull(key);
@@ -137,17 +156,34 @@ public class SimpleUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
   }
 
+  @Override
+  public Stream<Map.Entry<Bytes, V>> entriesFrom(
+      final Bytes prefix, final Bytes startKey, final int maxKeyLength) {
+    checkNotNull(prefix);
+    checkNotNull(startKey);
+    return Streams.stream(new PrefixSeekIterator(root, loader, prefix, startKey, maxKeyLength))
+        .map(entry -> Map.entry(entry.getKey(), valueDeserializer.apply(entry.getValue())));
+  }
+
   @Override
   public void commit(final NodeUpdater nodeUpdater, final NodeUpdater valueUpdater) {
     // Nothing to do here
   }
 
+  @Override
+  public void commit(
+      final NodeUpdater nodeUpdater,
+      final NodeUpdater valueUpdater,
+      final ParallelCommitter committer) {
+    // Nothing to do here
+  }
+
   @Override
   public void visitAll(final Consumer<UniNode> visitor) {
     root.accept(new AllUniNodesVisitor(visitor));
   }
 
-  private Bytes bytesToPath(final Bytes key) {
-    return PathEncoding.decodePath(key, key.size() * 8);
+  private BitPath bytesToPath(final Bytes key) {
+    return BitPath.fromKey(key);
   }
 }
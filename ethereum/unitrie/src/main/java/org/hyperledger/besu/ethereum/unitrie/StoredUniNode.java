@@ -18,7 +18,6 @@ import java.util.Objects;
 import java.util.Optional;
 
 import com.google.common.base.Strings;
-import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
 /**
@@ -38,7 +37,7 @@ public class StoredUniNode implements UniNode {
   }
 
   @Override
-  public byte[] getPath() {
+  public BitPath getPath() {
     return load().getPath();
   }
 
@@ -97,7 +96,7 @@ public class StoredUniNode implements UniNode {
   }
 
   @Override
-  public UniNode accept(final UniPathVisitor visitor, final Bytes path) {
+  public UniNode accept(final UniPathVisitor visitor, final BitPath path) {
     return load().accept(visitor, path);
   }
 
@@ -138,15 +137,21 @@ public class StoredUniNode implements UniNode {
   }
 
   private UniNode load() {
-    if (loadedNode == null) {
-      loadedNode =
-          nodeFactory
-              .retrieve(Bytes32.wrap(hash))
-              .orElseThrow(
-                  () ->
-                      new IllegalStateException(
-                          "Unable to load UniNode for hash: " + Bytes32.wrap(hash)));
+    if (loadedNode != null) {
+      return loadedNode;
     }
-    return loadedNode;
+    UniNode node =
+        nodeFactory
+            .retrieve(Bytes32.wrap(hash))
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Unable to load UniNode for hash: " + Bytes32.wrap(hash)));
+    // Cached nodes are shared across tries, so holding on to the loaded node here would keep whole
+    // subtrees reachable from the cache and defeat its size bound. Go through the cache instead.
+    if (!nodeFactory.isCaching()) {
+      loadedNode = node;
+    }
+    return node;
   }
 }
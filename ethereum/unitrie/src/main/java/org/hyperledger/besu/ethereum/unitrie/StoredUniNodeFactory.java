@@ -27,20 +27,35 @@ import org.apache.tuweni.bytes.Bytes32;
 public class StoredUniNodeFactory implements UniNodeFactory {
 
   private final DataLoader loader;
+  private final Optional<UniNodeCache> cache;
   private final UniNodeEncoding encoding = new UniNodeEncoding();
 
   public StoredUniNodeFactory(final DataLoader loader) {
+    this(loader, Optional.empty());
+  }
+
+  public StoredUniNodeFactory(final DataLoader loader, final Optional<UniNodeCache> cache) {
     this.loader = loader;
+    this.cache = cache;
+  }
+
+  /**
+   * Answer whether nodes retrieved by this factory are shared through a {@link UniNodeCache}.
+   *
+   * @return whether this factory retrieves nodes through a cache
+   */
+  boolean isCaching() {
+    return cache.isPresent();
   }
 
   @Override
-  public UniNode createLeaf(final byte[] path, final ValueWrapper valueWrapper) {
+  public UniNode createLeaf(final BitPath path, final ValueWrapper valueWrapper) {
     return handleNewNode(new LeafUniNode(path, valueWrapper));
   }
 
   @Override
   public UniNode createBranch(
-      final byte[] path,
+      final BitPath path,
       final ValueWrapper valueWrapper,
       final UniNode leftChild,
       final UniNode rightChild) {
@@ -64,6 +79,19 @@ public class StoredUniNodeFactory implements UniNodeFactory {
    * @return optional holding retrieved node, empty if there's no node associated to the given hash
    */
   public Optional<UniNode> retrieve(final Bytes32 hash) {
+    if (cache.isPresent()) {
+      Optional<UniNode> cached = cache.get().get(hash);
+      if (cached.isPresent()) {
+        return cached;
+      }
+      Optional<UniNode> node = load(hash);
+      node.ifPresent(n -> cache.get().put(hash, n));
+      return node;
+    }
+    return load(hash);
+  }
+
+  private Optional<UniNode> load(final Bytes32 hash) {
     return loader
         .load(hash)
         .map(
@@ -20,12 +20,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import org.hyperledger.besu.ethereum.trie.NodeUpdater;
 import org.hyperledger.besu.ethereum.trie.Proof;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.google.common.collect.Streams;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -62,9 +67,28 @@ public class StoredUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
       final Bytes32 rootHash,
       final Function<V, Bytes> valueSerializer,
       final Function<Bytes, V> valueDeserializer) {
+    this(loader, rootHash, valueSerializer, valueDeserializer, Optional.empty());
+  }
+
+  /**
+   * Create a trie whose stored nodes are retrieved through the given cache. The cache can be shared
+   * among tries loading nodes from the same storage.
+   *
+   * @param loader loader for nodes and long values
+   * @param rootHash trie root hash
+   * @param valueSerializer value serializer
+   * @param valueDeserializer value deserializer
+   * @param nodeCache optional cache for decoded stored nodes
+   */
+  public StoredUniTrie(
+      final DataLoader loader,
+      final Bytes32 rootHash,
+      final Function<V, Bytes> valueSerializer,
+      final Function<Bytes, V> valueDeserializer,
+      final Optional<UniNodeCache> nodeCache) {
 
     this.loader = loader;
-    this.nodeFactory = new StoredUniNodeFactory(loader);
+    this.nodeFactory = new StoredUniNodeFactory(loader, nodeCache);
 
     this.valueSerializer = valueSerializer.andThen(Bytes::toArrayUnsafe);
     this.valueDeserializer = valueDeserializer.compose(Bytes::of);
@@ -85,6 +109,20 @@ public class StoredUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
     return root.accept(getVisitor, bytesToPath(key)).getValue(loader).map(valueDeserializer);
   }
 
+  @Override
+  public Map<K, V> getAll(final SortedSet<K> keys) {
+    checkNotNull(keys);
+    final Map<K, UniNode> nodes = MultiKeyLookup.lookup(root, keys);
+    final Map<K, V> values = new LinkedHashMap<>();
+    for (final K key : keys) {
+      final UniNode node = nodes.get(key);
+      if (node != null) {
+        node.getValue(loader).map(valueDeserializer).ifPresent(value -> values.put(key, value));
+      }
+    }
+    return values;
+  }
+
   @Override
   public Bytes32 getHash(final K key) {
     checkNotNull(key);
@@ -137,12 +175,33 @@ public class StoredUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
     this.root = root.accept(recursiveRemoveVisitor, bytesToPath(key));
   }
 
+  @Override
+  public Stream<Map.Entry<Bytes, V>> entriesFrom(
+      final Bytes prefix, final Bytes startKey, final int maxKeyLength) {
+    checkNotNull(prefix);
+    checkNotNull(startKey);
+    return Streams.stream(new PrefixSeekIterator(root, loader, prefix, startKey, maxKeyLength))
+        .map(entry -> Map.entry(entry.getKey(), valueDeserializer.apply(entry.getValue())));
+  }
+
   @Override
   public void commit(final NodeUpdater nodeUpdater, final NodeUpdater valueUpdater) {
     final CommitVisitor commitVisitor =
         new CommitVisitor(loader, nodeUpdater::store, valueUpdater::store);
     root.accept(commitVisitor);
+    finishCommit(nodeUpdater);
+  }
+
+  @Override
+  public void commit(
+      final NodeUpdater nodeUpdater,
+      final NodeUpdater valueUpdater,
+      final ParallelCommitter committer) {
+    committer.commit(root, loader, nodeUpdater::store, valueUpdater::store);
+    finishCommit(nodeUpdater);
+  }
 
+  private void finishCommit(final NodeUpdater nodeUpdater) {
     final byte[] rootHash = root.getHash();
     final Bytes32 h = Bytes32.wrap(rootHash);
 
@@ -183,7 +242,7 @@ public class StoredUniTrie<K extends Bytes, V> implements UniTrie<K, V> {
     return root.toString();
   }
 
-  private Bytes bytesToPath(final Bytes key) {
-    return PathEncoding.decodePath(key, key.size() * 8);
+  private BitPath bytesToPath(final Bytes key) {
+    return BitPath.fromKey(key);
   }
 }
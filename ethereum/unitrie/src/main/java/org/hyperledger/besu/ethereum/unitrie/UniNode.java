@@ -37,7 +37,7 @@ public interface UniNode {
    *
    * @return path for this node
    */
-  byte[] getPath();
+  BitPath getPath();
 
   /**
    * Get the wrapper for this value.
@@ -112,7 +112,18 @@ public interface UniNode {
    * @param path path leading to this node
    * @return node resulting form visit
    */
-  UniNode accept(UniPathVisitor visitor, Bytes path);
+  UniNode accept(UniPathVisitor visitor, BitPath path);
+
+  /**
+   * Accept a {@link UniPathVisitor}, giving the path as a sequence of binary digits, one per byte.
+   *
+   * @param visitor visitor instance
+   * @param path path leading to this node, as a sequence of binary digits
+   * @return node resulting form visit
+   */
+  default UniNode accept(final UniPathVisitor visitor, final Bytes path) {
+    return accept(visitor, BitPath.fromBits(path));
+  }
 
   /**
    * Aceept the given {@link UniNodeVisitor}.
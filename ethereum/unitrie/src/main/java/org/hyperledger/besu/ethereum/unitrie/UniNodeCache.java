@@ -0,0 +1,81 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Size bounded, thread safe cache of decoded {@link UniNode}s, keyed by node hash. Entries are
+ * weighed by their encoding length, and the least recently used ones are evicted once the total
+ * encoded size goes over the configured bound.
+ *
+ * <p>Nodes are content addressed, so a single instance can be shared by every {@link StoredUniTrie}
+ * loading nodes from the same storage.
+ */
+public class UniNodeCache {
+
+  private final Cache<Bytes32, UniNode> cache;
+
+  public UniNodeCache(final long maxSizeInBytes) {
+    Preconditions.checkArgument(maxSizeInBytes >= 0, "Cache size can't be negative");
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxSizeInBytes)
+            .weigher((Bytes32 hash, UniNode node) -> node.getEncoding().length)
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Get the cached node for the given hash.
+   *
+   * @param hash node hash
+   * @return optional holding the cached node, empty if there's no cached node for the hash
+   */
+  Optional<UniNode> get(final Bytes32 hash) {
+    return Optional.ofNullable(cache.getIfPresent(hash));
+  }
+
+  /**
+   * Cache the given decoded node.
+   *
+   * @param hash node hash
+   * @param node node decoded from storage
+   */
+  void put(final Bytes32 hash, final UniNode node) {
+    cache.put(hash, node);
+  }
+
+  public long hitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long missCount() {
+    return cache.stats().missCount();
+  }
+
+  public long evictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+}
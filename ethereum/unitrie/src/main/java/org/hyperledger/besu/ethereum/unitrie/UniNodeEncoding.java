@@ -39,8 +39,7 @@ class UniNodeEncoding {
    */
   Bytes encode(final UniNodeEncodingInput node) {
     byte flags = getFlags(node);
-    int pathSize = node.getPath().length;
-    Bytes encodedPath = PathEncoding.encodePath(Bytes.of(node.getPath()));
+    BitPath path = node.getPath();
 
     VarInt childrenSize = VarInt.ZERO;
     if (!node.isLeaf()) {
@@ -49,7 +48,7 @@ class UniNodeEncoding {
 
     int encodingSize =
         1
-            + encodedPathSize(pathSize, encodedPath)
+            + encodedPathSize(path.length())
             + encodedChildSize(node.getLeftChild())
             + encodedChildSize(node.getRightChild())
             + (node.isLeaf() ? 0 : childrenSize.getSizeInBytes())
@@ -59,7 +58,7 @@ class UniNodeEncoding {
 
     ByteBuffer buffer = ByteBuffer.allocate(encodingSize);
     buffer.put(flags);
-    encodePath(pathSize, encodedPath, buffer);
+    encodePath(path, buffer);
     encodeChild(node.getLeftChild(), buffer);
     encodeChild(node.getRightChild(), buffer);
 
@@ -85,7 +84,7 @@ class UniNodeEncoding {
       flags = (byte) (flags | 0b00100000);
     }
 
-    if (node.getPath().length > 0) {
+    if (!node.getPath().isEmpty()) {
       flags = (byte) (flags | 0b00010000);
     }
 
@@ -132,15 +131,14 @@ class UniNodeEncoding {
    * Compute size in bytes of a node path.
    *
    * @param pathSizeInBits number of bits in node path
-   * @param encodedPath encoded node path
    * @return size in bytes of node path encoding
    */
-  private int encodedPathSize(final int pathSizeInBits, final Bytes encodedPath) {
+  private int encodedPathSize(final int pathSizeInBits) {
     if (pathSizeInBits == 0) {
       return 0;
     }
 
-    int encodedSize = encodedPath.size();
+    int encodedSize = PathEncoding.encodedPathLength(pathSizeInBits);
 
     if (1 <= pathSizeInBits && pathSizeInBits <= 32) {
       return 1 + encodedSize;
@@ -154,12 +152,11 @@ class UniNodeEncoding {
   /**
    * Dump path encoding to the given byte buffer.
    *
-   * @param pathSizeInBits path size in bits
-   * @param encodedPath encoded path
+   * @param path path to encode
    * @param buffer destination bit buffer
    */
-  private void encodePath(
-      final int pathSizeInBits, final Bytes encodedPath, final ByteBuffer buffer) {
+  private void encodePath(final BitPath path, final ByteBuffer buffer) {
+    int pathSizeInBits = path.length();
 
     if (pathSizeInBits == 0) {
       return;
@@ -174,7 +171,7 @@ class UniNodeEncoding {
       buffer.put(new VarInt(pathSizeInBits).encode());
     }
 
-    buffer.put(encodedPath.toArrayUnsafe());
+    path.encodeTo(buffer);
   }
 
   /**
@@ -223,7 +220,8 @@ class UniNodeEncoding {
       return NullUniNode.instance();
     }
 
-    ByteBuffer buffer = ByteBuffer.wrap(value.toArrayUnsafe());
+    byte[] encoding = value.toArrayUnsafe();
+    ByteBuffer buffer = ByteBuffer.wrap(encoding);
 
     byte flags = buffer.get();
 
@@ -234,7 +232,7 @@ class UniNodeEncoding {
     boolean leftChildEmbedded = (flags & 0b00000010) == 0b00000010;
     boolean rightChildEmbedded = (flags & 0b00000001) == 0b00000001;
 
-    byte[] path = new byte[0];
+    BitPath path = BitPath.EMPTY;
     if (hasPath) {
       path = decodePath(buffer);
     }
@@ -255,7 +253,7 @@ class UniNodeEncoding {
     }
 
     UniNodeEncodingOutput encodingOutput =
-        new UniNodeEncodingOutput(path, valueWrapper, leftChild, rightChild, value.toArrayUnsafe());
+        new UniNodeEncodingOutput(path, valueWrapper, leftChild, rightChild, encoding);
 
     if (hasLeftChild || hasRightChild) {
       return new BranchUniNode(encodingOutput);
@@ -264,22 +262,6 @@ class UniNodeEncoding {
     }
   }
 
-  /**
-   * Extract path from the given byte buffer.
-   *
-   * @param buffer byte buffer
-   * @return byte array holding path
-   */
-  byte[] decodePathFromFullEncoding(final ByteBuffer buffer) {
-    byte flags = buffer.get();
-    boolean hasPath = (flags & 0b00010000) == 0b00010000;
-    byte[] path = new byte[0];
-    if (hasPath) {
-      path = decodePath(buffer);
-    }
-    return path;
-  }
-
   /**
    * Decode {@link ValueWrapper} from the given byte buffer.
    *
@@ -341,12 +323,13 @@ class UniNodeEncoding {
   }
 
   /**
-   * Decode a node path at the current position of the given buffer.
+   * Decode a node path at the current position of the given buffer. The returned path is a view
+   * over the buffer's backing array, so no path bytes are copied.
    *
-   * @param buffer buffer to extract path from
+   * @param buffer array backed buffer to extract path from
    * @return extracted path
    */
-  private byte[] decodePath(final ByteBuffer buffer) {
+  private BitPath decodePath(final ByteBuffer buffer) {
     int pathLengthInBits;
     int firstLengthByte = Byte.toUnsignedInt(buffer.get());
 
@@ -359,9 +342,9 @@ class UniNodeEncoding {
     }
 
     int encodedLength = PathEncoding.encodedPathLength(pathLengthInBits);
-    byte[] encodedPath = new byte[encodedLength];
-    buffer.get(encodedPath);
-    return PathEncoding.decodePath(Bytes.wrap(encodedPath), pathLengthInBits).toArrayUnsafe();
+    int start = buffer.arrayOffset() + buffer.position();
+    incrementPosition(buffer, encodedLength);
+    return BitPath.wrap(buffer.array(), start * 8, pathLengthInBits);
   }
 
   /**
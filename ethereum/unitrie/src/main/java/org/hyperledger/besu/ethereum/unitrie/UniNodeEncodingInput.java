@@ -27,17 +27,17 @@ import com.google.common.base.Preconditions;
  */
 class UniNodeEncodingInput {
 
-  private final byte[] path;
+  private final BitPath path;
   private final ValueWrapper valueWrapper;
   private final UniNode leftChild;
   private final UniNode rightChild;
 
-  UniNodeEncodingInput(final byte[] path, final ValueWrapper valueWrapper) {
+  UniNodeEncodingInput(final BitPath path, final ValueWrapper valueWrapper) {
     this(path, valueWrapper, NullUniNode.instance(), NullUniNode.instance());
   }
 
   UniNodeEncodingInput(
-      final byte[] path,
+      final BitPath path,
       final ValueWrapper valueWrapper,
       final UniNode leftChild,
       final UniNode rightChild) {
@@ -53,7 +53,7 @@ class UniNodeEncodingInput {
     this.rightChild = rightChild;
   }
 
-  public byte[] getPath() {
+  public BitPath getPath() {
     return path;
   }
 
@@ -23,14 +23,14 @@ package org.hyperledger.besu.ethereum.unitrie;
  */
 class UniNodeEncodingOutput {
 
-  private final byte[] path;
+  private final BitPath path;
   private final ValueWrapper valueWrapper;
   private final UniNode leftChild;
   private final UniNode rightChild;
   private final byte[] encoding;
 
   UniNodeEncodingOutput(
-      final byte[] path,
+      final BitPath path,
       final ValueWrapper valueWrapper,
       final UniNode leftChild,
       final UniNode rightChild,
@@ -43,7 +43,7 @@ class UniNodeEncodingOutput {
     this.encoding = encoding;
   }
 
-  public byte[] getPath() {
+  public BitPath getPath() {
     return path;
   }
 
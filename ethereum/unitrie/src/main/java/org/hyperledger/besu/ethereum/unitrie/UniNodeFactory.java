@@ -28,7 +28,7 @@ public interface UniNodeFactory {
    * @param valueWrapper value of node to create
    * @return new leaf node
    */
-  UniNode createLeaf(byte[] path, ValueWrapper valueWrapper);
+  UniNode createLeaf(BitPath path, ValueWrapper valueWrapper);
 
   /**
    * Create a branch {@link UniNode} with unknown children size.
@@ -40,5 +40,5 @@ public interface UniNodeFactory {
    * @return new branch node
    */
   UniNode createBranch(
-      byte[] path, ValueWrapper valueWrapper, UniNode leftChild, UniNode rightChild);
+      BitPath path, ValueWrapper valueWrapper, UniNode leftChild, UniNode rightChild);
 }
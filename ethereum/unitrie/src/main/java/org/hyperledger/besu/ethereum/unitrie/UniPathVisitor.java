@@ -14,8 +14,6 @@
  */
 package org.hyperledger.besu.ethereum.unitrie;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /**
  * Interface for path-aware Unitrie visitors.
  *
@@ -30,7 +28,7 @@ public interface UniPathVisitor {
    * @param path path leading to the visited node
    * @return node resulting from visit
    */
-  UniNode visit(NullUniNode node, Bytes path);
+  UniNode visit(NullUniNode node, BitPath path);
 
   /**
    * Visit an {@link AbstractUniNode}.
@@ -39,5 +37,5 @@ public interface UniPathVisitor {
    * @param path path leading to visited node
    * @return node resulting from visit
    */
-  UniNode visit(AbstractUniNode node, Bytes path);
+  UniNode visit(AbstractUniNode node, BitPath path);
 }
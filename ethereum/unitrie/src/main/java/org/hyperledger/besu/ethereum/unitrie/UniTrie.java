@@ -21,8 +21,11 @@ import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.NodeUpdater;
 import org.hyperledger.besu.ethereum.trie.Proof;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
@@ -41,6 +44,16 @@ public interface UniTrie<K, V> {
    */
   Optional<V> get(K key);
 
+  /**
+   * Get the values of all the given keys in a single walk from the root. Nodes on paths shared by
+   * several keys, such as the common prefix of keys mapped for one account, are visited once.
+   *
+   * @param keys keys whose values to get
+   * @return map from keys to their values, in the order of the given set, holding only keys with
+   *     a value
+   */
+  Map<K, V> getAll(SortedSet<K> keys);
+
   /**
    * Get the hash of the UniTrie node associated to the given key, or the null uninode hash if the
    * key is not present.
@@ -113,6 +126,19 @@ public interface UniTrie<K, V> {
    */
   boolean isLeaf(K key);
 
+  /**
+   * Lazily stream, in key order, the entries whose keys start with the given prefix, beginning at
+   * the first key not less than the given start key. Keys are ordered bitwise, and a key comes
+   * before every key it is a prefix of.
+   *
+   * @param prefix prefix all streamed keys start with
+   * @param startKey smallest key to stream, it must start with the given prefix
+   * @param maxKeyLength maximum length in bytes of streamed keys; subtrees holding only longer keys
+   *     are never loaded
+   * @return stream of (key, value) entries
+   */
+  Stream<Map.Entry<Bytes, V>> entriesFrom(Bytes prefix, Bytes startKey, int maxKeyLength);
+
   /**
    * Commits any pending changes to the underlying storage.
    *
@@ -121,6 +147,17 @@ public interface UniTrie<K, V> {
    */
   void commit(NodeUpdater nodeUpdater, NodeUpdater valueUpdater);
 
+  /**
+   * Commits any pending changes to the underlying storage, hashing and encoding independent dirty
+   * subtrees in parallel. The resulting root hash is the same as the one given by {@link
+   * #commit(NodeUpdater, NodeUpdater)}.
+   *
+   * @param nodeUpdater used to store the encoded nodes
+   * @param valueUpdater used to store the node values
+   * @param committer committer running the parallel hashing and encoding
+   */
+  void commit(NodeUpdater nodeUpdater, NodeUpdater valueUpdater, ParallelCommitter committer);
+
   /**
    * Visit all nodes in this unitrie.
    *
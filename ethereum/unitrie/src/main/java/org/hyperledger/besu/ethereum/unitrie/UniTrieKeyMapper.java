@@ -18,11 +18,11 @@ package org.hyperledger.besu.ethereum.unitrie;
 import org.hyperledger.besu.crypto.Hash;
 import org.hyperledger.besu.plugin.data.Address;
 
-import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.WeakHashMap;
 
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -30,52 +30,199 @@ import org.apache.tuweni.units.bigints.UInt256;
 /**
  * Produce Unitrie keys for accounts, code, and storage.
  *
+ * <p>Keccak digest prefixes of addresses and storage subkeys are kept in bounded concurrent caches,
+ * so a single mapper can be shared by every thread reading or writing world states. Besides the
+ * methods returning new keys, there are methods writing keys into caller supplied buffers, which
+ * allocate nothing once the digest prefixes involved are cached.
+ *
  * @author ppedemon
  */
 public class UniTrieKeyMapper {
 
+  /** Default maximum number of cached address, and of cached subkey, digest prefixes. */
+  public static final long DEFAULT_DIGEST_CACHE_SIZE = 64 * 1024;
+
   private static final int HASH_DIGEST_PREFIX_SIZE = 10;
 
   private static final byte DOMAIN_PREFIX = 0;
   private static final byte CODE_PREFIX = (byte) 0x80;
   private static final byte STORAGE_PREFIX = 0;
 
-  // Cache hash digest prefixes to avoid repeated calls to Keccak256 hashing routine
-  private final Map<Bytes, Bytes> digestPrefixCache = new WeakHashMap<>();
+  // Cache hash digest prefixes to avoid repeated calls to Keccak256 hashing routine. Subkeys map
+  // to their digest prefix followed by the subkey without leading zeros, the key suffix they give.
+  private final Cache<Bytes, byte[]> addressDigestPrefixCache;
+  private final Cache<UInt256, byte[]> subkeySuffixCache;
+
+  public UniTrieKeyMapper() {
+    this(DEFAULT_DIGEST_CACHE_SIZE);
+  }
+
+  public UniTrieKeyMapper(final long digestCacheSize) {
+    Preconditions.checkArgument(digestCacheSize >= 0, "Cache size can't be negative");
+    this.addressDigestPrefixCache = CacheBuilder.newBuilder().maximumSize(digestCacheSize).build();
+    this.subkeySuffixCache = CacheBuilder.newBuilder().maximumSize(digestCacheSize).build();
+  }
 
   public Bytes getAccountKey(final Address address) {
     byte[] addressBytes = address.toArrayUnsafe();
-    ByteBuffer buffer = ByteBuffer.allocate(accountKeySize(addressBytes));
-    encodeAccountKey(addressBytes, buffer);
-    return Bytes.wrap(buffer.array());
+    byte[] key = new byte[accountKeySize(addressBytes)];
+    encodeAccountKey(addressBytes, key, 0);
+    return Bytes.wrap(key);
   }
 
   public Bytes getAccountCodeKey(final Address address) {
     byte[] addressBytes = address.toArrayUnsafe();
-    ByteBuffer buffer = ByteBuffer.allocate(accountCodeKeySize(addressBytes));
-    encodeAccountCodeKey(addressBytes, buffer);
-    return Bytes.wrap(buffer.array());
+    byte[] key = new byte[accountCodeKeySize(addressBytes)];
+    encodeAccountCodeKey(addressBytes, key, 0);
+    return Bytes.wrap(key);
   }
 
   public Bytes getAccountStoragePrefixKey(final Address address) {
     byte[] addressBytes = address.toArrayUnsafe();
-    ByteBuffer buffer = ByteBuffer.allocate(accountStoragePrefixKeySize(addressBytes));
-    encodeAccountStoragePrefixKey(addressBytes, buffer);
-    return Bytes.wrap(buffer.array());
+    byte[] key = new byte[accountStoragePrefixKeySize(addressBytes)];
+    encodeAccountStoragePrefixKey(addressBytes, key, 0);
+    return Bytes.wrap(key);
   }
 
   public Bytes getAccountStorageKey(final Address address, final UInt256 subkey) {
     byte[] addressBytes = address.toArrayUnsafe();
-    byte[] subkeyBytes = subkey.toBytes().toArrayUnsafe(); // toMinimalBytes().toArrayUnsafe();
-    byte[] strippedSubkeyBytes = stripLeadingZeros(subkeyBytes);
-    ByteBuffer buffer =
-        ByteBuffer.allocate(accountStorageKeySize(addressBytes, strippedSubkeyBytes));
-    encodeAccountStorageKey(addressBytes, subkeyBytes, strippedSubkeyBytes, buffer);
-    return Bytes.wrap(buffer.array());
+    byte[] suffix = subkeySuffix(subkey);
+    byte[] key = new byte[accountStoragePrefixKeySize(addressBytes) + suffix.length];
+    encodeAccountStorageKey(addressBytes, suffix, key, 0);
+    return Bytes.wrap(key);
+  }
+
+  /**
+   * Write the account key for the given address into the given buffer.
+   *
+   * @param address account address
+   * @param buffer buffer where to write the key
+   * @param offset buffer offset where the key starts
+   * @return key size in bytes
+   */
+  public int writeAccountKey(final Address address, final byte[] buffer, final int offset) {
+    return encodeAccountKey(address.toArrayUnsafe(), buffer, offset) - offset;
+  }
+
+  /**
+   * Write the account code key for the given address into the given buffer.
+   *
+   * @param address account address
+   * @param buffer buffer where to write the key
+   * @param offset buffer offset where the key starts
+   * @return key size in bytes
+   */
+  public int writeAccountCodeKey(final Address address, final byte[] buffer, final int offset) {
+    return encodeAccountCodeKey(address.toArrayUnsafe(), buffer, offset) - offset;
+  }
+
+  /**
+   * Write the prefix shared by the storage keys of the given account into the given buffer.
+   *
+   * @param address account address
+   * @param buffer buffer where to write the key
+   * @param offset buffer offset where the key starts
+   * @return key size in bytes
+   */
+  public int writeAccountStoragePrefixKey(
+      final Address address, final byte[] buffer, final int offset) {
+    return encodeAccountStoragePrefixKey(address.toArrayUnsafe(), buffer, offset) - offset;
+  }
+
+  /**
+   * Write the account storage key for the given address and subkey into the given buffer. The
+   * buffer must have room for {@link #getMaxAccountStorageKeySize(int)} bytes from the offset.
+   *
+   * @param address account address
+   * @param subkey storage subkey
+   * @param buffer buffer where to write the key
+   * @param offset buffer offset where the key starts
+   * @return key size in bytes
+   */
+  public int writeAccountStorageKey(
+      final Address address, final UInt256 subkey, final byte[] buffer, final int offset) {
+    return encodeAccountStorageKey(address.toArrayUnsafe(), subkeySuffix(subkey), buffer, offset)
+        - offset;
+  }
+
+  /**
+   * Get the size of the largest account storage key for addresses of the given size.
+   *
+   * @param addressSize address size in bytes
+   * @return maximum account storage key size in bytes
+   */
+  public int getMaxAccountStorageKeySize(final int addressSize) {
+    return getAccountKeySize(addressSize) + 1 + HASH_DIGEST_PREFIX_SIZE + UInt256.SIZE;
+  }
+
+  /**
+   * Get the prefix shared by the keys of every account.
+   *
+   * @return account key prefix
+   */
+  public Bytes getAccountKeyPrefix() {
+    return Bytes.of(DOMAIN_PREFIX);
+  }
+
+  /**
+   * Get the smallest account key an account with the given address hash can have. Account keys are
+   * ordered by address hash prefix, so this is where iteration from an address hash must start.
+   *
+   * @param addressHash account address hash
+   * @return smallest account key for the given address hash
+   */
+  public Bytes getAccountKeyFrom(final Bytes32 addressHash) {
+    return Bytes.concatenate(getAccountKeyPrefix(), addressHash.slice(0, HASH_DIGEST_PREFIX_SIZE));
+  }
+
+  /**
+   * Get the size of account keys for addresses of the given size.
+   *
+   * @param addressSize address size in bytes
+   * @return account key size in bytes
+   */
+  public int getAccountKeySize(final int addressSize) {
+    return 1 + HASH_DIGEST_PREFIX_SIZE + addressSize;
+  }
+
+  /**
+   * Get the address an account key was built from.
+   *
+   * @param accountKey account key
+   * @return address bytes
+   */
+  public Bytes getAddressFromAccountKey(final Bytes accountKey) {
+    return accountKey.slice(1 + HASH_DIGEST_PREFIX_SIZE);
+  }
+
+  /**
+   * Get the smallest storage key an entry of the given account with the given subkey hash can
+   * have. Storage keys are ordered by subkey hash prefix, so this is where iteration from a subkey
+   * hash must start.
+   *
+   * @param address account address
+   * @param subkeyHash storage subkey hash
+   * @return smallest storage key for the given subkey hash
+   */
+  public Bytes getAccountStorageKeyFrom(final Address address, final Bytes32 subkeyHash) {
+    return Bytes.concatenate(
+        getAccountStoragePrefixKey(address), subkeyHash.slice(0, HASH_DIGEST_PREFIX_SIZE));
+  }
+
+  /**
+   * Get the storage subkey an account storage key was built from.
+   *
+   * @param address account address
+   * @param storageKey account storage key
+   * @return storage subkey
+   */
+  public UInt256 getSubkeyFromAccountStorageKey(final Address address, final Bytes storageKey) {
+    int offset = accountStoragePrefixKeySize(address.toArrayUnsafe()) + HASH_DIGEST_PREFIX_SIZE;
+    return UInt256.fromBytes(storageKey.slice(offset));
   }
 
   private int accountKeySize(final byte[] addressBytes) {
-    return 1 + HASH_DIGEST_PREFIX_SIZE + addressBytes.length;
+    return getAccountKeySize(addressBytes.length);
   }
 
   private int accountCodeKeySize(final byte[] addressBytes) {
@@ -86,47 +233,63 @@ public class UniTrieKeyMapper {
     return accountKeySize(addressBytes) + 1;
   }
 
-  private int accountStorageKeySize(final byte[] addressBytes, final byte[] strippedSubkeyBytes) {
-    return accountStoragePrefixKeySize(addressBytes)
-        + HASH_DIGEST_PREFIX_SIZE
-        + strippedSubkeyBytes.length;
+  private int encodeAccountKey(final byte[] addressBytes, final byte[] buffer, final int offset) {
+    int pos = offset;
+    buffer[pos++] = DOMAIN_PREFIX;
+    System.arraycopy(addressDigestPrefix(addressBytes), 0, buffer, pos, HASH_DIGEST_PREFIX_SIZE);
+    pos += HASH_DIGEST_PREFIX_SIZE;
+    System.arraycopy(addressBytes, 0, buffer, pos, addressBytes.length);
+    return pos + addressBytes.length;
   }
 
-  private void encodeAccountKey(final byte[] addressBytes, final ByteBuffer buffer) {
-    buffer.put(DOMAIN_PREFIX);
-    buffer.put(hashDigestPrefix(addressBytes).toArrayUnsafe());
-    buffer.put(addressBytes);
+  private int encodeAccountCodeKey(
+      final byte[] addressBytes, final byte[] buffer, final int offset) {
+    int pos = encodeAccountKey(addressBytes, buffer, offset);
+    buffer[pos++] = CODE_PREFIX;
+    return pos;
   }
 
-  private void encodeAccountCodeKey(final byte[] addressBytes, final ByteBuffer buffer) {
-    encodeAccountKey(addressBytes, buffer);
-    buffer.put(CODE_PREFIX);
+  private int encodeAccountStoragePrefixKey(
+      final byte[] addressBytes, final byte[] buffer, final int offset) {
+    int pos = encodeAccountKey(addressBytes, buffer, offset);
+    buffer[pos++] = STORAGE_PREFIX;
+    return pos;
   }
 
-  private void encodeAccountStoragePrefixKey(final byte[] addressBytes, final ByteBuffer buffer) {
-    encodeAccountKey(addressBytes, buffer);
-    buffer.put(STORAGE_PREFIX);
+  private int encodeAccountStorageKey(
+      final byte[] addressBytes, final byte[] subkeySuffix, final byte[] buffer, final int offset) {
+    int pos = encodeAccountStoragePrefixKey(addressBytes, buffer, offset);
+    System.arraycopy(subkeySuffix, 0, buffer, pos, subkeySuffix.length);
+    return pos + subkeySuffix.length;
   }
 
-  private void encodeAccountStorageKey(
-      final byte[] addressBytes,
-      final byte[] subkeyBytes,
-      final byte[] strippedSubkeyBytes,
-      final ByteBuffer buffer) {
+  private byte[] addressDigestPrefix(final byte[] addressBytes) {
+    Bytes address = Bytes.wrap(addressBytes);
+    byte[] prefix = addressDigestPrefixCache.getIfPresent(address);
+    if (prefix == null) {
+      prefix = hashDigestPrefix(address);
+      addressDigestPrefixCache.put(address, prefix);
+    }
+    return prefix;
+  }
 
-    encodeAccountStoragePrefixKey(addressBytes, buffer);
-    buffer.put(hashDigestPrefix(subkeyBytes).toArrayUnsafe());
-    buffer.put(strippedSubkeyBytes);
+  private byte[] subkeySuffix(final UInt256 subkey) {
+    byte[] suffix = subkeySuffixCache.getIfPresent(subkey);
+    if (suffix == null) {
+      byte[] subkeyBytes = subkey.toBytes().toArrayUnsafe();
+      byte[] strippedSubkeyBytes = stripLeadingZeros(subkeyBytes);
+      suffix = new byte[HASH_DIGEST_PREFIX_SIZE + strippedSubkeyBytes.length];
+      System.arraycopy(
+          hashDigestPrefix(Bytes.wrap(subkeyBytes)), 0, suffix, 0, HASH_DIGEST_PREFIX_SIZE);
+      System.arraycopy(
+          strippedSubkeyBytes, 0, suffix, HASH_DIGEST_PREFIX_SIZE, strippedSubkeyBytes.length);
+      subkeySuffixCache.put(subkey, suffix);
+    }
+    return suffix;
   }
 
-  private Bytes hashDigestPrefix(final byte[] value) {
-    Bytes v = Bytes.wrap(value);
-    return digestPrefixCache.computeIfAbsent(
-        v,
-        __ -> {
-          Bytes32 hash = Hash.keccak256(v);
-          return hash.slice(0, HASH_DIGEST_PREFIX_SIZE);
-        });
+  private static byte[] hashDigestPrefix(final Bytes value) {
+    return Hash.keccak256(value).slice(0, HASH_DIGEST_PREFIX_SIZE).toArray();
   }
 
   private byte[] stripLeadingZeros(final byte[] bytes) {
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import com.google.common.collect.Streams;
@@ -108,6 +109,41 @@ public class UniTrieNodeDecoder {
     return nodes;
   }
 
+  /**
+   * Report the hashes the given encoded UniNode refers to: children referenced by hash, and long
+   * values stored apart from their nodes. Inlined descendants are looked into, but referenced
+   * children are not loaded.
+   *
+   * @param value bytes of the UniNode to be decoded
+   * @param childConsumer consumer for the hashes of children referenced by hash
+   * @param longValueConsumer consumer for the hashes of long values
+   */
+  public void decodeReferences(
+      final Bytes value,
+      final Consumer<Bytes32> childConsumer,
+      final Consumer<Bytes32> longValueConsumer) {
+    final UniNode node = decode(value);
+
+    final Deque<UniNode> toProcess = new ArrayDeque<>();
+    toProcess.addLast(node);
+
+    while (!toProcess.isEmpty()) {
+      final UniNode currentNode = toProcess.removeFirst();
+      if (Objects.equals(currentNode, NullUniNode.instance())) {
+        continue;
+      }
+      if (currentNode != node && currentNode.isReferencedByHash()) {
+        childConsumer.accept(Bytes32.wrap(currentNode.getHash()));
+        continue;
+      }
+      if (currentNode.getValueWrapper().isLong()) {
+        currentNode.getValueHash().map(Bytes32::wrap).ifPresent(longValueConsumer);
+      }
+      toProcess.addLast(currentNode.getLeftChild());
+      toProcess.addLast(currentNode.getRightChild());
+    }
+  }
+
   private static class BreadthFirstIterator implements Iterator<UniNode> {
 
     private final int maxDepth;
@@ -20,7 +20,6 @@ import org.hyperledger.besu.ethereum.unitrie.ints.UInt24;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Optional;
 
 import com.google.common.base.Preconditions;
@@ -49,8 +48,10 @@ public final class ValueWrapper {
   /** Maximum length in bytes of short (inlined) value. */
   private static final int MAX_SHORT_LEN = 64;
 
-  private byte[] value;
-  private final byte[] hash;
+  // Memoized lazily, and read by concurrent trie readers: volatile so the arrays are published
+  // along with their contents
+  private volatile byte[] value;
+  private volatile byte[] hash;
   private final int length;
 
   private ValueWrapper(final byte[] value, final byte[] hash, final int length) {
@@ -69,15 +70,15 @@ public final class ValueWrapper {
   }
 
   /**
-   * Construct a value wrapper from the given value.
+   * Construct a value wrapper from the given value. The value hash is computed lazily, the first
+   * time it's required.
    *
    * @param value value to wrap
    * @return instance wrapping the given value
    */
   public static ValueWrapper fromValue(final byte[] value) {
     Preconditions.checkNotNull(value, "Value can't be null");
-    Bytes32 hash = Hash.keccak256(Bytes.of(value));
-    return new ValueWrapper(value, hash.toArrayUnsafe(), value.length);
+    return new ValueWrapper(value, null, value.length);
   }
 
   /**
@@ -132,8 +133,9 @@ public final class ValueWrapper {
       return Optional.empty();
     }
 
-    if (value != null) {
-      return Optional.of(value);
+    final byte[] memoized = value;
+    if (memoized != null) {
+      return Optional.of(memoized);
     }
 
     Bytes32 h = Bytes32.wrap(hash);
@@ -146,17 +148,28 @@ public final class ValueWrapper {
       throw new IllegalStateException("Solved value length differs from wrapped length");
     }
 
-    value = v.toArrayUnsafe();
-    return Optional.of(value);
+    final byte[] solved = v.toArrayUnsafe();
+    value = solved;
+    return Optional.of(solved);
   }
 
   /**
-   * Get optional hash for wrapped value.
+   * Get optional hash for wrapped value, computing and memoizing it if necessary.
    *
    * @return optional with hash if wrapper isn't empty, empty optional otherwise
    */
   Optional<byte[]> getHash() {
-    return Optional.ofNullable(hash);
+    return isEmpty() ? Optional.empty() : Optional.of(hash());
+  }
+
+  private byte[] hash() {
+    byte[] h = hash;
+    if (h == null) {
+      // Racing threads compute the same hash, so the last write winning is fine
+      h = Hash.keccak256(Bytes.wrap(value)).toArrayUnsafe();
+      hash = h;
+    }
+    return h;
   }
 
   /**
@@ -174,7 +187,7 @@ public final class ValueWrapper {
    * @return whether this wrapper is empty
    */
   boolean isEmpty() {
-    return Objects.isNull(hash);
+    return length == -1;
   }
 
   /**
@@ -188,8 +201,10 @@ public final class ValueWrapper {
     if (isEmpty() || value.length != length) {
       return false;
     }
-    return (this.value != null && Arrays.equals(value, this.value))
-        || Hash.keccak256(Bytes.of(value)).equals(Bytes32.wrap(hash));
+    if (this.value != null) {
+      return Arrays.equals(value, this.value);
+    }
+    return Hash.keccak256(Bytes.of(value)).equals(Bytes32.wrap(hash));
   }
 
   /**
@@ -207,7 +222,7 @@ public final class ValueWrapper {
       return "[empty]";
     }
 
-    return String.format("(%s, hash=%s, len=%d)", Bytes.wrap(value), Bytes32.wrap(hash), length);
+    return String.format("(%s, hash=%s, len=%d)", Bytes.wrap(value), Bytes32.wrap(hash()), length);
   }
 
   /**
@@ -221,7 +236,7 @@ public final class ValueWrapper {
     }
 
     if (isLong()) {
-      buffer.put(hash);
+      buffer.put(hash());
       buffer.put(UInt24.fromInt(length).toByteArray());
     } else {
       buffer.put(value);
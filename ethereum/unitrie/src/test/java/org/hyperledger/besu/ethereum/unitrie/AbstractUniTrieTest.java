@@ -24,8 +24,16 @@ import org.hyperledger.besu.ethereum.trie.Proof;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import com.google.common.base.Strings;
 import org.apache.tuweni.bytes.Bytes;
@@ -411,4 +419,58 @@ public abstract class AbstractUniTrieTest {
 
     assertThat(trie.getValueLength(key2)).contains(1021);
   }
+
+  @Test
+  public void entriesFromStreamsPrefixedKeysInOrder() {
+    final Comparator<Bytes> keyOrder =
+        (a, b) -> Arrays.compareUnsigned(a.toArrayUnsafe(), b.toArrayUnsafe());
+    final TreeMap<Bytes, String> entries = new TreeMap<>(keyOrder);
+    final Random random = new Random(1);
+    for (int i = 0; i < 500; i++) {
+      final byte[] key = new byte[1 + random.nextInt(4)];
+      random.nextBytes(key);
+      key[0] &= 0x03;
+      entries.put(Bytes.wrap(key), "value" + i);
+      trie.put(Bytes.wrap(key), "value" + i);
+    }
+
+    final Bytes prefix = Bytes.of(2);
+    final Bytes startKey = Bytes.of(2, 0x41);
+    final List<Map.Entry<Bytes, String>> expected =
+        entries.tailMap(startKey, true).entrySet().stream()
+            .filter(e -> e.getKey().get(0) == 2 && e.getKey().size() <= 3)
+            .collect(Collectors.toList());
+
+    assertThat(trie.entriesFrom(prefix, startKey, 3).collect(Collectors.toList()))
+        .isNotEmpty()
+        .containsExactlyElementsOf(expected);
+    assertThat(trie.entriesFrom(prefix, startKey, 3).limit(5).collect(Collectors.toList()))
+        .containsExactlyElementsOf(expected.subList(0, 5));
+  }
+
+  @Test
+  public void getAllReturnsSameValuesAsGet() {
+    final Random random = new Random(1);
+    final SortedSet<Bytes> keys = new TreeSet<>();
+    for (int i = 0; i < 200; i++) {
+      final byte[] key = new byte[1 + random.nextInt(4)];
+      random.nextBytes(key);
+      key[0] &= 0x03;
+      keys.add(Bytes.wrap(key));
+      if (i % 3 != 0) {
+        trie.put(Bytes.wrap(key), "value" + i);
+      }
+    }
+    keys.add(Bytes.EMPTY);
+
+    final Map<Bytes, String> values = trie.getAll(keys);
+
+    assertThat(values).isNotEmpty();
+    for (final Bytes key : keys) {
+      assertThat(Optional.ofNullable(values.get(key))).isEqualTo(trie.get(key));
+    }
+    assertThat(values.keySet())
+        .containsExactlyElementsOf(
+            keys.stream().filter(values::containsKey).collect(Collectors.toList()));
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.unitrie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.Test;
+
+public class BitPathTest {
+
+  @Test
+  public void fromKey_matchesDecodedPath() {
+    Bytes key = Bytes.fromHexString("0xa1c3ff00");
+    BitPath path = BitPath.fromKey(key);
+
+    assertThat(path.length()).isEqualTo(32);
+    assertThat(path.toBits()).isEqualTo(PathEncoding.decodePath(key, 32));
+  }
+
+  @Test
+  public void slice_isRelativeToOffset() {
+    Bytes bits = Bytes.of(0, 1, 1, 0, 1, 1, 0, 1, 0, 1, 0, 1);
+    BitPath path = BitPath.fromBits(bits);
+
+    assertThat(path.slice(3).toBits()).isEqualTo(bits.slice(3));
+    assertThat(path.slice(3).slice(2, 5).toBits()).isEqualTo(bits.slice(5, 5));
+    assertThat(path.slice(12).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void encode_packsFromFirstBitWithZeroPadding() {
+    BitPath path = BitPath.fromKey(Bytes.fromHexString("0xffff")).slice(3, 9);
+
+    assertThat(Bytes.wrap(path.encode())).isEqualTo(Bytes.fromHexString("0xff80"));
+
+    ByteBuffer buffer = ByteBuffer.allocate(2);
+    path.encodeTo(buffer);
+    assertThat(Bytes.wrap(buffer.array())).isEqualTo(Bytes.fromHexString("0xff80"));
+  }
+
+  @Test
+  public void commonPrefixLength_acrossUnalignedOffsets() {
+    Random random = new Random(1);
+    for (int i = 0; i < 200; i++) {
+      byte[] bits = new byte[random.nextInt(100) + 1];
+      for (int j = 0; j < bits.length; j++) {
+        bits[j] = (byte) random.nextInt(2);
+      }
+      byte[] other = bits.clone();
+      int flip = random.nextInt(bits.length + 1);
+      if (flip < other.length) {
+        other[flip] ^= 1;
+      }
+
+      int shift = random.nextInt(8);
+      BitPath shifted =
+          BitPath.fromBits(Bytes.concatenate(Bytes.wrap(new byte[shift]), Bytes.wrap(other)));
+
+      assertThat(BitPath.fromBits(bits).commonPrefixLength(shifted.slice(shift)))
+          .isEqualTo(flip);
+    }
+  }
+
+  @Test
+  public void concat_insertsBitBetweenPaths() {
+    BitPath prefix = BitPath.fromBits(Bytes.of(1, 0, 1));
+    BitPath suffix = BitPath.fromBits(Bytes.of(0, 0, 1, 1, 1, 1, 1, 1, 0));
+
+    assertThat(prefix.concat((byte) 1, suffix).toBits())
+        .isEqualTo(Bytes.of(1, 0, 1, 1, 0, 0, 1, 1, 1, 1, 1, 1, 0));
+    assertThat(BitPath.EMPTY.concat((byte) 0, BitPath.EMPTY).toBits()).isEqualTo(Bytes.of(0));
+  }
+
+  @Test
+  public void equality_ignoresBackingLayout() {
+    BitPath a = BitPath.fromKey(Bytes.fromHexString("0x0f0f")).slice(4, 8);
+    BitPath b = BitPath.fromKey(Bytes.fromHexString("0xf0")).slice(0, 8);
+
+    assertThat(a).isEqualTo(b);
+    assertThat(a.hashCode()).isEqualTo(b.hashCode());
+    assertThat(a).isNotEqualTo(b.slice(0, 7));
+  }
+}
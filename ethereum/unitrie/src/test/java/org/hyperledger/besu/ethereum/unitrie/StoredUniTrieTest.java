@@ -20,20 +20,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.hyperledger.besu.crypto.Hash;
 import org.hyperledger.besu.ethereum.trie.KeyValueMerkleStorage;
 import org.hyperledger.besu.ethereum.trie.MerkleStorage;
-import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
+import com.google.common.base.Strings;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.junit.Test;
 
 public class StoredUniTrieTest extends AbstractUniTrieTest {
 
-  private KeyValueStorage keyValueStore;
+  private InMemoryKeyValueStorage keyValueStore;
   private MerkleStorage merkleStorage;
   private Function<String, Bytes> valueSerializer;
   private Function<Bytes, String> valueDeserializer;
@@ -179,4 +182,77 @@ public class StoredUniTrieTest extends AbstractUniTrieTest {
       return hash.toUnprefixedHexString();
     }
   }
+
+  @Test
+  public void shouldShareCachedNodesAcrossTries() {
+    trie.put(Bytes.fromHexString("0x0400"), "a");
+    trie.put(Bytes.fromHexString("0x0800"), "b");
+    trie.commit(merkleStorage::put, merkleStorage::put);
+
+    final Bytes32 rootHash = trie.getRootHash();
+    final UniNodeCache cache = new UniNodeCache(1024 * 1024);
+    final StoredUniTrie<Bytes, String> first =
+        new StoredUniTrie<>(
+            merkleStorage::get, rootHash, valueSerializer, valueDeserializer, Optional.of(cache));
+    assertThat(first.get(Bytes.fromHexString("0x0800"))).contains("b");
+    final long misses = cache.missCount();
+    assertThat(misses).isPositive();
+
+    keyValueStore.clear();
+    final StoredUniTrie<Bytes, String> second =
+        new StoredUniTrie<>(
+            merkleStorage::get, rootHash, valueSerializer, valueDeserializer, Optional.of(cache));
+    assertThat(second.get(Bytes.fromHexString("0x0800"))).contains("b");
+    assertThat(cache.missCount()).isEqualTo(misses);
+    assertThat(cache.hitCount()).isPositive();
+  }
+
+  @Test
+  public void shouldEvictCachedNodesOverSizeBound() {
+    for (int i = 0; i < 100; i++) {
+      trie.put(Bytes.of(i, i), "value" + i);
+    }
+    trie.commit(merkleStorage::put, merkleStorage::put);
+
+    final UniNodeCache cache = new UniNodeCache(64);
+    final StoredUniTrie<Bytes, String> cachedTrie =
+        new StoredUniTrie<>(
+            merkleStorage::get,
+            trie.getRootHash(),
+            valueSerializer,
+            valueDeserializer,
+            Optional.of(cache));
+    for (int i = 0; i < 100; i++) {
+      assertThat(cachedTrie.get(Bytes.of(i, i))).contains("value" + i);
+    }
+    assertThat(cache.evictionCount()).isPositive();
+  }
+
+  @Test
+  public void parallelCommitStoresSameNodesAsSequentialCommit() {
+    final InMemoryKeyValueStorage parallelStore = new InMemoryKeyValueStorage();
+    final MerkleStorage parallelStorage = new KeyValueMerkleStorage(parallelStore);
+    final StoredUniTrie<Bytes, String> parallelTrie =
+        new StoredUniTrie<>(parallelStorage::get, valueSerializer, valueDeserializer);
+
+    final Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      final byte[] key = new byte[20];
+      random.nextBytes(key);
+      final String value = i % 3 == 0 ? Strings.repeat("long value " + i, 4) : "v" + i;
+      trie.put(Bytes.wrap(key), value);
+      parallelTrie.put(Bytes.wrap(key), value);
+    }
+
+    trie.commit(merkleStorage::put, merkleStorage::put);
+    parallelTrie.commit(
+        parallelStorage::put,
+        parallelStorage::put,
+        new ParallelCommitter(ForkJoinPool.commonPool(), 0));
+    merkleStorage.commit();
+    parallelStorage.commit();
+
+    assertThat(parallelTrie.getRootHash()).isEqualTo(trie.getRootHash());
+    assertThat(parallelStore.keySet()).isEqualTo(keyValueStore.keySet());
+  }
 }
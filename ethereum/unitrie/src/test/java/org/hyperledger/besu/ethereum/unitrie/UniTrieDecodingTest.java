@@ -31,7 +31,7 @@ public class UniTrieDecodingTest {
 
   @Test
   public void emptyPath_loadsCorrectly() {
-    UniNode trie = nodeFactory.createLeaf(bytes(), ValueWrapper.fromValue(bytes(1, 2, 3)));
+    UniNode trie = nodeFactory.createLeaf(BitPath.EMPTY, ValueWrapper.fromValue(bytes(1, 2, 3)));
     byte[] enc = trie.getEncoding();
     UniNode decoded = nodeFactory.decode(enc);
     assertThat(trie.getHash()).isEqualTo(decoded.getHash());
@@ -41,7 +41,7 @@ public class UniTrieDecodingTest {
   public void leaf_loadsCorrectly() {
     byte[] path = bytes(1, 0, 1, 0, 1, 1, 1, 1, 0, 1, 0);
     byte[] value = bytes(1, 2, 3);
-    UniNode trie = nodeFactory.createLeaf(path, ValueWrapper.fromValue(value));
+    UniNode trie = nodeFactory.createLeaf(BitPath.fromBits(path), ValueWrapper.fromValue(value));
     byte[] enc = trie.getEncoding();
     UniNode decoded = nodeFactory.decode(enc);
     assertThat(trie.getHash()).isEqualTo(decoded.getHash());
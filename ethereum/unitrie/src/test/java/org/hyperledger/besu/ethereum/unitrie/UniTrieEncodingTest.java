@@ -35,7 +35,7 @@ public class UniTrieEncodingTest {
   @Test
   public void emptyPath_encodesCorrectly() {
     byte[] value = bytes(1, 2, 3);
-    UniNode trie = nodeFactory.createLeaf(bytes(), ValueWrapper.fromValue(value));
+    UniNode trie = nodeFactory.createLeaf(BitPath.EMPTY, ValueWrapper.fromValue(value));
     assertThat(Bytes.of(trie.getEncoding()))
         .isEqualTo(Bytes.concatenate(Bytes.of(0x40).mutableCopy(), Bytes.of(value)));
   }
@@ -44,7 +44,7 @@ public class UniTrieEncodingTest {
   public void leaf_encodesCorrectly() {
     byte[] path = bytes(1, 0, 1, 0, 1, 1, 1, 1, 0, 1, 0);
     byte[] value = bytes(1, 2, 3);
-    UniNode trie = nodeFactory.createLeaf(path, ValueWrapper.fromValue(value));
+    UniNode trie = nodeFactory.createLeaf(BitPath.fromBits(path), ValueWrapper.fromValue(value));
     assertThat(Bytes.of(trie.getEncoding()))
         .isEqualTo(Bytes.concatenate(Bytes.of(0x50, 0x0a, 0xaf, 0x40), Bytes.of(value)));
   }
@@ -132,4 +132,37 @@ public class UniTrieKeyMapperTest {
         .isEqualTo(Hash.keccak256(subkey.toBytes()).slice(0, 10).toHexString());
     assertThat(key.slice(42)).isEqualTo(subkey.toBytes());
   }
+
+  @Test
+  public void testWriteKeys_matchReturnedKeys() {
+    UInt256 subkey = UInt256.valueOf(1234);
+    when(address.toArrayUnsafe()).thenReturn(mockAddress.toArrayUnsafe());
+
+    byte[] buffer = new byte[mapper.getMaxAccountStorageKeySize(mockAddress.size()) + 3];
+    int size = mapper.writeAccountKey(address, buffer, 3);
+    assertThat(Bytes.wrap(buffer, 3, size)).isEqualTo(mapper.getAccountKey(address));
+
+    size = mapper.writeAccountCodeKey(address, buffer, 3);
+    assertThat(Bytes.wrap(buffer, 3, size)).isEqualTo(mapper.getAccountCodeKey(address));
+
+    size = mapper.writeAccountStoragePrefixKey(address, buffer, 3);
+    assertThat(Bytes.wrap(buffer, 3, size)).isEqualTo(mapper.getAccountStoragePrefixKey(address));
+
+    size = mapper.writeAccountStorageKey(address, subkey, buffer, 3);
+    assertThat(Bytes.wrap(buffer, 3, size)).isEqualTo(mapper.getAccountStorageKey(address, subkey));
+
+    size = mapper.writeAccountStorageKey(address, UInt256.MAX_VALUE, buffer, 3);
+    assertThat(size).isEqualTo(mapper.getMaxAccountStorageKeySize(mockAddress.size()));
+  }
+
+  @Test
+  public void testKeys_withoutDigestCache() {
+    UInt256 subkey = UInt256.valueOf(1234);
+    when(address.toArrayUnsafe()).thenReturn(mockAddress.toArrayUnsafe());
+
+    UniTrieKeyMapper uncachedMapper = new UniTrieKeyMapper(0);
+    assertThat(uncachedMapper.getAccountKey(address)).isEqualTo(mapper.getAccountKey(address));
+    assertThat(uncachedMapper.getAccountStorageKey(address, subkey))
+        .isEqualTo(mapper.getAccountStorageKey(address, subkey));
+  }
 }
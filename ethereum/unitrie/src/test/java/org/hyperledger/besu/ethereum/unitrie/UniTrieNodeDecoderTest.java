@@ -208,7 +208,7 @@ public class UniTrieNodeDecoderTest {
             .collect(Collectors.toList());
     assertThat(result.size()).isEqualTo(1);
     assertThat(result.get(0).getValue(storage::get)).contains(bytes(1));
-    Bytes actualPath = PathEncoding.encodePath(Bytes.of(result.get(0).getPath()));
+    Bytes actualPath = Bytes.wrap(result.get(0).getPath().encode());
     assertThat(actualPath).isEqualTo(Bytes.fromHexString("0x100000"));
   }
 
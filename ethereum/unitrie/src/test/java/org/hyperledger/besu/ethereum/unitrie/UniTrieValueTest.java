@@ -82,14 +82,26 @@ public class UniTrieValueTest {
             .accept(new PutVisitor(value, nodeFactory), key)
             .accept(new GetVisitor(), key);
 
-    ((AbstractUniNode) trie).clearWeakReferences();
-
     assertThat(trie.getValueWrapper().isLong()).isTrue();
     assertThat(trie.getValueHash()).hasValue(Hash.keccak256(Bytes.of(value)).toArrayUnsafe());
     assertThat(trie.getValueLength()).hasValue(value.length);
     assertThat(trie.getValue(loader)).hasValue(value);
   }
 
+  @Test
+  public void decodedShortValueIsHashedOnDemand() {
+    byte[] value = makeValue(32);
+    UniNode leaf =
+        nodeFactory.createLeaf(BitPath.fromBits(Bytes.of(1, 0)), ValueWrapper.fromValue(value));
+
+    UniNode decoded = new StoredUniNodeFactory(loader).decode(leaf.getEncoding());
+
+    assertThat(decoded.getValue(loader)).hasValue(value);
+    assertThat(decoded.getValueWrapper().wrappedValueIs(value)).isTrue();
+    assertThat(decoded.getValueHash()).hasValue(Hash.keccak256(Bytes.of(value)).toArrayUnsafe());
+    assertThat(decoded.getHash()).isEqualTo(leaf.getHash());
+  }
+
   private static byte[] makeValue(final int length) {
     byte[] value = new byte[length];
 
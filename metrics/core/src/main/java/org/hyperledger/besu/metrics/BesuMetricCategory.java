@@ -36,7 +36,8 @@ public enum BesuMetricCategory implements MetricCategory {
   PRUNER("pruner"),
   RPC("rpc"),
   SYNCHRONIZER("synchronizer"),
-  TRANSACTION_POOL("transaction_pool");
+  TRANSACTION_POOL("transaction_pool"),
+  UNITRIE("unitrie");
 
   private static final Optional<String> BESU_PREFIX = Optional.of("besu_");
   public static final Set<MetricCategory> DEFAULT_METRIC_CATEGORIES;
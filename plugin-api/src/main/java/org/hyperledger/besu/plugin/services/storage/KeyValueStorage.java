@@ -18,9 +18,14 @@ import org.hyperledger.besu.plugin.Unstable;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Responsible for storing values against keys.
@@ -28,7 +33,8 @@ import java.util.function.Predicate;
  * <p>Behaviour expected with regard to key to value mapping is that of a map, one key maps to one
  * value, when a new value is added with an existing key, that key now points at the new value.
  *
- * <p>All keys and values must be non-null.
+ * <p>All keys and values must be non-null. Where keys are ordered, they are compared as unsigned
+ * lexicographic byte sequences.
  */
 @Unstable
 public interface KeyValueStorage extends Closeable {
@@ -60,6 +66,77 @@ public interface KeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(byte[] key) throws StorageException;
 
+  /**
+   * Retrieves the values associated with several keys at once.
+   *
+   * @param keys whose associated values are being retrieved.
+   * @return a list holding, at the position of each key, an {@link Optional} containing the value
+   *     associated with it, otherwise empty.
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(key));
+    }
+    return values;
+  }
+
+  /**
+   * Streams the entries whose keys are greater than or equal to the given key, in key order.
+   *
+   * <p>The stream may hold resources of the underlying storage until closed, so it should be used
+   * within a try-with-resources block.
+   *
+   * @param startKey the key to start streaming from, whether or not present in the storage.
+   * @return a stream of the entries from the given key onwards.
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+      throws StorageException {
+    return getAllKeysThat(key -> Arrays.compareUnsigned(key, startKey) >= 0).stream()
+        .sorted(Arrays::compareUnsigned)
+        .flatMap(key -> get(key).map(value -> Map.entry(key, value)).stream());
+  }
+
+  /**
+   * Streams the entries whose keys are within the given range, in key order. Only the entries in
+   * range are read from the storage.
+   *
+   * <p>The stream may hold resources of the underlying storage until closed, so it should be used
+   * within a try-with-resources block.
+   *
+   * @param startKey the lower bound of the range, inclusive.
+   * @param endKey the upper bound of the range, exclusive.
+   * @return a stream of the entries in the given range.
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default Stream<Map.Entry<byte[], byte[]>> streamFromKey(
+      final byte[] startKey, final byte[] endKey) throws StorageException {
+    return streamFromKey(startKey)
+        .takeWhile(entry -> Arrays.compareUnsigned(entry.getKey(), endKey) < 0);
+  }
+
+  /**
+   * Streams the entries whose keys begin with the given prefix, in key order. Only the entries
+   * with the prefix are read from the storage.
+   *
+   * <p>The stream may hold resources of the underlying storage until closed, so it should be used
+   * within a try-with-resources block.
+   *
+   * @param prefix the prefix of the keys to stream.
+   * @return a stream of the entries whose keys have the given prefix.
+   * @throws StorageException problem encountered during the retrieval attempt.
+   */
+  default Stream<Map.Entry<byte[], byte[]>> streamByPrefix(final byte[] prefix)
+      throws StorageException {
+    return streamFromKey(prefix)
+        .takeWhile(
+            entry ->
+                entry.getKey().length >= prefix.length
+                    && Arrays.equals(entry.getKey(), 0, prefix.length, prefix, 0, prefix.length));
+  }
+
   /**
    * Performs an evaluation against each key in the store, keeping the entries that pass, removing
    * those that fail.
@@ -87,4 +164,19 @@ public interface KeyValueStorage extends Closeable {
    * @throws StorageException problem encountered when starting a new transaction.
    */
   KeyValueStorageTransaction startTransaction() throws StorageException;
+
+  /**
+   * Takes a read-only view of the storage as it is now. Reads through the snapshot keep seeing the
+   * same contents while transactions are committed to the storage, without holding any lock on
+   * it. The snapshot must be closed to release the resources pinning its contents, and attempts to
+   * modify it throw {@link UnsupportedOperationException}.
+   *
+   * @return a read-only snapshot of the storage.
+   * @throws StorageException problem encountered when taking the snapshot.
+   * @throws UnsupportedOperationException if the storage doesn't support snapshots.
+   */
+  default KeyValueStorage takeSnapshot() throws StorageException {
+    throw new UnsupportedOperationException(
+        getClass().getSimpleName() + " does not support snapshots");
+  }
 }
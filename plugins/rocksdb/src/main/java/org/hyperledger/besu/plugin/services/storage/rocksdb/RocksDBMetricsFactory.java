@@ -23,11 +23,15 @@ import org.hyperledger.besu.plugin.services.metrics.MetricCategory;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 
+import java.util.Locale;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Statistics;
-import org.rocksdb.TransactionDB;
+import org.rocksdb.TickerType;
 
 public class RocksDBMetricsFactory {
 
@@ -54,7 +58,7 @@ public class RocksDBMetricsFactory {
   public RocksDBMetrics create(
       final MetricsSystem metricsSystem,
       final RocksDBConfiguration rocksDbConfiguration,
-      final TransactionDB db,
+      final RocksDB db,
       final Statistics stats) {
     final OperationTimer readLatency =
         metricsSystem
@@ -120,6 +124,35 @@ public class RocksDBMetricsFactory {
           }
         });
 
+    createHitRatioGauge(
+        metricsSystem,
+        "rocks_db_block_cache_hit_ratio",
+        "Ratio of RocksDB block reads served from the block cache",
+        stats,
+        TickerType.BLOCK_CACHE_HIT,
+        TickerType.BLOCK_CACHE_MISS);
+    createHitRatioGauge(
+        metricsSystem,
+        "rocks_db_index_block_cache_hit_ratio",
+        "Ratio of RocksDB index block reads served from the block cache",
+        stats,
+        TickerType.BLOCK_CACHE_INDEX_HIT,
+        TickerType.BLOCK_CACHE_INDEX_MISS);
+    createHitRatioGauge(
+        metricsSystem,
+        "rocks_db_filter_block_cache_hit_ratio",
+        "Ratio of RocksDB filter block reads served from the block cache",
+        stats,
+        TickerType.BLOCK_CACHE_FILTER_HIT,
+        TickerType.BLOCK_CACHE_FILTER_MISS);
+    createHitRatioGauge(
+        metricsSystem,
+        "rocks_db_data_block_cache_hit_ratio",
+        "Ratio of RocksDB data block reads served from the block cache",
+        stats,
+        TickerType.BLOCK_CACHE_DATA_HIT,
+        TickerType.BLOCK_CACHE_DATA_MISS);
+
     final Counter rollbackCount =
         metricsSystem
             .createLabelledCounter(
@@ -132,4 +165,82 @@ public class RocksDBMetricsFactory {
     return new RocksDBMetrics(
         readLatency, removeLatency, writeLatency, commitLatency, rollbackCount);
   }
+
+  /**
+   * Register the gauges of a single segment of a columnar database. RocksDB doesn't break block
+   * cache statistics down by column family, so segments report the memory and disk space they use,
+   * which along with the storage wide hit ratios show which segment the cache should favour.
+   *
+   * @param metricsSystem metrics system to register the gauges in
+   * @param db database holding the segment
+   * @param segmentName name of the segment
+   * @param segmentHandle column family of the segment
+   */
+  public void createSegmentGauges(
+      final MetricsSystem metricsSystem,
+      final RocksDB db,
+      final String segmentName,
+      final ColumnFamilyHandle segmentHandle) {
+    final String prefix = "rocks_db_" + segmentName.toLowerCase(Locale.US) + "_";
+    createPropertyGauge(
+        metricsSystem,
+        prefix + "table_readers_memory_bytes",
+        "Estimated memory used for RocksDB index and filter blocks of " + segmentName + " in bytes",
+        db,
+        segmentHandle,
+        "rocksdb.estimate-table-readers-mem");
+    createPropertyGauge(
+        metricsSystem,
+        prefix + "files_size_bytes",
+        "Estimated size of " + segmentName + " in bytes",
+        db,
+        segmentHandle,
+        "rocksdb.live-sst-files-size");
+    createPropertyGauge(
+        metricsSystem,
+        prefix + "keys",
+        "Estimated number of keys in " + segmentName,
+        db,
+        segmentHandle,
+        "rocksdb.estimate-num-keys");
+  }
+
+  private void createHitRatioGauge(
+      final MetricsSystem metricsSystem,
+      final String name,
+      final String help,
+      final Statistics stats,
+      final TickerType hitTicker,
+      final TickerType missTicker) {
+    metricsSystem.createGauge(
+        rocksDbMetricCategory,
+        name,
+        help,
+        () -> {
+          final long hits = stats.getTickerCount(hitTicker);
+          final long lookups = hits + stats.getTickerCount(missTicker);
+          return lookups == 0 ? 0 : (double) hits / lookups;
+        });
+  }
+
+  private void createPropertyGauge(
+      final MetricsSystem metricsSystem,
+      final String name,
+      final String help,
+      final RocksDB db,
+      final ColumnFamilyHandle segmentHandle,
+      final String property) {
+    metricsSystem.createLongGauge(
+        rocksDbMetricCategory,
+        name,
+        help,
+        () -> {
+          try {
+            return db.getLongProperty(segmentHandle, property);
+          } catch (final RocksDBException e) {
+            LOG.debug("Failed to get RocksDB metric", e);
+            return 0L;
+          }
+        });
+  }
 }
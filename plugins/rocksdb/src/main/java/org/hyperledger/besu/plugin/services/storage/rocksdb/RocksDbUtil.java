@@ -14,11 +14,22 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb;
 
+import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.util.InvalidConfigurationException;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
 
 public class RocksDbUtil {
   private static final Logger LOG = LogManager.getLogger();
@@ -38,4 +49,44 @@ public class RocksDbUtil {
       }
     }
   }
+
+  /**
+   * Streams the entries of a positioned iterator, lazily and in key order. Closing the stream
+   * closes the iterator.
+   *
+   * @param rocksIterator an iterator already positioned at the first entry to stream
+   * @return a stream of the entries from the iterator position onwards
+   */
+  public static Stream<Map.Entry<byte[], byte[]>> stream(final RocksIterator rocksIterator) {
+    final Iterator<Map.Entry<byte[], byte[]>> entries =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            if (rocksIterator.isValid()) {
+              return true;
+            }
+            try {
+              rocksIterator.status();
+            } catch (final RocksDBException e) {
+              throw new StorageException(e);
+            }
+            return false;
+          }
+
+          @Override
+          public Map.Entry<byte[], byte[]> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final Map.Entry<byte[], byte[]> entry =
+                Map.entry(rocksIterator.key(), rocksIterator.value());
+            rocksIterator.next();
+            return entry;
+          }
+        };
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(rocksIterator::close);
+  }
 }
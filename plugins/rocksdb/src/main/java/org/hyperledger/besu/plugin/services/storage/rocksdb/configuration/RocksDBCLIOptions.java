@@ -14,15 +14,33 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import java.util.Map;
+
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
 import picocli.CommandLine;
 
 public class RocksDBCLIOptions {
 
   public static final int DEFAULT_MAX_OPEN_FILES = 1024;
-  public static final long DEFAULT_CACHE_CAPACITY = 8388608;
+  public static final long DEFAULT_CACHE_CAPACITY = 134217728;
   public static final int DEFAULT_MAX_BACKGROUND_COMPACTIONS = 4;
   public static final int DEFAULT_BACKGROUND_THREAD_COUNT = 4;
+  public static final boolean DEFAULT_WRITE_BATCH_ENABLED = false;
+  public static final Map<String, RocksDBSegmentProfile> DEFAULT_SEGMENT_PROFILES =
+      ImmutableMap.of(
+          "BLOCKCHAIN",
+          RocksDBSegmentProfile.SEQUENTIAL,
+          "WORLD_STATE",
+          RocksDBSegmentProfile.POINT_LOOKUP,
+          "PRIVATE_TRANSACTIONS",
+          RocksDBSegmentProfile.SEQUENTIAL,
+          "PRIVATE_STATE",
+          RocksDBSegmentProfile.POINT_LOOKUP,
+          "PRUNING_STATE",
+          RocksDBSegmentProfile.TRANSIENT);
+  public static final int DEFAULT_BLOOM_FILTER_BITS_PER_KEY = 10;
+  public static final boolean DEFAULT_HASH_INDEX_ENABLED = false;
 
   private static final String MAX_OPEN_FILES_FLAG = "--Xplugin-rocksdb-max-open-files";
   private static final String CACHE_CAPACITY_FLAG = "--Xplugin-rocksdb-cache-capacity";
@@ -30,6 +48,11 @@ public class RocksDBCLIOptions {
       "--Xplugin-rocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG =
       "--Xplugin-rocksdb-background-thread-count";
+  private static final String WRITE_BATCH_ENABLED_FLAG = "--Xplugin-rocksdb-write-batch-enabled";
+  private static final String SEGMENT_PROFILES_FLAG = "--Xplugin-rocksdb-segment-profiles";
+  private static final String BLOOM_FILTER_BITS_PER_KEY_FLAG =
+      "--Xplugin-rocksdb-bloom-filter-bits-per-key";
+  private static final String HASH_INDEX_ENABLED_FLAG = "--Xplugin-rocksdb-hash-index-enabled";
 
   @CommandLine.Option(
       names = {MAX_OPEN_FILES_FLAG},
@@ -42,9 +65,10 @@ public class RocksDBCLIOptions {
   @CommandLine.Option(
       names = {CACHE_CAPACITY_FLAG},
       hidden = true,
-      defaultValue = "8388608",
+      defaultValue = "134217728",
       paramLabel = "<LONG>",
-      description = "Cache capacity of RocksDB (default: ${DEFAULT-VALUE})")
+      description =
+          "Capacity of the block cache shared by RocksDB segments (default: ${DEFAULT-VALUE})")
   long cacheCapacity;
 
   @CommandLine.Option(
@@ -63,6 +87,50 @@ public class RocksDBCLIOptions {
       description = "Number of RocksDB background threads (default: ${DEFAULT-VALUE})")
   int backgroundThreadCount;
 
+  @CommandLine.Option(
+      names = {WRITE_BATCH_ENABLED_FLAG},
+      hidden = true,
+      defaultValue = "false",
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Commit to a plain RocksDB database with write batches instead of pessimistic "
+              + "transactions (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  boolean writeBatchEnabled;
+
+  @CommandLine.Option(
+      names = {SEGMENT_PROFILES_FLAG},
+      hidden = true,
+      defaultValue =
+          "BLOCKCHAIN=SEQUENTIAL,WORLD_STATE=POINT_LOOKUP,PRIVATE_TRANSACTIONS=SEQUENTIAL,"
+              + "PRIVATE_STATE=POINT_LOOKUP,PRUNING_STATE=TRANSIENT",
+      split = ",",
+      paramLabel = "<SEGMENT=PROFILE>",
+      description =
+          "Tuning profile of each RocksDB segment, one of ${COMPLETION-CANDIDATES}. Segments "
+              + "left out use DEFAULT (default: ${DEFAULT-VALUE})")
+  Map<String, RocksDBSegmentProfile> segmentProfiles;
+
+  @CommandLine.Option(
+      names = {BLOOM_FILTER_BITS_PER_KEY_FLAG},
+      hidden = true,
+      defaultValue = "10",
+      paramLabel = "<INTEGER>",
+      description =
+          "Bits per key of the bloom filters of RocksDB segments (default: ${DEFAULT-VALUE})")
+  int bloomFilterBitsPerKey;
+
+  @CommandLine.Option(
+      names = {HASH_INDEX_ENABLED_FLAG},
+      hidden = true,
+      defaultValue = "false",
+      paramLabel = "<BOOLEAN>",
+      description =
+          "Add a hash index to the data blocks of RocksDB point lookup segments "
+              + "(default: ${DEFAULT-VALUE})",
+      arity = "1")
+  boolean hashIndexEnabled;
+
   private RocksDBCLIOptions() {}
 
   public static RocksDBCLIOptions create() {
@@ -75,12 +143,23 @@ public class RocksDBCLIOptions {
     options.cacheCapacity = config.getCacheCapacity();
     options.maxBackgroundCompactions = config.getMaxBackgroundCompactions();
     options.backgroundThreadCount = config.getBackgroundThreadCount();
+    options.writeBatchEnabled = config.isWriteBatchEnabled();
+    options.segmentProfiles = config.getSegmentProfiles();
+    options.bloomFilterBitsPerKey = config.getBloomFilterBitsPerKey();
+    options.hashIndexEnabled = config.isHashIndexEnabled();
     return options;
   }
 
   public RocksDBFactoryConfiguration toDomainObject() {
     return new RocksDBFactoryConfiguration(
-        maxOpenFiles, maxBackgroundCompactions, backgroundThreadCount, cacheCapacity);
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        writeBatchEnabled,
+        segmentProfiles,
+        bloomFilterBitsPerKey,
+        hashIndexEnabled);
   }
 
   @Override
@@ -90,6 +169,10 @@ public class RocksDBCLIOptions {
         .add("cacheCapacity", cacheCapacity)
         .add("maxBackgroundCompactions", maxBackgroundCompactions)
         .add("backgroundThreadCount", backgroundThreadCount)
+        .add("writeBatchEnabled", writeBatchEnabled)
+        .add("segmentProfiles", segmentProfiles)
+        .add("bloomFilterBitsPerKey", bloomFilterBitsPerKey)
+        .add("hashIndexEnabled", hashIndexEnabled)
         .toString();
   }
 }
@@ -14,7 +14,15 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_HASH_INDEX_ENABLED;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_PROFILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_WRITE_BATCH_ENABLED;
+
 import java.nio.file.Path;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
 
 public class RocksDBConfiguration {
 
@@ -24,6 +32,10 @@ public class RocksDBConfiguration {
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final boolean writeBatchEnabled;
+  private final Map<String, RocksDBSegmentProfile> segmentProfiles;
+  private final int bloomFilterBitsPerKey;
+  private final boolean hashIndexEnabled;
 
   public RocksDBConfiguration(
       final Path databaseDir,
@@ -32,12 +44,58 @@ public class RocksDBConfiguration {
       final int backgroundThreadCount,
       final long cacheCapacity,
       final String label) {
+    this(
+        databaseDir,
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        label,
+        DEFAULT_WRITE_BATCH_ENABLED);
+  }
+
+  public RocksDBConfiguration(
+      final Path databaseDir,
+      final int maxOpenFiles,
+      final int maxBackgroundCompactions,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final String label,
+      final boolean writeBatchEnabled) {
+    this(
+        databaseDir,
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        label,
+        writeBatchEnabled,
+        DEFAULT_SEGMENT_PROFILES,
+        DEFAULT_BLOOM_FILTER_BITS_PER_KEY,
+        DEFAULT_HASH_INDEX_ENABLED);
+  }
+
+  public RocksDBConfiguration(
+      final Path databaseDir,
+      final int maxOpenFiles,
+      final int maxBackgroundCompactions,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final String label,
+      final boolean writeBatchEnabled,
+      final Map<String, RocksDBSegmentProfile> segmentProfiles,
+      final int bloomFilterBitsPerKey,
+      final boolean hashIndexEnabled) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
     this.databaseDir = databaseDir;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
     this.label = label;
+    this.writeBatchEnabled = writeBatchEnabled;
+    this.segmentProfiles = ImmutableMap.copyOf(segmentProfiles);
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.hashIndexEnabled = hashIndexEnabled;
   }
 
   public Path getDatabaseDir() {
@@ -63,4 +121,43 @@ public class RocksDBConfiguration {
   public String getLabel() {
     return label;
   }
+
+  /**
+   * Whether to open a plain RocksDB database and commit transactions as write batches, rather than
+   * through the row locks of a pessimistic transaction database.
+   *
+   * @return true if transactions are committed as write batches
+   */
+  public boolean isWriteBatchEnabled() {
+    return writeBatchEnabled;
+  }
+
+  public Map<String, RocksDBSegmentProfile> getSegmentProfiles() {
+    return segmentProfiles;
+  }
+
+  /**
+   * The tuning profile of a segment, falling back to {@link RocksDBSegmentProfile#DEFAULT} for
+   * segments without one.
+   *
+   * @param segmentName name of the segment
+   * @return the segment tuning profile
+   */
+  public RocksDBSegmentProfile getSegmentProfile(final String segmentName) {
+    return segmentProfiles.getOrDefault(segmentName, RocksDBSegmentProfile.DEFAULT);
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  /**
+   * Whether point lookup segments add a hash index to their data blocks, trading some space for
+   * fewer key comparisons on reads.
+   *
+   * @return true if data block hash indexes are enabled
+   */
+  public boolean isHashIndexEnabled() {
+    return hashIndexEnabled;
+  }
 }
@@ -15,11 +15,16 @@
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BACKGROUND_THREAD_COUNT;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_HASH_INDEX_ENABLED;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_PROFILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_WRITE_BATCH_ENABLED;
 
 import java.nio.file.Path;
+import java.util.Map;
 
 public class RocksDBConfigurationBuilder {
 
@@ -29,6 +34,10 @@ public class RocksDBConfigurationBuilder {
   private long cacheCapacity = DEFAULT_CACHE_CAPACITY;
   private int maxBackgroundCompactions = DEFAULT_MAX_BACKGROUND_COMPACTIONS;
   private int backgroundThreadCount = DEFAULT_BACKGROUND_THREAD_COUNT;
+  private boolean writeBatchEnabled = DEFAULT_WRITE_BATCH_ENABLED;
+  private Map<String, RocksDBSegmentProfile> segmentProfiles = DEFAULT_SEGMENT_PROFILES;
+  private int bloomFilterBitsPerKey = DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+  private boolean hashIndexEnabled = DEFAULT_HASH_INDEX_ENABLED;
 
   public RocksDBConfigurationBuilder databaseDir(final Path databaseDir) {
     this.databaseDir = databaseDir;
@@ -60,12 +69,37 @@ public class RocksDBConfigurationBuilder {
     return this;
   }
 
+  public RocksDBConfigurationBuilder writeBatchEnabled(final boolean writeBatchEnabled) {
+    this.writeBatchEnabled = writeBatchEnabled;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder segmentProfiles(
+      final Map<String, RocksDBSegmentProfile> segmentProfiles) {
+    this.segmentProfiles = segmentProfiles;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder bloomFilterBitsPerKey(final int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    return this;
+  }
+
+  public RocksDBConfigurationBuilder hashIndexEnabled(final boolean hashIndexEnabled) {
+    this.hashIndexEnabled = hashIndexEnabled;
+    return this;
+  }
+
   public static RocksDBConfigurationBuilder from(final RocksDBFactoryConfiguration configuration) {
     return new RocksDBConfigurationBuilder()
         .backgroundThreadCount(configuration.getBackgroundThreadCount())
         .cacheCapacity(configuration.getCacheCapacity())
         .maxBackgroundCompactions(configuration.getMaxBackgroundCompactions())
-        .maxOpenFiles(configuration.getMaxOpenFiles());
+        .maxOpenFiles(configuration.getMaxOpenFiles())
+        .writeBatchEnabled(configuration.isWriteBatchEnabled())
+        .segmentProfiles(configuration.getSegmentProfiles())
+        .bloomFilterBitsPerKey(configuration.getBloomFilterBitsPerKey())
+        .hashIndexEnabled(configuration.isHashIndexEnabled());
   }
 
   public RocksDBConfiguration build() {
@@ -75,6 +109,10 @@ public class RocksDBConfigurationBuilder {
         maxBackgroundCompactions,
         backgroundThreadCount,
         cacheCapacity,
-        label);
+        label,
+        writeBatchEnabled,
+        segmentProfiles,
+        bloomFilterBitsPerKey,
+        hashIndexEnabled);
   }
 }
@@ -14,22 +14,73 @@
  */
 package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
 
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_BLOOM_FILTER_BITS_PER_KEY;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_HASH_INDEX_ENABLED;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_PROFILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_WRITE_BATCH_ENABLED;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
 public class RocksDBFactoryConfiguration {
 
   private final int maxOpenFiles;
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final boolean writeBatchEnabled;
+  private final Map<String, RocksDBSegmentProfile> segmentProfiles;
+  private final int bloomFilterBitsPerKey;
+  private final boolean hashIndexEnabled;
 
   public RocksDBFactoryConfiguration(
       final int maxOpenFiles,
       final int maxBackgroundCompactions,
       final int backgroundThreadCount,
       final long cacheCapacity) {
+    this(
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        DEFAULT_WRITE_BATCH_ENABLED);
+  }
+
+  public RocksDBFactoryConfiguration(
+      final int maxOpenFiles,
+      final int maxBackgroundCompactions,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final boolean writeBatchEnabled) {
+    this(
+        maxOpenFiles,
+        maxBackgroundCompactions,
+        backgroundThreadCount,
+        cacheCapacity,
+        writeBatchEnabled,
+        DEFAULT_SEGMENT_PROFILES,
+        DEFAULT_BLOOM_FILTER_BITS_PER_KEY,
+        DEFAULT_HASH_INDEX_ENABLED);
+  }
+
+  public RocksDBFactoryConfiguration(
+      final int maxOpenFiles,
+      final int maxBackgroundCompactions,
+      final int backgroundThreadCount,
+      final long cacheCapacity,
+      final boolean writeBatchEnabled,
+      final Map<String, RocksDBSegmentProfile> segmentProfiles,
+      final int bloomFilterBitsPerKey,
+      final boolean hashIndexEnabled) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
+    this.writeBatchEnabled = writeBatchEnabled;
+    this.segmentProfiles = ImmutableMap.copyOf(segmentProfiles);
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.hashIndexEnabled = hashIndexEnabled;
   }
 
   public int getMaxOpenFiles() {
@@ -47,4 +98,20 @@ public class RocksDBFactoryConfiguration {
   public long getCacheCapacity() {
     return cacheCapacity;
   }
+
+  public boolean isWriteBatchEnabled() {
+    return writeBatchEnabled;
+  }
+
+  public Map<String, RocksDBSegmentProfile> getSegmentProfiles() {
+    return segmentProfiles;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public boolean isHashIndexEnabled() {
+    return hashIndexEnabled;
+  }
 }
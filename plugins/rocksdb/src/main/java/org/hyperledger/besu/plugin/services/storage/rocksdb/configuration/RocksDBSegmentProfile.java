@@ -0,0 +1,71 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.configuration;
+
+import org.rocksdb.CompressionType;
+
+/**
+ * Column family tuning matching the way a segment is read. Every profile shares the storage block
+ * cache; profiles with a bloom filter also keep their index and filter blocks in the cache at high
+ * priority, so they aren't evicted by a scan over data blocks.
+ */
+public enum RocksDBSegmentProfile {
+  /** RocksDB defaults, for segments with no known access pattern. */
+  DEFAULT(false, 4 * 1024, CompressionType.SNAPPY_COMPRESSION, false),
+  /** Random point reads of hash keys, such as world state nodes. */
+  POINT_LOOKUP(true, 4 * 1024, CompressionType.LZ4_COMPRESSION, true),
+  /** Large values mostly read in order, such as block bodies and receipts. */
+  SEQUENTIAL(true, 16 * 1024, CompressionType.ZSTD_COMPRESSION, false),
+  /** Short lived entries, such as pruning marks, that aren't worth compressing. */
+  TRANSIENT(true, 4 * 1024, CompressionType.NO_COMPRESSION, true);
+
+  private final boolean bloomFilterEnabled;
+  private final long blockSize;
+  private final CompressionType compressionType;
+  private final boolean hashIndexSupported;
+
+  RocksDBSegmentProfile(
+      final boolean bloomFilterEnabled,
+      final long blockSize,
+      final CompressionType compressionType,
+      final boolean hashIndexSupported) {
+    this.bloomFilterEnabled = bloomFilterEnabled;
+    this.blockSize = blockSize;
+    this.compressionType = compressionType;
+    this.hashIndexSupported = hashIndexSupported;
+  }
+
+  public boolean isBloomFilterEnabled() {
+    return bloomFilterEnabled;
+  }
+
+  public long getBlockSize() {
+    return blockSize;
+  }
+
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  /**
+   * Whether the segment benefits from a hash index within data blocks. The hash index only speeds
+   * up point reads, so it is left out of segments that are mostly scanned.
+   *
+   * @return true if a data block hash index may be added to the segment
+   */
+  public boolean isHashIndexSupported() {
+    return hashIndexSupported;
+  }
+}
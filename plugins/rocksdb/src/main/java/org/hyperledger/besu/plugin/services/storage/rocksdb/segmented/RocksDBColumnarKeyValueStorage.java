@@ -24,12 +24,14 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage;
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageTransactionTransitionValidatorDecorator;
 
 import java.io.Closeable;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,6 +39,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
@@ -44,17 +47,23 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.tuweni.bytes.Bytes;
 import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.DataBlockIndexType;
 import org.rocksdb.Env;
 import org.rocksdb.LRUCache;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
 import org.rocksdb.Statistics;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 public class RocksDBColumnarKeyValueStorage
@@ -66,10 +75,17 @@ public class RocksDBColumnarKeyValueStorage
 
   private static final Logger LOG = LogManager.getLogger();
   private static final String DEFAULT_COLUMN = "default";
+  // Share of the block cache reserved for index and filter blocks
+  private static final double HIGH_PRIORITY_POOL_RATIO = 0.2;
 
   private final DBOptions options;
+  private final LRUCache blockCache;
+  private final BloomFilter bloomFilter;
+  private final List<ColumnFamilyOptions> columnOptions;
   private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final RocksDB db;
+  // Null when transactions are committed as write batches
+  private final TransactionDB transactionDB;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final Map<String, ColumnFamilyHandle> columnHandlesByName;
   private final RocksDBMetrics metrics;
@@ -82,15 +98,26 @@ public class RocksDBColumnarKeyValueStorage
       throws StorageException {
 
     try {
+      blockCache =
+          new LRUCache(configuration.getCacheCapacity(), -1, false, HIGH_PRIORITY_POOL_RATIO);
+      bloomFilter = new BloomFilter(configuration.getBloomFilterBitsPerKey(), false);
       final List<ColumnFamilyDescriptor> columnDescriptors =
           segments.stream()
-              .map(segment -> new ColumnFamilyDescriptor(segment.getId()))
+              .map(
+                  segment ->
+                      new ColumnFamilyDescriptor(
+                          segment.getId(),
+                          createColumnFamilyOptions(
+                              configuration, configuration.getSegmentProfile(segment.getName()))))
               .collect(Collectors.toList());
       columnDescriptors.add(
           new ColumnFamilyDescriptor(
               DEFAULT_COLUMN.getBytes(StandardCharsets.UTF_8),
-              new ColumnFamilyOptions()
-                  .setTableFormatConfig(createBlockBasedTableConfig(configuration))));
+              createColumnFamilyOptions(configuration, RocksDBSegmentProfile.DEFAULT)));
+      columnOptions =
+          columnDescriptors.stream()
+              .map(ColumnFamilyDescriptor::getOptions)
+              .collect(Collectors.toList());
 
       final Statistics stats = new Statistics();
       options =
@@ -103,15 +130,27 @@ public class RocksDBColumnarKeyValueStorage
               .setEnv(
                   Env.getDefault().setBackgroundThreads(configuration.getBackgroundThreadCount()));
 
-      txOptions = new TransactionDBOptions();
       final List<ColumnFamilyHandle> columnHandles = new ArrayList<>(columnDescriptors.size());
-      db =
-          TransactionDB.open(
-              options,
-              txOptions,
-              configuration.getDatabaseDir().toString(),
-              columnDescriptors,
-              columnHandles);
+      if (configuration.isWriteBatchEnabled()) {
+        txOptions = null;
+        transactionDB = null;
+        db =
+            RocksDB.open(
+                options,
+                configuration.getDatabaseDir().toString(),
+                columnDescriptors,
+                columnHandles);
+      } else {
+        txOptions = new TransactionDBOptions();
+        transactionDB =
+            TransactionDB.open(
+                options,
+                txOptions,
+                configuration.getDatabaseDir().toString(),
+                columnDescriptors,
+                columnHandles);
+        db = transactionDB;
+      }
       metrics = rocksDBMetricsFactory.create(metricsSystem, configuration, db, stats);
       final Map<Bytes, String> segmentsById =
           segments.stream()
@@ -128,15 +167,34 @@ public class RocksDBColumnarKeyValueStorage
         builder.put(segmentName, columnHandle);
       }
       columnHandlesByName = builder.build();
+      for (final SegmentIdentifier segment : segments) {
+        final String segmentName = segment.getName();
+        rocksDBMetricsFactory.createSegmentGauges(
+            metricsSystem, db, segmentName, columnHandlesByName.get(segmentName));
+      }
 
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
   }
 
-  private BlockBasedTableConfig createBlockBasedTableConfig(final RocksDBConfiguration config) {
-    final LRUCache cache = new LRUCache(config.getCacheCapacity());
-    return new BlockBasedTableConfig().setBlockCache(cache);
+  private ColumnFamilyOptions createColumnFamilyOptions(
+      final RocksDBConfiguration configuration, final RocksDBSegmentProfile profile) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig().setBlockCache(blockCache).setBlockSize(profile.getBlockSize());
+    if (profile.isBloomFilterEnabled()) {
+      tableConfig
+          .setFilterPolicy(bloomFilter)
+          .setCacheIndexAndFilterBlocks(true)
+          .setCacheIndexAndFilterBlocksWithHighPriority(true)
+          .setPinL0FilterAndIndexBlocksInCache(true);
+    }
+    if (profile.isHashIndexSupported() && configuration.isHashIndexEnabled()) {
+      tableConfig.setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+    }
+    return new ColumnFamilyOptions()
+        .setTableFormatConfig(tableConfig)
+        .setCompressionType(profile.getCompressionType());
   }
 
   @Override
@@ -156,12 +214,40 @@ public class RocksDBColumnarKeyValueStorage
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final ColumnFamilyHandle segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final List<byte[]> values =
+          db.multiGetAsList(Collections.nCopies(keys.size(), segment), keys);
+      return values.stream().map(Optional::ofNullable).collect(Collectors.toList());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<byte[], byte[]>> streamFromKey(
+      final ColumnFamilyHandle segment, final byte[] startKey) throws StorageException {
+    throwIfClosed();
+
+    final RocksIterator rocksIterator = db.newIterator(segment);
+    rocksIterator.seek(startKey);
+    return RocksDbUtil.stream(rocksIterator);
+  }
+
   @Override
   public Transaction<ColumnFamilyHandle> startTransaction() throws StorageException {
     throwIfClosed();
     final WriteOptions options = new WriteOptions();
+    if (transactionDB == null) {
+      return new SegmentedKeyValueStorageTransactionTransitionValidatorDecorator<>(
+          new RocksDbWriteBatchTransaction(options));
+    }
     return new SegmentedKeyValueStorageTransactionTransitionValidatorDecorator<>(
-        new RocksDbTransaction(db.beginTransaction(options), options));
+        new RocksDbTransaction(transactionDB.beginTransaction(options), options));
   }
 
   @Override
@@ -219,13 +305,24 @@ public class RocksDBColumnarKeyValueStorage
     }
   }
 
+  @Override
+  public SegmentedKeyValueStorage<ColumnFamilyHandle> takeSnapshot() throws StorageException {
+    throwIfClosed();
+    return new RocksDbSnapshot(db.getSnapshot());
+  }
+
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
-      txOptions.close();
+      if (txOptions != null) {
+        txOptions.close();
+      }
       options.close();
       columnHandlesByName.values().forEach(ColumnFamilyHandle::close);
       db.close();
+      columnOptions.forEach(ColumnFamilyOptions::close);
+      bloomFilter.close();
+      blockCache.close();
     }
   }
 
@@ -236,6 +333,113 @@ public class RocksDBColumnarKeyValueStorage
     }
   }
 
+  /** A read-only view of the database, reading through read options pinned to a snapshot. */
+  private class RocksDbSnapshot implements SegmentedKeyValueStorage<ColumnFamilyHandle> {
+
+    private final Snapshot snapshot;
+    private final ReadOptions readOptions;
+    private final AtomicBoolean snapshotClosed = new AtomicBoolean(false);
+
+    RocksDbSnapshot(final Snapshot snapshot) {
+      this.snapshot = snapshot;
+      this.readOptions = new ReadOptions().setSnapshot(snapshot);
+    }
+
+    @Override
+    public ColumnFamilyHandle getSegmentIdentifierByName(final SegmentIdentifier segment) {
+      return RocksDBColumnarKeyValueStorage.this.getSegmentIdentifierByName(segment);
+    }
+
+    @Override
+    public Optional<byte[]> get(final ColumnFamilyHandle segment, final byte[] key)
+        throws StorageException {
+      throwIfSnapshotClosed();
+
+      try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+        return Optional.ofNullable(db.get(segment, readOptions, key));
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public List<Optional<byte[]>> multiGet(
+        final ColumnFamilyHandle segment, final List<byte[]> keys) throws StorageException {
+      throwIfSnapshotClosed();
+
+      try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+        final List<byte[]> values =
+            db.multiGetAsList(readOptions, Collections.nCopies(keys.size(), segment), keys);
+        return values.stream().map(Optional::ofNullable).collect(Collectors.toList());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public Stream<Map.Entry<byte[], byte[]>> streamFromKey(
+        final ColumnFamilyHandle segment, final byte[] startKey) throws StorageException {
+      throwIfSnapshotClosed();
+
+      final RocksIterator rocksIterator = db.newIterator(segment, readOptions);
+      rocksIterator.seek(startKey);
+      return RocksDbUtil.stream(rocksIterator);
+    }
+
+    @Override
+    public Set<byte[]> getAllKeysThat(
+        final ColumnFamilyHandle segmentHandle, final Predicate<byte[]> returnCondition) {
+      throwIfSnapshotClosed();
+
+      final Set<byte[]> returnedKeys = Sets.newIdentityHashSet();
+      try (final RocksIterator rocksIterator = db.newIterator(segmentHandle, readOptions)) {
+        rocksIterator.seekToFirst();
+        while (rocksIterator.isValid()) {
+          final byte[] key = rocksIterator.key();
+          if (returnCondition.test(key)) {
+            returnedKeys.add(key);
+          }
+          rocksIterator.next();
+        }
+      }
+      return returnedKeys;
+    }
+
+    @Override
+    public Transaction<ColumnFamilyHandle> startTransaction() {
+      throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public long removeAllEntriesUnless(
+        final ColumnFamilyHandle segmentHandle, final Predicate<byte[]> inUseCheck) {
+      throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public void clear(final ColumnFamilyHandle segmentHandle) {
+      throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public void close() {
+      if (snapshotClosed.compareAndSet(false, true)) {
+        // Once the database is closed, its snapshots are already gone
+        if (!closed.get()) {
+          db.releaseSnapshot(snapshot);
+        }
+        readOptions.close();
+      }
+    }
+
+    private void throwIfSnapshotClosed() {
+      throwIfClosed();
+      if (snapshotClosed.get()) {
+        throw new IllegalStateException("Snapshot has been closed");
+      }
+    }
+  }
+
   private class RocksDbTransaction implements Transaction<ColumnFamilyHandle> {
 
     private final org.rocksdb.Transaction innerTx;
@@ -292,4 +496,61 @@ public class RocksDBColumnarKeyValueStorage
       options.close();
     }
   }
+
+  /**
+   * A transaction buffering its updates in a write batch, which is written atomically on commit,
+   * without the row locks and conflict tracking of {@link RocksDbTransaction}.
+   */
+  private class RocksDbWriteBatchTransaction implements Transaction<ColumnFamilyHandle> {
+
+    private final WriteBatch writeBatch = new WriteBatch();
+    private final WriteOptions options;
+
+    RocksDbWriteBatchTransaction(final WriteOptions options) {
+      this.options = options;
+    }
+
+    @Override
+    public void put(final ColumnFamilyHandle segment, final byte[] key, final byte[] value) {
+      try (final OperationTimer.TimingContext ignored = metrics.getWriteLatency().startTimer()) {
+        writeBatch.put(segment, key, value);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public void remove(final ColumnFamilyHandle segment, final byte[] key) {
+      try (final OperationTimer.TimingContext ignored = metrics.getRemoveLatency().startTimer()) {
+        writeBatch.delete(segment, key);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored = metrics.getCommitLatency().startTimer()) {
+        db.write(options, writeBatch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void rollback() {
+      try {
+        metrics.getRollbackCount().inc();
+      } finally {
+        close();
+      }
+    }
+
+    private void close() {
+      writeBatch.close();
+      options.close();
+    }
+  }
 }
@@ -25,10 +25,14 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 import org.hyperledger.besu.services.kvstore.KeyValueStorageTransactionTransitionValidatorDecorator;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
@@ -36,6 +40,7 @@ import org.apache.logging.log4j.Logger;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
@@ -53,7 +58,9 @@ public class RocksDBKeyValueStorage implements KeyValueStorage {
 
   private final Options options;
   private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final RocksDB db;
+  // Null when transactions are committed as write batches
+  private final TransactionDB transactionDB;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final RocksDBMetrics rocksDBMetrics;
 
@@ -73,8 +80,16 @@ public class RocksDBKeyValueStorage implements KeyValueStorage {
               .setStatistics(stats);
       options.getEnv().setBackgroundThreads(configuration.getBackgroundThreadCount());
 
-      txOptions = new TransactionDBOptions();
-      db = TransactionDB.open(options, txOptions, configuration.getDatabaseDir().toString());
+      if (configuration.isWriteBatchEnabled()) {
+        txOptions = null;
+        transactionDB = null;
+        db = RocksDB.open(options, configuration.getDatabaseDir().toString());
+      } else {
+        txOptions = new TransactionDBOptions();
+        transactionDB =
+            TransactionDB.open(options, txOptions, configuration.getDatabaseDir().toString());
+        db = transactionDB;
+      }
       rocksDBMetrics = rocksDBMetricsFactory.create(metricsSystem, configuration, db, stats);
     } catch (final RocksDBException e) {
       throw new StorageException(e);
@@ -116,6 +131,30 @@ public class RocksDBKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored =
+        rocksDBMetrics.getReadLatency().startTimer()) {
+      return db.multiGetAsList(keys).stream()
+          .map(Optional::ofNullable)
+          .collect(Collectors.toList());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+      throws StorageException {
+    throwIfClosed();
+
+    final RocksIterator rocksIterator = db.newIterator();
+    rocksIterator.seek(startKey);
+    return RocksDbUtil.stream(rocksIterator);
+  }
+
   @Override
   public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) throws StorageException {
     long removedNodeCounter = 0;
@@ -155,14 +194,26 @@ public class RocksDBKeyValueStorage implements KeyValueStorage {
   public KeyValueStorageTransaction startTransaction() throws StorageException {
     throwIfClosed();
     final WriteOptions options = new WriteOptions();
+    if (transactionDB == null) {
+      return new KeyValueStorageTransactionTransitionValidatorDecorator(
+          new RocksDBWriteBatchTransaction(db, options, rocksDBMetrics));
+    }
     return new KeyValueStorageTransactionTransitionValidatorDecorator(
-        new RocksDBTransaction(db.beginTransaction(options), options, rocksDBMetrics));
+        new RocksDBTransaction(transactionDB.beginTransaction(options), options, rocksDBMetrics));
+  }
+
+  @Override
+  public KeyValueStorage takeSnapshot() throws StorageException {
+    throwIfClosed();
+    return new RocksDBSnapshot(db, rocksDBMetrics, closed);
   }
 
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
-      txOptions.close();
+      if (txOptions != null) {
+        txOptions.close();
+      }
       options.close();
       db.close();
     }
@@ -0,0 +1,146 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.unsegmented;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Sets;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+
+/** A read-only view of a RocksDB database, reading through read options pinned to a snapshot. */
+public class RocksDBSnapshot implements KeyValueStorage {
+
+  private final RocksDB db;
+  private final Snapshot snapshot;
+  private final ReadOptions readOptions;
+  private final RocksDBMetrics metrics;
+  private final AtomicBoolean dbClosed;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  RocksDBSnapshot(final RocksDB db, final RocksDBMetrics metrics, final AtomicBoolean dbClosed) {
+    this.db = db;
+    this.snapshot = db.getSnapshot();
+    this.readOptions = new ReadOptions().setSnapshot(snapshot);
+    this.metrics = metrics;
+    this.dbClosed = dbClosed;
+  }
+
+  @Override
+  public boolean containsKey(final byte[] key) throws StorageException {
+    return get(key).isPresent();
+  }
+
+  @Override
+  public Optional<byte[]> get(final byte[] key) throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return Optional.ofNullable(db.get(readOptions, key));
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return db.multiGetAsList(readOptions, keys).stream()
+          .map(Optional::ofNullable)
+          .collect(Collectors.toList());
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+      throws StorageException {
+    throwIfClosed();
+
+    final RocksIterator rocksIterator = db.newIterator(readOptions);
+    rocksIterator.seek(startKey);
+    return RocksDbUtil.stream(rocksIterator);
+  }
+
+  @Override
+  public Set<byte[]> getAllKeysThat(final Predicate<byte[]> returnCondition) {
+    throwIfClosed();
+
+    final Set<byte[]> returnedKeys = Sets.newIdentityHashSet();
+    try (final RocksIterator rocksIterator = db.newIterator(readOptions)) {
+      rocksIterator.seekToFirst();
+      while (rocksIterator.isValid()) {
+        final byte[] key = rocksIterator.key();
+        if (returnCondition.test(key)) {
+          returnedKeys.add(key);
+        }
+        rocksIterator.next();
+      }
+    }
+    return returnedKeys;
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("Snapshots are read-only");
+  }
+
+  @Override
+  public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) {
+    throw new UnsupportedOperationException("Snapshots are read-only");
+  }
+
+  @Override
+  public KeyValueStorageTransaction startTransaction() {
+    throw new UnsupportedOperationException("Snapshots are read-only");
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      // Once the database is closed, its snapshots are already gone
+      if (!dbClosed.get()) {
+        db.releaseSnapshot(snapshot);
+      }
+      readOptions.close();
+    }
+  }
+
+  private void throwIfClosed() {
+    if (closed.get() || dbClosed.get()) {
+      throw new IllegalStateException("Snapshot has been closed");
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.unsegmented;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
+
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * A transaction buffering its updates in a write batch, which is written atomically on commit.
+ * Unlike {@link RocksDBTransaction} it takes no row locks and tracks no conflicts, the last commit
+ * of a key winning.
+ */
+public class RocksDBWriteBatchTransaction implements KeyValueStorageTransaction {
+
+  private final RocksDBMetrics metrics;
+  private final RocksDB db;
+  private final WriteBatch writeBatch;
+  private final WriteOptions options;
+
+  RocksDBWriteBatchTransaction(
+      final RocksDB db, final WriteOptions options, final RocksDBMetrics metrics) {
+    this.db = db;
+    this.writeBatch = new WriteBatch();
+    this.options = options;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void put(final byte[] key, final byte[] value) {
+    try (final OperationTimer.TimingContext ignored = metrics.getWriteLatency().startTimer()) {
+      writeBatch.put(key, value);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public void remove(final byte[] key) {
+    try (final OperationTimer.TimingContext ignored = metrics.getRemoveLatency().startTimer()) {
+      writeBatch.delete(key);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public void commit() throws StorageException {
+    try (final OperationTimer.TimingContext ignored = metrics.getCommitLatency().startTimer()) {
+      db.write(options, writeBatch);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    } finally {
+      close();
+    }
+  }
+
+  @Override
+  public void rollback() {
+    try {
+      metrics.getRollbackCount().inc();
+    } finally {
+      close();
+    }
+  }
+
+  private void close() {
+    writeBatch.close();
+    options.close();
+  }
+}
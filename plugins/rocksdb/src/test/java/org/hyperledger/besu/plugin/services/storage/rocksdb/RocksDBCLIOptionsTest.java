@@ -19,9 +19,13 @@ import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_CACHE_CAPACITY;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_BACKGROUND_COMPACTIONS;
 import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_MAX_OPEN_FILES;
+import static org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions.DEFAULT_SEGMENT_PROFILES;
 
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBCLIOptions;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBFactoryConfiguration;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBSegmentProfile;
 
 import org.junit.Test;
 import picocli.CommandLine;
@@ -34,6 +38,9 @@ public class RocksDBCLIOptionsTest {
       "--Xplugin-rocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG =
       "--Xplugin-rocksdb-background-thread-count";
+  private static final String WRITE_BATCH_ENABLED_FLAG = "--Xplugin-rocksdb-write-batch-enabled";
+  private static final String SEGMENT_PROFILES_FLAG = "--Xplugin-rocksdb-segment-profiles";
+  private static final String HASH_INDEX_ENABLED_FLAG = "--Xplugin-rocksdb-hash-index-enabled";
 
   @Test
   public void defaultValues() {
@@ -48,6 +55,9 @@ public class RocksDBCLIOptionsTest {
     assertThat(configuration.getMaxBackgroundCompactions())
         .isEqualTo(DEFAULT_MAX_BACKGROUND_COMPACTIONS);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(DEFAULT_MAX_OPEN_FILES);
+    assertThat(configuration.isWriteBatchEnabled()).isFalse();
+    assertThat(configuration.getSegmentProfiles()).isEqualTo(DEFAULT_SEGMENT_PROFILES);
+    assertThat(configuration.isHashIndexEnabled()).isFalse();
   }
 
   @Test
@@ -115,4 +125,39 @@ public class RocksDBCLIOptionsTest {
         .isEqualTo(DEFAULT_MAX_BACKGROUND_COMPACTIONS);
     assertThat(configuration.getMaxOpenFiles()).isEqualTo(expectedMaxOpenFiles);
   }
+
+  @Test
+  public void writeBatchEnabled() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options).parse(WRITE_BATCH_ENABLED_FLAG, "true");
+
+    final RocksDBFactoryConfiguration configuration = options.toDomainObject();
+    assertThat(configuration).isNotNull();
+    assertThat(configuration.isWriteBatchEnabled()).isTrue();
+    assertThat(configuration.getMaxOpenFiles()).isEqualTo(DEFAULT_MAX_OPEN_FILES);
+  }
+
+  @Test
+  public void customSegmentProfiles() {
+    final RocksDBCLIOptions options = RocksDBCLIOptions.create();
+
+    new CommandLine(options)
+        .parse(
+            SEGMENT_PROFILES_FLAG,
+            "WORLD_STATE=TRANSIENT,BLOCKCHAIN=POINT_LOOKUP",
+            HASH_INDEX_ENABLED_FLAG,
+            "true");
+
+    final RocksDBConfiguration configuration =
+        RocksDBConfigurationBuilder.from(options.toDomainObject()).build();
+    assertThat(configuration.getSegmentProfile("WORLD_STATE"))
+        .isEqualTo(RocksDBSegmentProfile.TRANSIENT);
+    assertThat(configuration.getSegmentProfile("BLOCKCHAIN"))
+        .isEqualTo(RocksDBSegmentProfile.POINT_LOOKUP);
+    assertThat(configuration.getSegmentProfile("PRUNING_STATE"))
+        .isEqualTo(RocksDBSegmentProfile.DEFAULT);
+    assertThat(configuration.isHashIndexEnabled()).isTrue();
+    assertThat(configuration.getMaxOpenFiles()).isEqualTo(DEFAULT_MAX_OPEN_FILES);
+  }
 }
@@ -30,6 +30,7 @@ import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
 
+import java.util.function.DoubleSupplier;
 import java.util.function.LongSupplier;
 
 import org.junit.Rule;
@@ -39,7 +40,9 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
 import org.rocksdb.TransactionDB;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -51,6 +54,7 @@ public class RocksDBMetricsTest {
   @Mock private OperationTimer operationTimerMock;
   @Mock private TransactionDB db;
   @Mock private Statistics stats;
+  @Mock private ColumnFamilyHandle segmentHandle;
 
   @Rule public final TemporaryFolder folder = new TemporaryFolder();
 
@@ -73,6 +77,7 @@ public class RocksDBMetricsTest {
     final ArgumentCaptor<String> labelledCountersHelpArgs = ArgumentCaptor.forClass(String.class);
     final ArgumentCaptor<String> longGaugesMetricsNameArgs = ArgumentCaptor.forClass(String.class);
     final ArgumentCaptor<String> longGaugesHelpArgs = ArgumentCaptor.forClass(String.class);
+    final ArgumentCaptor<String> gaugesMetricsNameArgs = ArgumentCaptor.forClass(String.class);
 
     RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS.create(metricsSystemMock, config(), db, stats);
 
@@ -108,6 +113,19 @@ public class RocksDBMetricsTest {
             "Estimated memory used for RocksDB index and filter blocks in bytes",
             "Estimated database size in bytes");
 
+    verify(metricsSystemMock, times(4))
+        .createGauge(
+            eq(BesuMetricCategory.KVSTORE_ROCKSDB),
+            gaugesMetricsNameArgs.capture(),
+            anyString(),
+            any(DoubleSupplier.class));
+    assertThat(gaugesMetricsNameArgs.getAllValues())
+        .containsExactly(
+            "rocks_db_block_cache_hit_ratio",
+            "rocks_db_index_block_cache_hit_ratio",
+            "rocks_db_filter_block_cache_hit_ratio",
+            "rocks_db_data_block_cache_hit_ratio");
+
     verify(metricsSystemMock)
         .createLabelledCounter(
             eq(BesuMetricCategory.KVSTORE_ROCKSDB),
@@ -119,6 +137,50 @@ public class RocksDBMetricsTest {
         .isEqualTo("Number of RocksDB transactions rolled back.");
   }
 
+  @Test
+  public void blockCacheHitRatioIsComputedFromStatistics() throws Exception {
+    when(metricsSystemMock.createLabelledTimer(any(), anyString(), anyString(), any()))
+        .thenReturn(labelledMetricOperationTimerMock);
+    when(metricsSystemMock.createLabelledCounter(any(), anyString(), anyString(), any()))
+        .thenReturn(labelledMetricCounterMock);
+    final ArgumentCaptor<DoubleSupplier> hitRatioSupplier =
+        ArgumentCaptor.forClass(DoubleSupplier.class);
+
+    RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS.create(metricsSystemMock, config(), db, stats);
+
+    verify(metricsSystemMock)
+        .createGauge(
+            eq(BesuMetricCategory.KVSTORE_ROCKSDB),
+            eq("rocks_db_block_cache_hit_ratio"),
+            anyString(),
+            hitRatioSupplier.capture());
+    assertThat(hitRatioSupplier.getValue().getAsDouble()).isEqualTo(0);
+
+    when(stats.getTickerCount(TickerType.BLOCK_CACHE_HIT)).thenReturn(3L);
+    when(stats.getTickerCount(TickerType.BLOCK_CACHE_MISS)).thenReturn(1L);
+    assertThat(hitRatioSupplier.getValue().getAsDouble()).isEqualTo(0.75);
+  }
+
+  @Test
+  public void createSegmentGaugesMustNameGaugesAfterTheSegment() {
+    final ArgumentCaptor<String> longGaugesMetricsNameArgs = ArgumentCaptor.forClass(String.class);
+
+    RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS.createSegmentGauges(
+        metricsSystemMock, db, "WORLD_STATE", segmentHandle);
+
+    verify(metricsSystemMock, times(3))
+        .createLongGauge(
+            eq(BesuMetricCategory.KVSTORE_ROCKSDB),
+            longGaugesMetricsNameArgs.capture(),
+            anyString(),
+            any(LongSupplier.class));
+    assertThat(longGaugesMetricsNameArgs.getAllValues())
+        .containsExactly(
+            "rocks_db_world_state_table_readers_memory_bytes",
+            "rocks_db_world_state_files_size_bytes",
+            "rocks_db_world_state_keys");
+  }
+
   private RocksDBConfiguration config() throws Exception {
     return new RocksDBConfigurationBuilder().databaseDir(folder.newFolder().toPath()).build();
   }
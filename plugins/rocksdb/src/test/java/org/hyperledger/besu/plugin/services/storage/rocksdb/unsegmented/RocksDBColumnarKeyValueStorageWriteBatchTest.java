@@ -0,0 +1,73 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb.unsegmented;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.kvstore.AbstractKeyValueStorageTest;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfigurationBuilder;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.segmented.RocksDBColumnarKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.unsegmented.RocksDBColumnarKeyValueStorageTest.TestSegment;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorage.Transaction;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageAdapter;
+
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.ColumnFamilyHandle;
+
+public class RocksDBColumnarKeyValueStorageWriteBatchTest extends AbstractKeyValueStorageTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void commitWritesEverySegmentAtOnce() throws Exception {
+    final SegmentedKeyValueStorage<ColumnFamilyHandle> store = createSegmentedStore();
+    final ColumnFamilyHandle fooSegment = store.getSegmentIdentifierByName(TestSegment.FOO);
+    final ColumnFamilyHandle barSegment = store.getSegmentIdentifierByName(TestSegment.BAR);
+
+    final Transaction<ColumnFamilyHandle> tx = store.startTransaction();
+    tx.put(fooSegment, bytesOf(1), bytesOf(1));
+    tx.put(barSegment, bytesOf(2), bytesOf(2));
+    assertThat(store.get(fooSegment, bytesOf(1))).isEmpty();
+    tx.commit();
+
+    assertThat(store.get(fooSegment, bytesOf(1))).contains(bytesOf(1));
+    assertThat(store.get(barSegment, bytesOf(2))).contains(bytesOf(2));
+    assertThat(store.get(barSegment, bytesOf(1))).isEmpty();
+  }
+
+  private SegmentedKeyValueStorage<ColumnFamilyHandle> createSegmentedStore() throws Exception {
+    return new RocksDBColumnarKeyValueStorage(
+        new RocksDBConfigurationBuilder()
+            .databaseDir(folder.newFolder().toPath())
+            .writeBatchEnabled(true)
+            .build(),
+        Arrays.asList(TestSegment.FOO, TestSegment.BAR),
+        new NoOpMetricsSystem(),
+        RocksDBMetricsFactory.PUBLIC_ROCKS_DB_METRICS);
+  }
+
+  @Override
+  protected KeyValueStorage createStore() throws Exception {
+    return new SegmentedKeyValueStorageAdapter<>(TestSegment.FOO, createSegmentedStore());
+  }
+}
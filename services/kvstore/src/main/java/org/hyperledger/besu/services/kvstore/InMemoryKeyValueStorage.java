@@ -18,8 +18,10 @@ import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -28,6 +30,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
 
@@ -35,6 +38,7 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
 
   private final Map<Bytes, byte[]> hashValueStore;
   private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  private final InMemorySnapshots snapshots;
 
   public InMemoryKeyValueStorage() {
     this(new HashMap<>());
@@ -42,6 +46,7 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
 
   protected InMemoryKeyValueStorage(final Map<Bytes, byte[]> hashValueStore) {
     this.hashValueStore = hashValueStore;
+    this.snapshots = new InMemorySnapshots(hashValueStore, rwLock);
   }
 
   @Override
@@ -49,6 +54,7 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     final Lock lock = rwLock.writeLock();
     lock.lock();
     try {
+      snapshots.beforeWrite();
       hashValueStore.clear();
     } finally {
       lock.unlock();
@@ -77,11 +83,40 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      for (final byte[] key : keys) {
+        values.add(Optional.ofNullable(hashValueStore.get(Bytes.wrap(key))));
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+      throws StorageException {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      // Stream over a sorted copy, so later commits don't interfere with the stream
+      return InMemorySnapshots.sortedEntriesFrom(hashValueStore, startKey);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) throws StorageException {
     final Lock lock = rwLock.writeLock();
     lock.lock();
     try {
+      snapshots.beforeWrite();
       long initialSize = hashValueStore.keySet().size();
       hashValueStore.keySet().removeIf(key -> !retainCondition.test(key.toArrayUnsafe()));
       return initialSize - hashValueStore.keySet().size();
@@ -106,6 +141,11 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     return new KeyValueStorageTransactionTransitionValidatorDecorator(new InMemoryTransaction());
   }
 
+  @Override
+  public KeyValueStorage takeSnapshot() {
+    return snapshots.take();
+  }
+
   public Set<Bytes> keySet() {
     return Set.copyOf(hashValueStore.keySet());
   }
@@ -132,6 +172,7 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
       final Lock lock = rwLock.writeLock();
       lock.lock();
       try {
+        snapshots.beforeWrite();
         hashValueStore.putAll(updatedValues);
         removedKeys.forEach(hashValueStore::remove);
         updatedValues = null;
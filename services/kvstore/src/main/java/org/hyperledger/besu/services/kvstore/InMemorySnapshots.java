@@ -0,0 +1,196 @@
+/*
+ * Copyright ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.kvstore;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Sets;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Copy-on-write snapshots of the map backing an in-memory storage. Open snapshots read through to
+ * the live map until the storage is about to change it, at which point they all switch to a single
+ * copy of it. Taking snapshots of a storage that isn't written to costs nothing.
+ *
+ * <p>The owning storage must call {@link #beforeWrite()} while holding the write lock, before each
+ * change to the live map.
+ */
+class InMemorySnapshots {
+
+  private final Map<Bytes, byte[]> liveValues;
+  private final ReadWriteLock rwLock;
+  private final Set<Snapshot> sharingSnapshots = Sets.newIdentityHashSet();
+
+  InMemorySnapshots(final Map<Bytes, byte[]> liveValues, final ReadWriteLock rwLock) {
+    this.liveValues = liveValues;
+    this.rwLock = rwLock;
+  }
+
+  KeyValueStorage take() {
+    return take(null);
+  }
+
+  private KeyValueStorage take(final Snapshot parent) {
+    final Lock lock = rwLock.writeLock();
+    lock.lock();
+    try {
+      if (parent != null && parent.closed) {
+        throw new IllegalStateException("Snapshot has been closed");
+      }
+      final Snapshot snapshot = new Snapshot();
+      if (parent != null && parent.values != null) {
+        // Copies are never changed, so they can be shared as they are
+        snapshot.values = parent.values;
+      } else {
+        sharingSnapshots.add(snapshot);
+      }
+      return snapshot;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void beforeWrite() {
+    if (sharingSnapshots.isEmpty()) {
+      return;
+    }
+    final Map<Bytes, byte[]> copy = new HashMap<>(liveValues);
+    sharingSnapshots.forEach(snapshot -> snapshot.values = copy);
+    sharingSnapshots.clear();
+  }
+
+  /**
+   * Returns the entries of a map whose keys are greater than or equal to the given key, sorted.
+   *
+   * @param values the map to read
+   * @param startKey the key to start from
+   * @return a stream over a sorted copy of the entries
+   */
+  static Stream<Map.Entry<byte[], byte[]>> sortedEntriesFrom(
+      final Map<Bytes, byte[]> values, final byte[] startKey) {
+    final List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>();
+    values.forEach(
+        (key, value) -> {
+          if (Arrays.compareUnsigned(key.toArrayUnsafe(), startKey) >= 0) {
+            entries.add(Map.entry(key.toArrayUnsafe(), value));
+          }
+        });
+    entries.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+    return entries.stream();
+  }
+
+  private class Snapshot implements KeyValueStorage {
+
+    // Both guarded by the storage lock, values being null while the live map is still shared
+    private Map<Bytes, byte[]> values;
+    private boolean closed;
+
+    private <T> T read(final Function<Map<Bytes, byte[]>, T> reader) {
+      final Lock lock = rwLock.readLock();
+      lock.lock();
+      try {
+        if (closed) {
+          throw new IllegalStateException("Snapshot has been closed");
+        }
+        return reader.apply(values != null ? values : liveValues);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean containsKey(final byte[] key) throws StorageException {
+      return read(map -> map.containsKey(Bytes.wrap(key)));
+    }
+
+    @Override
+    public Optional<byte[]> get(final byte[] key) throws StorageException {
+      return read(map -> Optional.ofNullable(map.get(Bytes.wrap(key))));
+    }
+
+    @Override
+    public List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+      return read(
+          map ->
+              keys.stream()
+                  .map(key -> Optional.ofNullable(map.get(Bytes.wrap(key))))
+                  .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+        throws StorageException {
+      return read(map -> sortedEntriesFrom(map, startKey));
+    }
+
+    @Override
+    public Set<byte[]> getAllKeysThat(final Predicate<byte[]> returnCondition) {
+      return read(
+          map ->
+              map.keySet().stream()
+                  .map(Bytes::toArrayUnsafe)
+                  .filter(returnCondition)
+                  .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public KeyValueStorage takeSnapshot() {
+      return take(this);
+    }
+
+    @Override
+    public void clear() {
+      throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) {
+      throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public KeyValueStorageTransaction startTransaction() {
+      throw new UnsupportedOperationException("Snapshots are read-only");
+    }
+
+    @Override
+    public void close() {
+      final Lock lock = rwLock.writeLock();
+      lock.lock();
+      try {
+        sharingSnapshots.remove(this);
+        closed = true;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -18,8 +18,10 @@ import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -28,6 +30,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -41,9 +44,11 @@ public class LimitedInMemoryKeyValueStorage implements KeyValueStorage {
 
   private final Cache<Bytes, byte[]> storage;
   private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  private final InMemorySnapshots snapshots;
 
   public LimitedInMemoryKeyValueStorage(final long maxSize) {
     storage = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    snapshots = new InMemorySnapshots(storage.asMap(), rwLock);
   }
 
   @Override
@@ -51,6 +56,7 @@ public class LimitedInMemoryKeyValueStorage implements KeyValueStorage {
     final Lock lock = rwLock.writeLock();
     lock.lock();
     try {
+      snapshots.beforeWrite();
       storage.invalidateAll();
     } finally {
       lock.unlock();
@@ -82,11 +88,46 @@ public class LimitedInMemoryKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      for (final byte[] key : keys) {
+        values.add(Optional.ofNullable(storage.getIfPresent(Bytes.wrap(key))));
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+      throws StorageException {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      // Stream over a sorted copy, so later commits don't interfere with the stream
+      return InMemorySnapshots.sortedEntriesFrom(storage.asMap(), startKey);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) throws StorageException {
-    final long initialSize = storage.size();
-    storage.asMap().keySet().removeIf(key -> !retainCondition.test(key.toArrayUnsafe()));
-    return initialSize - storage.size();
+    final Lock lock = rwLock.writeLock();
+    lock.lock();
+    try {
+      snapshots.beforeWrite();
+      final long initialSize = storage.size();
+      storage.asMap().keySet().removeIf(key -> !retainCondition.test(key.toArrayUnsafe()));
+      return initialSize - storage.size();
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
@@ -102,6 +143,11 @@ public class LimitedInMemoryKeyValueStorage implements KeyValueStorage {
     return new KeyValueStorageTransactionTransitionValidatorDecorator(new MemoryTransaction());
   }
 
+  @Override
+  public KeyValueStorage takeSnapshot() {
+    return snapshots.take();
+  }
+
   private class MemoryTransaction implements KeyValueStorageTransaction {
 
     private Map<Bytes, byte[]> updatedValues = new HashMap<>();
@@ -124,6 +170,7 @@ public class LimitedInMemoryKeyValueStorage implements KeyValueStorage {
       final Lock lock = rwLock.writeLock();
       lock.lock();
       try {
+        snapshots.beforeWrite();
         storage.putAll(updatedValues);
         storage.invalidateAll(removedKeys);
         updatedValues = null;
@@ -18,9 +18,14 @@ import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Service provided by besu to facilitate persistent data storage.
@@ -42,6 +47,35 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
     return get(segment, key).isPresent();
   }
 
+  /**
+   * @param segment the segment
+   * @param keys Indexes into persistent data repository.
+   * @return The values persisted at the key indexes, in the order of the keys.
+   */
+  default List<Optional<byte[]>> multiGet(final S segment, final List<byte[]> keys)
+      throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(segment, key));
+    }
+    return values;
+  }
+
+  /**
+   * Streams the entries of a segment whose keys are greater than or equal to the given key, in
+   * unsigned lexicographic key order. The stream must be closed once done with.
+   *
+   * @param segment the segment
+   * @param startKey The key to start streaming from.
+   * @return The entries from the given key onwards.
+   */
+  default Stream<Map.Entry<byte[], byte[]>> streamFromKey(final S segment, final byte[] startKey)
+      throws StorageException {
+    return getAllKeysThat(segment, key -> Arrays.compareUnsigned(key, startKey) >= 0).stream()
+        .sorted(Arrays::compareUnsigned)
+        .flatMap(key -> get(segment, key).map(value -> Map.entry(key, value)).stream());
+  }
+
   /**
    * Begins a transaction. Returns a transaction object that can be updated and committed.
    *
@@ -55,6 +89,18 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
 
   void clear(S segmentHandle);
 
+  /**
+   * Takes a read-only view of every segment as they are now, unaffected by later commits. The
+   * snapshot must be closed once done with, and attempts to modify it throw {@link
+   * UnsupportedOperationException}.
+   *
+   * @return A read-only snapshot of the storage.
+   */
+  default SegmentedKeyValueStorage<S> takeSnapshot() throws StorageException {
+    throw new UnsupportedOperationException(
+        getClass().getSimpleName() + " does not support snapshots");
+  }
+
   /**
    * Represents a set of changes to be committed atomically. A single transaction is not
    * thread-safe, but multiple transactions can execute concurrently.
@@ -20,9 +20,12 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
 
@@ -31,7 +34,12 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
 
   public SegmentedKeyValueStorageAdapter(
       final SegmentIdentifier segment, final SegmentedKeyValueStorage<S> storage) {
-    this.segmentHandle = storage.getSegmentIdentifierByName(segment);
+    this(storage.getSegmentIdentifierByName(segment), storage);
+  }
+
+  private SegmentedKeyValueStorageAdapter(
+      final S segmentHandle, final SegmentedKeyValueStorage<S> storage) {
+    this.segmentHandle = segmentHandle;
     this.storage = storage;
   }
 
@@ -50,6 +58,17 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
     return storage.get(segmentHandle, key);
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final List<byte[]> keys) throws StorageException {
+    return storage.multiGet(segmentHandle, keys);
+  }
+
+  @Override
+  public Stream<Map.Entry<byte[], byte[]>> streamFromKey(final byte[] startKey)
+      throws StorageException {
+    return storage.streamFromKey(segmentHandle, startKey);
+  }
+
   @Override
   public long removeAllKeysUnless(final Predicate<byte[]> retainCondition) throws StorageException {
     return storage.removeAllEntriesUnless(segmentHandle, retainCondition);
@@ -60,6 +79,11 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
     return storage.getAllKeysThat(segmentHandle, returnCondition);
   }
 
+  @Override
+  public KeyValueStorage takeSnapshot() throws StorageException {
+    return new SegmentedKeyValueStorageAdapter<>(segmentHandle, storage.takeSnapshot());
+  }
+
   @Override
   public void close() throws IOException {
     storage.close();
@@ -22,10 +22,13 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.Ignore;
@@ -102,6 +105,91 @@ public abstract class AbstractKeyValueStorageTest {
             bytesFromHexString("10"), bytesFromHexString("11"), bytesFromHexString("12"));
   }
 
+  @Test
+  public void multiGet() throws Exception {
+    final KeyValueStorage store = createStore();
+    final KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesFromHexString("0F"), bytesFromHexString("0ABC"));
+    tx.put(bytesFromHexString("10"), bytesFromHexString("0DEF"));
+    tx.commit();
+
+    final List<Optional<byte[]>> values =
+        store.multiGet(
+            List.of(bytesFromHexString("10"), bytesFromHexString("11"), bytesFromHexString("0F")));
+    assertThat(values).hasSize(3);
+    assertThat(values.get(0)).contains(bytesFromHexString("0DEF"));
+    assertThat(values.get(1)).isEmpty();
+    assertThat(values.get(2)).contains(bytesFromHexString("0ABC"));
+  }
+
+  @Test
+  public void streamFromKey() throws Exception {
+    final KeyValueStorage store = createStore();
+    final KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesFromHexString("FF"), bytesOf(1));
+    tx.put(bytesFromHexString("0F"), bytesOf(2));
+    tx.put(bytesFromHexString("1000"), bytesOf(3));
+    tx.put(bytesFromHexString("10"), bytesOf(4));
+    tx.put(bytesFromHexString("11"), bytesOf(5));
+    tx.commit();
+
+    try (final Stream<Map.Entry<byte[], byte[]>> entries =
+        store.streamFromKey(bytesFromHexString("0F01"))) {
+      assertThat(keysOf(entries))
+          .containsExactly(
+              bytesFromHexString("10"),
+              bytesFromHexString("1000"),
+              bytesFromHexString("11"),
+              bytesFromHexString("FF"));
+    }
+    try (final Stream<Map.Entry<byte[], byte[]>> entries =
+        store.streamFromKey(bytesFromHexString("0F"), bytesFromHexString("11"))) {
+      assertThat(entries.map(Map.Entry::getValue).collect(Collectors.toList()))
+          .containsExactly(bytesOf(2), bytesOf(4), bytesOf(3));
+    }
+    try (final Stream<Map.Entry<byte[], byte[]>> entries =
+        store.streamByPrefix(bytesFromHexString("10"))) {
+      assertThat(keysOf(entries))
+          .containsExactly(bytesFromHexString("10"), bytesFromHexString("1000"));
+    }
+  }
+
+  @Test
+  public void snapshotIsUnaffectedByLaterCommits() throws Exception {
+    final KeyValueStorage store = createStore();
+    KeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(bytesFromHexString("0F"), bytesFromHexString("0ABC"));
+    tx.put(bytesFromHexString("10"), bytesFromHexString("0ABC"));
+    tx.commit();
+
+    try (final KeyValueStorage snapshot = store.takeSnapshot()) {
+      tx = store.startTransaction();
+      tx.put(bytesFromHexString("0F"), bytesFromHexString("0DEF"));
+      tx.remove(bytesFromHexString("10"));
+      tx.put(bytesFromHexString("11"), bytesFromHexString("0DEF"));
+      tx.commit();
+
+      assertThat(snapshot.get(bytesFromHexString("0F"))).contains(bytesFromHexString("0ABC"));
+      assertThat(snapshot.containsKey(bytesFromHexString("10"))).isTrue();
+      assertThat(snapshot.containsKey(bytesFromHexString("11"))).isFalse();
+      try (final Stream<Map.Entry<byte[], byte[]>> entries =
+          snapshot.streamFromKey(bytesFromHexString("00"))) {
+        assertThat(keysOf(entries))
+            .containsExactly(bytesFromHexString("0F"), bytesFromHexString("10"));
+      }
+    }
+    assertThat(store.get(bytesFromHexString("0F"))).contains(bytesFromHexString("0DEF"));
+    assertThat(store.containsKey(bytesFromHexString("10"))).isFalse();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void snapshotIsReadOnly() throws Exception {
+    final KeyValueStorage store = createStore();
+    try (final KeyValueStorage snapshot = store.takeSnapshot()) {
+      snapshot.startTransaction();
+    }
+  }
+
   @Test
   public void containsKey() throws Exception {
     final KeyValueStorage store = createStore();
@@ -401,6 +489,10 @@ public abstract class AbstractKeyValueStorageTest {
     store.close();
   }
 
+  private List<byte[]> keysOf(final Stream<Map.Entry<byte[], byte[]>> entries) {
+    return entries.map(Map.Entry::getKey).collect(Collectors.toList());
+  }
+
   /*
    * Used to mimic the wrapping with Bytes performed in Besu
    */